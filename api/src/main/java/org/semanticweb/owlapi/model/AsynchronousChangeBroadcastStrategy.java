@@ -0,0 +1,351 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.model;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A change broadcast strategy that delivers changes to listeners on a background thread, so that
+ * the thread applying the changes, and the manager lock it holds, are released as soon as the
+ * changes are queued. Each listener has its own queue and receives its changes in order, one batch
+ * at a time; changes queued while a listener is busy are delivered together as one batch, and
+ * changes that cancel out (an axiom, import or ontology annotation added and then removed from the
+ * same ontology, or removed and then added) are dropped from it.<br>
+ * Each queue holds a bounded number of changes; a batch larger than the bound is accepted if the
+ * queue is empty. When a queue is full the {@link OverflowPolicy} decides whether the writer waits
+ * or changes are discarded. Note that with {@link OverflowPolicy#BLOCK} a writer may wait while
+ * holding the manager write lock, so listeners must not take the manager or ontology locks; in a
+ * concurrent manager this rules out reading the ontologies from the listener.<br>
+ * Exceptions thrown by listeners are logged and do not stop the delivery of later changes. A queue
+ * is dropped as soon as it has been emptied, so the strategy does not keep listeners reachable once
+ * their changes have been delivered.
+ *
+ * @since 5.1.8
+ */
+public class AsynchronousChangeBroadcastStrategy implements OWLOntologyChangeBroadcastStrategy {
+
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(AsynchronousChangeBroadcastStrategy.class);
+    private final int capacity;
+    private final OverflowPolicy policy;
+    // mailboxes are removed when they become idle; guarded by itself when removing
+    private transient Map<OWLOntologyChangeListener, Mailbox> mailboxes =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    @Nullable
+    private transient ExecutorService executor;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * What to do with new changes when the queue of a listener is full.
+     */
+    public enum OverflowPolicy {
+        /** The writer waits until the listener has taken the queued changes. */
+        BLOCK,
+        /** The oldest queued changes are discarded to make room. */
+        DISCARD_OLDEST,
+        /** The new changes are discarded. */
+        DISCARD_NEWEST
+    }
+
+    /**
+     * Strategy that blocks writers when a listener has 100000 changes queued.
+     */
+    public AsynchronousChangeBroadcastStrategy() {
+        this(100_000, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param capacity maximum number of changes queued for each listener
+     * @param policy what to do when a queue is full
+     */
+    public AsynchronousChangeBroadcastStrategy(int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = checkNotNull(policy, "policy cannot be null");
+    }
+
+    @Override
+    public void broadcastChanges(OWLOntologyChangeListener listener,
+        List<? extends OWLOntologyChange> changes) {
+        checkNotNull(listener, "listener cannot be null");
+        checkNotNull(changes, "changes cannot be null");
+        if (!changes.isEmpty()) {
+            // a mailbox that has become idle in the meantime is replaced
+            while (!mailboxes.computeIfAbsent(listener, Mailbox::new).offer(changes)) {
+                // retry with a new mailbox
+            }
+        }
+    }
+
+    /**
+     * Starts a delivery task; synchronized with {@link #dispose()}, so that the executor cannot be
+     * shut down between being handed out and being given the task.
+     */
+    private synchronized void execute(Runnable task) {
+        executor().execute(task);
+    }
+
+    private synchronized ExecutorService executor() {
+        ExecutorService e = executor;
+        if (e == null) {
+            e = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "OWLAPI change broadcast");
+                t.setDaemon(true);
+                return t;
+            });
+            executor = e;
+        }
+        return e;
+    }
+
+    /**
+     * Waits until all queued changes have been delivered.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if all changes were delivered, false if the timeout expired first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<Mailbox> list;
+        synchronized (mailboxes) {
+            list = new ArrayList<>(mailboxes.values());
+        }
+        for (Mailbox m : list) {
+            if (!m.awaitIdle(deadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the delivery threads once the changes already queued have been delivered. Changes
+     * broadcast afterwards start new threads.
+     */
+    public synchronized void dispose() {
+        ExecutorService e = executor;
+        if (e != null) {
+            e.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return number of changes delivered to listeners
+     */
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return number of changes dropped because they cancelled out with other queued changes
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return number of changes discarded because a queue was full
+     */
+    public long discardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * Drops pairs of changes that cancel out. Changes of ontology IDs are never dropped, and
+     * changes are not matched across them.
+     *
+     * @param changes changes in the order they were applied
+     * @return remaining changes, in the same order
+     */
+    static List<OWLOntologyChange> coalesce(List<OWLOntologyChange> changes) {
+        List<OWLOntologyChange> out = new ArrayList<>(changes);
+        Map<OWLOntologyChange, Integer> open = new HashMap<>();
+        int removed = 0;
+        for (int i = 0; i < out.size(); i++) {
+            OWLOntologyChange c = out.get(i);
+            if (c instanceof SetOntologyID) {
+                open.clear();
+                continue;
+            }
+            Integer inverse = open.remove(c.reverseChange());
+            if (inverse == null) {
+                open.put(c, Integer.valueOf(i));
+            } else {
+                out.set(inverse.intValue(), null);
+                out.set(i, null);
+                removed += 2;
+            }
+        }
+        if (removed == 0) {
+            return out;
+        }
+        List<OWLOntologyChange> result = new ArrayList<>(out.size() - removed);
+        for (OWLOntologyChange c : out) {
+            if (c != null) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        mailboxes = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Queue of changes for one listener. At most one delivery task per listener runs at any time.
+     */
+    private class Mailbox implements Runnable {
+
+        private final OWLOntologyChangeListener listener;
+        // guarded by this
+        private ArrayDeque<OWLOntologyChange> pending = new ArrayDeque<>();
+        private boolean scheduled = false;
+        // true once the mailbox has been removed from the mailboxes
+        private boolean retired = false;
+
+        Mailbox(OWLOntologyChangeListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * @param changes changes to queue
+         * @return false if the mailbox has been retired and the changes have not been queued
+         */
+        synchronized boolean offer(List<? extends OWLOntologyChange> changes) {
+            boolean interrupted = false;
+            while (!retired && !pending.isEmpty() && pending.size() + changes.size() > capacity) {
+                int before = pending.size();
+                pending = new ArrayDeque<>(coalesce(new ArrayList<>(pending)));
+                coalesced.add(before - pending.size());
+                if (pending.isEmpty() || pending.size() + changes.size() <= capacity) {
+                    break;
+                }
+                if (policy == OverflowPolicy.DISCARD_NEWEST) {
+                    discarded.add(changes.size());
+                    return true;
+                }
+                if (policy == OverflowPolicy.DISCARD_OLDEST) {
+                    while (!pending.isEmpty() && pending.size() + changes.size() > capacity) {
+                        pending.removeFirst();
+                        discarded.increment();
+                    }
+                    break;
+                }
+                try {
+                    wait();
+                } catch (@SuppressWarnings("unused") InterruptedException e) {
+                    // queue the changes anyway rather than losing them
+                    interrupted = true;
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (retired) {
+                return false;
+            }
+            pending.addAll(changes);
+            if (!scheduled) {
+                scheduled = true;
+                try {
+                    execute(this);
+                } catch (RejectedExecutionException e) {
+                    // nothing will deliver the changes; drop them rather than leave writers and
+                    // flush() waiting forever
+                    LOGGER.warn("Change delivery rejected, {} changes discarded: {}",
+                        Integer.valueOf(pending.size()), e.getMessage(), e);
+                    discarded.add(pending.size());
+                    pending.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<OWLOntologyChange> batch;
+                synchronized (mailboxes) {
+                    synchronized (this) {
+                        if (pending.isEmpty()) {
+                            scheduled = false;
+                            retired = true;
+                            mailboxes.remove(listener, this);
+                            notifyAll();
+                            return;
+                        }
+                    }
+                }
+                synchronized (this) {
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                    notifyAll();
+                }
+                List<OWLOntologyChange> toDeliver = coalesce(batch);
+                coalesced.add(batch.size() - toDeliver.size());
+                if (!toDeliver.isEmpty()) {
+                    try {
+                        listener.ontologiesChanged(toDeliver);
+                    } catch (Exception e) {
+                        LOGGER.warn("Exception thrown by listener {}: {}", listener,
+                            e.getMessage(), e);
+                    }
+                    delivered.add(toDeliver.size());
+                }
+            }
+        }
+
+        synchronized boolean awaitIdle(long deadline) throws InterruptedException {
+            while (scheduled) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return true;
+        }
+    }
+}
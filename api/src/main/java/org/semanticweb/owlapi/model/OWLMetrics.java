@@ -0,0 +1,125 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.model;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Receives counts and timings from the hot paths of an ontology manager and its ontologies:
+ * parsing, index builds and lookups, axiom additions and removals, and change application. The
+ * metrics used by a manager are set with {@link OWLOntologyManager#setMetrics(OWLMetrics)}; by
+ * default no metrics are collected.<br>
+ * Implementations are called from any thread, often while locks are held, and must be thread safe
+ * and cheap. Metrics are identified by name; the names used by the OWL API are the constants in
+ * this interface, with parse timings suffixed by the key of the parsed format.
+ *
+ * @since 5.1.8
+ */
+public interface OWLMetrics {
+
+    /** Time to parse a document, followed by {@code .} and the format key. */
+    String PARSE = "parse";
+    /** Number of documents a parser failed to parse, followed by {@code .} and the format key. */
+    String PARSE_FAILURES = "parse.failures";
+    /** Time to build an axiom index on first use. */
+    String INDEX_BUILD = "index.build";
+    /** Time to look up axioms in an index. */
+    String INDEX_LOOKUP = "index.lookup";
+    /** Time to add an axiom to the ontology internals and indexes. */
+    String AXIOM_ADD = "axiom.add";
+    /** Time to remove an axiom from the ontology internals and indexes. */
+    String AXIOM_REMOVE = "axiom.remove";
+    /** Time to apply a list of changes through the manager. */
+    String CHANGES_APPLY = "changes.apply";
+    /** Number of changes applied through the manager. */
+    String CHANGES = "changes";
+    /**
+     * Data factory cache statistics, followed by the cache name and {@code .hits} or
+     * {@code .misses}.
+     */
+    String DATA_FACTORY_CACHE = "datafactory.cache";
+
+    /** Metrics that discard everything; the default. */
+    OWLMetrics NONE = new OWLMetrics() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void count(String name, long delta) {
+            // nothing to record
+        }
+
+        @Override
+        public void time(String name, long nanos) {
+            // nothing to record
+        }
+
+        @Override
+        public String toString() {
+            return "no metrics";
+        }
+    };
+
+    /**
+     * @return false if nothing is recorded, so that callers can skip measuring
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @param name counter name
+     * @param delta amount to add to the counter
+     */
+    void count(String name, long delta);
+
+    /**
+     * @param name timer name
+     * @param nanos duration of one operation, in nanoseconds
+     */
+    void time(String name, long nanos);
+
+    /**
+     * Registers a value that is read when the metrics are reported, rather than pushed on every
+     * update. Registering the same name again replaces the previous value.
+     *
+     * @param name gauge name
+     * @param value supplier of the current value
+     */
+    default void gauge(String name, LongSupplier value) {
+        // gauges are not reported by default
+    }
+
+    /**
+     * @return a start time for {@link #stop(String, long)}, or 0 if metrics are disabled
+     */
+    default long start() {
+        return isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time elapsed since a call to {@link #start()}.
+     *
+     * @param name timer name
+     * @param start value returned by {@link #start()}
+     */
+    default void stop(String name, long start) {
+        if (isEnabled()) {
+            time(name, System.nanoTime() - start);
+        }
+    }
+}
+
@@ -21,6 +21,8 @@ import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLO
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_IMPORT_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_PARSING_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPAIR_ILLEGAL_PUNNINGS;
@@ -249,6 +251,50 @@ public class OWLOntologyLoaderConfiguration implements Serializable {
         return copy;
     }
 
+    /**
+     * @return number of worker threads that parsers supporting parallel parsing should use. Values
+     *         lower than 2 mean the document is parsed on the calling thread only.
+     */
+    public int getParallelParsingThreads() {
+        return PARALLEL_PARSING_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of worker threads that parsers supporting parallel parsing should use
+     * @return copy of this configuration with the new number of parsing threads.
+     */
+    public OWLOntologyLoaderConfiguration setParallelParsingThreads(int threads) {
+        // do not make copies if setting the same value
+        if (getParallelParsingThreads() == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.overrides.put(PARALLEL_PARSING_THREADS, Integer.valueOf(threads));
+        return copy;
+    }
+
+    /**
+     * @return number of worker threads used to load the imports of an ontology. Values lower than
+     *         2 mean imports are loaded one at a time on the loading thread.
+     */
+    public int getParallelImportThreads() {
+        return PARALLEL_IMPORT_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of worker threads used to load the imports of an ontology
+     * @return copy of this configuration with the new number of import threads.
+     */
+    public OWLOntologyLoaderConfiguration setParallelImportThreads(int threads) {
+        // do not make copies if setting the same value
+        if (getParallelImportThreads() == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.overrides.put(PARALLEL_IMPORT_THREADS, Integer.valueOf(threads));
+        return copy;
+    }
+
     /** @return authorization header value */
     public String getAuthorizationValue() {
         return AUTHORIZATION_VALUE.getValue(String.class, overrides);
@@ -1083,6 +1083,25 @@ public interface OWLOntologyManager extends OWLOntologySetProvider, HasDataFacto
     void makeLoadImportRequest(OWLImportsDeclaration declaration,
         OWLOntologyLoaderConfiguration configuration);
 
+    /**
+     * Requests that the manager loads the ontologies described by a group of imports statements.
+     * The method returns once all the imports have been loaded. Parsers that do not need the
+     * imported ontologies until all the imports statements of a document have been read should use
+     * this method rather than {@link #makeLoadImportRequest(OWLImportsDeclaration,
+     * OWLOntologyLoaderConfiguration)}, so that managers can load the imports concurrently; see
+     * {@link OWLOntologyLoaderConfiguration#getParallelImportThreads()}.
+     *
+     * @param declarations The declarations that describe the imports to be loaded.
+     * @param configuration The configuration object that passes arguments to the mechanism used for
+     *        loading.
+     * @throws UnloadableImportException if there was a problem creating and loading one of the
+     *         imports and silent missing imports handling is not turned on.
+     */
+    default void makeLoadImportRequests(Collection<OWLImportsDeclaration> declarations,
+        OWLOntologyLoaderConfiguration configuration) {
+        declarations.forEach(d -> makeLoadImportRequest(d, configuration));
+    }
+
     /**
      * In the case where silent missing imports handling is enabled, a listener can be attached via
      * this method so that there is a mechanism that allows clients to be informed of the reason
@@ -1126,4 +1145,24 @@ public interface OWLOntologyManager extends OWLOntologySetProvider, HasDataFacto
      * @param listener The listener to be removed.
      */
     void removeOntologyChangeProgessListener(OWLOntologyChangeProgressListener listener);
+
+    /**
+     * Sets the metrics that receive counts and timings for parsing, index, change and lookup
+     * operations on this manager and its ontologies. Managers that do not support metrics ignore
+     * this call.
+     *
+     * @param metrics metrics to use; {@link OWLMetrics#NONE} to stop collecting
+     * @since 5.1.8
+     */
+    default void setMetrics(OWLMetrics metrics) {
+        // metrics not supported: nothing is recorded
+    }
+
+    /**
+     * @return the metrics used by this manager, {@link OWLMetrics#NONE} unless set
+     * @since 5.1.8
+     */
+    default OWLMetrics getMetrics() {
+        return OWLMetrics.NONE;
+    }
 }
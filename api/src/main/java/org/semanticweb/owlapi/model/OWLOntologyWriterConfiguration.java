@@ -29,14 +29,18 @@ public class OWLOntologyWriterConfiguration implements Serializable {
     private boolean labelsAsBanner = false;
     private boolean bannersEnabled = true;
     private int indentSize = 4;
+    private int renderingThreads = 1;
 
     private OWLOntologyWriterConfiguration copy() {
         OWLOntologyWriterConfiguration toReturn = new OWLOntologyWriterConfiguration();
         toReturn.indenting = indenting;
+        toReturn.indentSize = indentSize;
+        toReturn.bannersEnabled = bannersEnabled;
         toReturn.labelsAsBanner = labelsAsBanner;
         toReturn.useNamespaceEntities = useNamespaceEntities;
         toReturn.remapIds = remapIds;
         toReturn.saveIds = saveIds;
+        toReturn.renderingThreads = renderingThreads;
         return toReturn;
     }
 
@@ -89,6 +93,14 @@ public class OWLOntologyWriterConfiguration implements Serializable {
         return labelsAsBanner;
     }
 
+    /**
+     * @return number of worker threads for renderers that support parallel rendering
+     * @since 5.1.8
+     */
+    public int getParallelRenderingThreads() {
+        return renderingThreads;
+    }
+
     /**
      * @param label True if banner comments should be enabled.
      * @return new config object
@@ -179,4 +191,19 @@ public class OWLOntologyWriterConfiguration implements Serializable {
         copy.labelsAsBanner = label;
         return copy;
     }
+
+    /**
+     * @param threads number of worker threads for renderers that support parallel rendering;
+     *        values lower than 2 disable parallel rendering
+     * @return new config object
+     * @since 5.1.8
+     */
+    public OWLOntologyWriterConfiguration withParallelRenderingThreads(int threads) {
+        if (renderingThreads == threads) {
+            return this;
+        }
+        OWLOntologyWriterConfiguration copy = copy();
+        copy.renderingThreads = threads;
+        return copy;
+    }
 }
@@ -15,6 +15,7 @@ package org.semanticweb.owlapi.model;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ACCEPT_HTTP_COMPRESSION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.BANNED_PARSERS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.BANNERS_ENABLED;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.COMPACT_INDEXES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONNECTION_TIMEOUT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLOW_REDIRECTS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENTING;
@@ -23,6 +24,9 @@ import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LABEL
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_IMPORT_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_PARSING_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_RENDERING_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REMAP_IDS;
@@ -30,6 +34,7 @@ import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPAI
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPORT_STACK_TRACES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.RETRIES_TO_ATTEMPT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SAVE_IDS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SIGNATURE_CACHE_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TREAT_DUBLINCORE_AS_BUILTIN;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.USE_NAMESPACE_ENTITIES;
 
@@ -279,6 +284,92 @@ public class OntologyConfigurator implements Serializable {
         return this;
     }
 
+    /**
+     * @return number of worker threads for parsers that support parallel parsing
+     */
+    public int getParallelParsingThreads() {
+        return PARALLEL_PARSING_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of worker threads for parsers that support parallel parsing; values
+     *        lower than 2 disable parallel parsing
+     * @return copy of this configuration with modified number of parsing threads.
+     */
+    public OntologyConfigurator withParallelParsingThreads(int threads) {
+        overrides.put(PARALLEL_PARSING_THREADS, Integer.valueOf(threads));
+        return this;
+    }
+
+    /**
+     * @return number of worker threads used to load imports
+     */
+    public int getParallelImportThreads() {
+        return PARALLEL_IMPORT_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of worker threads used to load imports; values lower than 2 disable
+     *        parallel import loading
+     * @return copy of this configuration with modified number of import threads.
+     */
+    public OntologyConfigurator withParallelImportThreads(int threads) {
+        overrides.put(PARALLEL_IMPORT_THREADS, Integer.valueOf(threads));
+        return this;
+    }
+
+    /**
+     * @return number of worker threads for renderers that support parallel rendering
+     */
+    public int getParallelRenderingThreads() {
+        return PARALLEL_RENDERING_THREADS.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param threads number of worker threads for renderers that support parallel rendering;
+     *        values lower than 2 disable parallel rendering
+     * @return copy of this configuration with modified number of rendering threads.
+     */
+    public OntologyConfigurator withParallelRenderingThreads(int threads) {
+        overrides.put(PARALLEL_RENDERING_THREADS, Integer.valueOf(threads));
+        return this;
+    }
+
+    /**
+     * @return true if ontologies should use compact, integer based axiom indexes
+     */
+    public boolean shouldUseCompactIndexes() {
+        return COMPACT_INDEXES.getValue(Boolean.class, overrides).booleanValue();
+    }
+
+    /**
+     * @param b true if ontologies created from now on should use compact, integer based axiom
+     *        indexes
+     * @return copy of this configuration with modified compact indexes value.
+     */
+    public OntologyConfigurator withCompactIndexes(boolean b) {
+        overrides.put(COMPACT_INDEXES, Boolean.valueOf(b));
+        return this;
+    }
+
+    /**
+     * @return maximum number of entities and anonymous individuals cached in the signature cache
+     *         of each ontology
+     */
+    public int getSignatureCacheSize() {
+        return SIGNATURE_CACHE_SIZE.getValue(Integer.class, overrides).intValue();
+    }
+
+    /**
+     * @param size maximum number of entities and anonymous individuals cached in the signature
+     *        cache of ontologies created from now on
+     * @return copy of this configuration with modified signature cache size.
+     */
+    public OntologyConfigurator withSignatureCacheSize(int size) {
+        overrides.put(SIGNATURE_CACHE_SIZE, Integer.valueOf(size));
+        return this;
+    }
+
     /**
      * @param strict new value for strict
      * @return copy of the configuration with new strict value
@@ -341,6 +432,8 @@ public class OntologyConfigurator implements Serializable {
             .setPriorityCollectionSorting(getPriorityCollectionSorting())
             .setReportStackTraces(shouldReportStackTraces())
             .setRetriesToAttempt(getRetriesToAttempt())
+            .setParallelParsingThreads(getParallelParsingThreads())
+            .setParallelImportThreads(getParallelImportThreads())
             .setStrict(shouldParseWithStrictConfiguration())
             .setTreatDublinCoreAsBuiltIn(shouldTreatDublinCoreAsBuiltin())
             .setBannedParsers(getBannedParsers())
@@ -469,6 +562,7 @@ public class OntologyConfigurator implements Serializable {
             .withRemapAllAnonymousIndividualsIds(shouldRemapIds())
             .withSaveIdsForAllAnonymousIndividuals(shouldSaveIds())
             .withUseNamespaceEntities(shouldUseNamespaceEntities())
-            .withBannersEnabled(shouldUseBanners());
+            .withBannersEnabled(shouldUseBanners())
+            .withParallelRenderingThreads(getParallelRenderingThreads());
     }
 }
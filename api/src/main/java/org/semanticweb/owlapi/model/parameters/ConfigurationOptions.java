@@ -73,7 +73,37 @@ public enum ConfigurationOptions {
      * be trimmed to size after load.
      * If set to false, trim will
      * only happen on explicit call.*/
-    TRIM_TO_SIZE                        (Boolean.TRUE);
+    TRIM_TO_SIZE                        (Boolean.TRUE),
+    /** Number of worker threads used by
+     * parsers that support parallel parsing.
+     * Values lower than 2 disable parallel
+     * parsing. */
+    PARALLEL_PARSING_THREADS            (Integer.valueOf(1)),
+    /** Number of worker threads used to
+     * load the imports of an ontology.
+     * Values lower than 2 load imports
+     * one at a time on the loading
+     * thread. */
+    PARALLEL_IMPORT_THREADS             (Integer.valueOf(1)),
+    /** True if ontologies should
+     * store their axiom indexes as
+     * integer identifiers rather than
+     * object references. Reduces memory
+     * use at some cost in lookup speed. */
+    COMPACT_INDEXES                     (Boolean.FALSE),
+    /** Maximum number of entities and
+     * anonymous individuals kept in the
+     * signature cache of each ontology.
+     * Least recently used signatures are
+     * evicted when the limit is reached. */
+    SIGNATURE_CACHE_SIZE                (Integer.valueOf(Integer.MAX_VALUE)),
+    /** Number of worker threads used by
+     * renderers that support parallel
+     * rendering. The output does not
+     * depend on the number of threads.
+     * Values lower than 2 disable parallel
+     * rendering. */
+    PARALLEL_RENDERING_THREADS          (Integer.valueOf(1));
     //@formatter:on
     private static final String PREFIX = "org.semanticweb.owlapi.model.parameters.ConfigurationOptions.";
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationOptions.class);
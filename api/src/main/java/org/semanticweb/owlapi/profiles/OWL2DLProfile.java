@@ -15,6 +15,7 @@ package org.semanticweb.owlapi.profiles;
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -137,20 +138,60 @@ public class OWL2DLProfile implements OWLProfile {
             violations.addAll(report.getViolations());
         }
         OWLOntologyProfileWalker walker = new OWLOntologyProfileWalker(ontology.importsClosure());
-        OWL2DLProfileObjectVisitor visitor = new OWL2DLProfileObjectVisitor(walker);
+        OWL2DLProfileObjectVisitor visitor =
+            new OWL2DLProfileObjectVisitor(walker, ontology, new HashSet<>());
         walker.walkStructure(visitor);
         violations.addAll(visitor.getProfileViolations());
         return new OWLProfileReport(this, violations);
     }
 
+    /**
+     * Visitor for the DL checks only, without the OWL 2 checks.
+     *
+     * @param walker walker the visitor is used with
+     * @param root ontology whose imports closure is checked
+     * @param properties object property hierarchy of the imports closure being checked, see
+     *        {@link #propertyManager(OWLOntology)}; it is only read, so it can be shared by
+     *        visitors running in parallel
+     * @param violations collection to add the violations found to
+     * @return visitor implementing the DL checks
+     * @see OWL2Profile#createVisitor(OWLOntologyWalker, OWLOntology, Collection)
+     */
+    OWLOntologyWalkerVisitor createVisitor(OWLOntologyWalker walker, OWLOntology root,
+        OWLObjectPropertyManager properties, Collection<OWLProfileViolation> violations) {
+        return new OWL2DLProfileObjectVisitor(walker, root, properties, violations);
+    }
+
+    /**
+     * @param root ontology whose imports closure is checked
+     * @return property manager for the imports closure of {@code root}, with everything the DL
+     *         checks read already computed
+     */
+    static OWLObjectPropertyManager propertyManager(OWLOntology root) {
+        OWLObjectPropertyManager properties = new OWLObjectPropertyManager(root);
+        properties.getNonSimpleProperties();
+        properties.getPropertyPartialOrdering();
+        return properties;
+    }
+
     private static class OWL2DLProfileObjectVisitor extends OWLOntologyWalkerVisitor {
 
-        private final Set<OWLProfileViolation> profileViolations = new HashSet<>();
+        private final Collection<OWLProfileViolation> profileViolations;
+        private final OWLOntology root;
         @Nullable
         private OWLObjectPropertyManager objectPropertyManager = null;
 
-        OWL2DLProfileObjectVisitor(OWLOntologyWalker walker) {
+        OWL2DLProfileObjectVisitor(OWLOntologyWalker walker, OWLOntology root,
+            Collection<OWLProfileViolation> violations) {
             super(walker);
+            this.root = root;
+            profileViolations = violations;
+        }
+
+        OWL2DLProfileObjectVisitor(OWLOntologyWalker walker, OWLOntology root,
+            OWLObjectPropertyManager properties, Collection<OWLProfileViolation> violations) {
+            this(walker, root, violations);
+            objectPropertyManager = properties;
         }
 
         public Set<OWLProfileViolation> getProfileViolations() {
@@ -159,7 +200,7 @@ public class OWL2DLProfile implements OWLProfile {
 
         private OWLObjectPropertyManager getPropertyManager() {
             if (objectPropertyManager == null) {
-                objectPropertyManager = new OWLObjectPropertyManager(getCurrentOntology());
+                objectPropertyManager = new OWLObjectPropertyManager(root);
             }
             return verifyNotNull(objectPropertyManager);
         }
@@ -16,6 +16,7 @@ import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -101,14 +102,30 @@ public class OWL2ELProfile implements OWLProfile {
         return new OWLProfileReport(this, violations);
     }
 
+    /**
+     * Visitor for the EL checks only, without the DL checks.
+     *
+     * @see OWL2Profile#createVisitor(OWLOntologyWalker, OWLOntology, Collection)
+     */
+    OWLOntologyWalkerVisitor createVisitor(OWLOntologyWalker walker, OWLOntology root,
+        Collection<OWLProfileViolation> violations) {
+        return new OWL2ELProfileObjectVisitor(walker, violations);
+    }
+
     protected class OWL2ELProfileObjectVisitor extends OWLOntologyWalkerVisitor {
 
-        private final Set<OWLProfileViolation> profileViolations = new HashSet<>();
+        private final Collection<OWLProfileViolation> profileViolations;
         @Nullable
         private OWLObjectPropertyManager propertyManager;
 
         public OWL2ELProfileObjectVisitor(OWLOntologyWalker walker) {
             super(walker);
+            profileViolations = new HashSet<>();
+        }
+
+        OWL2ELProfileObjectVisitor(OWLOntologyWalker walker, Collection<OWLProfileViolation> violations) {
+            super(walker);
+            profileViolations = violations;
         }
 
         public Set<OWLProfileViolation> getProfileViolations() {
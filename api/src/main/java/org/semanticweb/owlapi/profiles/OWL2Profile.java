@@ -14,6 +14,7 @@ package org.semanticweb.owlapi.profiles;
 
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -73,12 +74,30 @@ public class OWL2Profile implements OWLProfile {
         return new OWLProfileReport(this, pv);
     }
 
+    /**
+     * @param walker walker the visitor is used with
+     * @param root ontology whose imports closure is checked
+     * @param violations collection to add the violations found to; violations of the profiles
+     *        this profile extends are not included
+     * @return visitor implementing the checks of this profile
+     */
+    OWLOntologyWalkerVisitor createVisitor(OWLOntologyWalker walker, OWLOntology root,
+        Collection<OWLProfileViolation> violations) {
+        return new OWL2ProfileObjectWalker(walker, violations);
+    }
+
     private static class OWL2ProfileObjectWalker extends OWLOntologyWalkerVisitor {
 
-        private final Set<OWLProfileViolation> profileViolations = new HashSet<>();
+        private final Collection<OWLProfileViolation> profileViolations;
 
         OWL2ProfileObjectWalker(OWLOntologyWalker walker) {
             super(walker);
+            profileViolations = new HashSet<>();
+        }
+
+        OWL2ProfileObjectWalker(OWLOntologyWalker walker, Collection<OWLProfileViolation> violations) {
+            super(walker);
+            profileViolations = violations;
         }
 
         public Set<OWLProfileViolation> getProfileViolations() {
@@ -14,6 +14,7 @@ package org.semanticweb.owlapi.profiles;
 
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import org.semanticweb.owlapi.model.IRI;
@@ -145,12 +146,28 @@ public class OWL2QLProfile implements OWLProfile {
         }
     }
 
+    /**
+     * Visitor for the QL checks only, without the DL checks.
+     *
+     * @see OWL2Profile#createVisitor(OWLOntologyWalker, OWLOntology, Collection)
+     */
+    OWLOntologyWalkerVisitor createVisitor(OWLOntologyWalker walker, OWLOntology root,
+        Collection<OWLProfileViolation> violations) {
+        return new OWL2QLObjectVisitor(walker, violations);
+    }
+
     private class OWL2QLObjectVisitor extends OWLOntologyWalkerVisitor {
 
-        private final Set<OWLProfileViolation> violations = new HashSet<>();
+        private final Collection<OWLProfileViolation> violations;
 
         OWL2QLObjectVisitor(OWLOntologyWalker walker) {
             super(walker);
+            violations = new HashSet<>();
+        }
+
+        OWL2QLObjectVisitor(OWLOntologyWalker walker, Collection<OWLProfileViolation> violations) {
+            super(walker);
+            this.violations = violations;
         }
 
         public Set<OWLProfileViolation> getProfileViolations() {
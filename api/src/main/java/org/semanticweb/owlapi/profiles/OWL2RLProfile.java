@@ -14,6 +14,7 @@ package org.semanticweb.owlapi.profiles;
 
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import org.semanticweb.owlapi.model.IRI;
@@ -158,12 +159,28 @@ public class OWL2RLProfile implements OWLProfile {
         }
     }
 
+    /**
+     * Visitor for the RL checks only, without the DL checks.
+     *
+     * @see OWL2Profile#createVisitor(OWLOntologyWalker, OWLOntology, Collection)
+     */
+    OWLOntologyWalkerVisitor createVisitor(OWLOntologyWalker walker, OWLOntology root,
+        Collection<OWLProfileViolation> violations) {
+        return new OWL2RLObjectVisitor(walker, violations);
+    }
+
     private class OWL2RLObjectVisitor extends OWLOntologyWalkerVisitor {
 
-        private final Set<OWLProfileViolation> violations = new HashSet<>();
+        private final Collection<OWLProfileViolation> violations;
 
         OWL2RLObjectVisitor(OWLOntologyWalker walker) {
             super(walker);
+            violations = new HashSet<>();
+        }
+
+        OWL2RLObjectVisitor(OWLOntologyWalker walker, Collection<OWLProfileViolation> violations) {
+            super(walker);
+            this.violations = violations;
         }
 
         public Set<OWLProfileViolation> getProfileViolations() {
@@ -15,9 +15,14 @@ package org.semanticweb.owlapi.profiles;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.util.OWLObjectWalker;
@@ -32,6 +37,10 @@ import org.semanticweb.owlapi.util.StructureWalker;
  */
 public class OWLOntologyProfileWalker extends OWLOntologyWalker {
 
+    @Nullable
+    private final Collection<OWLAxiom> axioms;
+    private final boolean walkOntology;
+
     /**
      * @param objects ontologies to walk
      */
@@ -44,6 +53,24 @@ public class OWLOntologyProfileWalker extends OWLOntologyWalker {
      */
     public OWLOntologyProfileWalker(Collection<OWLOntology> objects) {
         super(objects);
+        axioms = null;
+        walkOntology = true;
+        setStructureWalker(new ProfileWalker(this));
+    }
+
+    /**
+     * Walker for part of an ontology, so that an ontology can be checked in parts.
+     *
+     * @param ontology ontology containing the axioms
+     * @param axioms axioms to walk
+     * @param walkOntology true if the ontology itself and its annotations should be walked before
+     *        the axioms
+     */
+    public OWLOntologyProfileWalker(OWLOntology ontology, Collection<OWLAxiom> axioms,
+        boolean walkOntology) {
+        super(Collections.singletonList(ontology));
+        this.axioms = axioms;
+        this.walkOntology = walkOntology;
         setStructureWalker(new ProfileWalker(this));
     }
 
@@ -53,6 +80,21 @@ public class OWLOntologyProfileWalker extends OWLOntologyWalker {
             super(owlObjectWalker);
         }
 
+        @Override
+        public void visit(OWLOntology ontology) {
+            Collection<OWLAxiom> toWalk = axioms;
+            if (toWalk == null) {
+                super.visit(ontology);
+                return;
+            }
+            OWLOntologyProfileWalker.this.ontology = ontology;
+            walkerCallback.setAxiom(null);
+            if (walkOntology) {
+                process(ontology);
+            }
+            toWalk.forEach(a -> a.accept(this));
+        }
+
         @Override
         public void visit(OWLAnnotationAssertionAxiom axiom) {
             process(axiom);
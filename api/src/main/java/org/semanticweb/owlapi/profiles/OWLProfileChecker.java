@@ -0,0 +1,569 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.profiles;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectVisitor;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.util.CollectionFactory;
+import org.semanticweb.owlapi.util.OWLObjectPropertyManager;
+import org.semanticweb.owlapi.util.OWLOntologyWalker;
+import org.semanticweb.owlapi.util.OWLOntologyWalkerVisitor;
+import org.semanticweb.owlapi.util.ParallelTasks;
+
+/**
+ * Checks an ontology and its imports closure against several profiles at once. The axioms of each
+ * ontology are split in parts, checked in parallel; each part is walked once, with the checks of
+ * all the profiles. The checks shared by the profiles, i.e., the OWL 2 checks and the DL checks,
+ * are only run once.<br>
+ * Violations are kept by ontology and axiom, so that after the ontologies have changed
+ * {@link #checkChanges(Collection)} only checks the changed axioms and the axioms referring to
+ * entities that have been added to or removed from the signature or declared. Changes to imports,
+ * ontology annotations, the ontology id, the object property hierarchy or the datatype definitions
+ * cause a full check.<br>
+ * Profiles other than the built in ones (and their subclasses) are checked with
+ * {@link OWLProfile#checkOntology(OWLOntology)}, in parallel with the other checks, and are checked
+ * in full on every call.<br>
+ * The ontologies must not change while a check is running.
+ *
+ * @since 5.1.8
+ */
+public class OWLProfileChecker {
+
+    private static final int MIN_PART_SIZE = 1024;
+    /**
+     * Axiom types whose changes can change the violations of other axioms.
+     */
+    private static final Set<AxiomType<?>> GLOBAL_TYPES = globalTypes();
+    private final List<OWLProfile> profiles;
+    private final Map<OWLProfile, Layer> layers = new HashMap<>();
+    private final Set<Layer> used = new LinkedHashSet<>();
+    private final int threads;
+    @Nullable
+    private OWLOntology root;
+    private List<OWLOntology> closure = Collections.emptyList();
+    private final Map<Layer, Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>>> violations =
+        new EnumMap<>(Layer.class);
+    private final Map<OWLProfile, OWLProfileReport> reports = new HashMap<>();
+
+    /**
+     * @param profiles profiles to check
+     * @param threads number of threads to use; the violations found do not depend on it
+     */
+    public OWLProfileChecker(Collection<? extends OWLProfile> profiles, int threads) {
+        this.profiles = new ArrayList<>(checkNotNull(profiles, "profiles cannot be null"));
+        this.threads = threads;
+        for (OWLProfile profile : this.profiles) {
+            Layer layer = layer(profile);
+            if (layer != null) {
+                layers.put(profile, layer);
+                used.addAll(layer.chain());
+            }
+        }
+    }
+
+    /**
+     * @param threads number of threads to use; the violations found do not depend on it
+     * @param profiles profiles to check
+     */
+    public OWLProfileChecker(int threads, OWLProfile... profiles) {
+        this(Arrays.asList(profiles), threads);
+    }
+
+    private static Set<AxiomType<?>> globalTypes() {
+        Set<AxiomType<?>> types = new HashSet<>(AxiomType.RBoxAxiomTypes);
+        types.add(AxiomType.OBJECT_PROPERTY_RANGE);
+        types.add(AxiomType.DATATYPE_DEFINITION);
+        return types;
+    }
+
+    @Nullable
+    private static Layer layer(OWLProfile profile) {
+        OWLProfile p = profile instanceof Profiles ? ((Profiles) profile).getOWLProfile() : profile;
+        Class<?> type = p.getClass();
+        if (type == OWL2Profile.class) {
+            return Layer.FULL;
+        }
+        if (type == OWL2DLProfile.class) {
+            return Layer.DL;
+        }
+        if (type == OWL2ELProfile.class) {
+            return Layer.EL;
+        }
+        if (type == OWL2QLProfile.class) {
+            return Layer.QL;
+        }
+        if (type == OWL2RLProfile.class) {
+            return Layer.RL;
+        }
+        return null;
+    }
+
+    /**
+     * Checks an ontology and its imports closure against all the profiles; the results are kept
+     * for later incremental checks.
+     *
+     * @param ontology the ontology to check
+     * @return reports for all the profiles, in the order the profiles were given
+     */
+    public synchronized Map<OWLProfile, OWLProfileReport> checkOntology(OWLOntology ontology) {
+        root = checkNotNull(ontology, "ontology cannot be null");
+        closure = asList(ontology.importsClosure());
+        violations.clear();
+        reports.clear();
+        List<Part> parts = new ArrayList<>();
+        for (OWLOntology o : closure) {
+            split(o, asList(o.axioms()), true, parts);
+        }
+        run(parts, ontology);
+        Map<OWLProfile, OWLProfileReport> result = new LinkedHashMap<>();
+        for (OWLProfile profile : profiles) {
+            OWLProfileReport report = report(profile);
+            reports.put(profile, report);
+            result.put(profile, report);
+        }
+        return result;
+    }
+
+    /**
+     * Checks the ontology again after changes have been applied. Only the changes to the ontologies
+     * in the imports closure of the last ontology checked are considered.
+     *
+     * @param changes changes applied since the last check
+     * @return differences between the previous reports and the new ones, for all the profiles, in
+     *         the order the profiles were given
+     */
+    public synchronized Map<OWLProfile, OWLProfileReportDiff> checkChanges(
+        Collection<? extends OWLOntologyChange> changes) {
+        OWLOntology ontology = verifyRoot();
+        Map<OWLProfile, OWLProfileReport> previous = new HashMap<>(reports);
+        Set<OWLOntology> inClosure = new HashSet<>(closure);
+        List<OWLOntologyChange> relevant = changes.stream()
+            .filter(c -> inClosure.contains(c.getOntology())).collect(Collectors.toList());
+        boolean full = !closure.equals(asList(ontology.importsClosure())) || relevant.stream()
+            .anyMatch(c -> !c.isAxiomChange() || GLOBAL_TYPES.contains(c.getAxiom().getAxiomType()));
+        Map<Layer, List<OWLProfileViolation>> added = new EnumMap<>(Layer.class);
+        Map<Layer, List<OWLProfileViolation>> removed = new EnumMap<>(Layer.class);
+        used.forEach(l -> {
+            added.put(l, new ArrayList<>());
+            removed.put(l, new ArrayList<>());
+        });
+        Map<Layer, Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>>> old =
+            new EnumMap<>(violations);
+        // ontologies are hashed by id, which the changes might have changed
+        old.replaceAll((l, m) -> new LinkedHashMap<>(m));
+        violations.clear();
+        List<Part> parts = new ArrayList<>();
+        // keys to compare, by ontology; a null axiom stands for the ontology itself
+        Map<OWLOntology, Set<OWLAxiom>> checked = new LinkedHashMap<>();
+        if (full) {
+            closure = asList(ontology.importsClosure());
+            for (OWLOntology o : closure) {
+                split(o, asList(o.axioms()), true, parts);
+                Set<OWLAxiom> keys = checked.computeIfAbsent(o, x -> new HashSet<>());
+                keys.add(null);
+                o.axioms().forEach(keys::add);
+            }
+            old.values().forEach(m -> m.forEach(
+                (o, map) -> checked.computeIfAbsent(o, x -> new HashSet<>()).addAll(map.keySet())));
+        } else {
+            // keep the violations that are not checked again
+            old.forEach((l, m) -> {
+                Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>> copy =
+                    new LinkedHashMap<>();
+                m.forEach((o, map) -> copy.put(o, new LinkedHashMap<>(map)));
+                violations.put(l, copy);
+            });
+            Map<OWLOntology, Set<OWLAxiom>> toCheck = toCheck(relevant);
+            toCheck.forEach((o, axioms) -> {
+                checked.put(o, new HashSet<>(axioms));
+                violations.values().forEach(m -> {
+                    Map<OWLAxiom, List<OWLProfileViolation>> byAxiom = m.get(o);
+                    if (byAxiom != null) {
+                        axioms.forEach(byAxiom::remove);
+                    }
+                });
+                split(o, asList(axioms.stream().filter(o::containsAxiom)), false, parts);
+            });
+        }
+        run(parts, ontology);
+        Map<OWLProfile, OWLProfileReportDiff> result = new LinkedHashMap<>();
+        for (Layer l : used) {
+            Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>> before =
+                old.getOrDefault(l, Collections.emptyMap());
+            Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>> after =
+                violations.computeIfAbsent(l, x -> new LinkedHashMap<>());
+            checked.forEach((o, keys) -> keys.forEach(k -> compare(
+                before.getOrDefault(o, Collections.emptyMap()),
+                after.computeIfAbsent(o, x -> new LinkedHashMap<>()), k, added.get(l),
+                removed.get(l))));
+        }
+        for (OWLProfile profile : profiles) {
+            OWLProfileReport report = report(profile);
+            reports.put(profile, report);
+            Layer layer = layers.get(profile);
+            List<OWLProfileViolation> a = new ArrayList<>();
+            List<OWLProfileViolation> r = new ArrayList<>();
+            if (layer == null) {
+                diff(verifyReport(previous.get(profile)).getViolations(), report.getViolations(), a,
+                    r);
+            } else {
+                for (Layer l : layer.chain()) {
+                    a.addAll(added.get(l));
+                    r.addAll(removed.get(l));
+                }
+            }
+            result.put(profile, new OWLProfileReportDiff(report, a, r));
+        }
+        return result;
+    }
+
+    private static OWLProfileReport verifyReport(@Nullable OWLProfileReport report) {
+        if (report == null) {
+            throw new IllegalStateException("No previous report");
+        }
+        return report;
+    }
+
+    /**
+     * @param changes axiom changes that do not affect other axioms globally
+     * @return axioms to check again, by ontology: the changed axioms, and the axioms referring to
+     *         entities that have entered or left the signature of an ontology, or have been
+     *         declared or undeclared, since the checks for declarations and for the use of an IRI
+     *         as more than one type of entity depend on these
+     */
+    private Map<OWLOntology, Set<OWLAxiom>> toCheck(List<OWLOntologyChange> changes) {
+        Map<OWLOntology, Set<OWLAxiom>> toCheck = new LinkedHashMap<>();
+        Map<OWLOntology, Set<OWLAxiom>> addedAxioms = new HashMap<>();
+        for (OWLOntologyChange c : changes) {
+            toCheck.computeIfAbsent(c.getOntology(), x -> new LinkedHashSet<>()).add(c.getAxiom());
+            if (c.isAddAxiom()) {
+                addedAxioms.computeIfAbsent(c.getOntology(), x -> new HashSet<>()).add(c.getAxiom());
+            }
+        }
+        Set<OWLEntity> touched = new HashSet<>();
+        for (OWLOntologyChange c : changes) {
+            OWLOntology o = c.getOntology();
+            OWLAxiom ax = c.getAxiom();
+            if (ax instanceof OWLDeclarationAxiom) {
+                touched.add(((OWLDeclarationAxiom) ax).getEntity());
+            }
+            Set<OWLAxiom> newAxioms = addedAxioms.getOrDefault(o, Collections.emptySet());
+            ax.signature().filter(e -> !touched.contains(e))
+                .filter(e -> !o.containsEntityInSignature(e)
+                    || o.referencingAxioms(e).allMatch(newAxioms::contains))
+                .forEach(touched::add);
+        }
+        OWLDataFactory df = verifyRoot().getOWLOntologyManager().getOWLDataFactory();
+        for (OWLEntity e : touched) {
+            for (EntityType<?> type : EntityType.values()) {
+                OWLEntity pun = df.getOWLEntity(type, e.getIRI());
+                for (OWLOntology o : closure) {
+                    o.referencingAxioms(pun).forEach(
+                        ax -> toCheck.computeIfAbsent(o, x -> new LinkedHashSet<>()).add(ax));
+                }
+            }
+        }
+        return toCheck;
+    }
+
+    private OWLOntology verifyRoot() {
+        OWLOntology ontology = root;
+        if (ontology == null) {
+            throw new IllegalStateException("checkOntology() has not been called");
+        }
+        return ontology;
+    }
+
+    private static void compare(Map<OWLAxiom, List<OWLProfileViolation>> before,
+        Map<OWLAxiom, List<OWLProfileViolation>> after, @Nullable OWLAxiom key,
+        List<OWLProfileViolation> added, List<OWLProfileViolation> removed) {
+        List<OWLProfileViolation> previous = before.getOrDefault(key, Collections.emptyList());
+        List<OWLProfileViolation> current = after.getOrDefault(key, Collections.emptyList());
+        if (same(previous, current)) {
+            // keep the previous objects, so that unchanged violations are identical
+            if (previous.isEmpty()) {
+                after.remove(key);
+            } else {
+                after.put(key, previous);
+            }
+            return;
+        }
+        added.addAll(current);
+        removed.addAll(previous);
+    }
+
+    private static boolean same(List<OWLProfileViolation> l1, List<OWLProfileViolation> l2) {
+        if (l1.size() != l2.size()) {
+            return false;
+        }
+        for (int i = 0; i < l1.size(); i++) {
+            if (!same(l1.get(i), l2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Violations are the same if they are of the same type and are found in the same axiom of the
+     * same ontology, for the same expression.
+     */
+    private static boolean same(OWLProfileViolation v1, OWLProfileViolation v2) {
+        return v1.getClass() == v2.getClass() && v1.ontology == v2.ontology
+            && Objects.equals(v1.axiom, v2.axiom) && Objects.equals(v1.expression, v2.expression);
+    }
+
+    /**
+     * Difference between reports of profiles that are not checked incrementally, compared by
+     * ontology and axiom.
+     */
+    private static void diff(List<OWLProfileViolation> before, List<OWLProfileViolation> after,
+        List<OWLProfileViolation> added, List<OWLProfileViolation> removed) {
+        Map<List<Object>, List<OWLProfileViolation>> previous = group(before);
+        Map<List<Object>, List<OWLProfileViolation>> current = group(after);
+        Set<List<Object>> keys = new LinkedHashSet<>(previous.keySet());
+        keys.addAll(current.keySet());
+        for (List<Object> key : keys) {
+            List<OWLProfileViolation> p = previous.getOrDefault(key, Collections.emptyList());
+            List<OWLProfileViolation> c = current.getOrDefault(key, Collections.emptyList());
+            if (!same(p, c)) {
+                added.addAll(c);
+                removed.addAll(p);
+            }
+        }
+    }
+
+    private static Map<List<Object>, List<OWLProfileViolation>> group(
+        List<OWLProfileViolation> list) {
+        Map<List<Object>, List<OWLProfileViolation>> map = new LinkedHashMap<>();
+        list.forEach(v -> map.computeIfAbsent(Arrays.asList(v.ontology, v.axiom),
+            x -> new ArrayList<>()).add(v));
+        return map;
+    }
+
+    private void split(OWLOntology o, List<OWLAxiom> axioms, boolean walkOntology,
+        List<Part> parts) {
+        int size = Math.max(MIN_PART_SIZE, axioms.size() / (Math.max(1, threads) * 4) + 1);
+        if (walkOntology) {
+            // the ontology itself is walked with the first part, even if there are no axioms
+            parts.add(new Part(o, axioms.subList(0, Math.min(size, axioms.size())), true));
+        } else if (!axioms.isEmpty()) {
+            parts.add(new Part(o, axioms.subList(0, Math.min(size, axioms.size())), false));
+        }
+        for (int i = size; i < axioms.size(); i += size) {
+            parts.add(new Part(o, axioms.subList(i, Math.min(i + size, axioms.size())), false));
+        }
+    }
+
+    /**
+     * Walks the parts and checks the profiles without a layer, then stores the violations found.
+     */
+    private void run(List<Part> parts, OWLOntology ontology) {
+        List<OWLProfile> others = new ArrayList<>();
+        profiles.stream().filter(p -> !layers.containsKey(p)).forEach(others::add);
+        List<Map<Layer, Map<OWLAxiom, List<OWLProfileViolation>>>> found =
+            new ArrayList<>(Collections.nCopies(parts.size(), null));
+        List<OWLProfileReport> otherReports = new ArrayList<>(Collections.nCopies(others.size(),
+            null));
+        // computed once, before the parts are walked, and only read by the visitors
+        OWLObjectPropertyManager properties = used.contains(Layer.DL) && !parts.isEmpty()
+            ? OWL2DLProfile.propertyManager(ontology) : null;
+        Runnable task = () -> IntStream.range(0, parts.size() + others.size()).parallel()
+            .forEach(i -> {
+                if (i < parts.size()) {
+                    found.set(i, parts.get(i).walk(ontology, properties, used));
+                } else {
+                    otherReports.set(i - parts.size(),
+                        others.get(i - parts.size()).checkOntology(ontology));
+                }
+            });
+        if (threads > 1) {
+            ParallelTasks.run(threads, task);
+        } else {
+            // sequential: the parallel stream would otherwise run on the common pool
+            for (int i = 0; i < parts.size(); i++) {
+                found.set(i, parts.get(i).walk(ontology, properties, used));
+            }
+            for (int i = 0; i < others.size(); i++) {
+                otherReports.set(i, others.get(i).checkOntology(ontology));
+            }
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            OWLOntology o = parts.get(i).ontology;
+            found.get(i).forEach((l, map) -> violations
+                .computeIfAbsent(l, x -> new LinkedHashMap<>())
+                .computeIfAbsent(o, x -> new LinkedHashMap<>()).putAll(map));
+        }
+        for (int i = 0; i < others.size(); i++) {
+            reports.put(others.get(i), otherReports.get(i));
+        }
+    }
+
+    private OWLProfileReport report(OWLProfile profile) {
+        Layer layer = layers.get(profile);
+        if (layer == null) {
+            return verifyReport(reports.get(profile));
+        }
+        List<OWLProfileViolation> list = new ArrayList<>();
+        for (Layer l : layer.chain()) {
+            Map<OWLOntology, Map<OWLAxiom, List<OWLProfileViolation>>> map = violations.get(l);
+            if (map != null) {
+                map.values().forEach(m -> m.values().forEach(list::addAll));
+            }
+        }
+        return new OWLProfileReport(profile, list);
+    }
+
+    /**
+     * Checks of a profile, excluding the checks of the profile it extends.
+     */
+    private enum Layer {
+        //@formatter:off
+        FULL(null) { @Override OWLOntologyWalkerVisitor visitor(OWLOntologyWalker w, OWLOntology root, @Nullable OWLObjectPropertyManager p, Collection<OWLProfileViolation> v) { return new OWL2Profile().createVisitor(w, root, v); } },
+        DL(FULL)   { @Override OWLOntologyWalkerVisitor visitor(OWLOntologyWalker w, OWLOntology root, @Nullable OWLObjectPropertyManager p, Collection<OWLProfileViolation> v) { return new OWL2DLProfile().createVisitor(w, root, verifyNotNull(p), v); } },
+        EL(DL)     { @Override OWLOntologyWalkerVisitor visitor(OWLOntologyWalker w, OWLOntology root, @Nullable OWLObjectPropertyManager p, Collection<OWLProfileViolation> v) { return new OWL2ELProfile().createVisitor(w, root, v); } },
+        QL(DL)     { @Override OWLOntologyWalkerVisitor visitor(OWLOntologyWalker w, OWLOntology root, @Nullable OWLObjectPropertyManager p, Collection<OWLProfileViolation> v) { return new OWL2QLProfile().createVisitor(w, root, v); } },
+        RL(DL)     { @Override OWLOntologyWalkerVisitor visitor(OWLOntologyWalker w, OWLOntology root, @Nullable OWLObjectPropertyManager p, Collection<OWLProfileViolation> v) { return new OWL2RLProfile().createVisitor(w, root, v); } };
+        //@formatter:on
+        @Nullable
+        private final Layer base;
+
+        Layer(@Nullable Layer base) {
+            this.base = base;
+        }
+
+        abstract OWLOntologyWalkerVisitor visitor(OWLOntologyWalker walker, OWLOntology root,
+            @Nullable OWLObjectPropertyManager properties,
+            Collection<OWLProfileViolation> violations);
+
+        /**
+         * @return the layers of the profile, starting with the OWL 2 checks
+         */
+        List<Layer> chain() {
+            List<Layer> chain = base == null ? new ArrayList<>() : base.chain();
+            chain.add(this);
+            return chain;
+        }
+    }
+
+    /**
+     * Axioms of an ontology walked together.
+     */
+    private static class Part {
+
+        final OWLOntology ontology;
+        final List<OWLAxiom> axioms;
+        final boolean walkOntology;
+
+        Part(OWLOntology ontology, List<OWLAxiom> axioms, boolean walkOntology) {
+            this.ontology = ontology;
+            this.axioms = axioms;
+            this.walkOntology = walkOntology;
+        }
+
+        Map<Layer, Map<OWLAxiom, List<OWLProfileViolation>>> walk(OWLOntology root,
+            @Nullable OWLObjectPropertyManager properties, Set<Layer> layers) {
+            OWLOntologyProfileWalker walker =
+                new OWLOntologyProfileWalker(ontology, axioms, walkOntology);
+            Dispatcher dispatcher = new Dispatcher(walker, root, properties, layers);
+            walker.walkStructure(dispatcher);
+            return dispatcher.finish();
+        }
+    }
+
+    /**
+     * Passes each object to the visitors of all the layers, and sorts the violations found by the
+     * axiom being walked.
+     */
+    private static class Dispatcher implements OWLObjectVisitor {
+
+        private final OWLOntologyWalker walker;
+        private final List<Layer> layers = new ArrayList<>();
+        private final List<OWLObjectVisitor> visitors = new ArrayList<>();
+        private final List<List<OWLProfileViolation>> pending = new ArrayList<>();
+        private final Map<Layer, Map<OWLAxiom, List<OWLProfileViolation>>> found =
+            new EnumMap<>(Layer.class);
+        @Nullable
+        private OWLAxiom current;
+
+        Dispatcher(OWLOntologyWalker walker, OWLOntology root,
+            @Nullable OWLObjectPropertyManager properties, Set<Layer> layers) {
+            this.walker = walker;
+            for (Layer l : layers) {
+                List<OWLProfileViolation> list = new ArrayList<>();
+                this.layers.add(l);
+                pending.add(list);
+                visitors.add(l.visitor(walker, root, properties, list));
+                found.put(l, new LinkedHashMap<>());
+            }
+        }
+
+        @Override
+        public void doDefault(Object object) {
+            OWLAxiom axiom = walker.getAxiom();
+            if (axiom != current) {
+                flush();
+                current = axiom;
+            }
+            for (OWLObjectVisitor v : visitors) {
+                ((OWLObject) object).accept(v);
+            }
+        }
+
+        private void flush() {
+            for (int i = 0; i < layers.size(); i++) {
+                List<OWLProfileViolation> list = pending.get(i);
+                if (!list.isEmpty()) {
+                    found.get(layers.get(i)).computeIfAbsent(current, x -> new ArrayList<>())
+                        .addAll(list);
+                    list.clear();
+                }
+            }
+        }
+
+        Map<Layer, Map<OWLAxiom, List<OWLProfileViolation>>> finish() {
+            flush();
+            return found;
+        }
+    }
+}
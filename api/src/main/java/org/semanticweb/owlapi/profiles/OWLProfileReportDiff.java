@@ -0,0 +1,86 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.profiles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Difference between two reports for the same profile, as returned by an incremental check. The
+ * violations that did not change are the same objects in both reports.
+ *
+ * @since 5.1.8
+ */
+public class OWLProfileReportDiff {
+
+    private final OWLProfileReport report;
+    private final List<OWLProfileViolation> added;
+    private final List<OWLProfileViolation> removed;
+
+    /**
+     * @param report the report after the changes
+     * @param added violations in the new report only
+     * @param removed violations in the previous report only
+     */
+    public OWLProfileReportDiff(OWLProfileReport report, Collection<OWLProfileViolation> added,
+        Collection<OWLProfileViolation> removed) {
+        this.report = report;
+        this.added = new ArrayList<>(added);
+        this.removed = new ArrayList<>(removed);
+    }
+
+    /**
+     * @return the profile used
+     */
+    public OWLProfile getProfile() {
+        return report.getProfile();
+    }
+
+    /**
+     * @return the report after the changes
+     */
+    public OWLProfileReport getReport() {
+        return report;
+    }
+
+    /**
+     * @return violations introduced by the changes
+     */
+    public List<OWLProfileViolation> getAddedViolations() {
+        return added;
+    }
+
+    /**
+     * @return violations resolved by the changes
+     */
+    public List<OWLProfileViolation> getRemovedViolations() {
+        return removed;
+    }
+
+    /**
+     * @return true if the violations have changed
+     */
+    public boolean hasChanged() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getProfile().getName());
+        sb.append(" Profile Report Diff: ");
+        added.forEach(v -> sb.append("+ ").append(v).append('\n'));
+        removed.forEach(v -> sb.append("- ").append(v).append('\n'));
+        return sb.toString();
+    }
+}
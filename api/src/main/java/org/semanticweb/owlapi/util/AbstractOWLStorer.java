@@ -69,7 +69,11 @@ public abstract class AbstractOWLStorer implements OWLStorer {
         try (
             // prepare actual output
             OutputStream os = prepareActualOutput(documentIRI)) {
-            store(ontology, ontologyFormat, os);
+            if (ontologyFormat.isTextual()) {
+                store(ontology, ontologyFormat, os);
+            } else {
+                storeOntology(ontology, os, ontologyFormat);
+            }
         } catch (IOException e) {
             throw new OWLOntologyStorageException(e);
         }
@@ -0,0 +1,236 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.util;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.semanticweb.owlapi.model.OWLMetrics;
+
+/**
+ * Metrics kept in memory: counters, gauges, and timers recorded as latency histograms with
+ * power of two buckets. Recording does not lock once a metric exists; values are read as
+ * snapshots, for example to publish them to a monitoring system.
+ *
+ * @since 5.1.8
+ */
+public class InMemoryOWLMetrics implements OWLMetrics {
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public void count(String name, long delta) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, k -> new LongAdder());
+        }
+        counter.add(delta);
+    }
+
+    @Override
+    public void time(String name, long nanos) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, k -> new Timer());
+        }
+        timer.record(nanos);
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(checkNotNull(name, "name cannot be null"),
+            checkNotNull(value, "value cannot be null"));
+    }
+
+    /**
+     * @param name counter name
+     * @return current value of the counter, 0 if nothing has been counted
+     */
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    /**
+     * @param name gauge name
+     * @return current value of the gauge, 0 if no such gauge is registered
+     */
+    public long getGauge(String name) {
+        LongSupplier gauge = gauges.get(name);
+        return gauge == null ? 0L : gauge.getAsLong();
+    }
+
+    /**
+     * @param name timer name
+     * @return snapshot of the timings recorded, empty if none
+     */
+    public LatencyHistogram getTimer(String name) {
+        Timer timer = timers.get(name);
+        return timer == null ? new LatencyHistogram(0, 0, 0, new long[Timer.BUCKETS])
+            : timer.snapshot();
+    }
+
+    /**
+     * @return current values of all counters and gauges, by name
+     */
+    public SortedMap<String, Long> getCounts() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        counters.forEach((k, v) -> values.put(k, Long.valueOf(v.sum())));
+        gauges.forEach((k, v) -> values.put(k, Long.valueOf(v.getAsLong())));
+        return values;
+    }
+
+    /**
+     * @return snapshots of all timers, by name
+     */
+    public SortedMap<String, LatencyHistogram> getTimers() {
+        SortedMap<String, LatencyHistogram> values = new TreeMap<>();
+        timers.forEach((k, v) -> values.put(k, v.snapshot()));
+        return values;
+    }
+
+    /**
+     * Clears all counters and timers; gauges stay registered.
+     */
+    public void reset() {
+        counters.clear();
+        timers.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        getCounts().forEach((k, v) -> b.append(k).append(' ').append(v).append('\n'));
+        getTimers().forEach((k, v) -> b.append(k).append(' ').append(v).append('\n'));
+        return b.toString();
+    }
+
+    private static class Timer {
+
+        // bucket i holds durations below 2^i nanoseconds, and at least 2^(i-1)
+        static final int BUCKETS = 64;
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final AtomicLong max = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            long n = Math.max(0L, nanos);
+            count.increment();
+            total.add(n);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(n)));
+            long m = max.get();
+            while (n > m && !max.compareAndSet(m, n)) {
+                m = max.get();
+            }
+        }
+
+        LatencyHistogram snapshot() {
+            long[] values = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                values[i] = buckets.get(i);
+            }
+            return new LatencyHistogram(count.sum(), total.sum(), max.get(), values);
+        }
+    }
+
+    /**
+     * Snapshot of the durations recorded by a timer. Durations are kept in power of two buckets,
+     * so percentiles are upper bounds within a factor of two.
+     */
+    public static final class LatencyHistogram {
+
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        LatencyHistogram(long count, long totalNanos, long maxNanos, long[] buckets) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        /**
+         * @return number of durations recorded
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return sum of the durations recorded, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return longest duration recorded, in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return mean duration, in nanoseconds; 0 if nothing was recorded
+         */
+        public long getMeanNanos() {
+            return count == 0 ? 0L : totalNanos / count;
+        }
+
+        /**
+         * @param percentile percentile, between 0 and 100
+         * @return upper bound of the duration below which the given percentage of the recorded
+         *         durations fall, in nanoseconds; 0 if nothing was recorded
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException(
+                    "percentile must be between 0 and 100: " + percentile);
+            }
+            long total = 0;
+            for (long b : buckets) {
+                total += b;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    long bound = i == 0 ? 0L : i == 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(bound, maxNanos);
+                }
+            }
+            return 0L;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + " mean=" + getMeanNanos() + "ns p50="
+                + getPercentileNanos(50) + "ns p99=" + getPercentileNanos(99) + "ns max="
+                + maxNanos + "ns";
+        }
+    }
+}
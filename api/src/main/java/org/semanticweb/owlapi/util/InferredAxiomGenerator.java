@@ -13,6 +13,8 @@
 package org.semanticweb.owlapi.util;
 
 import java.util.Set;
+import java.util.function.Consumer;
+
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
@@ -37,6 +39,23 @@ public interface InferredAxiomGenerator<A extends OWLAxiom> {
      */
     Set<A> createAxioms(OWLDataFactory df, OWLReasoner reasoner);
 
+    /**
+     * Passes the generated axioms to a consumer as they are generated, rather than collecting
+     * them in a set first. Axioms derived from more than one entity, such as equivalent classes
+     * axioms, may be passed more than once. If {@code parallel} is true, the work may be split
+     * across the threads of the fork/join pool this method is called from, and the consumer may
+     * be called concurrently; the reasoner must then support concurrent queries.
+     *
+     * @param df data factory
+     * @param reasoner the reasoner to use
+     * @param parallel true if the axioms can be generated in parallel
+     * @param consumer consumer for the generated axioms
+     */
+    default void createAxioms(OWLDataFactory df, OWLReasoner reasoner, boolean parallel,
+        Consumer<? super A> consumer) {
+        createAxioms(df, reasoner).forEach(consumer);
+    }
+
     /**
      * @return the label
      */
@@ -12,9 +12,14 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package org.semanticweb.owlapi.util;
 
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -40,6 +45,22 @@ public abstract class InferredEntityAxiomGenerator<E extends OWLEntity, A extend
         return result;
     }
 
+    /**
+     * {@inheritDoc} The entities are partitioned across threads when generating in parallel;
+     * only the axioms of one entity are held at a time.
+     */
+    @Override
+    public void createAxioms(OWLDataFactory df, OWLReasoner reasoner, boolean parallel,
+        Consumer<? super A> consumer) {
+        List<E> entities = asList(getAllEntities(reasoner));
+        Stream<E> stream = parallel ? entities.parallelStream() : entities.stream();
+        stream.forEach(e -> {
+            Set<A> result = new HashSet<>();
+            addAxioms(e, reasoner, df, result);
+            result.forEach(consumer);
+        });
+    }
+
     /**
      * Adds inferred axioms to a results set. The inferred axioms are generated
      * for the specific entity.
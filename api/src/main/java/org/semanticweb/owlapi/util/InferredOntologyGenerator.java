@@ -18,13 +18,26 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.empty;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,27 +45,62 @@ import org.slf4j.LoggerFactory;
 /**
  * Generates an ontology based on inferred axioms which are essentially supplied by a reasoner. The
  * generator can be configured with {@code InferredAxiomGenerator}s which generate specific kinds of
- * axioms e.g. subclass axioms.
+ * axioms e.g. subclass axioms.<br>
+ * Inferred axioms are passed on in batches of bounded size as they are generated, so the inferred
+ * closure is not held in memory as a whole; the exception is filling an ontology that the reasoner
+ * is reasoning over, see {@link #fillOntology(OWLDataFactory, OWLOntology)}. With more than one thread, the generators run
+ * concurrently and each generator splits its entities across the threads; the reasoner must then
+ * support concurrent queries. Batches are always passed on by the calling thread. Subclasses that
+ * override {@link #generate(OWLDataFactory, InferredAxiomGenerator)} have their generators run
+ * through that method, one at a time.
  *
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.1.0
  */
 public class InferredOntologyGenerator {
 
+    /** Default number of axioms in a batch. */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
     private static Logger logger = LoggerFactory.getLogger(InferredOntologyGenerator.class);
     // The reasoner which is used to compute the inferred axioms
     private final OWLReasoner reasoner;
     private final List<InferredAxiomGenerator<? extends OWLAxiom>> axiomGenerators;
+    private final int threads;
+    private final int batchSize;
+    // true if a subclass overrides generate(OWLDataFactory, InferredAxiomGenerator)
+    private final boolean generateOverridden = overridesGenerate(getClass());
 
     /**
      * @param reasoner the reasoner to use
      * @param axiomGenerators the axiom generators to use
+     * @param threads number of threads to generate axioms with; values above 1 require a reasoner
+     *        that supports concurrent queries
+     * @param batchSize maximum number of axioms passed on in one batch
+     * @since 5.1.8
      */
     public InferredOntologyGenerator(OWLReasoner reasoner,
-        List<InferredAxiomGenerator<? extends OWLAxiom>> axiomGenerators) {
+        List<InferredAxiomGenerator<? extends OWLAxiom>> axiomGenerators, int threads,
+        int batchSize) {
         this.reasoner = checkNotNull(reasoner, "reasoner cannot be null");
         checkNotNull(axiomGenerators, "axiomGenerators cannot be null");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        }
         this.axiomGenerators = new ArrayList<>(axiomGenerators);
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param reasoner the reasoner to use
+     * @param axiomGenerators the axiom generators to use
+     */
+    public InferredOntologyGenerator(OWLReasoner reasoner,
+        List<InferredAxiomGenerator<? extends OWLAxiom>> axiomGenerators) {
+        this(reasoner, axiomGenerators, 1, DEFAULT_BATCH_SIZE);
     }
 
     /**
@@ -76,6 +124,19 @@ public class InferredOntologyGenerator {
             new InferredSubObjectPropertyAxiomGenerator());
     }
 
+    private static boolean overridesGenerate(Class<?> c) {
+        for (Class<?> k = c; k != InferredOntologyGenerator.class; k = k.getSuperclass()) {
+            try {
+                k.getDeclaredMethod("generate", OWLDataFactory.class,
+                    InferredAxiomGenerator.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared at this level
+            }
+        }
+        return false;
+    }
+
     /**
      * @return the axiom generators
      */
@@ -107,7 +168,11 @@ public class InferredOntologyGenerator {
 
     /**
      * Adds 'inferred axioms' to an ontology using the generators that have been registered with
-     * this {@code InferredAxiomGenerator}.
+     * this {@code InferredAxiomGenerator}. Axioms already in the imports closure of the ontology,
+     * ignoring annotations, are not added. The axioms are added a batch at a time, unless the
+     * ontology is in the imports closure of the root ontology of the reasoner: the reasoner would
+     * then see the ontology change between its own queries, so the axioms are collected and added
+     * once all the generators have completed.
      *
      * @param df data factory.
      * @param ontology The ontology which the inferred axioms will be added to
@@ -117,19 +182,161 @@ public class InferredOntologyGenerator {
     public void fillOntology(OWLDataFactory df, OWLOntology ontology) {
         checkNotNull(df, "df cannot be null");
         checkNotNull(ontology, "ontology cannot be null");
-        axiomGenerators.stream().flatMap(g -> generate(df, g))
+        Consumer<List<OWLAxiom>> add = batch -> ontology.add(batch.stream()
             .filter(ax -> !ontology.containsAxiom(ax, INCLUDED, IGNORE_AXIOM_ANNOTATIONS))
-            .forEach(ontology::add);
+            .collect(Collectors.toList()));
+        if (!reasonsOver(ontology)) {
+            generateAxioms(df, add);
+            return;
+        }
+        Set<OWLAxiom> inferred = new LinkedHashSet<>();
+        generateAxioms(df, inferred::addAll);
+        add.accept(new ArrayList<>(inferred));
     }
 
+    private boolean reasonsOver(OWLOntology ontology) {
+        OWLOntologyID id = ontology.getOntologyID();
+        return reasoner.getRootOntology().importsClosure()
+            .anyMatch(o -> o.getOntologyID().equals(id));
+    }
+
+    /**
+     * Passes the inferred axioms to a consumer in batches, as they are generated. The consumer is
+     * always called by the calling thread, one batch at a time; generation is held back while the
+     * consumer falls behind. An axiom derived from more than one entity may be passed more than
+     * once; use {@link #fillOntology(OWLDataFactory, OWLOntology)}, or write the batches to a set,
+     * if duplicates matter.<br>
+     * A generator that fails is logged and skipped; axioms it generated before failing may already
+     * have been passed on.
+     *
+     * @param df data factory
+     * @param consumer consumer for the batches of inferred axioms
+     * @since 5.1.8
+     */
+    public void generateAxioms(OWLDataFactory df, Consumer<? super List<OWLAxiom>> consumer) {
+        checkNotNull(df, "df cannot be null");
+        checkNotNull(consumer, "consumer cannot be null");
+        if (generateOverridden) {
+            Batch batch = new Batch(consumer);
+            axiomGenerators.forEach(g -> generate(df, g).forEach(batch));
+            batch.flush();
+            return;
+        }
+        if (threads == 1) {
+            Batch batch = new Batch(consumer);
+            axiomGenerators.forEach(g -> generate(df, g, false, batch));
+            batch.flush();
+            return;
+        }
+        // bounded, so that the generators cannot run too far ahead of the consumer
+        BlockingQueue<List<OWLAxiom>> queue = new ArrayBlockingQueue<>(threads * 2);
+        Queue<Batch> batches = new ConcurrentLinkedQueue<>();
+        Consumer<List<OWLAxiom>> put = b -> {
+            try {
+                queue.put(b);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OWLRuntimeException(e);
+            }
+        };
+        ThreadLocal<Batch> local = ThreadLocal.withInitial(() -> {
+            Batch b = new Batch(put);
+            batches.add(b);
+            return b;
+        });
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Future<?> task = pool.submit(() -> {
+                axiomGenerators.parallelStream()
+                    .forEach(g -> generate(df, g, true, ax -> local.get().accept(ax)));
+                batches.forEach(Batch::flush);
+            });
+            while (true) {
+                List<OWLAxiom> b = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (b != null) {
+                    consumer.accept(b);
+                } else if (task.isDone()) {
+                    // all batches have been queued
+                    for (b = queue.poll(); b != null; b = queue.poll()) {
+                        consumer.accept(b);
+                    }
+                    break;
+                }
+            }
+            ParallelTasks.get(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void generate(OWLDataFactory df, InferredAxiomGenerator<? extends OWLAxiom> g,
+        boolean parallel, Consumer<OWLAxiom> consumer) {
+        try {
+            g.createAxioms(df, reasoner, parallel, consumer);
+        } catch (OWLRuntimeException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw e;
+            }
+            warn(g, e);
+        } catch (Exception e) {
+            warn(g, e);
+        }
+    }
+
+    private void warn(InferredAxiomGenerator<? extends OWLAxiom> g, Exception e) {
+        logger.warn("Error generating {} axioms using {}, version {}", g.getLabel(),
+            reasoner.getReasonerName(), reasoner.getReasonerVersion(), e);
+    }
+
+    /**
+     * @param df data factory
+     * @param g generator
+     * @return all axioms generated by the generator
+     * @deprecated axioms are streamed through
+     *             {@link InferredAxiomGenerator#createAxioms(OWLDataFactory, OWLReasoner, boolean, Consumer)}
+     *             unless this method is overridden; overriding it keeps each generator's axioms in
+     *             memory and disables concurrent generation
+     */
+    @Deprecated
     protected Stream<OWLAxiom> generate(OWLDataFactory df,
         InferredAxiomGenerator<? extends OWLAxiom> g) {
         try {
             return g.createAxioms(df, reasoner).stream().map(x -> x);
         } catch (Exception e) {
-            logger.warn("Error generating {} axioms using {}, version {}", g.getLabel(),
-                reasoner.getReasonerName(), reasoner.getReasonerVersion(), e);
+            warn(g, e);
             return empty();
         }
     }
+
+    /**
+     * Axioms collected by one thread, passed on when the batch size is reached.
+     */
+    private class Batch implements Consumer<OWLAxiom> {
+
+        private final Consumer<? super List<OWLAxiom>> target;
+        private List<OWLAxiom> axioms = new ArrayList<>();
+
+        Batch(Consumer<? super List<OWLAxiom>> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void accept(OWLAxiom ax) {
+            axioms.add(ax);
+            if (axioms.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!axioms.isEmpty()) {
+                List<OWLAxiom> full = axioms;
+                axioms = new ArrayList<>();
+                target.accept(full);
+            }
+        }
+    }
 }
@@ -0,0 +1,273 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.util;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.NodeID;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Sort keys for OWL objects. The key of an object is a byte array, computed once from the type
+ * index and the components of the object and cached; comparing two keys byte by byte, as
+ * unsigned values, gives the same result as {@link OWLObject#compareTo(OWLObject)}, without
+ * walking the components of the objects again.<br>
+ * Objects whose components cannot be encoded, such as ontologies, have no key and are compared
+ * with {@code compareTo()}; the order is the same in both cases, so keyed and unkeyed objects can
+ * be mixed.
+ *
+ * @since 5.1.8
+ */
+public final class OWLObjectSortKeys {
+
+    private static final byte[] NO_KEY = new byte[0];
+    private static final byte END = 0;
+    private static final byte MORE = 1;
+    private static final Cache<OWLObject, byte[]> KEYS =
+        Caffeine.newBuilder().weakKeys().softValues().build();
+    private static final Comparator<OWLObject> ORDER = OWLObjectSortKeys::compare;
+
+    private OWLObjectSortKeys() {}
+
+    /**
+     * @param o object
+     * @return a copy of the sort key for the object, or null if the object has no key
+     */
+    @Nullable
+    public static byte[] key(OWLObject o) {
+        byte[] key = cached(o);
+        return key == NO_KEY ? null : key.clone();
+    }
+
+    /*
+     * Keys of components are looked up while encoding, so the cache cannot compute keys itself
+     * without recursive updates; two threads may encode the same object, with identical results.
+     */
+    private static byte[] cached(OWLObject o) {
+        checkNotNull(o, "o cannot be null");
+        byte[] key = KEYS.getIfPresent(o);
+        if (key == null) {
+            key = encode(o);
+            KEYS.put(o, key);
+        }
+        return key;
+    }
+
+    /**
+     * @param o1 first object
+     * @param o2 second object
+     * @return the same value as {@code o1.compareTo(o2)}, using sort keys where available
+     */
+    public static int compare(OWLObject o1, OWLObject o2) {
+        if (o1 == o2) {
+            return 0;
+        }
+        byte[] k1 = cached(o1);
+        byte[] k2 = cached(o2);
+        if (k1 == NO_KEY || k2 == NO_KEY) {
+            return o1.compareTo(o2);
+        }
+        return compareKeys(k1, k2);
+    }
+
+    /**
+     * @return comparator with the natural order of OWL objects, using sort keys where available
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends OWLObject> Comparator<T> comparator() {
+        return (Comparator<T>) ORDER;
+    }
+
+    /**
+     * Sorts a list in the natural order of OWL objects. The keys are looked up once per element
+     * rather than once per comparison.
+     *
+     * @param list list to sort
+     */
+    public static <T extends OWLObject> void sort(List<T> list) {
+        if (list.size() < 2) {
+            return;
+        }
+        List<Keyed<T>> keyed = new ArrayList<>(list.size());
+        for (T t : list) {
+            keyed.add(new Keyed<>(t, cached(t)));
+        }
+        keyed.sort(null);
+        for (int i = 0; i < keyed.size(); i++) {
+            list.set(i, keyed.get(i).object);
+        }
+    }
+
+    /**
+     * @param stream stream to sort
+     * @return sorted list of the stream elements
+     */
+    public static <T extends OWLObject> List<T> sorted(Stream<T> stream) {
+        List<T> list = OWLAPIStreamUtils.asList(stream);
+        sort(list);
+        return list;
+    }
+
+    /**
+     * @param k1 first key
+     * @param k2 second key
+     * @return negative, zero or positive value if the first key comes before, is equal to or comes
+     *         after the second key
+     */
+    public static int compareKeys(byte[] k1, byte[] k2) {
+        int length = Math.min(k1.length, k2.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (k1[i] & 0xFF) - (k2[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return k1.length - k2.length;
+    }
+
+    /*
+     * The encoding mirrors OWLObject::compareTo: type index first, then the components; lists and
+     * streams are compared element by element, a shorter list coming first, hence every element is
+     * preceded by MORE and the list is closed by END. Strings are closed by a terminator lower
+     * than any character, and integers have their sign bit flipped, so that the order of the
+     * bytes is the order of the values. Every encoding is self delimiting, so the keys of
+     * components can be concatenated.
+     */
+    private static byte[] encode(OWLObject o) {
+        if (o instanceof OWLOntology) {
+            return NO_KEY;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        writeInt(out, o.typeIndex());
+        if (o.isIRI()) {
+            IRI iri = (IRI) o;
+            writeString(out, iri.getNamespace());
+            writeString(out, iri.getRemainder().orElse(""));
+            return out.toByteArray();
+        }
+        if (!writeComponents(out, o.components().iterator())) {
+            return NO_KEY;
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean writeComponents(ByteArrayOutputStream out, Iterator<?> components) {
+        while (components.hasNext()) {
+            out.write(MORE);
+            if (!write(out, components.next())) {
+                return false;
+            }
+        }
+        out.write(END);
+        return true;
+    }
+
+    private static boolean write(ByteArrayOutputStream out, Object component) {
+        if (component instanceof OWLObject) {
+            byte[] key = cached((OWLObject) component);
+            if (key == NO_KEY) {
+                return false;
+            }
+            out.write(key, 0, key.length);
+            return true;
+        }
+        if (component instanceof Collection) {
+            return writeComponents(out, ((Collection<?>) component).iterator());
+        }
+        if (component instanceof Stream) {
+            return writeComponents(out, ((Stream<?>) component).iterator());
+        }
+        if (component instanceof String) {
+            writeString(out, (String) component);
+            return true;
+        }
+        if (component instanceof Integer) {
+            writeInt(out, ((Integer) component).intValue());
+            return true;
+        }
+        if (component instanceof Enum) {
+            writeInt(out, ((Enum<?>) component).ordinal());
+            return true;
+        }
+        if (component instanceof NodeID) {
+            writeString(out, ((NodeID) component).getID());
+            return true;
+        }
+        return false;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        int v = value ^ Integer.MIN_VALUE;
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    /*
+     * Characters up to 0xFFFD are written as two bytes, shifted by one so that 0x0000 is left
+     * for the terminator; 0xFFFE and 0xFFFF, which would overflow, are written as 0xFFFF and a
+     * third byte.
+     */
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0xFFFE) {
+                int v = c + 1;
+                out.write(v >>> 8);
+                out.write(v);
+            } else {
+                out.write(0xFF);
+                out.write(0xFF);
+                out.write(c - 0xFFFE + 1);
+            }
+        }
+        out.write(END);
+        out.write(END);
+    }
+
+    private static class Keyed<T> implements Comparable<Keyed<T>> {
+
+        final T object;
+        final byte[] key;
+
+        Keyed(T object, byte[] key) {
+            this.object = object;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(@Nullable Keyed<T> o) {
+            Keyed<T> other = checkNotNull(o);
+            if (key == NO_KEY || other.key == NO_KEY) {
+                return ((OWLObject) object).compareTo((OWLObject) other.object);
+            }
+            return compareKeys(key, other.key);
+        }
+    }
+}
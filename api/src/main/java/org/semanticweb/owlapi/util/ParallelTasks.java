@@ -0,0 +1,140 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+/**
+ * Runs tasks on worker threads and waits for their results. Runtime exceptions and errors thrown
+ * by a task are rethrown as they are; checked exceptions, and interruption of the waiting thread,
+ * are wrapped in a runtime exception, by default an {@link OWLRuntimeException}. An interrupted
+ * thread keeps its interrupted status.
+ *
+ * @since 5.1.8
+ */
+public final class ParallelTasks {
+
+    private ParallelTasks() {}
+
+    /**
+     * @param future result to wait for
+     * @param <T> result type
+     * @return the result
+     */
+    public static <T> T get(Future<T> future) {
+        return get(future, OWLRuntimeException::new);
+    }
+
+    /**
+     * @param future result to wait for
+     * @param wrap wraps checked exceptions thrown by the task, and interruptions
+     * @param <T> result type
+     * @return the result
+     */
+    public static <T> T get(Future<T> future,
+        Function<Throwable, ? extends RuntimeException> wrap) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw wrap.apply(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw wrap.apply(cause);
+        }
+    }
+
+    /**
+     * Runs a task in a pool and waits for it to complete.
+     *
+     * @param pool pool to run the task in
+     * @param task task to run; parallel streams it uses run in the same pool
+     */
+    public static void run(ForkJoinPool pool, Runnable task) {
+        get(pool.submit(task));
+    }
+
+    /**
+     * Runs a task in a pool and waits for its result.
+     *
+     * @param pool pool to run the task in
+     * @param task task to run; parallel streams it uses run in the same pool
+     * @param <T> result type
+     * @return the result
+     */
+    public static <T> T call(ForkJoinPool pool, Callable<T> task) {
+        return get(pool.submit(task));
+    }
+
+    /**
+     * Runs a task in a new pool, which is shut down when the task completes.
+     *
+     * @param threads parallelism of the pool
+     * @param task task to run; parallel streams it uses run in the same pool
+     */
+    public static void run(int threads, Runnable task) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            run(pool, task);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs tasks on a new pool of threads, which is shut down when all tasks have completed or one
+     * has failed.
+     *
+     * @param threads number of threads
+     * @param tasks tasks to run
+     * @param wrap wraps checked exceptions thrown by the tasks, and interruptions
+     * @param <T> result type
+     * @return the results, in the order of the tasks
+     */
+    public static <T> List<T> invokeAll(int threads, List<? extends Callable<T>> tasks,
+        Function<Throwable, ? extends RuntimeException> wrap) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<T>> futures;
+            try {
+                futures = executor.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw wrap.apply(e);
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> f : futures) {
+                results.add(get(f, wrap));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package org.semanticweb.owlapi.util;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -13,7 +13,8 @@ import org.semanticweb.owlapi.model.providers.AnonymousIndividualByIdProvider;
 /**
  * A provider for anonymous individuals that remaps input ids consistently
  * across all requests. This class obeys the preferences set in
- * {@link OWLOntologyManager#getOntologyWriterConfiguration()}.
+ * {@link OWLOntologyManager#getOntologyWriterConfiguration()}. Instances can be shared between
+ * threads, e.g., by parsers working on separate sections of the same document.
  */
 public class RemappingIndividualProvider implements AnonymousIndividualByIdProvider {
 
@@ -29,7 +30,7 @@ public class RemappingIndividualProvider implements AnonymousIndividualByIdProvi
         this.df = df;
         cf = m.buildWriterConfiguration();
         if (cf.shouldRemapAllAnonymousIndividualsIds()) {
-            map = new HashMap<>();
+            map = new ConcurrentHashMap<>();
         } else {
             map = Collections.emptyMap();
         }
@@ -40,11 +41,6 @@ public class RemappingIndividualProvider implements AnonymousIndividualByIdProvi
         if (!cf.shouldRemapAllAnonymousIndividualsIds()) {
             return df.getOWLAnonymousIndividual(nodeId);
         }
-        OWLAnonymousIndividual toReturn = map.get(nodeId);
-        if (toReturn == null) {
-            toReturn = df.getOWLAnonymousIndividual();
-            map.put(nodeId, toReturn);
-        }
-        return toReturn;
+        return map.computeIfAbsent(nodeId, x -> df.getOWLAnonymousIndividual());
     }
 }
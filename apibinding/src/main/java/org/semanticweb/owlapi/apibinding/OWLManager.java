@@ -32,6 +32,7 @@ import uk.ac.manchester.cs.owl.owlapi.concurrent.ConcurrentOWLOntologyBuilder;
 import uk.ac.manchester.cs.owl.owlapi.concurrent.NoOpReadWriteLock;
 import uk.ac.manchester.cs.owl.owlapi.concurrent.NonConcurrentDelegate;
 import uk.ac.manchester.cs.owl.owlapi.concurrent.NonConcurrentOWLOntologyBuilder;
+import uk.ac.manchester.cs.owl.owlapi.concurrent.OptimisticReadWriteLock;
 
 /**
  * Provides a point of convenience for creating an {@code OWLOntologyManager} with commonly required
@@ -57,7 +58,9 @@ public class OWLManager implements OWLOntologyManagerFactory {
         // singletons.
         REENTRANT(ReadWriteLock.class, () -> new ReentrantReadWriteLock()),
         //
-        NOOP(ReadWriteLock.class, new NoOpReadWriteLock());
+        NOOP(ReadWriteLock.class, new NoOpReadWriteLock()),
+        //
+        OPTIMISTIC(ReadWriteLock.class, () -> new OptimisticReadWriteLock());
         private Class<?> c;
         private Supplier<?> s;
         private Class<?> type;
@@ -102,6 +105,8 @@ public class OWLManager implements OWLOntologyManagerFactory {
         InjectorConstants.REENTRANT.init(configure(new Injector()));
     private static final Injector normalInjector =
         InjectorConstants.NOOP.init(configure(new Injector()));
+    private static final Injector optimisticInjector =
+        InjectorConstants.OPTIMISTIC.init(configure(new Injector()));
 
     private static Injector configure(Injector i) {
         Arrays.stream(InjectorConstants.values()).forEach(f -> f.init(i));
@@ -128,6 +133,19 @@ public class OWLManager implements OWLOntologyManagerFactory {
             .inject(concurrentInjector.getImplementation(OWLOntologyManager.class));
     }
 
+    /**
+     * Creates an OWL ontology manager that is configured with the standard parsers and storers and
+     * provides locking for concurrent access; reads on its ontologies are attempted without
+     * locking, and repeated under a read lock only if they overlap with a write. This reduces
+     * contention for read mostly workloads on many cores.
+     *
+     * @return The new manager.
+     */
+    public static OWLOntologyManager createConcurrentOWLOntologyManagerWithOptimisticReads() {
+        return optimisticInjector
+            .inject(optimisticInjector.getImplementation(OWLOntologyManager.class));
+    }
+
     /**
      * Gets a global data factory that can be used to create OWL API objects.
      *
@@ -0,0 +1,121 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Lookups on the axiom indexes of an ontology, with and without compact indexes. Each benchmark
+ * queries every class once, so scores are per pass over the signature.
+ *
+ * @since 5.1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AxiomIndexBenchmark {
+
+    /**
+     * Number of classes in the ontology.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+    /**
+     * Whether the ontology uses compact indexes.
+     */
+    @Param({"false", "true"})
+    public boolean compactIndexes;
+    private OWLOntology ontology;
+    private List<OWLClass> classes;
+
+    /**
+     * @throws Exception if the ontology cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withCompactIndexes(compactIndexes);
+        ontology = BenchmarkOntologies.create(manager, size);
+        classes = asList(ontology.classesInSignature());
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void subClassAxiomsForSubClass(Blackhole bh) {
+        for (OWLClass c : classes) {
+            ontology.subClassAxiomsForSubClass(c).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void subClassAxiomsForSuperClass(Blackhole bh) {
+        for (OWLClass c : classes) {
+            ontology.subClassAxiomsForSuperClass(c).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void annotationAssertionAxioms(Blackhole bh) {
+        for (OWLClass c : classes) {
+            ontology.annotationAssertionAxioms(c.getIRI()).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void referencingAxioms(Blackhole bh) {
+        for (OWLClass c : classes) {
+            ontology.referencingAxioms(c).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void axiomsByType(Blackhole bh) {
+        ontology.axioms(AxiomType.SUBCLASS_OF).forEach(bh::consume);
+        ontology.axioms(AxiomType.ANNOTATION_ASSERTION).forEach(bh::consume);
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void containsAxiom(Blackhole bh) {
+        ontology.axioms(AxiomType.SUBCLASS_OF).forEach(ax -> bh.consume(ontology.containsAxiom(ax)));
+    }
+}
@@ -0,0 +1,112 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Datasets for the JMH benchmarks. Ontologies are generated rather than downloaded, and their
+ * content only depends on the requested size, so results can be compared across runs and OWLAPI
+ * versions. The shape is that of a typical OBO ontology: a class hierarchy with existential
+ * restrictions, labels and definitions, which every benchmarked format, OBO included, can
+ * represent.
+ * <p>
+ * Build the benchmarks jar and run it with the allocation profiler enabled, for example:
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar -prof gc -rf json ParseRenderBenchmark
+ * </pre>
+ *
+ * @since 5.1.8
+ */
+public final class BenchmarkOntologies {
+
+    /**
+     * Namespace of all generated entities.
+     */
+    public static final String NS = "http://purl.obolibrary.org/obo/BENCH_";
+    /**
+     * IRI of the generated ontologies.
+     */
+    public static final IRI ONTOLOGY_IRI = IRI.create("http://purl.obolibrary.org/obo/bench.owl");
+
+    private BenchmarkOntologies() {}
+
+    /**
+     * @param df data factory
+     * @param i index of the class
+     * @return the i-th class
+     */
+    public static OWLClass cls(OWLDataFactory df, int i) {
+        return df.getOWLClass(NS, String.format("%07d", Integer.valueOf(i)));
+    }
+
+    /**
+     * @param df data factory
+     * @return the object property used in restrictions
+     */
+    public static OWLObjectProperty partOf(OWLDataFactory df) {
+        return df.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/BFO_0000050"));
+    }
+
+    /**
+     * @param df data factory
+     * @param size number of classes
+     * @return the axioms of an ontology with the given number of classes
+     */
+    public static List<OWLAxiom> axioms(OWLDataFactory df, int size) {
+        return axioms(df, 0, size);
+    }
+
+    /**
+     * @param df data factory
+     * @param from index of the first class
+     * @param size number of classes
+     * @return the axioms for classes from {@code from} to {@code from + size - 1}; superclasses
+     *         and restriction fillers can be outside this range
+     */
+    public static List<OWLAxiom> axioms(OWLDataFactory df, int from, int size) {
+        List<OWLAxiom> axioms = new ArrayList<>();
+        OWLObjectProperty partOf = partOf(df);
+        axioms.add(df.getOWLDeclarationAxiom(partOf));
+        for (int i = from; i < from + size; i++) {
+            OWLClass c = cls(df, i);
+            axioms.add(df.getOWLDeclarationAxiom(c));
+            axioms.add(df.getOWLAnnotationAssertionAxiom(c.getIRI(),
+                df.getRDFSLabel("class " + i)));
+            axioms.add(df.getOWLAnnotationAssertionAxiom(c.getIRI(),
+                df.getRDFSComment("Definition of class " + i + ", generated for benchmarking.")));
+            if (i > 0) {
+                // a balanced binary tree, so that hierarchy traversals have realistic depth
+                axioms.add(df.getOWLSubClassOfAxiom(c, cls(df, (i - 1) / 2)));
+            }
+            if (i % 3 == 0) {
+                axioms.add(df.getOWLSubClassOfAxiom(c,
+                    df.getOWLObjectSomeValuesFrom(partOf, cls(df, i * 7 % (from + size)))));
+            }
+        }
+        return axioms;
+    }
+
+    /**
+     * @param manager manager to create the ontology with
+     * @param size number of classes
+     * @return a new ontology with the given number of classes
+     * @throws OWLOntologyCreationException if the ontology cannot be created
+     */
+    public static OWLOntology create(OWLOntologyManager manager, int size)
+        throws OWLOntologyCreationException {
+        OWLOntology ontology = manager.createOntology(ONTOLOGY_IRI);
+        ontology.add(axioms(manager.getOWLDataFactory(), size));
+        return ontology;
+    }
+}
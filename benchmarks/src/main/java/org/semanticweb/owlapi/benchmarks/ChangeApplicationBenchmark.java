@@ -0,0 +1,96 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.model.parameters.ChangeApplied;
+
+/**
+ * Throughput of {@code applyChanges} for small and large change lists. Each invocation adds a
+ * block of new axioms to an existing ontology and removes them again, so that the ontology is in
+ * the same state at the start of every invocation.
+ *
+ * @since 5.1.8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChangeApplicationBenchmark {
+
+    private static final int ONTOLOGY_SIZE = 10000;
+    /**
+     * Number of classes whose axioms are added and removed; the number of changes is about four
+     * times as large.
+     */
+    @Param({"10", "10000"})
+    public int changes;
+    private OWLOntologyManager manager;
+    private List<OWLOntologyChange> additions;
+    private List<OWLOntologyChange> removals;
+
+    /**
+     * @throws Exception if the ontology cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        manager = OWLManager.createOWLOntologyManager();
+        OWLOntology ontology = BenchmarkOntologies.create(manager, ONTOLOGY_SIZE);
+        List<OWLAxiom> axioms =
+            BenchmarkOntologies.axioms(manager.getOWLDataFactory(), ONTOLOGY_SIZE, changes);
+        // the object property declaration is already in the ontology
+        axioms.remove(0);
+        additions = new ArrayList<>(axioms.size());
+        removals = new ArrayList<>(axioms.size());
+        for (OWLAxiom ax : axioms) {
+            additions.add(new AddAxiom(ontology, ax));
+            removals.add(new RemoveAxiom(ontology, ax));
+        }
+    }
+
+    /**
+     * @return the outcome of the removals
+     */
+    @Benchmark
+    public ChangeApplied batch() {
+        manager.applyChanges(additions);
+        return manager.applyChanges(removals);
+    }
+
+    /**
+     * @return the outcome of the last removal
+     */
+    @Benchmark
+    public ChangeApplied oneByOne() {
+        for (OWLOntologyChange change : additions) {
+            manager.applyChange(change);
+        }
+        ChangeApplied result = ChangeApplied.NO_OPERATION;
+        for (OWLOntologyChange change : removals) {
+            result = manager.applyChange(change);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+/**
+ * Object creation through {@link OWLDataFactory}. Entity names cycle over a fixed range, so that
+ * the entity caches of the data factory see both hits and misses.
+ *
+ * @since 5.1.8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataFactoryBenchmark {
+
+    private static final int RANGE = 100000;
+    private final OWLDataFactory df = OWLManager.getOWLDataFactory();
+    private final OWLObjectProperty partOf = BenchmarkOntologies.partOf(df);
+    private int counter = 0;
+
+    private int next() {
+        counter = (counter + 1) % RANGE;
+        return counter;
+    }
+
+    /**
+     * @return a class
+     */
+    @Benchmark
+    public OWLClass createClass() {
+        return BenchmarkOntologies.cls(df, next());
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void createSubClassOfAxiom(Blackhole bh) {
+        int i = next();
+        bh.consume(df.getOWLSubClassOfAxiom(BenchmarkOntologies.cls(df, i),
+            BenchmarkOntologies.cls(df, i / 2)));
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void createRestriction(Blackhole bh) {
+        bh.consume(df.getOWLObjectSomeValuesFrom(partOf, BenchmarkOntologies.cls(df, next())));
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void createLiterals(Blackhole bh) {
+        int i = next();
+        bh.consume(df.getOWLLiteral(i));
+        bh.consume(df.getOWLLiteral("literal " + i, "en"));
+        bh.consume(df.getOWLLiteral(Integer.toString(i), df.getIntegerOWLDatatype()));
+    }
+}
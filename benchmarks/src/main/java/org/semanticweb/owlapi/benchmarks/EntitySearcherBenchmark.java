@@ -0,0 +1,86 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.search.EntitySearcher;
+
+/**
+ * Traversals through {@link EntitySearcher}, which is how most applications navigate an ontology
+ * without a reasoner. Each benchmark visits every class once.
+ *
+ * @since 5.1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntitySearcherBenchmark {
+
+    /**
+     * Number of classes in the ontology.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+    private OWLOntology ontology;
+    private List<OWLClass> classes;
+
+    /**
+     * @throws Exception if the ontology cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ontology = BenchmarkOntologies.create(OWLManager.createOWLOntologyManager(), size);
+        classes = asList(ontology.classesInSignature());
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void superClasses(Blackhole bh) {
+        for (OWLClass c : classes) {
+            EntitySearcher.getSuperClasses(c, ontology).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void subClasses(Blackhole bh) {
+        for (OWLClass c : classes) {
+            EntitySearcher.getSubClasses(c, ontology).forEach(bh::consume);
+        }
+    }
+
+    /**
+     * @param bh blackhole
+     */
+    @Benchmark
+    public void annotations(Blackhole bh) {
+        for (OWLClass c : classes) {
+            EntitySearcher.getAnnotations(c, ontology).forEach(bh::consume);
+        }
+    }
+}
@@ -30,9 +30,9 @@ public class MemoryBenchmark {
 
     @SuppressWarnings("javadoc")
     public static void main(String[] args) throws Exception {
-        if (args.length > 2) {
+        if (args.length > 3) {
             System.err.println("usage: " + MemoryBenchmark.class.getCanonicalName()
-                + "<src-ontology> <dest-hprof>");
+                + "<src-ontology> <dest-hprof> [compact]");
         }
         String filename = "/Users/ses/ontologies/GO/go.ofn";
         if (args.length > 0) {
@@ -40,7 +40,7 @@ public class MemoryBenchmark {
         }
         Path ontologyPath = FileSystems.getDefault().getPath(filename);
         Path hprofPath = getHprofPath(args, ontologyPath);
-        memoryProfile(ontologyPath, hprofPath);
+        memoryProfile(ontologyPath, hprofPath, args.length > 2 && "compact".equals(args[2]));
         System.exit(0);
     }
 
@@ -54,9 +54,26 @@ public class MemoryBenchmark {
      * @throws IOException if the dump file cannot be created
      */
     public static void memoryProfile(Path ontologyPath, Path hprofPath)
+        throws OWLOntologyCreationException,
+        IOException {
+        memoryProfile(ontologyPath, hprofPath, false);
+    }
+
+    /**
+     * Run memory profiling for an input ontology and output the dump file to
+     * the hprof path provided
+     *
+     * @param ontologyPath input ontology
+     * @param hprofPath dump file path for output
+     * @param compactIndexes true if the ontology should use compact indexes
+     * @throws OWLOntologyCreationException if the ontology cannot be created or loaded
+     * @throws IOException if the dump file cannot be created
+     */
+    public static void memoryProfile(Path ontologyPath, Path hprofPath, boolean compactIndexes)
         throws OWLOntologyCreationException,
         IOException {
         OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withCompactIndexes(compactIndexes);
         File file = ontologyPath.toFile();
         manager.getIRIMappers().add(new AutoIRIMapper(file.getParentFile(), false));
         OWLOntologyDocumentSource ds = null;
@@ -77,4 +77,18 @@ public class MyBenchmark {
             .loadOntologyFromOntologyDocument(ds, config);
         manager.removeOntology(ontology);
     }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @Benchmark
+    public void testLoadTaxonFSSParallel() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        OWLOntologyDocumentSource ds = new FileDocumentSource(
+            uncompressedTaxonFile);
+        OWLOntologyLoaderConfiguration config = new OWLOntologyLoaderConfiguration()
+            .setStrict(false)
+            .setParallelParsingThreads(Runtime.getRuntime().availableProcessors());
+        OWLOntologyImpl ontology = (OWLOntologyImpl) manager
+            .loadOntologyFromOntologyDocument(ds, config);
+        manager.removeOntology(ontology);
+    }
 }
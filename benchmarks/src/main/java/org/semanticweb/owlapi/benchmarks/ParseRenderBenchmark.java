@@ -0,0 +1,107 @@
+package org.semanticweb.owlapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.ManchesterSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.OBODocumentFormat;
+import org.semanticweb.owlapi.formats.OWLXMLDocumentFormat;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.formats.TurtleDocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+
+/**
+ * Parse and render throughput for each format. The document to parse is rendered once per trial
+ * from the generated ontology; each parse uses a new manager, as an application loading a file
+ * would.
+ *
+ * @since 5.1.8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParseRenderBenchmark {
+
+    /**
+     * Format to parse and render.
+     */
+    @Param({"functional", "rdfxml", "turtle", "owlxml", "manchester", "obo"})
+    public String format;
+    /**
+     * Number of classes in the ontology.
+     */
+    @Param({"1000", "10000"})
+    public int size;
+    private OWLOntology ontology;
+    private String document;
+
+    /**
+     * @throws Exception if the ontology cannot be created or rendered
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ontology = BenchmarkOntologies.create(OWLManager.createOWLOntologyManager(), size);
+        document = render();
+    }
+
+    private OWLDocumentFormat documentFormat() {
+        switch (format) {
+            case "functional":
+                return new FunctionalSyntaxDocumentFormat();
+            case "rdfxml":
+                return new RDFXMLDocumentFormat();
+            case "turtle":
+                return new TurtleDocumentFormat();
+            case "owlxml":
+                return new OWLXMLDocumentFormat();
+            case "manchester":
+                return new ManchesterSyntaxDocumentFormat();
+            case "obo":
+                return new OBODocumentFormat();
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    /**
+     * @return the parsed ontology
+     * @throws OWLOntologyCreationException if parsing fails
+     */
+    @Benchmark
+    public OWLOntology parse() throws OWLOntologyCreationException {
+        return OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(
+            new StringDocumentSource(document, "benchmark", documentFormat(), null));
+    }
+
+    /**
+     * @return the rendered document
+     * @throws OWLOntologyStorageException if rendering fails
+     */
+    @Benchmark
+    public String render() throws OWLOntologyStorageException {
+        StringDocumentTarget target = new StringDocumentTarget();
+        ontology.getOWLOntologyManager().saveOntology(ontology, documentFormat(), target);
+        return target.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.clarkparsia.owlapi.explanation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.OWLNothing;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+@SuppressWarnings("javadoc")
+public class ParallelHSTExplanationGeneratorTestCase extends TestBase {
+
+    /**
+     * Named classes are unsatisfiable if told subclass axioms lead to owl:Nothing.
+     */
+    static class SubClassReasonerFactory implements OWLReasonerFactory {
+
+        static boolean isSatisfiable(OWLOntology o, OWLClassExpression ce) {
+            Set<OWLClass> seen = new HashSet<>();
+            Deque<OWLClass> toVisit = new ArrayDeque<>();
+            toVisit.add(ce.asOWLClass());
+            while (!toVisit.isEmpty()) {
+                OWLClass c = toVisit.poll();
+                if (c.isOWLNothing()) {
+                    return false;
+                }
+                if (seen.add(c)) {
+                    o.subClassAxiomsForSubClass(c).map(OWLSubClassOfAxiom::getSuperClass)
+                        .filter(s -> !s.isAnonymous()).forEach(s -> toVisit.add(s.asOWLClass()));
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String getReasonerName() {
+            return "told subclasses";
+        }
+
+        @Override
+        public OWLReasoner createNonBufferingReasoner(OWLOntology o) {
+            return (OWLReasoner) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {OWLReasoner.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isSatisfiable":
+                            return Boolean
+                                .valueOf(isSatisfiable(o, (OWLClassExpression) args[0]));
+                        case "getRootOntology":
+                            return o;
+                        case "dispose":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        @Override
+        public OWLReasoner createReasoner(OWLOntology o) {
+            return createNonBufferingReasoner(o);
+        }
+
+        @Override
+        public OWLReasoner createNonBufferingReasoner(OWLOntology o,
+            OWLReasonerConfiguration config) {
+            return createNonBufferingReasoner(o);
+        }
+
+        @Override
+        public OWLReasoner createReasoner(OWLOntology o, OWLReasonerConfiguration config) {
+            return createNonBufferingReasoner(o);
+        }
+    }
+
+    private static OWLClass c(String name) {
+        return Class(iri(name));
+    }
+
+    /**
+     * A is unsatisfiable through each Bi, and through the chain D, E; F is unrelated.
+     */
+    private static OWLOntology ontology() throws Exception {
+        OWLOntology o = OWLManager.createConcurrentOWLOntologyManager().createOntology();
+        for (int i = 0; i < 4; i++) {
+            o.add(SubClassOf(c("A"), c("B" + i)), SubClassOf(c("B" + i), OWLNothing()));
+        }
+        o.add(SubClassOf(c("A"), c("D")), SubClassOf(c("D"), c("E")),
+            SubClassOf(c("E"), OWLNothing()), SubClassOf(c("F"), c("A")),
+            SubClassOf(c("A"), c("G")));
+        return o;
+    }
+
+    private static Set<Set<OWLAxiom>> sequential(OWLOntology o) {
+        SubClassReasonerFactory factory = new SubClassReasonerFactory();
+        HSTExplanationGenerator generator = new HSTExplanationGenerator(
+            new BlackBoxExplanation(o, factory, factory.createReasoner(o)));
+        return generator.getExplanations(c("A"));
+    }
+
+    private static ParallelHSTExplanationGenerator parallel(OWLOntology o) {
+        SubClassReasonerFactory factory = new SubClassReasonerFactory();
+        return new ParallelHSTExplanationGenerator(o, factory, factory.createReasoner(o),
+            OWLManager::createOWLOntologyManager, 4);
+    }
+
+    @Test
+    public void shouldFindSameJustificationsInParallel() throws Exception {
+        OWLOntology o = ontology();
+        Set<Set<OWLAxiom>> expected = sequential(o);
+        assertEquals(5, expected.size());
+        int axioms = o.getAxiomCount(Imports.INCLUDED);
+        List<Set<OWLAxiom>> streamed = new ArrayList<>();
+        ParallelHSTExplanationGenerator generator = parallel(o);
+        Set<Set<OWLAxiom>> found = generator.getExplanations(c("A"), 0, streamed::add);
+        assertEquals(expected, found);
+        assertEquals(new ArrayList<>(found), streamed);
+        // the ontology is not modified
+        assertEquals(axioms, o.getAxiomCount(Imports.INCLUDED));
+        assertTrue(generator.getExplanations(c("G")).isEmpty());
+        assertEquals(expected.size(), generator.getExplanations(c("F")).size());
+        generator.dispose();
+    }
+
+    @Test
+    public void shouldStopAtMaximumNumberOfJustifications() throws Exception {
+        OWLOntology o = ontology();
+        Set<Set<OWLAxiom>> expected = sequential(o);
+        Set<Set<OWLAxiom>> found = parallel(o).getExplanations(c("A"), 2);
+        assertEquals(2, found.size());
+        assertTrue(expected.containsAll(found));
+    }
+
+    @Test
+    public void shouldReuseAndReleaseDebuggingManagers() throws Exception {
+        OWLOntology o = ontology();
+        SubClassReasonerFactory factory = new SubClassReasonerFactory();
+        Queue<OWLOntologyManager> managers = new ConcurrentLinkedQueue<>();
+        ParallelHSTExplanationGenerator generator = new ParallelHSTExplanationGenerator(o,
+            factory, factory.createReasoner(o), () -> {
+                OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+                managers.add(manager);
+                return manager;
+            }, 2);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(5, generator.getExplanations(c("A")).size());
+        }
+        // one for the calling thread and one for each worker, at most
+        assertTrue(managers.toString(), managers.size() <= 3);
+        generator.dispose();
+        for (OWLOntologyManager manager : managers) {
+            assertEquals(0, manager.getOntologies().size());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.obolibrary.oboformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.obolibrary.obo2owl.OWLAPIObo2Owl;
+import org.obolibrary.oboformat.model.OBODoc;
+import org.obolibrary.oboformat.parser.OBOFormatParser;
+import org.obolibrary.oboformat.parser.OBOFormatParserException;
+import org.obolibrary.oboformat.writer.OBOFormatWriter;
+import org.semanticweb.owlapi.formats.OBODocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+@SuppressWarnings("javadoc")
+public class ParallelOBOParsingTestCase extends OboFormatTestBasics {
+
+    private static final int TERMS = 2000;
+
+    private static String document(String extra) {
+        StringBuilder b = new StringBuilder();
+        b.append("format-version: 1.2\n");
+        b.append("ontology: ptest\n");
+        b.append("default-namespace: ptest_ns\n");
+        b.append("subsetdef: slim \"A slim\"\n");
+        b.append("synonymtypedef: ABBREV \"abbreviation\"\n");
+        b.append("! header comment\n\n");
+        b.append("[Typedef]\nid: part_of\nname: part of\nis_transitive: true\n\n");
+        b.append("[Typedef]\nid: has_part\nname: has part\ninverse_of: part_of\n\n");
+        for (int i = 0; i < TERMS; i++) {
+            b.append("[Term]\n");
+            b.append("id: PT:").append(i).append(" ! term ").append(i).append('\n');
+            b.append("name: term ").append(i).append('\n');
+            b.append("def: \"Definition of term ").append(i).append(".\" [PMID:").append(i)
+                .append("]\n");
+            b.append("synonym: \"t").append(i).append("\" EXACT ABBREV []\n");
+            if (i % 10 == 0) {
+                b.append("subset: slim\n");
+                b.append("alt_id: PT:alt").append(i).append('\n');
+            }
+            if (i > 0) {
+                b.append("is_a: PT:").append(i / 2).append('\n');
+                b.append("relationship: part_of PT:").append(i - 1).append(" {source=\"x\"}\n");
+            }
+            if (i % 7 == 0 && i > 1) {
+                b.append("intersection_of: PT:1\n");
+                b.append("intersection_of: part_of PT:").append(i - 1).append('\n');
+            }
+            b.append("\n");
+        }
+        // frames with ids already used, merged with the first definition
+        b.append("[Term]\nid: PT:3\ncomment: merged comment\n\n");
+        b.append("  [Term]\nid: PT:1500\nxref: X:1500\n\n");
+        b.append(extra);
+        return b.toString();
+    }
+
+    /**
+     * Merged frames have two id clauses, which the structure check rejects.
+     */
+    private static String render(OBODoc doc) throws IOException {
+        OBOFormatWriter writer = new OBOFormatWriter();
+        writer.setCheckStructure(false);
+        StringWriter out = new StringWriter();
+        writer.write(doc, new PrintWriter(out));
+        return out.toString();
+    }
+
+    private static OBODoc parse(String document, int threads) throws IOException {
+        OBOFormatParser parser = new OBOFormatParser();
+        parser.setParallelThreads(threads);
+        return parser.parse(new StringReader(document));
+    }
+
+    @Test
+    public void shouldParseSameDocumentInParallel() throws IOException {
+        String document = document("");
+        OBODoc sequential = parse(document, 1);
+        OBODoc parallel = parse(document, 4);
+        assertEquals(TERMS, parallel.getTermFrames().size());
+        assertEquals(2, parallel.getTypedefFrames().size());
+        assertEquals("merged comment",
+            parallel.getTermFrame("PT:3").getTagValue("comment", String.class));
+        assertEquals(render(sequential), render(parallel));
+    }
+
+    @Test
+    public void shouldStopAtInstanceFrameInParallel() throws IOException {
+        String document =
+            document("[Instance]\nid: I:1\n\n[Term]\nid: PT:after\nname: after\n\n");
+        OBODoc parallel = parse(document, 4);
+        assertEquals(TERMS, parallel.getTermFrames().size());
+        assertEquals(render(parse(document, 1)), render(parallel));
+    }
+
+    @Test
+    public void shouldReportSameErrorInParallel() throws IOException {
+        String document = document("[Term]\nid: PT:bad\nis_a: \n\n[Term]\nid: PT:worse\n[\n");
+        int expected = -1;
+        try {
+            parse(document, 1);
+            fail("syntax error not reported");
+        } catch (OBOFormatParserException e) {
+            expected = e.getLineNo();
+        }
+        try {
+            parse(document, 4);
+            fail("syntax error not reported");
+        } catch (OBOFormatParserException e) {
+            assertEquals(expected, e.getLineNo());
+        }
+    }
+
+    @Test
+    public void shouldTranslateSameAxiomsInParallel() throws Exception {
+        OBODoc doc = parse(document(""), 1);
+        OWLAPIObo2Owl sequential = new OWLAPIObo2Owl(m);
+        OWLOntology o1 = sequential.convert(doc);
+        OWLAPIObo2Owl parallel = new OWLAPIObo2Owl(m1);
+        parallel.setParallelThreads(4);
+        OWLOntology o2 = parallel.convert(doc);
+        assertTrue(o2.getAxiomCount() > TERMS * 4);
+        assertEquals(o1.getOntologyID(), o2.getOntologyID());
+        assertEquals(asUnorderedSet(o1.axioms()), asUnorderedSet(o2.axioms()));
+        assertEquals(asUnorderedSet(o1.annotations()), asUnorderedSet(o2.annotations()));
+    }
+
+    @Test
+    public void shouldLoadThroughManagerInParallel() throws Exception {
+        String document = document("");
+        OWLOntology o1 = m.loadOntologyFromOntologyDocument(
+            new StringDocumentSource(document, "urn:test:seq", new OBODocumentFormat(), null));
+        m1.setOntologyLoaderConfiguration(
+            m1.getOntologyLoaderConfiguration().setParallelParsingThreads(4));
+        OWLOntology o2 = m1.loadOntologyFromOntologyDocument(
+            new StringDocumentSource(document, "urn:test:par", new OBODocumentFormat(), null));
+        assertEquals(asUnorderedSet(o1.axioms()), asUnorderedSet(o2.axioms()));
+    }
+}
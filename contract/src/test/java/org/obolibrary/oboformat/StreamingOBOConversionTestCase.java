@@ -0,0 +1,114 @@
+package org.obolibrary.oboformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.obolibrary.obo2owl.OWLAPIObo2Owl;
+import org.obolibrary.oboformat.model.Frame;
+import org.obolibrary.oboformat.model.OBODoc;
+import org.obolibrary.oboformat.parser.OBOFormatParser;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+@SuppressWarnings("javadoc")
+public class StreamingOBOConversionTestCase extends OboFormatTestBasics {
+
+    private static final int TERMS = 500;
+
+    private static String document() {
+        StringBuilder b = new StringBuilder();
+        b.append("format-version: 1.2\n");
+        b.append("ontology: stest\n");
+        b.append("default-namespace: stest_ns\n");
+        b.append("logical-definition-view-relation: part_of\n");
+        b.append("subsetdef: slim \"A slim\"\n");
+        b.append("owl-axioms: Prefix(:=<http://purl.obolibrary.org/obo/>) Ontology("
+            + "EquivalentClasses(:ST_0 ObjectSomeValuesFrom(:BFO_0000050 :ST_1)))\n\n");
+        b.append("[Typedef]\nid: has_part\nname: has part\ninverse_of: part_of\n\n");
+        for (int i = 0; i < TERMS; i++) {
+            b.append("[Term]\n");
+            b.append("id: ST:").append(i).append('\n');
+            b.append("name: term ").append(i).append('\n');
+            b.append("def: \"Definition of term ").append(i).append(".\" [PMID:").append(i)
+                .append("]\n");
+            if (i % 10 == 0) {
+                b.append("subset: slim\n");
+            }
+            if (i > 0) {
+                b.append("is_a: ST:").append(i / 2).append('\n');
+                b.append("relationship: part_of ST:").append(i - 1).append('\n');
+            }
+            if (i % 7 == 0 && i > 1) {
+                b.append("intersection_of: ST:1\n");
+                b.append("intersection_of: part_of ST:").append(i - 1).append('\n');
+            }
+            b.append('\n');
+        }
+        // typedefs after the terms using them, and frames the full parse does not read
+        b.append("[Typedef]\nid: part_of\nname: part of\nis_transitive: true\n\n");
+        b.append("[Instance]\nid: I:1\n\n[Term]\nid: ST:after\nname: after\n\n");
+        return b.toString();
+    }
+
+    private File write(String document) throws Exception {
+        File file = folder.newFile("streaming.obo");
+        Files.write(file.toPath(), document.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void shouldParseTermFramesOneAtATime() throws Exception {
+        File file = write(document());
+        OBODoc header = new OBOFormatParser().parseHeaderAndTypedefFrames(
+            Files.newBufferedReader(file.toPath()));
+        assertEquals(0, header.getTermFrames().size());
+        assertEquals(2, header.getTypedefFrames().size());
+        assertEquals("stest", header.getHeaderFrame().getTagValue("ontology", String.class));
+        List<Frame> frames = new ArrayList<>();
+        new OBOFormatParser().parseTermFrames(Files.newBufferedReader(file.toPath()),
+            frames::add);
+        assertEquals(TERMS, frames.size());
+        assertEquals("ST:42", frames.get(42).getId());
+        assertEquals("stest_ns", frames.get(42).getTagValue("namespace", String.class));
+    }
+
+    @Test
+    public void shouldStreamSameAxiomsAsFullConversion() throws Exception {
+        File file = write(document());
+        OWLOntology full = new OWLAPIObo2Owl(m).convert(new OBOFormatParser().parse(file));
+        OWLOntology header = m1.createOntology();
+        List<OWLAxiom> axioms = new ArrayList<>();
+        new OWLAPIObo2Owl(m1).convertStreaming(file.toURI().toURL(), header, axioms::add);
+        assertEquals(0, header.getAxiomCount());
+        assertEquals(full.getOntologyID(), header.getOntologyID());
+        assertEquals(asUnorderedSet(full.annotations()), asUnorderedSet(header.annotations()));
+        assertEquals(asUnorderedSet(full.axioms()), new HashSet<>(axioms));
+        // class declarations can be repeated; other declarations are passed once
+        long declarations = axioms.stream().filter(ax -> ax.isOfType(AxiomType.DECLARATION))
+            .filter(ax -> !((OWLDeclarationAxiom) ax).getEntity().isOWLClass()).count();
+        assertEquals(full.axioms(AxiomType.DECLARATION)
+            .filter(ax -> !ax.getEntity().isOWLClass()).count(), declarations);
+    }
+
+    @Test
+    public void shouldWriteFunctionalSyntaxWhileStreaming() throws Exception {
+        File file = write(document());
+        OWLOntology full = new OWLAPIObo2Owl(m).convert(new OBOFormatParser().parse(file));
+        File out = folder.newFile("streaming.ofn");
+        OWLAPIObo2Owl.convertURLStreaming(file.toURI().toString(), out.getPath(), m1);
+        OWLOntology reloaded = m1.loadOntologyFromOntologyDocument(out);
+        assertEquals(full.getOntologyID(), reloaded.getOntologyID());
+        assertEquals(asUnorderedSet(full.annotations()), asUnorderedSet(reloaded.annotations()));
+        assertEquals(asUnorderedSet(full.axioms()), asUnorderedSet(reloaded.axioms()));
+    }
+}
@@ -5,6 +5,7 @@ import static org.semanticweb.owlapi.model.MissingImportHandlingStrategy.THROW_E
 import static org.semanticweb.owlapi.model.MissingOntologyHeaderStrategy.INCLUDE_GRAPH;
 import static org.semanticweb.owlapi.model.PriorityCollectionSorting.ON_SET_INJECTION_ONLY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.ACCEPT_HTTP_COMPRESSION;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.COMPACT_INDEXES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.CONNECTION_TIMEOUT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.FOLLOW_REDIRECTS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.INDENTING;
@@ -13,12 +14,16 @@ import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LABEL
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.LOAD_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_IMPORT_HANDLING_STRATEGY;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.MISSING_ONTOLOGY_HEADER_STRATEGY;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_IMPORT_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_PARSING_THREADS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARALLEL_RENDERING_THREADS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PARSE_WITH_STRICT_CONFIGURATION;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.PRIORITY_COLLECTION_SORTING;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REMAP_IDS;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.REPORT_STACK_TRACES;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.RETRIES_TO_ATTEMPT;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SAVE_IDS;
+import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.SIGNATURE_CACHE_SIZE;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.TREAT_DUBLINCORE_AS_BUILTIN;
 import static org.semanticweb.owlapi.model.parameters.ConfigurationOptions.USE_NAMESPACE_ENTITIES;
 
@@ -45,6 +50,7 @@ public class ConfigurationOptionsTestCase {
     public static List<Object[]> values() {
         List<Object[]> toReturn = new ArrayList<>();
         toReturn.add(new Object[]{ACCEPT_HTTP_COMPRESSION, Boolean.TRUE});
+        toReturn.add(new Object[]{COMPACT_INDEXES, Boolean.FALSE});
         toReturn.add(new Object[]{CONNECTION_TIMEOUT, Integer.valueOf(20000)});
         toReturn.add(new Object[]{FOLLOW_REDIRECTS, Boolean.TRUE});
         toReturn.add(new Object[]{INDENT_SIZE, Integer.valueOf(4)});
@@ -54,11 +60,15 @@ public class ConfigurationOptionsTestCase {
         toReturn.add(new Object[]{PARSE_WITH_STRICT_CONFIGURATION, Boolean.FALSE});
         toReturn.add(new Object[]{MISSING_IMPORT_HANDLING_STRATEGY, THROW_EXCEPTION});
         toReturn.add(new Object[]{MISSING_ONTOLOGY_HEADER_STRATEGY, INCLUDE_GRAPH});
+        toReturn.add(new Object[]{PARALLEL_IMPORT_THREADS, Integer.valueOf(1)});
+        toReturn.add(new Object[]{PARALLEL_PARSING_THREADS, Integer.valueOf(1)});
+        toReturn.add(new Object[]{PARALLEL_RENDERING_THREADS, Integer.valueOf(1)});
         toReturn.add(new Object[]{PRIORITY_COLLECTION_SORTING, ON_SET_INJECTION_ONLY});
         toReturn.add(new Object[]{REMAP_IDS, Boolean.TRUE});
         toReturn.add(new Object[]{REPORT_STACK_TRACES, Boolean.TRUE});
         toReturn.add(new Object[]{RETRIES_TO_ATTEMPT, Integer.valueOf(5)});
         toReturn.add(new Object[]{SAVE_IDS, Boolean.FALSE});
+        toReturn.add(new Object[]{SIGNATURE_CACHE_SIZE, Integer.valueOf(Integer.MAX_VALUE)});
         toReturn.add(new Object[]{TREAT_DUBLINCORE_AS_BUILTIN, Boolean.TRUE});
         toReturn.add(new Object[]{USE_NAMESPACE_ENTITIES, Boolean.FALSE});
         return toReturn;
@@ -0,0 +1,73 @@
+package org.semanticweb.owlapi.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLMetrics;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.InMemoryOWLMetrics;
+import org.semanticweb.owlapi.util.InMemoryOWLMetrics.LatencyHistogram;
+
+@SuppressWarnings("javadoc")
+public class OWLMetricsTestCase extends TestBase {
+
+    @Test
+    public void shouldRecordNothingByDefault() {
+        assertSame(OWLMetrics.NONE, m.getMetrics());
+        assertEquals(0L, OWLMetrics.NONE.start());
+    }
+
+    @Test
+    public void shouldRecordHotPathsPerManager() throws Exception {
+        InMemoryOWLMetrics metrics = new InMemoryOWLMetrics();
+        m.setMetrics(metrics);
+        OWLOntology o = m.loadOntologyFromOntologyDocument(new StringDocumentSource(
+            "Prefix(:=<urn:test#>) Ontology(<urn:test> SubClassOf(:A :B))"));
+        String parse = OWLMetrics.PARSE + '.' + new FunctionalSyntaxDocumentFormat().getKey();
+        assertEquals(1L, metrics.getTimer(parse).getCount());
+        metrics.reset();
+        OWLAxiom axiom = SubClassOf(Class(iri("C")), Class(iri("D")));
+        o.add(axiom, SubClassOf(Class(iri("D")), Class(iri("E"))));
+        assertEquals(2L, metrics.getCount(OWLMetrics.CHANGES));
+        assertEquals(1L, metrics.getTimer(OWLMetrics.CHANGES_APPLY).getCount());
+        assertEquals(2L, metrics.getTimer(OWLMetrics.AXIOM_ADD).getCount());
+        assertEquals(1L, o.subClassAxiomsForSubClass(Class(iri("C"))).count());
+        assertTrue(metrics.getTimer(OWLMetrics.INDEX_BUILD).getCount() > 0);
+        assertTrue(metrics.getTimer(OWLMetrics.INDEX_LOOKUP).getCount() > 0);
+        o.remove(axiom);
+        assertEquals(1L, metrics.getTimer(OWLMetrics.AXIOM_REMOVE).getCount());
+        assertTrue(metrics.getCounts()
+            .containsKey(OWLMetrics.DATA_FACTORY_CACHE + ".classes.hits"));
+        // metrics belong to the manager: other managers and disabled metrics record nothing
+        assertEquals(2L, metrics.getTimer(OWLMetrics.CHANGES_APPLY).getCount());
+        m1.createOntology().add(axiom);
+        m.setMetrics(OWLMetrics.NONE);
+        o.remove(SubClassOf(Class(iri("D")), Class(iri("E"))));
+        assertEquals(2L, metrics.getTimer(OWLMetrics.CHANGES_APPLY).getCount());
+        assertEquals(1L, metrics.getTimer(OWLMetrics.AXIOM_REMOVE).getCount());
+    }
+
+    @Test
+    public void shouldKeepLatencyHistogram() {
+        InMemoryOWLMetrics metrics = new InMemoryOWLMetrics();
+        for (int i = 1; i <= 1000; i++) {
+            metrics.time("t", i);
+        }
+        LatencyHistogram h = metrics.getTimer("t");
+        assertEquals(1000L, h.getCount());
+        assertEquals(500L, h.getMeanNanos());
+        assertEquals(1000L, h.getMaxNanos());
+        long median = h.getPercentileNanos(50);
+        assertTrue(Long.toString(median), median >= 500 && median < 1024);
+        assertEquals(1000L, h.getPercentileNanos(100));
+        assertEquals(0L, metrics.getTimer("unknown").getPercentileNanos(99));
+    }
+}
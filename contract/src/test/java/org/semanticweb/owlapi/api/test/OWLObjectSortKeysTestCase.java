@@ -0,0 +1,140 @@
+package org.semanticweb.owlapi.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.OWLObjectSortKeys;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+@SuppressWarnings("javadoc")
+public class OWLObjectSortKeysTestCase extends TestBase {
+
+    private static final String NS = "urn:test:keys#";
+
+    private static int sign(int i) {
+        return Integer.signum(i);
+    }
+
+    private static void assertSameOrder(List<? extends OWLObject> objects) {
+        for (OWLObject o1 : objects) {
+            for (OWLObject o2 : objects) {
+                assertEquals(o1 + " " + o2, sign(o1.compareTo(o2)),
+                    sign(OWLObjectSortKeys.compare(o1, o2)));
+            }
+        }
+        List<OWLObject> expected = new ArrayList<>(objects);
+        Collections.shuffle(expected);
+        List<OWLObject> actual = new ArrayList<>(expected);
+        Collections.sort(expected);
+        OWLObjectSortKeys.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    private List<OWLObject> objects() {
+        List<OWLObject> l = new ArrayList<>();
+        OWLClass a = df.getOWLClass(NS, "A");
+        OWLClass b = df.getOWLClass(NS, "B");
+        OWLClass ab = df.getOWLClass(NS, "AB");
+        OWLClass other = df.getOWLClass("urn:test:keys2#", "A");
+        OWLObjectProperty p = df.getOWLObjectProperty(NS, "p");
+        OWLDataProperty d = df.getOWLDataProperty(NS, "d");
+        OWLAnnotationProperty ap = df.getOWLAnnotationProperty(NS, "ap");
+        OWLIndividual i = df.getOWLNamedIndividual(NS, "i");
+        OWLIndividual anon = df.getOWLAnonymousIndividual("_:genid1");
+        OWLDatatype dt = df.getOWLDatatype(NS, "dt");
+        List<OWLLiteral> literals = Arrays.asList(df.getOWLLiteral("a"), df.getOWLLiteral(""),
+            df.getOWLLiteral("a", "en"), df.getOWLLiteral("a", "en-gb"), df.getOWLLiteral(1),
+            df.getOWLLiteral(-1), df.getOWLLiteral(true), df.getOWLLiteral(1.5D),
+            df.getOWLLiteral("ab"), df.getOWLLiteral("a\u0000"), df.getOWLLiteral("a\u00FF"),
+            df.getOWLLiteral("a\u0100"), df.getOWLLiteral("a\uFFFE"), df.getOWLLiteral("a\uFFFF"),
+            df.getOWLLiteral("a\uFFFFb"), df.getOWLLiteral("\uD83D\uDE00"),
+            df.getOWLLiteral("x", dt));
+        OWLAnnotation ann = df.getOWLAnnotation(ap, df.getOWLLiteral("c"));
+        OWLAnnotation ann2 = df.getOWLAnnotation(ap, IRI.create(NS, "value"));
+        l.add(IRI.create(NS, "A"));
+        l.add(IRI.create(NS + "A/"));
+        l.add(IRI.create("urn:test:keys"));
+        l.addAll(Arrays.asList(a, b, ab, other, p, d, ap, i, anon, dt, ann, ann2));
+        l.addAll(literals);
+        l.add(df.getOWLDatatype(OWL2Datatype.XSD_INTEGER));
+        l.add(df.getOWLDatatype(OWL2Datatype.XSD_STRING));
+        l.add(df.getOWLObjectInverseOf(p));
+        l.add(df.getOWLObjectIntersectionOf(a, b));
+        l.add(df.getOWLObjectIntersectionOf(a, b, ab));
+        l.add(df.getOWLObjectUnionOf(a, b));
+        l.add(df.getOWLObjectSomeValuesFrom(p, a));
+        l.add(df.getOWLObjectMinCardinality(1, p, a));
+        l.add(df.getOWLObjectMinCardinality(2, p, a));
+        l.add(df.getOWLObjectMinCardinality(300, p, a));
+        l.add(df.getOWLDataOneOf(literals.subList(0, 3)));
+        l.add(df.getOWLDatatypeRestriction(dt, OWLFacet.MIN_INCLUSIVE, df.getOWLLiteral(1)));
+        l.add(df.getOWLDatatypeRestriction(dt, OWLFacet.MAX_INCLUSIVE, df.getOWLLiteral(1)));
+        l.add(df.getOWLSubClassOfAxiom(a, b));
+        l.add(df.getOWLSubClassOfAxiom(a, b, Collections.singletonList(ann)));
+        l.add(df.getOWLSubClassOfAxiom(a, df.getOWLObjectComplementOf(b)));
+        l.add(df.getOWLDeclarationAxiom(a.asOWLClass()));
+        l.add(df.getOWLDeclarationAxiom(df.getOWLClass(NS, "A")));
+        l.add(df.getOWLClassAssertionAxiom(a, anon));
+        l.add(df.getOWLClassAssertionAxiom(a, i));
+        l.add(df.getOWLAnnotationAssertionAxiom(IRI.create(NS, "A"), ann));
+        l.add(df.getOWLAnnotationAssertionAxiom(IRI.create(NS, "A"), ann2));
+        l.add(df.getOWLAnnotationAssertionAxiom(df.getOWLAnonymousIndividual("_:genid2"), ann));
+        l.add(df.getOWLDataPropertyAssertionAxiom(d, i, 5));
+        l.add(df.getSWRLRule(Collections.singleton(df.getSWRLClassAtom(a, df.getSWRLVariable(NS,
+            "x"))), Collections.singleton(df.getSWRLClassAtom(b, df.getSWRLVariable(NS, "x")))));
+        return l;
+    }
+
+    @Test
+    public void shouldOrderKeysAsCompareTo() {
+        assertSameOrder(objects());
+    }
+
+    @Test
+    public void shouldOrderOntologyAsCompareTo() {
+        OWLOntology o = ontologyFromClasspathFile("pizza.owl");
+        List<OWLObject> objects = new ArrayList<>();
+        objects.addAll(asList(o.signature()));
+        objects.addAll(asList(o.axioms()));
+        objects.addAll(asList(o.nestedClassExpressions()));
+        List<OWLObject> expected = new ArrayList<>(objects);
+        Collections.sort(expected);
+        OWLObjectSortKeys.sort(objects);
+        assertEquals(expected, objects);
+        assertSameOrder(objects.subList(0, 300));
+    }
+
+    @Test
+    public void shouldCompareObjectsWithoutKeys() throws Exception {
+        OWLOntology o1 = m.createOntology(IRI.create(NS, "o1"));
+        OWLOntology o2 = m.createOntology(IRI.create(NS, "o2"));
+        assertNull(OWLObjectSortKeys.key(o1));
+        assertNotNull(OWLObjectSortKeys.key(df.getOWLThing()));
+        assertEquals(sign(o1.compareTo(o2)), sign(OWLObjectSortKeys.compare(o1, o2)));
+        List<OWLObject> objects = objects();
+        objects.add(o1);
+        objects.add(o2);
+        assertSameOrder(objects);
+    }
+}
@@ -0,0 +1,245 @@
+package org.semanticweb.owlapi.api.test.imports;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.UnloadableImportException;
+import org.semanticweb.owlapi.util.SimpleIRIMapper;
+
+@SuppressWarnings("javadoc")
+public class ParallelImportsLoadingTestCase extends TestBase {
+
+    private static final String NS = "urn:test:imports:";
+    private static final int WIDTH = 6;
+
+    private final List<OWLOntologyIRIMapper> mappers = new ArrayList<>();
+
+    private void write(String name, String... imports) throws IOException {
+        StringBuilder b = new StringBuilder();
+        b.append("Prefix(:=<").append(NS).append(name).append("#>)\n");
+        b.append("Ontology(<").append(NS).append(name).append(">\n");
+        for (String i : imports) {
+            b.append("Import(<").append(NS).append(i).append(">)\n");
+        }
+        for (int i = 0; i < 50; i++) {
+            b.append("SubClassOf(:C").append(i).append(" :C").append(i + 1).append(")\n");
+        }
+        b.append(')');
+        File file = folder.newFile(name + ".ofn");
+        Files.write(file.toPath(), b.toString().getBytes(StandardCharsets.UTF_8));
+        mappers.add(new SimpleIRIMapper(IRI.create(NS, name), IRI.create(file)));
+    }
+
+    /**
+     * root imports a0..a5 and a missing ontology if required; each ai imports bi and the shared
+     * ontology common, so that imports are loaded by nested requests and requested more than once.
+     */
+    private void writeClosure(String root, boolean missing) throws IOException {
+        List<String> imports = new ArrayList<>();
+        for (int i = 0; i < WIDTH; i++) {
+            write(root + "b" + i);
+            write(root + "a" + i, root + "b" + i, root + "common");
+            imports.add(root + "a" + i);
+        }
+        write(root + "common");
+        if (missing) {
+            imports.add(root + "missing");
+            mappers.add(new SimpleIRIMapper(IRI.create(NS, root + "missing"),
+                IRI.create(new File(folder.getRoot(), "missing.ofn"))));
+        }
+        write(root, imports.toArray(new String[imports.size()]));
+    }
+
+    private OWLOntology load(OWLOntologyManager manager, String root, int threads)
+        throws OWLOntologyCreationException {
+        manager.getIRIMappers().add(mappers);
+        manager.setOntologyLoaderConfiguration(
+            manager.getOntologyLoaderConfiguration().setParallelImportThreads(threads));
+        return manager.loadOntology(IRI.create(NS, root));
+    }
+
+    private static Set<IRI> closure(OWLOntology o) {
+        return asUnorderedSet(
+            o.importsClosure().map(i -> i.getOntologyID().getOntologyIRI().get()));
+    }
+
+    private static Set<OWLAxiom> axioms(OWLOntology o) {
+        return asUnorderedSet(o.importsClosure().flatMap(OWLOntology::axioms));
+    }
+
+    @Test
+    public void shouldLoadSameImportsClosureInParallel() throws Exception {
+        writeClosure("root", false);
+        OWLOntology sequential = load(m, "root", 1);
+        OWLOntology parallel = load(m1, "root", 4);
+        assertEquals(WIDTH * 2 + 2, closure(parallel).size());
+        assertEquals(closure(sequential), closure(parallel));
+        assertEquals(axioms(sequential), axioms(parallel));
+        assertEquals(m.ontologies().count(), m1.ontologies().count());
+        parallel.importsDeclarations()
+            .forEach(d -> assertTrue(d.toString(), m1.getImportedOntology(d) != null));
+    }
+
+    @Test
+    public void shouldReportMissingImportInParallel() throws Exception {
+        writeClosure("root", true);
+        try {
+            load(m1, "root", 4);
+            fail("missing import not reported");
+        } catch (UnloadableImportException e) {
+            assertEquals(IRI.create(NS, "rootmissing"), e.getImportsDeclaration().getIRI());
+        }
+    }
+
+    @Test
+    public void shouldSkipMissingImportInParallel() throws Exception {
+        writeClosure("root", true);
+        List<IRI> missing = new ArrayList<>();
+        m1.addMissingImportListener(e -> missing.add(e.getImportedOntologyURI()));
+        m1.setOntologyLoaderConfiguration(m1.getOntologyLoaderConfiguration()
+            .setMissingImportHandlingStrategy(MissingImportHandlingStrategy.SILENT));
+        OWLOntology parallel = load(m1, "root", 4);
+        assertEquals(WIDTH * 2 + 2, closure(parallel).size());
+        assertEquals(1, missing.size());
+    }
+
+    @Test
+    public void shouldLoadIndependentOntologiesConcurrently() throws Exception {
+        writeClosure("x", false);
+        writeClosure("y", false);
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        manager.getIRIMappers().add(mappers);
+        manager.setOntologyLoaderConfiguration(
+            manager.getOntologyLoaderConfiguration().setParallelImportThreads(2));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<OWLOntology> x =
+                executor.submit(() -> manager.loadOntology(IRI.create(NS, "x")));
+            Future<OWLOntology> y =
+                executor.submit(() -> manager.loadOntology(IRI.create(NS, "y")));
+            assertEquals(WIDTH * 2 + 2, closure(x.get(1, TimeUnit.MINUTES)).size());
+            assertEquals(WIDTH * 2 + 2, closure(y.get(1, TimeUnit.MINUTES)).size());
+            assertEquals((WIDTH * 2 + 2) * 2, manager.ontologies().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertImportsLoaded(OWLOntologyManager manager, OWLOntology o) {
+        o.importsClosure().flatMap(OWLOntology::importsDeclarations)
+            .forEach(d -> assertTrue(d.toString(), manager.getImportedOntology(d) != null));
+    }
+
+    private OWLOntologyManager concurrentManager() {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        manager.getIRIMappers().add(mappers);
+        manager.setOntologyLoaderConfiguration(
+            manager.getOntologyLoaderConfiguration().setParallelImportThreads(2));
+        return manager;
+    }
+
+    @Test
+    public void shouldLoadOverlappingImportsClosuresConcurrently() throws Exception {
+        // both roots import all of the ontologies loaded for the root
+        writeClosure("root", false);
+        write("other", "roota0", "roota1", "roota2", "roota3", "roota4", "roota5");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                OWLOntologyManager manager = concurrentManager();
+                Future<OWLOntology> root =
+                    executor.submit(() -> manager.loadOntology(IRI.create(NS, "root")));
+                Future<OWLOntology> other =
+                    executor.submit(() -> manager.loadOntology(IRI.create(NS, "other")));
+                // the closures are complete when the loads return
+                OWLOntology r = root.get(1, TimeUnit.MINUTES);
+                assertEquals(WIDTH * 2 + 2, closure(r).size());
+                assertImportsLoaded(manager, r);
+                OWLOntology o = other.get(1, TimeUnit.MINUTES);
+                assertEquals(WIDTH * 2 + 2, closure(o).size());
+                assertImportsLoaded(manager, o);
+                assertEquals(WIDTH * 2 + 3, manager.ontologies().count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldLoadSameOntologyConcurrently() throws Exception {
+        writeClosure("root", false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 10; round++) {
+                OWLOntologyManager manager = concurrentManager();
+                List<Future<OWLOntology>> loads = new ArrayList<>();
+                for (String name : Arrays.asList("root", "root", "roota0", "root")) {
+                    loads.add(executor.submit(() -> manager.loadOntology(IRI.create(NS, name))));
+                }
+                OWLOntology root = loads.get(0).get(1, TimeUnit.MINUTES);
+                assertSame(root, loads.get(1).get(1, TimeUnit.MINUTES));
+                assertSame(root, loads.get(3).get(1, TimeUnit.MINUTES));
+                assertEquals(WIDTH * 2 + 2, closure(root).size());
+                assertImportsLoaded(manager, root);
+                OWLOntology a0 = loads.get(2).get(1, TimeUnit.MINUTES);
+                assertSame(manager.getOntology(IRI.create(NS, "roota0")), a0);
+                assertEquals(3, closure(a0).size());
+                assertEquals(WIDTH * 2 + 2, manager.ontologies().count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldLoadCyclicImportsConcurrently() throws Exception {
+        // loads of either ontology would wait for each other forever
+        write("cycle1", "cycle2");
+        write("cycle2", "cycle1");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                OWLOntologyManager manager = concurrentManager();
+                Future<OWLOntology> first =
+                    executor.submit(() -> manager.loadOntology(IRI.create(NS, "cycle1")));
+                Future<OWLOntology> second =
+                    executor.submit(() -> manager.loadOntology(IRI.create(NS, "cycle2")));
+                // neither load waits for the other, so an ontology can be returned before the
+                // other load has published its import
+                OWLOntology cycle1 = first.get(1, TimeUnit.MINUTES);
+                OWLOntology cycle2 = second.get(1, TimeUnit.MINUTES);
+                assertEquals(2, closure(cycle1).size());
+                assertEquals(2, closure(cycle2).size());
+                assertEquals(2, manager.ontologies().count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
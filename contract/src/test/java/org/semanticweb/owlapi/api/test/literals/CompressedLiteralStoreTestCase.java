@@ -0,0 +1,159 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.literals;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLLiteral;
+
+import uk.ac.manchester.cs.owl.owlapi.CompressedLiteralStore;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLLiteralImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLLiteralImplNoCompression;
+
+@SuppressWarnings("javadoc")
+public class CompressedLiteralStoreTestCase extends TestBase {
+
+    private static String definition(int i) {
+        return "A protein complex " + i
+            + " that is capable of catalysing the transfer of a phosphate group from ATP to a "
+            + "substrate molecule, located in the cytoplasm of eukaryotic cells (été "
+            + "αβ 🧬) and involved in signal transduction number " + i * 7;
+    }
+
+    @Test
+    public void shouldStoreAndCompressLongStrings() {
+        CompressedLiteralStore store = new CompressedLiteralStore();
+        List<Long> handles = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            handles.add(Long.valueOf(store.store(definition(i))));
+        }
+        for (int i = 0; i < handles.size(); i++) {
+            assertEquals(definition(i), store.get(handles.get(i).longValue()));
+        }
+        assertTrue(store.hasDictionary());
+        assertTrue(store.storedBytes() + " " + store.textBytes(),
+            store.storedBytes() * 3 < store.textBytes());
+        long misses = store.missCount();
+        assertEquals(definition(5), store.get(handles.get(5).longValue()));
+        assertEquals(misses, store.missCount());
+        assertTrue(store.hitCount() > 0);
+    }
+
+    @Test
+    public void shouldEvictDecodedStrings() {
+        CompressedLiteralStore store = new CompressedLiteralStore(1000);
+        long first = store.store(definition(0));
+        for (int i = 1; i < 100; i++) {
+            assertEquals(definition(i), store.get(store.store(definition(i))));
+        }
+        assertEquals(definition(0), store.get(first));
+        assertEquals(100, store.missCount());
+    }
+
+    @Test
+    public void shouldBeEqualToUncompressedLiterals() throws Exception {
+        CompressedLiteralStore store = new CompressedLiteralStore();
+        String text = definition(1);
+        OWLLiteral compressed = new OWLLiteralImpl(text, "en", null, store);
+        OWLLiteral plain = new OWLLiteralImplNoCompression(text, "en", null);
+        assertEquals(text, compressed.getLiteral());
+        assertEquals(plain, compressed);
+        assertEquals(plain.hashCode(), compressed.hashCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+            stream.writeObject(compressed);
+        }
+        try (ObjectInputStream stream =
+            new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            OWLLiteral read = (OWLLiteral) stream.readObject();
+            assertEquals(compressed, read);
+            assertEquals(text, read.getLiteral());
+        }
+    }
+
+    @Test
+    public void shouldCreateCompressedLiteralsWhenEnabled() {
+        OWLDataFactory factory = new OWLDataFactoryImpl(Boolean.TRUE);
+        for (int i = 0; i < 500; i++) {
+            OWLLiteral l = factory.getOWLLiteral(definition(i), "en");
+            assertTrue(l instanceof OWLLiteralImpl);
+            assertEquals(definition(i), l.getLiteral());
+            assertEquals(df.getOWLLiteral(definition(i), "en"), l);
+        }
+        assertEquals("short", factory.getOWLLiteral("short").getLiteral());
+    }
+
+    @Test
+    public void shouldStoreEqualStringsOnce() {
+        CompressedLiteralStore store = new CompressedLiteralStore();
+        // before and after the dictionary is built
+        for (int round = 0; round < 2; round++) {
+            long handle = store.store(definition(1));
+            long stored = store.storedBytes();
+            assertEquals(handle, store.store(definition(1)));
+            assertEquals(stored, store.storedBytes());
+            for (int i = 2; i < 200; i++) {
+                store.store(definition(i));
+            }
+        }
+        assertTrue(store.hasDictionary());
+    }
+
+    private static String randomText(Random r) {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            b.append((char) ('a' + r.nextInt(26)));
+        }
+        return b.toString();
+    }
+
+    @Test
+    public void shouldReleaseEntriesOfCollectedLiterals() throws InterruptedException {
+        CompressedLiteralStore store = new CompressedLiteralStore();
+        Random r = new Random(17);
+        List<OWLLiteral> literals = new ArrayList<>();
+        // text that does not compress much, spread over several chunks
+        for (int i = 0; i < 3000; i++) {
+            literals.add(new OWLLiteralImpl(randomText(r), "", null, store));
+        }
+        OWLLiteral kept = new OWLLiteralImpl(definition(1), "", null, store);
+        String pinned = randomText(r);
+        long handle = store.store(pinned);
+        long retained = store.retainedBytes();
+        assertTrue(Long.toString(retained), retained > 3 * 1024 * 1024);
+        literals.clear();
+        for (int i = 0; i < 50 && store.retainedBytes() * 2 > retained; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(store.retainedBytes() + " " + retained, store.retainedBytes() * 2 < retained);
+        assertEquals(definition(1), kept.getLiteral());
+        assertEquals(pinned, store.get(handle));
+        assertEquals(definition(1).getBytes(StandardCharsets.UTF_8).length + pinned.length(),
+            store.textBytes());
+    }
+}
@@ -38,6 +38,7 @@
  */
 package org.semanticweb.owlapi.api.test.multithread;
 
+import static org.junit.Assert.assertTrue;
 import static org.semanticweb.owlapi.model.parameters.AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS;
 import static org.semanticweb.owlapi.model.parameters.Imports.EXCLUDED;
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
@@ -54,6 +55,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import org.junit.Test;
 import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLAnnotationSubject;
@@ -66,6 +69,7 @@ import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 @SuppressWarnings("javadoc")
 public class OwlOntologyMultipleThreadsTest extends TestBase {
@@ -108,6 +112,17 @@ public class OwlOntologyMultipleThreadsTest extends TestBase {
         System.out.println(trace);
     }
 
+    @Test
+    public void testOptimisticLockingOwlOntologyImpl() throws OWLOntologyCreationException {
+        OWLOntologyManager manager =
+            OWLManager.createConcurrentOWLOntologyManagerWithOptimisticReads();
+        OWLOntology o =
+            manager.loadOntologyFromOntologyDocument(new StringDocumentSource(KOALA));
+        MultiThreadChecker checker = new MultiThreadChecker(5);
+        checker.check(new TestCallback(o, manager.createOntology()));
+        assertTrue(checker.getTrace(), checker.isSuccessful());
+    }
+
     private static class TestCallback implements Runnable {
 
         private final OWLOntology o1;
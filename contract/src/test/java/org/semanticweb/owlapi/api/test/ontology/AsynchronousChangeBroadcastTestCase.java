@@ -0,0 +1,198 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy;
+import org.semanticweb.owlapi.model.AsynchronousChangeBroadcastStrategy.OverflowPolicy;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+
+@SuppressWarnings("javadoc")
+public class AsynchronousChangeBroadcastTestCase extends TestBase {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<List<OWLOntologyChange>> received = new ArrayList<>();
+
+    /**
+     * Listener that blocks on its first batch until released.
+     */
+    private final OWLOntologyChangeListener slowListener = changes -> {
+        synchronized (received) {
+            received.add(new ArrayList<>(changes));
+        }
+        entered.countDown();
+        try {
+            release.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+
+    private static OWLAxiom axiom(int i) {
+        return SubClassOf(Class(iri("A" + i)), Class(iri("B" + i)));
+    }
+
+    private OWLOntology setUp(AsynchronousChangeBroadcastStrategy strategy) throws Exception {
+        OWLOntology o = getOWLOntology();
+        o.getOWLOntologyManager().addOntologyChangeListener(slowListener, strategy);
+        o.add(axiom(0));
+        assertTrue(entered.await(1, TimeUnit.MINUTES));
+        return o;
+    }
+
+    @Test
+    public void shouldNotWaitForListenersAndCoalesceChanges() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy = new AsynchronousChangeBroadcastStrategy();
+        OWLOntology o = setUp(strategy);
+        // the listener is still busy with the first change
+        o.add(axiom(1));
+        o.add(axiom(2));
+        o.remove(axiom(1));
+        o.add(axiom(3));
+        release.countDown();
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        assertEquals(2, received.size());
+        assertEquals(1, received.get(0).size());
+        List<OWLOntologyChange> expected = new ArrayList<>();
+        expected.add(new AddAxiom(o, axiom(2)));
+        expected.add(new AddAxiom(o, axiom(3)));
+        assertEquals(expected, received.get(1));
+        assertEquals(3, strategy.deliveredCount());
+        assertEquals(2, strategy.coalescedCount());
+        strategy.dispose();
+    }
+
+    @Test
+    public void shouldDiscardNewestChangesWhenFull() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy(2, OverflowPolicy.DISCARD_NEWEST);
+        OWLOntology o = setUp(strategy);
+        for (int i = 1; i <= 5; i++) {
+            o.add(axiom(i));
+        }
+        release.countDown();
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        assertEquals(2, received.get(1).size());
+        assertEquals(new AddAxiom(o, axiom(1)), received.get(1).get(0));
+        assertEquals(3, strategy.discardedCount());
+        assertEquals(6, o.getAxiomCount());
+        strategy.dispose();
+    }
+
+    @Test
+    public void shouldDiscardOldestChangesWhenFull() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy(2, OverflowPolicy.DISCARD_OLDEST);
+        OWLOntology o = setUp(strategy);
+        for (int i = 1; i <= 5; i++) {
+            o.add(axiom(i));
+        }
+        release.countDown();
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        List<OWLOntologyChange> expected = new ArrayList<>();
+        expected.add(new AddAxiom(o, axiom(4)));
+        expected.add(new AddAxiom(o, axiom(5)));
+        assertEquals(expected, received.get(1));
+        assertEquals(3, strategy.discardedCount());
+        strategy.dispose();
+    }
+
+    @Test
+    public void shouldBlockWritersWhenFull() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy(2, OverflowPolicy.BLOCK);
+        OWLOntology o = setUp(strategy);
+        o.add(axiom(1));
+        o.add(axiom(2));
+        Thread writer = new Thread(() -> o.add(axiom(3)));
+        writer.start();
+        writer.join(200);
+        assertTrue(writer.isAlive());
+        release.countDown();
+        writer.join(60000);
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        int total = 0;
+        synchronized (received) {
+            for (List<OWLOntologyChange> l : received) {
+                total += l.size();
+            }
+        }
+        assertEquals(4, total);
+        assertEquals(0, strategy.discardedCount());
+        strategy.dispose();
+    }
+
+    @Test
+    public void shouldNotRetainListenersOnceDelivered() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy = new AsynchronousChangeBroadcastStrategy();
+        OWLOntology o = getOWLOntology();
+        AtomicInteger count = new AtomicInteger();
+        OWLOntologyChangeListener listener = changes -> count.addAndGet(changes.size());
+        WeakReference<OWLOntologyChangeListener> reference = new WeakReference<>(listener);
+        o.getOWLOntologyManager().addOntologyChangeListener(listener, strategy);
+        o.add(axiom(1));
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        assertEquals(1, count.get());
+        o.getOWLOntologyManager().removeOntologyChangeListener(listener);
+        listener = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get());
+        strategy.dispose();
+    }
+
+    @Test
+    public void shouldDeliverChangesWhileDisposed() throws Exception {
+        AsynchronousChangeBroadcastStrategy strategy =
+            new AsynchronousChangeBroadcastStrategy(10, OverflowPolicy.BLOCK);
+        OWLOntology o = getOWLOntology();
+        AtomicInteger count = new AtomicInteger();
+        o.getOWLOntologyManager()
+            .addOntologyChangeListener(changes -> count.addAndGet(changes.size()), strategy);
+        Thread disposer = new Thread(() -> {
+            while (count.get() < 2000) {
+                strategy.dispose();
+            }
+        });
+        disposer.start();
+        for (int i = 0; i < 2000; i++) {
+            o.add(axiom(i));
+        }
+        assertTrue(strategy.flush(1, TimeUnit.MINUTES));
+        disposer.join(60000);
+        assertEquals(2000, count.get());
+        assertEquals(0, strategy.discardedCount());
+        strategy.dispose();
+    }
+}
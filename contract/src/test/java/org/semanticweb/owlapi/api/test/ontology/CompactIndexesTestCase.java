@@ -0,0 +1,141 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Declaration;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.EquivalentClasses;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.IRI;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectSomeValuesFrom;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+@SuppressWarnings("javadoc")
+public class CompactIndexesTestCase extends TestBase {
+
+    private static final String NS = "urn:test:compact#";
+    // more subclasses than the compact index keeps in sorted arrays
+    private static final int SIZE = 150;
+    private final OWLClass top = Class(IRI(NS, "Top"));
+    private final OWLObjectProperty p = ObjectProperty(IRI(NS, "p"));
+
+    private List<OWLAxiom> axioms() {
+        List<OWLAxiom> axioms = new ArrayList<>();
+        axioms.add(Declaration(top));
+        for (int i = 0; i < SIZE; i++) {
+            OWLClass c = Class(IRI(NS, "C" + i));
+            OWLNamedIndividual ind = NamedIndividual(IRI(NS, "i" + i));
+            axioms.add(Declaration(c));
+            axioms.add(SubClassOf(c, top));
+            axioms.add(SubClassOf(c, ObjectSomeValuesFrom(p, Class(IRI(NS, "D" + i % 7)))));
+            axioms.add(ClassAssertion(c, ind));
+            if (i % 10 == 0) {
+                axioms.add(EquivalentClasses(c, Class(IRI(NS, "E" + i))));
+            }
+        }
+        return axioms;
+    }
+
+    private static OWLOntology create(boolean compact, List<OWLAxiom> axioms)
+        throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withCompactIndexes(compact);
+        OWLOntology o = manager.createOntology(IRI(NS, ""));
+        o.addAxioms(axioms);
+        return o;
+    }
+
+    private void assertSameIndexes(OWLOntology expected, OWLOntology actual) {
+        assertEquals(expected.getAxiomCount(), actual.getAxiomCount());
+        assertEquals(asUnorderedSet(expected.axioms()), asUnorderedSet(actual.axioms()));
+        assertEquals(asUnorderedSet(expected.signature()), asUnorderedSet(actual.signature()));
+        for (AxiomType<?> t : AxiomType.AXIOM_TYPES) {
+            assertEquals(t.toString(), expected.getAxiomCount(t), actual.getAxiomCount(t));
+        }
+        expected.signature().forEach(e -> {
+            assertEquals(e.toString(), asUnorderedSet(expected.referencingAxioms(e)),
+                asUnorderedSet(actual.referencingAxioms(e)));
+            assertEquals(e.toString(), asUnorderedSet(expected.declarationAxioms(e)),
+                asUnorderedSet(actual.declarationAxioms(e)));
+        });
+        expected.classesInSignature().forEach(c -> {
+            assertEquals(asUnorderedSet(expected.subClassAxiomsForSubClass(c)),
+                asUnorderedSet(actual.subClassAxiomsForSubClass(c)));
+            assertEquals(asUnorderedSet(expected.subClassAxiomsForSuperClass(c)),
+                asUnorderedSet(actual.subClassAxiomsForSuperClass(c)));
+            assertEquals(asUnorderedSet(expected.axioms(c)), asUnorderedSet(actual.axioms(c)));
+            assertEquals(asUnorderedSet(expected.classAssertionAxioms(c)),
+                asUnorderedSet(actual.classAssertionAxioms(c)));
+        });
+        expected.individualsInSignature().forEach(i -> assertEquals(
+            asUnorderedSet(expected.classAssertionAxioms(i)),
+            asUnorderedSet(actual.classAssertionAxioms(i))));
+    }
+
+    @Test
+    public void shouldAnswerQueriesAsDefaultIndexes() throws OWLOntologyCreationException {
+        List<OWLAxiom> axioms = axioms();
+        OWLOntology expected = create(false, axioms);
+        OWLOntology actual = create(true, axioms);
+        assertSameIndexes(expected, actual);
+        assertEquals(SIZE, actual.subClassAxiomsForSuperClass(top).count());
+        axioms.forEach(ax -> assertTrue(actual.containsAxiom(ax)));
+        assertFalse(actual.containsAxiom(SubClassOf(top, Class(IRI(NS, "C0")))));
+    }
+
+    @Test
+    public void shouldUpdateIndexesOnRemoval() throws OWLOntologyCreationException {
+        List<OWLAxiom> axioms = axioms();
+        OWLOntology expected = create(false, axioms);
+        OWLOntology actual = create(true, axioms);
+        // force all lazy indexes to be built before removing
+        assertSameIndexes(expected, actual);
+        List<OWLAxiom> toRemove = new ArrayList<>();
+        for (int i = 0; i < axioms.size(); i++) {
+            if (i % 3 != 0) {
+                toRemove.add(axioms.get(i));
+            }
+        }
+        expected.removeAxioms(toRemove);
+        actual.removeAxioms(toRemove);
+        assertSameIndexes(expected, actual);
+        toRemove.forEach(ax -> assertFalse(actual.containsAxiom(ax)));
+        actual.removeAxioms(actual.axioms(Imports.EXCLUDED));
+        assertEquals(0, actual.getAxiomCount());
+        assertEquals(0, actual.subClassAxiomsForSuperClass(top).count());
+        actual.addAxioms(axioms);
+        assertSameIndexes(create(false, axioms), actual);
+    }
+}
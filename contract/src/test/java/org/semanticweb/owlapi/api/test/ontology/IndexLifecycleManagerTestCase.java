@@ -0,0 +1,168 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Literal;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.RDFSLabel;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+import uk.ac.manchester.cs.owl.owlapi.HasLazyIndexes;
+import uk.ac.manchester.cs.owl.owlapi.IndexBuildPolicy;
+import uk.ac.manchester.cs.owl.owlapi.IndexBuildPolicy.Mode;
+import uk.ac.manchester.cs.owl.owlapi.IndexLifecycleManager;
+import uk.ac.manchester.cs.owl.owlapi.MapPointer;
+
+@SuppressWarnings("javadoc")
+public class IndexLifecycleManagerTestCase extends TestBase {
+
+    private static final int SIZE = 200;
+    private static final IndexBuildPolicy POLICY = IndexBuildPolicy.LAZY
+        .with(Mode.EAGER, AxiomType.SUBCLASS_OF).with(Mode.BACKGROUND, AxiomType.CLASS_ASSERTION);
+
+    private OWLOntology ontology(OWLOntologyManager manager) throws OWLOntologyCreationException {
+        OWLOntology o = manager.createOntology(IRI.create("urn:test:indexes"));
+        for (int i = 0; i < SIZE; i++) {
+            o.add(SubClassOf(c(i), c(i + 1)), ClassAssertion(c(i), NamedIndividual(iri("i" + i))),
+                AnnotationAssertion(RDFSLabel(), c(i).getIRI(), Literal("class " + i)));
+        }
+        return o;
+    }
+
+    private OWLClass c(int i) {
+        return Class(iri("C" + i));
+    }
+
+    private static List<MapPointer<?, ?>> indexes(OWLOntology o, AxiomType<?> type) {
+        return ((HasLazyIndexes) o).getLazyIndexes().stream()
+            .filter(p -> type.equals(p.getAxiomType())).collect(Collectors.toList());
+    }
+
+    private static boolean built(OWLOntology o, AxiomType<?> type) {
+        List<MapPointer<?, ?>> indexes = indexes(o, type);
+        assertFalse(indexes.isEmpty());
+        return indexes.stream().allMatch(MapPointer::isInitialized);
+    }
+
+    private Set<OWLAxiom> query(OWLOntology o, int i) {
+        Set<OWLAxiom> result = new HashSet<>();
+        o.subClassAxiomsForSubClass(c(i)).forEach(result::add);
+        o.subClassAxiomsForSuperClass(c(i)).forEach(result::add);
+        o.classAssertionAxioms(c(i)).forEach(result::add);
+        o.annotationAssertionAxioms(c(i).getIRI()).forEach(result::add);
+        return result;
+    }
+
+    private void assertSameAnswers(OWLOntology o) throws OWLOntologyCreationException {
+        OWLOntology expected = m1.createOntology(o.axioms(), IRI.create("urn:test:expected"));
+        for (int i = 0; i <= SIZE; i++) {
+            assertEquals(query(expected, i), query(o, i));
+        }
+        m1.removeOntology(expected);
+    }
+
+    @Test
+    public void shouldApplyBuildPolicy() throws Exception {
+        OWLOntology o = ontology(m);
+        try (IndexLifecycleManager manager = new IndexLifecycleManager(4)) {
+            assertFalse(built(o, AxiomType.SUBCLASS_OF));
+            manager.register(o, POLICY).get(1, TimeUnit.MINUTES);
+            assertEquals(1, manager.size());
+            assertTrue(built(o, AxiomType.SUBCLASS_OF));
+            assertTrue(built(o, AxiomType.CLASS_ASSERTION));
+            assertFalse(built(o, AxiomType.ANNOTATION_ASSERTION));
+            assertSameAnswers(o);
+            assertTrue(built(o, AxiomType.ANNOTATION_ASSERTION));
+            manager.release(o);
+            assertEquals(0, manager.size());
+        }
+    }
+
+    @Test
+    public void shouldWarmUpAllIndexes() throws Exception {
+        OWLOntology o = ontology(m);
+        try (IndexLifecycleManager manager = new IndexLifecycleManager(4)) {
+            int lazy = ((HasLazyIndexes) o).getLazyIndexes().size();
+            assertEquals(lazy, manager.warmUp(o));
+            assertTrue(((HasLazyIndexes) o).getLazyIndexes().stream()
+                .allMatch(MapPointer::isInitialized));
+            assertEquals(0, manager.warmUp(o));
+            assertSameAnswers(o);
+        }
+    }
+
+    @Test
+    public void shouldUnloadIdleIndexes() throws Exception {
+        checkUnloading(ontology(m));
+    }
+
+    @Test
+    public void shouldUnloadIdleCompactIndexes() throws Exception {
+        m.getOntologyConfigurator().withCompactIndexes(true);
+        checkUnloading(ontology(m));
+    }
+
+    @Test
+    public void shouldUnloadIdleIndexesOfConcurrentOntologies() throws Exception {
+        checkUnloading(ontology(OWLManager.createConcurrentOWLOntologyManager()));
+    }
+
+    private void checkUnloading(OWLOntology o) throws Exception {
+        try (IndexLifecycleManager manager = new IndexLifecycleManager(2)) {
+            manager.register(o, POLICY).get(1, TimeUnit.MINUTES);
+            assertSameAnswers(o);
+            // first sweep: everything was just used
+            assertEquals(0, manager.unloadIdle());
+            o.annotationAssertionAxioms(c(0).getIRI()).count();
+            int unloaded = manager.unloadIdle();
+            assertTrue(Integer.toString(unloaded), unloaded > 0);
+            // eager indexes are kept, recently used ones survive one more sweep
+            assertTrue(built(o, AxiomType.SUBCLASS_OF));
+            assertFalse(built(o, AxiomType.CLASS_ASSERTION));
+            assertTrue(built(o, AxiomType.ANNOTATION_ASSERTION));
+            // unloaded indexes are rebuilt with the changes made meanwhile
+            OWLAxiom added = ClassAssertion(c(0), NamedIndividual(iri("added")));
+            o.add(added);
+            o.remove(ClassAssertion(c(1), NamedIndividual(iri("i1"))));
+            assertTrue(o.classAssertionAxioms(c(0)).anyMatch(added::equals));
+            assertEquals(0L, o.classAssertionAxioms(c(1)).count());
+            assertEquals(SIZE, o.getAxiomCount(AxiomType.CLASS_ASSERTION, Imports.EXCLUDED));
+            assertSameAnswers(o);
+            assertEquals(0, manager.unloadIdleIfMemoryLow(1D));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnonymousIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataPropertyRange;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Declaration;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.IRI;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Integer;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Literal;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectPropertyAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveOntologyAnnotation;
+
+import uk.ac.manchester.cs.owl.owlapi.HasSignatureCache;
+import uk.ac.manchester.cs.owl.owlapi.OntologySignatureCache;
+
+@SuppressWarnings("javadoc")
+public class OntologySignatureCacheTestCase extends TestBase {
+
+    private static final String NS = "urn:test:signature#";
+
+    private static OntologySignatureCache cache(OWLOntology o) {
+        return ((HasSignatureCache) o).getSignatureCache();
+    }
+
+    private static List<List<?>> signatures(OWLOntology o) {
+        return Stream
+            .of(o.signature(), o.classesInSignature(), o.objectPropertiesInSignature(),
+                o.dataPropertiesInSignature(), o.individualsInSignature(),
+                o.datatypesInSignature(), o.annotationPropertiesInSignature(),
+                o.anonymousIndividuals())
+            .map(s -> asList(s)).collect(Collectors.toList());
+    }
+
+    private static void assertUpToDate(OWLOntology o) {
+        List<List<?>> cached = signatures(o);
+        cache(o).clear();
+        assertEquals(signatures(o), cached);
+    }
+
+    private static List<OWLAxiom> axioms(int i) {
+        OWLClass c = Class(IRI(NS, "C" + i % 7));
+        OWLClass d = Class(IRI(NS, "D" + i % 5));
+        List<OWLAxiom> axioms = new ArrayList<>();
+        axioms.add(SubClassOf(c, d));
+        axioms.add(Declaration(c));
+        axioms.add(ClassAssertion(c, NamedIndividual(IRI(NS, "i" + i % 3))));
+        axioms.add(ObjectPropertyAssertion(ObjectProperty(IRI(NS, "p" + i % 4)),
+            NamedIndividual(IRI(NS, "i" + i % 3)), AnonymousIndividual("_:b" + i % 2)));
+        axioms.add(DataPropertyRange(DataProperty(IRI(NS, "d" + i % 2)), Integer()));
+        axioms.add(AnnotationAssertion(AnnotationProperty(IRI(NS, "a" + i % 3)), c.getIRI(),
+            Literal("x" + i)));
+        return axioms;
+    }
+
+    private void checkIncrementalUpdates(OWLOntologyManager manager)
+        throws OWLOntologyCreationException {
+        OWLOntology o = manager.createOntology(IRI(NS, ""));
+        Random random = new Random(42);
+        List<OWLAxiom> pool = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pool.addAll(axioms(i));
+        }
+        // populate the cache before any change
+        signatures(o);
+        for (int i = 0; i < 300; i++) {
+            OWLAxiom ax = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                o.add(ax);
+            } else {
+                o.remove(ax);
+            }
+            if (i % 10 == 0) {
+                assertUpToDate(o);
+            } else {
+                signatures(o);
+            }
+        }
+        assertUpToDate(o);
+        assertTrue(cache(o).updateCount() > 0);
+    }
+
+    @Test
+    public void shouldUpdateSignatureIncrementally() throws OWLOntologyCreationException {
+        checkIncrementalUpdates(m);
+    }
+
+    @Test
+    public void shouldUpdateSignatureWithinSizeLimit() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withSignatureCacheSize(10);
+        checkIncrementalUpdates(manager);
+        OWLOntology o = manager.ontologies().findAny().get();
+        OntologySignatureCache cache = cache(o);
+        assertEquals(10, cache.maximumSize());
+        assertTrue(cache.evictionCount() > 0);
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() throws OWLOntologyCreationException {
+        OWLOntology o = getOWLOntology();
+        OWLClass a = Class(IRI(NS, "A"));
+        OWLClass b = Class(IRI(NS, "B"));
+        o.add(SubClassOf(a, b));
+        OntologySignatureCache cache = cache(o);
+        assertEquals(0, cache.missCount());
+        assertEquals(2, o.classesInSignature().count());
+        assertEquals(1, cache.missCount());
+        assertEquals(0, cache.hitCount());
+        // membership checks use the indexes, not the cached lists
+        assertTrue(o.containsEntityInSignature(a));
+        assertEquals(1, cache.missCount());
+        o.remove(SubClassOf(a, b));
+        assertFalse(o.containsEntityInSignature(a));
+        assertEquals(0, o.classesInSignature().count());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.updateCount());
+    }
+
+    @Test
+    public void shouldNotRetryCachingListsLargerThanLimit() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withSignatureCacheSize(2);
+        OWLOntology o = manager.createOntology(IRI(NS, ""));
+        OWLClass a = Class(IRI(NS, "A"));
+        OWLClass b = Class(IRI(NS, "B"));
+        OWLClass c = Class(IRI(NS, "C"));
+        o.add(SubClassOf(a, b), SubClassOf(b, c));
+        OntologySignatureCache cache = cache(o);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Arrays.asList(a, b, c), asList(o.classesInSignature()));
+            assertTrue(o.containsEntityInSignature(c));
+        }
+        assertEquals(1, cache.evictionCount());
+        assertEquals(5, cache.missCount());
+        assertEquals(0, cache.size());
+        // cached again once it fits
+        o.remove(SubClassOf(b, c));
+        assertEquals(Arrays.asList(a, b), asList(o.classesInSignature()));
+        assertEquals(Arrays.asList(a, b), asList(o.classesInSignature()));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.hitCount());
+        assertFalse(o.containsEntityInSignature(c));
+    }
+
+    @Test
+    public void shouldUpdateAnnotationPropertiesFromOntologyAnnotations()
+        throws OWLOntologyCreationException {
+        OWLOntology o = getOWLOntology();
+        OWLAnnotationProperty p = AnnotationProperty(IRI(NS, "p"));
+        OWLAnnotation annotation = df.getOWLAnnotation(p, Literal("value"));
+        assertEquals(0, o.annotationPropertiesInSignature().count());
+        o.applyChange(new AddOntologyAnnotation(o, annotation));
+        assertTrue(o.containsEntityInSignature(p));
+        o.add(AnnotationAssertion(p, IRI(NS, "x"), Literal("x")));
+        o.remove(AnnotationAssertion(p, IRI(NS, "x"), Literal("x")));
+        // still used in the ontology annotation
+        assertTrue(o.containsEntityInSignature(p));
+        o.applyChange(new RemoveOntologyAnnotation(o, annotation));
+        assertFalse(o.containsEntityInSignature(p));
+        assertUpToDate(o);
+    }
+}
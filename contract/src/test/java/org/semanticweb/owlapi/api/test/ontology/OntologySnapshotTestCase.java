@@ -0,0 +1,198 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.IRI;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.model.parameters.AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS;
+import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.contains;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
+
+import uk.ac.manchester.cs.owl.owlapi.HasLazyIndexes;
+import uk.ac.manchester.cs.owl.owlapi.HasSnapshot;
+import uk.ac.manchester.cs.owl.owlapi.MapPointer;
+
+@SuppressWarnings("javadoc")
+public class OntologySnapshotTestCase extends TestBase {
+
+    private static final String NS = "urn:test:snapshot#";
+    private final OWLClass a = Class(IRI(NS, "A"));
+    private final OWLClass b = Class(IRI(NS, "B"));
+    private final OWLClass c = Class(IRI(NS, "C"));
+    private final OWLAxiom ab = SubClassOf(a, b);
+    private final OWLAxiom bc = SubClassOf(b, c);
+
+    private static OWLOntology snapshot(OWLOntology o) {
+        return ((HasSnapshot) o).snapshot();
+    }
+
+    private void checkIsolation(OWLOntologyManager manager) throws OWLOntologyCreationException {
+        OWLOntology o = manager.createOntology(IRI(NS, ""));
+        o.add(ab);
+        OWLOntology first = snapshot(o);
+        assertSame(first, snapshot(o));
+        o.add(bc);
+        o.remove(ab);
+        OWLAnnotation annotation = df.getRDFSComment("comment");
+        OWLImportsDeclaration imported = df.getOWLImportsDeclaration(IRI(NS, "imported"));
+        o.applyChange(new AddOntologyAnnotation(o, annotation));
+        o.applyChange(new AddImport(o, imported));
+        OWLOntology second = snapshot(o);
+        assertNotSame(first, second);
+        OWLOntologyID newID = new OWLOntologyID(IRI(NS, "renamed"));
+        o.applyChange(new SetOntologyID(o, newID));
+        o.remove(bc);
+        // the first snapshot still has the original content
+        assertEquals(1, first.getAxiomCount());
+        assertTrue(first.containsAxiom(ab));
+        assertFalse(first.containsAxiom(bc));
+        assertEquals(asUnorderedSet(ab.signature()), asUnorderedSet(first.signature()));
+        assertTrue(contains(first.subClassAxiomsForSubClass(a), ab));
+        assertEquals(0, first.annotations().count());
+        assertEquals(0, first.importsDeclarations().count());
+        assertEquals(IRI(NS, ""), first.getOntologyID().getOntologyIRI().get());
+        // the second snapshot sees the changes made before it was taken
+        assertEquals(1, second.getAxiomCount());
+        assertTrue(second.containsAxiom(bc));
+        assertFalse(second.containsAxiom(ab));
+        assertTrue(contains(second.annotations(), annotation));
+        assertTrue(contains(second.importsDeclarations(), imported));
+        assertEquals(IRI(NS, ""), second.getOntologyID().getOntologyIRI().get());
+        // the ontology itself has moved on
+        assertEquals(0, o.getAxiomCount());
+        assertEquals(newID, o.getOntologyID());
+        assertEquals(newID, snapshot(o).getOntologyID());
+    }
+
+    @Test
+    public void shouldIsolateSnapshotsFromChanges() throws OWLOntologyCreationException {
+        checkIsolation(m);
+    }
+
+    @Test
+    public void shouldIsolateSnapshotsInConcurrentManager() throws OWLOntologyCreationException {
+        checkIsolation(OWLManager.createConcurrentOWLOntologyManager());
+    }
+
+    @Test
+    public void shouldIsolateSnapshotsWithCompactIndexes() throws OWLOntologyCreationException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        manager.getOntologyConfigurator().withCompactIndexes(true);
+        checkIsolation(manager);
+    }
+
+    @Test
+    public void shouldNotChangeOntologyWhenReadingSnapshot() throws OWLOntologyCreationException {
+        OWLOntology o = m.createOntology(IRI(NS, ""));
+        o.add(ab, bc);
+        OWLOntology s = snapshot(o);
+        Set<OWLAxiom> axioms = asUnorderedSet(s.axioms());
+        o.remove(ab);
+        assertEquals(axioms, asUnorderedSet(s.axioms()));
+        assertEquals(2, s.getAxiomCount());
+        assertEquals(1, o.getAxiomCount());
+        assertTrue(contains(s.subClassAxiomsForSuperClass(b), ab));
+        assertFalse(contains(o.subClassAxiomsForSuperClass(b), ab));
+    }
+
+    @Test
+    public void shouldCopyOnlyIndexesUsedAfterSnapshot() throws OWLOntologyCreationException {
+        OWLOntology o = m.createOntology(IRI(NS, ""));
+        o.add(ab, bc);
+        // build the index of subclass axioms by subclass
+        assertTrue(contains(o.subClassAxiomsForSubClass(a), ab));
+        OWLOntology s = snapshot(o);
+        // a change that does not involve subclass axioms does not copy their index
+        o.add(df.getOWLDeclarationAxiom(c));
+        List<MapPointer<?, ?>> pending = asList(((HasLazyIndexes) o).getLazyIndexes().stream()
+            .filter(MapPointer::isCopyPending));
+        assertEquals(1, pending.size());
+        MapPointer<?, ?> bySubClass = pending.get(0);
+        assertEquals(AxiomType.SUBCLASS_OF, bySubClass.getAxiomType());
+        assertTrue(contains(o.subClassAxiomsForSubClass(a), ab));
+        assertFalse(bySubClass.isCopyPending());
+        o.remove(ab);
+        assertFalse(contains(o.subClassAxiomsForSubClass(a), ab));
+        assertTrue(contains(s.subClassAxiomsForSubClass(a), ab));
+    }
+
+    private void checkImportsIsolation(OWLOntologyManager manager)
+        throws OWLOntologyCreationException {
+        OWLOntology o = manager.createOntology(IRI(NS, "root"));
+        OWLOntology imported = manager.createOntology(IRI(NS, "imported"));
+        OWLAxiom ca = SubClassOf(c, a);
+        o.add(ab);
+        imported.add(bc);
+        o.applyChange(new AddImport(o, df.getOWLImportsDeclaration(IRI(NS, "imported"))));
+        // populate the imports closure cache of the manager
+        assertEquals(2, o.importsClosure().count());
+        OWLOntology s = snapshot(o);
+        o.add(ca);
+        imported.remove(bc);
+        imported.add(ca);
+        assertEquals(new HashSet<>(Arrays.asList(ab, bc)), asUnorderedSet(s.axioms(INCLUDED)));
+        assertEquals(2, s.getAxiomCount(INCLUDED));
+        assertTrue(s.containsAxiom(bc, INCLUDED, IGNORE_AXIOM_ANNOTATIONS));
+        List<OWLOntology> closure = asList(s.importsClosure());
+        assertEquals(2, closure.size());
+        closure.forEach(x -> {
+            assertNotSame(o, x);
+            assertNotSame(imported, x);
+        });
+        assertEquals(1, s.imports().count());
+        assertEquals(1, s.directImports().count());
+        // the live ontology still sees the changes
+        assertTrue(o.containsAxiom(ca));
+        assertEquals(3, o.getAxiomCount(INCLUDED));
+    }
+
+    @Test
+    public void shouldFreezeImportsClosureOfSnapshots() throws OWLOntologyCreationException {
+        checkImportsIsolation(m);
+    }
+
+    @Test
+    public void shouldFreezeImportsClosureOfSnapshotsInConcurrentManager()
+        throws OWLOntologyCreationException {
+        checkImportsIsolation(OWLManager.createConcurrentOWLOntologyManager());
+    }
+}
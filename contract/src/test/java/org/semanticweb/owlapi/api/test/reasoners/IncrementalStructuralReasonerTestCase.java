@@ -0,0 +1,233 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.reasoners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasoner;
+
+/**
+ * Checks that a structural reasoner kept up to date with changes answers as a new reasoner would.
+ */
+@SuppressWarnings("javadoc")
+public class IncrementalStructuralReasonerTestCase extends TestBase {
+
+    private static final int SIZE = 12;
+    private final List<OWLClass> classes = new ArrayList<>();
+    private final List<OWLObjectProperty> objectProperties = new ArrayList<>();
+    private final List<OWLDataProperty> dataProperties = new ArrayList<>();
+
+    private void entities() {
+        for (int i = 0; i < SIZE; i++) {
+            classes.add(df.getOWLClass(iri("C" + i)));
+            objectProperties.add(df.getOWLObjectProperty(iri("p" + i)));
+            dataProperties.add(df.getOWLDataProperty(iri("d" + i)));
+        }
+    }
+
+    private OWLAxiom randomAxiom(Random r) {
+        OWLClass a = classes.get(r.nextInt(SIZE));
+        OWLClass b = classes.get(r.nextInt(SIZE));
+        OWLClass c = r.nextInt(4) == 0 ? df.getOWLThing() : classes.get(r.nextInt(SIZE));
+        OWLObjectProperty p = objectProperties.get(r.nextInt(SIZE));
+        OWLObjectProperty q = objectProperties.get(r.nextInt(SIZE));
+        OWLDataProperty d = dataProperties.get(r.nextInt(SIZE));
+        OWLDataProperty e = dataProperties.get(r.nextInt(SIZE));
+        switch (r.nextInt(10)) {
+            case 0:
+                return df.getOWLEquivalentClassesAxiom(a, b);
+            case 1:
+                return df.getOWLSubClassOfAxiom(a, df.getOWLObjectIntersectionOf(b, c));
+            case 2:
+                return df.getOWLSubClassOfAxiom(a, df.getOWLObjectSomeValuesFrom(p, b));
+            case 3:
+                // a bottom node with parents cannot be updated incrementally
+                return r.nextInt(8) > 0 ? df.getOWLDeclarationAxiom(a)
+                    : df.getOWLSubClassOfAxiom(df.getOWLNothing(), a);
+            case 4:
+                return df.getOWLSubObjectPropertyOfAxiom(p, q);
+            case 5:
+                return r.nextBoolean() ? df.getOWLInverseObjectPropertiesAxiom(p, q)
+                    : df.getOWLEquivalentObjectPropertiesAxiom(p, q.getInverseProperty());
+            case 6:
+                return df.getOWLSubDataPropertyOfAxiom(d, e);
+            default:
+                return df.getOWLSubClassOfAxiom(classes.get(r.nextInt(SIZE)),
+                    classes.get(r.nextInt(SIZE)));
+        }
+    }
+
+    private static <T extends OWLObject> Set<Set<T>> nodes(NodeSet<T> nodes) {
+        return asUnorderedSet(nodes.nodes().map(n -> asUnorderedSet(n.entities())));
+    }
+
+    private static <T extends OWLObject> void assertSameHierarchy(Stream<T> entities,
+        BiFunction<T, Boolean, NodeSet<T>> subs, BiFunction<T, Boolean, NodeSet<T>> supers,
+        BiFunction<T, Boolean, NodeSet<T>> expectedSubs,
+        BiFunction<T, Boolean, NodeSet<T>> expectedSupers) {
+        entities.forEach(e -> {
+            for (Boolean direct : new Boolean[] {Boolean.TRUE, Boolean.FALSE}) {
+                assertEquals(e + " subs", nodes(expectedSubs.apply(e, direct)),
+                    nodes(subs.apply(e, direct)));
+                assertEquals(e + " supers", nodes(expectedSupers.apply(e, direct)),
+                    nodes(supers.apply(e, direct)));
+            }
+        });
+    }
+
+    private void assertSameAsNewReasoner(OWLOntology o, StructuralReasoner reasoner) {
+        reasoner.flush();
+        StructuralReasoner expected =
+            new StructuralReasoner(o, new SimpleConfiguration(), BufferingMode.NON_BUFFERING);
+        assertSameHierarchy(
+            Stream.concat(classes.stream(), Stream.of(df.getOWLThing(), df.getOWLNothing())),
+            reasoner::getSubClasses, reasoner::getSuperClasses,
+            expected::getSubClasses, expected::getSuperClasses);
+        classes.forEach(c -> assertEquals(c.toString(),
+            asUnorderedSet(expected.getEquivalentClasses(c).entities()),
+            asUnorderedSet(reasoner.getEquivalentClasses(c).entities())));
+        Stream<OWLObjectPropertyExpression> properties = objectProperties.stream()
+            .flatMap(p -> Stream.of(p, p.getInverseProperty()));
+        assertSameHierarchy(properties, reasoner::getSubObjectProperties,
+            reasoner::getSuperObjectProperties, expected::getSubObjectProperties,
+            expected::getSuperObjectProperties);
+        assertSameHierarchy(dataProperties.stream(), reasoner::getSubDataProperties,
+            reasoner::getSuperDataProperties, expected::getSubDataProperties,
+            expected::getSuperDataProperties);
+        expected.dispose();
+    }
+
+    private void randomEdits(BufferingMode mode, long seed, int batch) {
+        entities();
+        Random r = new Random(seed);
+        OWLOntology o = getOWLOntology();
+        for (int i = 0; i < SIZE * 2; i++) {
+            o.add(randomAxiom(r));
+        }
+        StructuralReasoner reasoner = new StructuralReasoner(o, new SimpleConfiguration(), mode);
+        for (int round = 0; round < 150; round++) {
+            for (int i = 0; i < batch; i++) {
+                List<OWLAxiom> axioms = asUnorderedSet(o.axioms()).stream()
+                    .filter(ax -> !ax.isOfType(AxiomType.DECLARATION)
+                        || r.nextBoolean())
+                    .sorted().collect(Collectors.toList());
+                if (!axioms.isEmpty() && r.nextInt(5) < 2) {
+                    o.remove(axioms.get(r.nextInt(axioms.size())));
+                } else {
+                    o.add(randomAxiom(r));
+                }
+            }
+            assertSameAsNewReasoner(o, reasoner);
+        }
+        reasoner.dispose();
+    }
+
+    @Test
+    public void shouldMatchNewReasonerAfterEachChange() {
+        randomEdits(BufferingMode.NON_BUFFERING, 17, 1);
+    }
+
+    @Test
+    public void shouldMatchNewReasonerAfterBufferedChanges() {
+        randomEdits(BufferingMode.BUFFERING, 42, 5);
+    }
+
+    @Test
+    public void shouldUpdateCyclesIncrementally() {
+        entities();
+        OWLOntology o = getOWLOntology();
+        OWLClass a = classes.get(0);
+        OWLClass b = classes.get(1);
+        OWLClass c = classes.get(2);
+        OWLClass d = classes.get(3);
+        o.add(df.getOWLSubClassOfAxiom(a, b), df.getOWLSubClassOfAxiom(b, c),
+            df.getOWLSubClassOfAxiom(c, d));
+        StructuralReasoner reasoner =
+            new StructuralReasoner(o, new SimpleConfiguration(), BufferingMode.NON_BUFFERING);
+        OWLAxiom cycle = df.getOWLSubClassOfAxiom(d, b);
+        o.add(cycle);
+        assertEquals(asUnorderedSet(Stream.of(b, c, d)),
+            asUnorderedSet(reasoner.getEquivalentClasses(c).entities()));
+        assertSameAsNewReasoner(o, reasoner);
+        o.remove(df.getOWLSubClassOfAxiom(b, c));
+        assertEquals(1, reasoner.getEquivalentClasses(c).getSize());
+        assertSameAsNewReasoner(o, reasoner);
+        // a new subclass of a new class
+        OWLClass e = df.getOWLClass(iri("E"));
+        OWLClass f = df.getOWLClass(iri("F"));
+        o.add(df.getOWLSubClassOfAxiom(e, f), df.getOWLSubClassOfAxiom(f, a));
+        assertSameAsNewReasoner(o, reasoner);
+        o.add(df.getOWLSubClassOfAxiom(d, e), df.getOWLSubClassOfAxiom(b, d));
+        assertEquals(asUnorderedSet(Stream.of(a, b, d, e, f)),
+            asUnorderedSet(reasoner.getEquivalentClasses(a).entities()));
+        assertSameAsNewReasoner(o, reasoner);
+    }
+
+    @Test
+    public void shouldKeepAnnotatedAxiomsAcrossChanges() {
+        entities();
+        OWLOntology o = getOWLOntology();
+        OWLClass a = classes.get(0);
+        OWLClass b = classes.get(1);
+        OWLAxiom plain = df.getOWLSubClassOfAxiom(a, b);
+        OWLAxiom annotated = plain.getAnnotatedAxiom(Collections.singleton(
+            df.getOWLAnnotation(df.getRDFSComment(), df.getOWLLiteral("comment"))));
+        o.add(annotated);
+        StructuralReasoner reasoner =
+            new StructuralReasoner(o, new SimpleConfiguration(), BufferingMode.BUFFERING);
+        // a full comparison of the imports closure
+        o.getOWLOntologyManager().applyChange(
+            new AddImport(o, df.getOWLImportsDeclaration(iri("missing"))));
+        assertEquals(Collections.emptySet(), reasoner.getPendingAxiomRemovals());
+        assertEquals(Collections.emptySet(), reasoner.getPendingAxiomAdditions());
+        reasoner.flush();
+        assertTrue(reasoner.getSuperClasses(a, true).containsEntity(b));
+        // incremental comparisons: the axiom stays while any version of it is in the ontology
+        o.add(plain);
+        assertEquals(Collections.emptySet(), reasoner.getPendingAxiomAdditions());
+        o.remove(annotated);
+        assertEquals(Collections.emptySet(), reasoner.getPendingAxiomRemovals());
+        reasoner.flush();
+        assertTrue(reasoner.getSuperClasses(a, true).containsEntity(b));
+        o.remove(plain);
+        assertEquals(Collections.singleton(plain), reasoner.getPendingAxiomRemovals());
+        reasoner.flush();
+        assertFalse(reasoner.getSuperClasses(a, true).containsEntity(b));
+    }
+}
@@ -13,12 +13,28 @@
 package org.semanticweb.owlapi.api.test.reasoners;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.EquivalentClasses;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.OWLNothing;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.OWLThing;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
@@ -26,6 +42,7 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InferenceType;
 import org.semanticweb.owlapi.reasoner.Node;
 import org.semanticweb.owlapi.reasoner.NodeSet;
 import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
@@ -90,4 +107,110 @@ public class StructuralReasonerTestCase extends TestBase {
         ont.remove(SubClassOf(clsA, OWLThing()));
         testClassHierarchy(reasoner);
     }
+
+    @Test
+    public void shouldAnswerIndirectSubsumptionsWithIndex() {
+        // layered hierarchy with multiple parents: Ci_j is a subclass of C(i-1)_j and C(i-1)_(j+1)
+        OWLOntology ont = getOWLOntology();
+        int layers = 6;
+        for (int i = 1; i < layers; i++) {
+            for (int j = 0; j < layers - i; j++) {
+                ont.add(SubClassOf(c(i, j), c(i - 1, j)), SubClassOf(c(i, j), c(i - 1, j + 1)));
+            }
+        }
+        // a cycle in the middle layer
+        ont.add(SubClassOf(c(2, 0), c(2, 1)), SubClassOf(c(2, 1), c(2, 0)));
+        StructuralReasoner reasoner = new StructuralReasoner(ont, new SimpleConfiguration(),
+            BufferingMode.NON_BUFFERING);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        checkLayers(reasoner, layers);
+        assertTrue(reasoner.isEntailed(SubClassOf(c(5, 0), c(0, 3))));
+        assertTrue(reasoner.isEntailed(SubClassOf(c(2, 1), c(2, 0))));
+        assertFalse(reasoner.isEntailed(SubClassOf(c(3, 0), c(2, 3))));
+        assertFalse(reasoner.isEntailed(SubClassOf(c(0, 0), c(1, 0))));
+        // the index is dropped on changes and rebuilt after enough queries
+        ont.add(SubClassOf(c(0, 5), c(1, 0)));
+        for (int k = 0; k < 3; k++) {
+            checkLayers(reasoner, layers);
+            assertTrue(reasoner.isEntailed(SubClassOf(c(0, 5), c(0, 0))));
+            assertTrue(reasoner.isEntailed(SubClassOf(c(5, 0), c(2, 0))));
+        }
+    }
+
+    @Test
+    public void shouldBuildIndexWhenQueriedConcurrently() throws Exception {
+        OWLOntology ont = getOWLOntology();
+        int layers = 20;
+        for (int i = 1; i < layers; i++) {
+            for (int j = 0; j < layers - i; j++) {
+                ont.add(SubClassOf(c(i, j), c(i - 1, j)), SubClassOf(c(i, j), c(i - 1, j + 1)));
+            }
+        }
+        StructuralReasoner reasoner = new StructuralReasoner(ont, new SimpleConfiguration(),
+            BufferingMode.NON_BUFFERING);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        // the index is dropped, and rebuilt by whichever queries find it missing
+        ont.add(SubClassOf(c(0, layers - 1), c(1, 0)));
+        StructuralReasoner fresh = new StructuralReasoner(ont, new SimpleConfiguration(),
+            BufferingMode.NON_BUFFERING);
+        Map<OWLClass, Set<OWLClass>> expected = new HashMap<>();
+        for (int i = 0; i < layers; i++) {
+            for (int j = 0; j < layers - i; j++) {
+                expected.put(c(i, j), asUnorderedSet(fresh.getSuperClasses(c(i, j), false)
+                    .entities()));
+            }
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(() -> {
+                for (int k = 0; k < 5; k++) {
+                    expected.forEach((cls, sups) -> {
+                        assertEquals(cls.toString(), sups,
+                            asUnorderedSet(reasoner.getSuperClasses(cls, false).entities()));
+                        sups.forEach(
+                            sup -> assertTrue(reasoner.isEntailed(SubClassOf(cls, sup))));
+                    });
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks)) {
+                f.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static OWLClass c(int i, int j) {
+        return Class(iri("C" + i + "_" + j));
+    }
+
+    private static void checkLayers(StructuralReasoner reasoner, int layers) {
+        for (int i = 0; i < layers; i++) {
+            for (int j = 0; j < layers - i; j++) {
+                OWLClass cls = c(i, j);
+                Set<OWLClass> expected = new HashSet<>();
+                Deque<OWLClass> queue = new ArrayDeque<>();
+                queue.add(cls);
+                while (!queue.isEmpty()) {
+                    OWLClass next = queue.poll();
+                    reasoner.getRootOntology().subClassAxiomsForSubClass(next)
+                        .map(ax -> ax.getSuperClass().asOWLClass()).filter(expected::add)
+                        .forEach(queue::add);
+                }
+                expected.add(OWLThing());
+                reasoner.getEquivalentClasses(cls).entities().forEach(expected::remove);
+                Set<OWLClass> actual = asUnorderedSet(reasoner.getSuperClasses(cls, false)
+                    .entities());
+                assertEquals(cls.toString(), expected, actual);
+                for (OWLClass sup : expected) {
+                    assertTrue(reasoner.isEntailed(SubClassOf(cls, sup)));
+                    assertTrue(reasoner.getSubClasses(sup, false).containsEntity(cls));
+                }
+            }
+        }
+    }
 }
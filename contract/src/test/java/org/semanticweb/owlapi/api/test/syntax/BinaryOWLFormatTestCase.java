@@ -0,0 +1,146 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataOneOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataSomeValuesFrom;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DatatypeRestriction;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.EquivalentClasses;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.FacetRestriction;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Integer;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Literal;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectIntersectionOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectMinCardinality;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectUnionOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.RDFSLabel;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.Builder;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.binary.BinaryOWLParser;
+import org.semanticweb.owlapi.formats.BinaryOWLDocumentFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+@SuppressWarnings("javadoc")
+public class BinaryOWLFormatTestCase extends TestBase {
+
+    private static final IRI IMPORTED = IRI.create("urn:test:imported");
+    private final OWLOntologyLoaderConfiguration loadConfig =
+        new OWLOntologyLoaderConfiguration().addIgnoredImport(IMPORTED);
+
+    private OWLOntology ontology() throws Exception {
+        m.getOntologyConfigurator().addIgnoredImport(IMPORTED);
+        OWLOntology o = m.createOntology();
+        m.applyChange(new SetOntologyID(o, new OWLOntologyID(IRI.create("urn:test:binary"),
+            IRI.create("urn:test:binary/1.0"))));
+        o.applyChange(new AddImport(o, df.getOWLImportsDeclaration(IMPORTED)));
+        o.applyChange(new AddOntologyAnnotation(o,
+            df.getOWLAnnotation(RDFSLabel(), Literal("binary ontology", "en"))));
+        o.add(new Builder().all());
+        o.add(EquivalentClasses(Class(iri("A")),
+            ObjectIntersectionOf(Class(iri("B")),
+                ObjectMinCardinality(2, ObjectProperty(iri("p")), Class(iri("C")))),
+            ObjectUnionOf(Class(iri("D")), DataSomeValuesFrom(DataProperty(iri("d")),
+                DatatypeRestriction(Integer(), FacetRestriction(OWLFacet.MIN_INCLUSIVE,
+                    Literal(5))))),
+            DataSomeValuesFrom(DataProperty(iri("d")), DataOneOf(Literal(1), Literal("x")))));
+        o.add(AnnotationAssertion(RDFSLabel(), iri("A"), Literal("été 😀")));
+        return o;
+    }
+
+    private static byte[] save(OWLOntology o) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        o.getOWLOntologyManager().saveOntology(o, new BinaryOWLDocumentFormat(), out);
+        return out.toByteArray();
+    }
+
+    private static void assertSameHeader(OWLOntology expected, OWLOntology actual) {
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(asUnorderedSet(expected.importsDeclarations()),
+            asUnorderedSet(actual.importsDeclarations()));
+        assertEquals(asUnorderedSet(expected.annotations()), asUnorderedSet(actual.annotations()));
+    }
+
+    @Test
+    public void shouldRoundTripThroughStreams() throws Exception {
+        OWLOntology o = ontology();
+        OWLOntology loaded = m1.loadOntologyFromOntologyDocument(
+            new StreamDocumentSource(new ByteArrayInputStream(save(o)), "binary",
+                new BinaryOWLDocumentFormat(), null),
+            loadConfig);
+        assertTrue(loaded.getFormat() instanceof BinaryOWLDocumentFormat);
+        assertSameHeader(o, loaded);
+        equal(o, loaded);
+    }
+
+    @Test
+    public void shouldRoundTripThroughMappedFile() throws Exception {
+        OWLOntology o = ontology();
+        File file = folder.newFile("ontology.owlb");
+        m.saveOntology(o, new BinaryOWLDocumentFormat(), IRI.create(file));
+        OWLOntology loaded = m1.loadOntologyFromOntologyDocument(
+            new FileDocumentSource(file, new BinaryOWLDocumentFormat()), loadConfig);
+        assertSameHeader(o, loaded);
+        equal(o, loaded);
+    }
+
+    @Test
+    public void shouldSkipAnnotationAxiomTables() throws Exception {
+        OWLOntology o = ontology();
+        OWLOntology loaded = m1.loadOntologyFromOntologyDocument(
+            new StreamDocumentSource(new ByteArrayInputStream(save(o)), "binary",
+                new BinaryOWLDocumentFormat(), null),
+            loadConfig.setLoadAnnotationAxioms(false));
+        assertEquals(0, loaded.axioms(AxiomType.ANNOTATION_ASSERTION).count());
+        assertEquals(o.getLogicalAxiomCount(), loaded.getLogicalAxiomCount());
+    }
+
+    @Test(expected = OWLParserException.class)
+    public void shouldRejectTextDocuments() throws Exception {
+        new BinaryOWLParser().parse(new StringDocumentSource("Ontology()"), m.createOntology(),
+            loadConfig);
+    }
+
+    @Test(expected = OWLParserException.class)
+    public void shouldRejectTruncatedDocuments() throws Exception {
+        byte[] bytes = save(ontology());
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        new BinaryOWLParser().parse(
+            new StreamDocumentSource(new ByteArrayInputStream(truncated)), m1.createOntology(),
+            loadConfig);
+    }
+}
@@ -0,0 +1,87 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.assertEquals;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+
+@SuppressWarnings("javadoc")
+public class FunctionalSyntaxParallelParsingTestCase extends TestBase {
+
+    private static final int SIZE = 2000;
+
+    private static String input(boolean broken) {
+        StringBuilder b = new StringBuilder();
+        b.append("Prefix(:=<urn:test#>)\nPrefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)\n")
+            .append("Ontology(<urn:test>\nImport(<urn:imported>)\n")
+            .append("Annotation(rdfs:comment \"header (with parentheses)\")\n")
+            .append("ClassAssertion(:A _:shared)\n");
+        for (int i = 0; i < SIZE; i++) {
+            b.append("Declaration(Class(:C").append(i).append("))\n")
+                .append("# a comment with a ) parenthesis\n")
+                .append("SubClassOf(Annotation(rdfs:label \"odd \\\" ) ( # text\") :C").append(i)
+                .append(" ObjectSomeValuesFrom(:p <urn:test#D").append(i).append(">))\n");
+            if (broken && i == SIZE - 10) {
+                b.append("SubClassOf(:C0 ObjectSomeValuesFrom(:p))\n");
+            }
+        }
+        b.append("AnnotationAssertion(rdfs:label :A \"label\")\n");
+        b.append("ClassAssertion(:B _:shared)\n)");
+        return b.toString();
+    }
+
+    private OWLOntology load(String in, int threads) throws OWLOntologyCreationException {
+        OWLOntologyLoaderConfiguration c = new OWLOntologyLoaderConfiguration()
+            .addIgnoredImport(IRI.create("urn:imported")).setParallelParsingThreads(threads);
+        return loadOntologyWithConfig(new StringDocumentSource(in), c);
+    }
+
+    @Test
+    public void shouldParseSameAxiomsInParallel() throws OWLOntologyCreationException {
+        String in = input(false);
+        OWLOntology sequential = load(in, 1);
+        OWLOntology parallel = load(in, 4);
+        assertEquals(sequential.getOntologyID(), parallel.getOntologyID());
+        assertEquals(asUnorderedSet(sequential.importsDeclarations()),
+            asUnorderedSet(parallel.importsDeclarations()));
+        assertEquals(asUnorderedSet(sequential.annotations()),
+            asUnorderedSet(parallel.annotations()));
+        assertEquals(SIZE * 2 + 3, parallel.getAxiomCount());
+        equal(sequential, parallel);
+        // the blank node shared between the first and the last axiom is the same individual
+        assertEquals(1, parallel.anonymousIndividuals().count());
+    }
+
+    @Test
+    public void shouldNotLoadAnnotationAxiomsInParallel() throws OWLOntologyCreationException {
+        OWLOntologyLoaderConfiguration c = new OWLOntologyLoaderConfiguration()
+            .addIgnoredImport(IRI.create("urn:imported")).setParallelParsingThreads(4)
+            .setLoadAnnotationAxioms(false);
+        OWLOntology o = loadOntologyWithConfig(new StringDocumentSource(input(false)), c);
+        assertEquals(0, o.axioms(AxiomType.ANNOTATION_ASSERTION).count());
+    }
+
+    @Test(expected = OWLOntologyCreationException.class)
+    public void shouldReportErrorsInParallelParsing() throws OWLOntologyCreationException {
+        load(input(true), 4);
+    }
+}
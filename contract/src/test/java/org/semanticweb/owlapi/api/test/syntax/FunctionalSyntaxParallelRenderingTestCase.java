@@ -0,0 +1,143 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.assertEquals;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnonymousIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataPropertyAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Datatype;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DatatypeDefinition;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Declaration;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DifferentIndividuals;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DisjointClasses;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.EquivalentClasses;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Integer;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Literal;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectIntersectionOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectPropertyAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectPropertyDomain;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectSomeValuesFrom;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.RDFSComment;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.RDFSLabel;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubAnnotationPropertyOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+
+@SuppressWarnings("javadoc")
+public class FunctionalSyntaxParallelRenderingTestCase extends TestBase {
+
+    private OWLClass c(int i) {
+        return Class(iri("C" + i));
+    }
+
+    private OWLNamedIndividual i(int i) {
+        return NamedIndividual(iri("i" + i));
+    }
+
+    /**
+     * Builds an ontology where axioms belong to more than one entity, entities are punned,
+     * declarations are missing, and some axioms are only written after the entity blocks; with
+     * enough classes to need more than one window.
+     */
+    private OWLOntology ontology(int size, long seed) throws OWLOntologyCreationException {
+        Random r = new Random(seed);
+        OWLOntology o = getOWLOntology();
+        OWLObjectProperty p = ObjectProperty(iri("p"));
+        OWLAnnotationProperty ap = AnnotationProperty(iri("ap"));
+        OWLAnonymousIndividual anon = AnonymousIndividual();
+        o.add(Declaration(p), SubAnnotationPropertyOf(ap, RDFSComment()),
+            AnnotationAssertion(RDFSLabel(), ap.getIRI(), Literal("annotation property")),
+            ObjectPropertyDomain(p, c(0)),
+            DatatypeDefinition(Datatype(iri("dt")), Integer()),
+            ClassAssertion(c(1), anon), ObjectPropertyAssertion(p, anon, i(0)),
+            DifferentIndividuals(i(0), i(1), i(2)), DisjointClasses(c(0), c(1), c(2)),
+            SubClassOf(ObjectIntersectionOf(c(3), c(4)), c(5)),
+            ClassAssertion(Class(iri("i7")), i(8)),
+            AnnotationAssertion(RDFSComment(), iri("i7"), Literal("punned")));
+        for (int i = 0; i < size; i++) {
+            if (r.nextInt(3) > 0) {
+                o.add(Declaration(c(i)));
+            }
+            o.add(SubClassOf(c(i), ObjectSomeValuesFrom(p, c(r.nextInt(size)))),
+                EquivalentClasses(c(i), c(r.nextInt(size))),
+                ClassAssertion(c(i), i(r.nextInt(size))),
+                DataPropertyAssertion(DataProperty(iri("d" + r.nextInt(5))), i(i),
+                    Literal(r.nextInt(100))),
+                AnnotationAssertion(RDFSLabel(), c(i).getIRI(), Literal("class " + i, "en")),
+                AnnotationAssertion(ap, i(i).getIRI(), Literal("individual " + i)));
+            if (r.nextInt(10) == 0) {
+                o.add(ClassAssertion(c(r.nextInt(size)), NamedIndividual(c(i).getIRI())));
+            }
+        }
+        return o;
+    }
+
+    private static String save(OWLOntology o, int threads) throws OWLOntologyStorageException {
+        o.getOWLOntologyManager().getOntologyConfigurator().withParallelRenderingThreads(threads);
+        StringDocumentTarget target = new StringDocumentTarget();
+        o.saveOntology(new FunctionalSyntaxDocumentFormat(), target);
+        return target.toString();
+    }
+
+    @Test
+    public void shouldRenderSameOutputInParallel() throws Exception {
+        OWLOntology o = ontology(10000, 42);
+        String sequential = save(o, 1);
+        assertEquals(sequential, save(o, 4));
+        assertEquals(sequential, save(o, 2));
+        equal(o, loadOntologyFromString(sequential, new FunctionalSyntaxDocumentFormat()));
+    }
+
+    @Test
+    public void shouldRenderSmallOntologiesInParallel() throws Exception {
+        for (int seed = 0; seed < 10; seed++) {
+            OWLOntology o = ontology(20 + seed * 7, seed);
+            assertEquals(save(o, 1), save(o, 3));
+            m.removeOntology(o);
+        }
+    }
+
+    @Test
+    public void shouldSetThreadsOnRenderer() throws Exception {
+        OWLOntology o = ontology(50, 1);
+        String sequential = save(o, 1);
+        StringWriter w = new StringWriter();
+        FunctionalSyntaxObjectRenderer renderer = new FunctionalSyntaxObjectRenderer(o, w);
+        renderer.setParallelRenderingThreads(4);
+        o.accept(renderer);
+        assertEquals(sequential, w.toString());
+    }
+}
@@ -0,0 +1,199 @@
+package org.semanticweb.owlapi.api.test.syntax.manchester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.expression.OWLEntityChecker;
+import org.semanticweb.owlapi.expression.OWLExpressionParser;
+import org.semanticweb.owlapi.expression.ShortFormEntityChecker;
+import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntax;
+import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntaxCachingClassExpressionParser;
+import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntaxClassExpressionParser;
+import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntaxTokenizer;
+import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntaxTokenizer.Token;
+import org.semanticweb.owlapi.manchestersyntax.renderer.ParserException;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.BidirectionalShortFormProviderAdapter;
+import org.semanticweb.owlapi.util.SimpleShortFormProvider;
+
+@SuppressWarnings("javadoc")
+public class ManchesterSyntaxCachingParserTestCase extends TestBase {
+
+    private static final String NS = "http://example.org/cache#";
+    private static final List<String> EXPRESSIONS = Arrays.asList("A", "A and B",
+        "p some (A or B)", "not (A) and p only B", "p min 2 A", "inverse p value i",
+        "{i, j}", "A that p some B", "p exactly 1", "(A or B) and (p max 3 (not B))");
+    private OWLOntology o;
+    private OWLEntityChecker checker;
+
+    @Before
+    public void setUpOntology() throws Exception {
+        o = m.createOntology();
+        OWLClass a = df.getOWLClass(NS, "A");
+        OWLClass b = df.getOWLClass(NS, "B");
+        OWLObjectProperty p = df.getOWLObjectProperty(NS, "p");
+        o.add(df.getOWLDeclarationAxiom(a), df.getOWLDeclarationAxiom(b),
+            df.getOWLDeclarationAxiom(p),
+            df.getOWLDeclarationAxiom(df.getOWLNamedIndividual(NS, "i")),
+            df.getOWLDeclarationAxiom(df.getOWLNamedIndividual(NS, "j")));
+        checker = new ShortFormEntityChecker(new BidirectionalShortFormProviderAdapter(
+            asList(m.ontologies()), new SimpleShortFormProvider()));
+    }
+
+    private static String error(OWLExpressionParser<OWLClassExpression> parser, String input) {
+        try {
+            parser.parse(input);
+            fail("no error for " + input);
+            return "";
+        } catch (ParserException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Test
+    public void shouldParseAsPlainParserAndCache() {
+        ManchesterOWLSyntaxClassExpressionParser plain =
+            new ManchesterOWLSyntaxClassExpressionParser(df, checker);
+        ManchesterOWLSyntaxCachingClassExpressionParser caching =
+            new ManchesterOWLSyntaxCachingClassExpressionParser(m, checker, 100);
+        for (String s : EXPRESSIONS) {
+            OWLClassExpression ce = caching.parse(s);
+            assertEquals(plain.parse(s), ce);
+            assertSame(ce, caching.parse(s));
+        }
+        assertEquals(EXPRESSIONS.size(), caching.cachedCount());
+        caching.dispose();
+    }
+
+    @Test
+    public void shouldReportSameErrorsAsPlainParser() {
+        ManchesterOWLSyntaxCachingClassExpressionParser caching =
+            new ManchesterOWLSyntaxCachingClassExpressionParser(df, checker, 100);
+        ManchesterOWLSyntaxClassExpressionParser plain =
+            new ManchesterOWLSyntaxClassExpressionParser(df, checker);
+        for (String bad : Arrays.asList("A and", "A and C", "p some and", "A or (B",
+            "p min x A")) {
+            // the parser is reused after successful parses and after errors
+            caching.parse("A and B or p some A");
+            assertEquals(error(plain, bad), error(caching, bad));
+        }
+        assertEquals(1, caching.cachedCount());
+    }
+
+    @Test
+    public void shouldClearCacheOnOntologyChange() {
+        ManchesterOWLSyntaxCachingClassExpressionParser caching =
+            new ManchesterOWLSyntaxCachingClassExpressionParser(m, checker, 100);
+        OWLClassExpression ce = caching.parse("A and B");
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(NS, "A"), df.getOWLClass(NS, "B")));
+        assertEquals(0, caching.cachedCount());
+        OWLClassExpression again = caching.parse("A and B");
+        assertEquals(ce, again);
+        caching.setOWLEntityChecker(checker);
+        assertNotSame(again, caching.parse("A and B"));
+        caching.dispose();
+        OWLClassExpression afterDispose = caching.parse("A and B");
+        o.add(df.getOWLSubClassOfAxiom(df.getOWLClass(NS, "B"), df.getOWLClass(NS, "A")));
+        assertSame(afterDispose, caching.parse("A and B"));
+    }
+
+    @Test
+    public void shouldParseConcurrently() throws Exception {
+        ManchesterOWLSyntaxClassExpressionParser plain =
+            new ManchesterOWLSyntaxClassExpressionParser(df, checker);
+        List<OWLClassExpression> expected = new ArrayList<>();
+        EXPRESSIONS.forEach(s -> expected.add(plain.parse(s)));
+        // small cache, so that entries are evicted and parsed again
+        ManchesterOWLSyntaxCachingClassExpressionParser caching =
+            new ManchesterOWLSyntaxCachingClassExpressionParser(df, checker, 3);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            tasks.add(() -> {
+                for (int i = 0; i < 500; i++) {
+                    int k = (i + offset) % EXPRESSIONS.size();
+                    assertEquals(expected.get(k), caching.parse(EXPRESSIONS.get(k)));
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks)) {
+                f.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private WeakReference<OWLEntityChecker> parseAndDrop(ExecutorService executor)
+        throws Exception {
+        OWLEntityChecker c = new ShortFormEntityChecker(new BidirectionalShortFormProviderAdapter(
+            asList(m.ontologies()), new SimpleShortFormProvider()));
+        ManchesterOWLSyntaxCachingClassExpressionParser caching =
+            new ManchesterOWLSyntaxCachingClassExpressionParser(df, c, 10);
+        executor.submit(() -> caching.parse("A and B")).get();
+        caching.dispose();
+        return new WeakReference<>(c);
+    }
+
+    @Test
+    public void shouldNotKeepCheckerReachableFromPooledThreads() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            WeakReference<OWLEntityChecker> ref = parseAndDrop(executor);
+            // the thread and the parser it reused are still alive
+            for (int i = 0; i < 20 && ref.get() != null; i++) {
+                System.gc();
+                Thread.sleep(50);
+            }
+            assertNull(ref.get());
+            assertTrue(executor.submit(() -> Boolean.TRUE).get().booleanValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReuseKeywordStringsInTokens() {
+        List<Token> tokens = new ArrayList<>();
+        new ManchesterOWLSyntaxTokenizer("A and (B or <urn:x>) ").tokenize(tokens);
+        assertEquals(Arrays.asList("A", "and", "(", "B", "or", "<urn:x>", ")",
+            ManchesterOWLSyntaxTokenizer.EOFTOKEN), tokensAsStrings(tokens));
+        assertSame(ManchesterOWLSyntax.AND.keyword(), tokens.get(1).getToken());
+        assertSame(ManchesterOWLSyntax.OPEN.keyword(), tokens.get(2).getToken());
+        new ManchesterOWLSyntaxTokenizer("AND").tokenize(tokens);
+        assertEquals(Arrays.asList("AND", ManchesterOWLSyntaxTokenizer.EOFTOKEN),
+            tokensAsStrings(tokens));
+        assertEquals(ManchesterOWLSyntax.AND, ManchesterOWLSyntax.parse("AND"));
+        assertEquals(ManchesterOWLSyntax.SUBCLASS_OF, ManchesterOWLSyntax.parse("subclassof:"));
+        assertNull(ManchesterOWLSyntax.parse("andx"));
+    }
+
+    private static List<String> tokensAsStrings(List<Token> tokens) {
+        List<String> l = new ArrayList<>();
+        tokens.forEach(t -> l.add(t.getToken()));
+        return l;
+    }
+}
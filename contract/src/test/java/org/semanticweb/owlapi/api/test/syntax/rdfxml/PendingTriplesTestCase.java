@@ -0,0 +1,92 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.api.test.syntax.rdfxml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.AnnotationProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectPropertyAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectSomeValuesFrom;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+@SuppressWarnings("javadoc")
+public class PendingTriplesTestCase extends TestBase {
+
+    private static final int SIZE = 100;
+
+    private static IRI t(String name) {
+        return IRI.create("urn:test#", name);
+    }
+
+    /**
+     * Properties are typed at the end of the document, so all triples using them stay pending
+     * until the whole document has been read; the subjects have enough pending triples to be
+     * indexed by predicate.
+     */
+    private static String input() {
+        StringBuilder b = new StringBuilder("<?xml version=\"1.0\"?>\n<rdf:RDF"
+            + " xmlns:owl=\"http://www.w3.org/2002/07/owl#\""
+            + " xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\""
+            + " xmlns:rdfs=\"http://www.w3.org/2000/01/rdf-schema#\""
+            + " xmlns:t=\"urn:test#\">\n<owl:Ontology rdf:about=\"urn:test\"/>\n"
+            + "<owl:Class rdf:about=\"urn:test#A\">\n");
+        for (int i = 0; i < SIZE; i++) {
+            b.append("<t:label>label ").append(i).append("</t:label>\n");
+        }
+        b.append("<rdfs:subClassOf><owl:Restriction><owl:onProperty rdf:resource=\"urn:test#r\"/>")
+            .append("<owl:someValuesFrom rdf:resource=\"urn:test#B\"/></owl:Restriction>")
+            .append("</rdfs:subClassOf>\n</owl:Class>\n")
+            .append("<owl:NamedIndividual rdf:about=\"urn:test#i\">\n");
+        for (int i = 0; i < SIZE; i++) {
+            b.append("<t:q rdf:resource=\"urn:test#j").append(i).append("\"/>\n");
+        }
+        b.append("</owl:NamedIndividual>\n");
+        for (int i = 0; i < SIZE; i++) {
+            b.append("<owl:NamedIndividual rdf:about=\"urn:test#j").append(i).append("\"/>\n");
+        }
+        b.append("<owl:Class rdf:about=\"urn:test#B\"/>\n")
+            .append("<owl:AnnotationProperty rdf:about=\"urn:test#label\"/>\n")
+            .append("<owl:ObjectProperty rdf:about=\"urn:test#q\"/>\n")
+            .append("<owl:ObjectProperty rdf:about=\"urn:test#r\"/>\n</rdf:RDF>");
+        return b.toString();
+    }
+
+    @Test
+    public void shouldTranslatePendingTriples() throws Exception {
+        OWLOntology o = loadOntologyFromString(new StringDocumentSource(input(),
+            IRI.create("urn:test:", "doc"), new RDFXMLDocumentFormat(), null));
+        assertEquals(SIZE, o.annotationAssertionAxioms(t("A")).count());
+        assertEquals(0, o.annotationAssertionAxioms(t("A"))
+            .filter(ax -> !ax.getProperty().equals(AnnotationProperty(t("label")))).count());
+        for (int i = 0; i < SIZE; i++) {
+            assertTrue(o.containsAxiom(ObjectPropertyAssertion(ObjectProperty(t("q")),
+                NamedIndividual(t("i")), NamedIndividual(t("j" + i)))));
+        }
+        assertTrue(o.containsAxiom(
+            SubClassOf(Class(t("A")), ObjectSomeValuesFrom(ObjectProperty(t("r")),
+                Class(t("B"))))));
+        assertEquals(SIZE, o.getAxiomCount(AxiomType.OBJECT_PROPERTY_ASSERTION));
+        assertEquals(1, o.getAxiomCount(AxiomType.SUBCLASS_OF));
+    }
+}
@@ -0,0 +1,218 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.profiles;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.DataPropertyRange;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Datatype;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Declaration;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectMinCardinality;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectProperty;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectSomeValuesFrom;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ObjectUnionOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.TransitiveObjectProperty;
+import static org.semanticweb.owlapi.profiles.Profiles.OWL2_DL;
+import static org.semanticweb.owlapi.profiles.Profiles.OWL2_EL;
+import static org.semanticweb.owlapi.profiles.Profiles.OWL2_FULL;
+import static org.semanticweb.owlapi.profiles.Profiles.OWL2_QL;
+import static org.semanticweb.owlapi.profiles.Profiles.OWL2_RL;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.model.SetOntologyID;
+
+@SuppressWarnings("javadoc")
+public class OWLProfileCheckerTestCase extends TestBase {
+
+    private static final List<OWLProfile> PROFILES =
+        Arrays.asList(OWL2_FULL, OWL2_DL, OWL2_EL, OWL2_QL, OWL2_RL);
+
+    static List<String> describe(Collection<OWLProfileViolation> violations) {
+        return violations.stream().map(v -> v.getClass().getSimpleName() + ' ' + v).sorted()
+            .collect(Collectors.toList());
+    }
+
+    static void assertSameReports(OWLOntology o, Map<OWLProfile, OWLProfileReport> reports) {
+        reports.forEach((profile, report) -> {
+            OWLProfileReport expected = profile.checkOntology(o);
+            assertEquals(profile.getName(), expected.isInProfile(), report.isInProfile());
+            assertEquals(profile.getName(), describe(expected.getViolations()),
+                describe(report.getViolations()));
+        });
+    }
+
+    private static OWLClass c(int i) {
+        return Class(iri("C" + i));
+    }
+
+    private static OWLObjectProperty p(int i) {
+        return ObjectProperty(iri("p" + i));
+    }
+
+    private static OWLAxiom randomAxiom(Random r) {
+        switch (r.nextInt(9)) {
+            case 0:
+                return SubClassOf(c(r.nextInt(20)), ObjectUnionOf(c(r.nextInt(20)), c(20)));
+            case 1:
+                return SubClassOf(c(r.nextInt(20)),
+                    ObjectMinCardinality(2, p(r.nextInt(4)), c(r.nextInt(20))));
+            case 2:
+                return TransitiveObjectProperty(p(r.nextInt(4)));
+            case 3:
+                return Declaration(c(r.nextInt(20)));
+            case 4:
+                return Declaration(p(r.nextInt(4)));
+            case 5:
+                return ClassAssertion(c(r.nextInt(20)), NamedIndividual(iri("i" + r.nextInt(5))));
+            case 6:
+                // a datatype with the IRI of a class
+                return DataPropertyRange(DataProperty(iri("d")), Datatype(iri("C" + r.nextInt(20))));
+            case 7:
+                return SubClassOf(c(r.nextInt(20)),
+                    ObjectSomeValuesFrom(p(r.nextInt(4)), c(r.nextInt(20))));
+            default:
+                return SubClassOf(c(r.nextInt(20)), c(r.nextInt(20)));
+        }
+    }
+
+    @Test
+    public void shouldCheckLargeOntologyInParallel() throws Exception {
+        OWLOntology imported = getOWLOntology(iri("imported"));
+        OWLOntology o = getOWLOntology();
+        Random r = new Random(3);
+        for (int i = 0; i < 3000; i++) {
+            imported.add(randomAxiom(r));
+            o.add(SubClassOf(c(i % 20), Class(iri("D" + i))), randomAxiom(r));
+        }
+        o.getOWLOntologyManager().applyChange(new AddImport(o,
+            df.getOWLImportsDeclaration(iri("imported"))));
+        Map<OWLProfile, OWLProfileReport> parallel =
+            new OWLProfileChecker(PROFILES, 4).checkOntology(o);
+        assertEquals(PROFILES, new ArrayList<>(parallel.keySet()));
+        assertSameReports(o, parallel);
+        Map<OWLProfile, OWLProfileReport> sequential =
+            new OWLProfileChecker(PROFILES, 1).checkOntology(o);
+        parallel.forEach((p, report) -> assertEquals(describe(report.getViolations()),
+            describe(sequential.get(p).getViolations())));
+    }
+
+    @Test
+    public void shouldCheckChangesIncrementally() throws Exception {
+        OWLOntology imported = getOWLOntology(iri("imported"));
+        OWLOntology o = getOWLOntology();
+        Random r = new Random(11);
+        for (int i = 0; i < 40; i++) {
+            o.add(randomAxiom(r));
+            imported.add(randomAxiom(r));
+        }
+        OWLProfileChecker checker = new OWLProfileChecker(PROFILES, 2);
+        Map<OWLProfile, OWLProfileReport> reports = checker.checkOntology(o);
+        assertSameReports(o, reports);
+        for (int round = 0; round < 60; round++) {
+            List<OWLOntologyChange> changes = new ArrayList<>();
+            if (round == 30) {
+                changes.add(new AddImport(o, df.getOWLImportsDeclaration(iri("imported"))));
+            }
+            for (int i = 0; i < 1 + r.nextInt(3); i++) {
+                OWLOntology target = r.nextInt(3) == 0 ? imported : o;
+                List<OWLAxiom> axioms = new ArrayList<>(target.getAxioms());
+                if (r.nextBoolean() && !axioms.isEmpty()) {
+                    Collections.sort(axioms);
+                    changes.add(new RemoveAxiom(target, axioms.get(r.nextInt(axioms.size()))));
+                } else {
+                    changes.add(new AddAxiom(target, randomAxiom(r)));
+                }
+            }
+            o.getOWLOntologyManager().applyChanges(changes);
+            Map<OWLProfile, OWLProfileReportDiff> diffs = checker.checkChanges(changes);
+            for (OWLProfile profile : PROFILES) {
+                OWLProfileReportDiff diff = diffs.get(profile);
+                List<OWLProfileViolation> expected =
+                    new ArrayList<>(reports.get(profile).getViolations());
+                expected.removeAll(diff.getRemovedViolations());
+                expected.addAll(diff.getAddedViolations());
+                assertEquals(describe(expected), describe(diff.getReport().getViolations()));
+                assertEquals(diff.hasChanged(), !describe(reports.get(profile).getViolations())
+                    .equals(describe(expected)) || !diff.getAddedViolations().isEmpty());
+            }
+            reports = diffs.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getReport()));
+            assertSameReports(o, reports);
+        }
+    }
+
+    @Test
+    public void shouldReportUnchangedViolationsAsSameObjects() {
+        OWLOntology o = getOWLOntology();
+        OWLAxiom union = SubClassOf(c(1), ObjectUnionOf(c(2), c(3)));
+        o.add(Declaration(c(1)), Declaration(c(2)), Declaration(c(3)), union);
+        OWLProfileChecker checker = new OWLProfileChecker(1, OWL2_EL);
+        OWLProfileReport before = checker.checkOntology(o).get(OWL2_EL);
+        assertFalse(before.isInProfile());
+        List<OWLOntologyChange> changes =
+            Collections.singletonList(new AddAxiom(o, SubClassOf(c(2), c(3))));
+        o.getOWLOntologyManager().applyChanges(changes);
+        OWLProfileReportDiff diff = checker.checkChanges(changes).get(OWL2_EL);
+        assertFalse(diff.hasChanged());
+        assertEquals(before.getViolations(), diff.getReport().getViolations());
+        changes = Collections.singletonList(new RemoveAxiom(o, union));
+        o.getOWLOntologyManager().applyChanges(changes);
+        diff = checker.checkChanges(changes).get(OWL2_EL);
+        assertTrue(diff.getReport().isInProfile());
+        assertEquals(before.getViolations(), diff.getRemovedViolations());
+    }
+
+    @Test
+    public void shouldNotReportViolationsAsChangedWhenOntologyIdChanges() {
+        OWLOntology o = getOWLOntology();
+        o.add(SubClassOf(c(1), ObjectUnionOf(c(2), c(3))),
+            SubClassOf(c(1), ObjectMinCardinality(2, p(1), c(2))), TransitiveObjectProperty(p(1)));
+        OWLProfileChecker checker = new OWLProfileChecker(1, OWL2_DL, OWL2_EL);
+        Map<OWLProfile, OWLProfileReport> before = checker.checkOntology(o);
+        assertFalse(before.get(OWL2_DL).isInProfile());
+        List<OWLOntologyChange> changes = Collections.singletonList(
+            new SetOntologyID(o, new OWLOntologyID(iri("renamed"), iri("renamed/1"))));
+        o.getOWLOntologyManager().applyChanges(changes);
+        Map<OWLProfile, OWLProfileReportDiff> diffs = checker.checkChanges(changes);
+        for (OWLProfile profile : Arrays.asList(OWL2_DL, OWL2_EL)) {
+            assertFalse(profile.getName(), diffs.get(profile).hasChanged());
+            assertEquals(before.get(profile).getViolations(),
+                diffs.get(profile).getReport().getViolations());
+        }
+    }
+}
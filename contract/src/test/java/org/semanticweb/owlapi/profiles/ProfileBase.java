@@ -23,6 +23,8 @@ public class ProfileBase extends TestBase {
             assertTrue(ql == OWL2_QL.checkOntology(o).isInProfile());
             assertTrue(rl == OWL2_RL.checkOntology(o).isInProfile());
             assertTrue(dl == OWL2_DL.checkOntology(o).isInProfile());
+            OWLProfileCheckerTestCase.assertSameReports(o,
+                new OWLProfileChecker(2, OWL2_EL, OWL2_QL, OWL2_RL, OWL2_DL).checkOntology(o));
         } catch (OWLOntologyCreationException e) {
             throw new OWLRuntimeException(e);
         }
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.Set;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.binary.BinaryOWLParserFactory;
 import org.semanticweb.owlapi.functional.parser.OWLFunctionalSyntaxOWLParserFactory;
 import org.semanticweb.owlapi.io.OWLParserFactory;
 import org.semanticweb.owlapi.krss2.parser.KRSS2OWLParserFactory;
@@ -48,6 +49,7 @@ public class OWLParserFactoryRegistryTestCase {
         factories.add(RioRDFXMLParserFactory.class);
         factories.add(RioTrixParserFactory.class);
         factories.add(RioRDFaParserFactory.class);
+        factories.add(BinaryOWLParserFactory.class);
         PriorityCollection<OWLParserFactory> ontologyParsers = OWLManager
             .createOWLOntologyManager().getOntologyParsers();
         Set<Class<? extends OWLParserFactory>> found = new HashSet<>();
@@ -0,0 +1,182 @@
+package org.semanticweb.owlapi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.Class;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.ClassAssertion;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.EquivalentClasses;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.NamedIndividual;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.SubClassOf;
+import static org.semanticweb.owlapi.model.parameters.AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS;
+import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasoner;
+
+@SuppressWarnings({"javadoc", "null"})
+public class InferredOntologyGeneratorTestCase extends TestBase {
+
+    private OWLOntology o;
+    private OWLReasoner reasoner;
+    private List<InferredAxiomGenerator<? extends OWLAxiom>> generators;
+
+    @Before
+    public void setUpOntology() {
+        o = getOWLOntology();
+        for (int i = 1; i < 200; i++) {
+            o.add(SubClassOf(Class(iri("C" + i)), Class(iri("C" + (i - 1) / 3))));
+            o.add(ClassAssertion(Class(iri("C" + i)), NamedIndividual(iri("i" + i))));
+        }
+        o.add(EquivalentClasses(Class(iri("C7")), Class(iri("E7"))));
+        reasoner = new StructuralReasoner(o, new SimpleConfiguration(), BufferingMode.BUFFERING);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        generators = Arrays.asList(new InferredSubClassAxiomGenerator(),
+            new InferredClassAssertionAxiomGenerator(), new InferredEquivalentClassAxiomGenerator());
+    }
+
+    private Set<OWLAxiom> expected() {
+        Set<OWLAxiom> expected = new HashSet<>();
+        generators.forEach(g -> expected.addAll(g.createAxioms(df, reasoner)));
+        return expected;
+    }
+
+    /**
+     * The structural reasoner does not support concurrent queries; serialize them.
+     */
+    private OWLReasoner synchronizedReasoner() {
+        return synchronizedReasoner(() -> {
+        });
+    }
+
+    private OWLReasoner synchronizedReasoner(Runnable beforeQuery) {
+        return (OWLReasoner) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {OWLReasoner.class}, (proxy, method, args) -> {
+                synchronized (reasoner) {
+                    beforeQuery.run();
+                    try {
+                        return method.invoke(reasoner, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            });
+    }
+
+    @Test
+    public void shouldFillOntologyInBatches() {
+        Set<OWLAxiom> expected = expected();
+        assertFalse(expected.isEmpty());
+        OWLOntology target = getOWLOntology();
+        new InferredOntologyGenerator(reasoner, generators, 1, 7).fillOntology(df, target);
+        assertEquals(expected, asUnorderedSet(target.axioms()));
+        // axioms already asserted are not added again
+        int count = o.getAxiomCount();
+        new InferredOntologyGenerator(reasoner, generators, 1, 7).fillOntology(df, o);
+        expected.removeIf(ax -> o.containsAxiom(ax, INCLUDED, IGNORE_AXIOM_ANNOTATIONS));
+        assertTrue(expected.isEmpty());
+        assertTrue(o.getAxiomCount() > count);
+    }
+
+    @Test
+    public void shouldGenerateInParallel() {
+        Set<OWLAxiom> expected = expected();
+        InferredOntologyGenerator generator =
+            new InferredOntologyGenerator(synchronizedReasoner(), generators, 4, 7);
+        OWLOntology target = getOWLOntology();
+        generator.fillOntology(df, target);
+        assertEquals(expected, asUnorderedSet(target.axioms()));
+        List<List<OWLAxiom>> batches = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        generator.generateAxioms(df, b -> {
+            assertTrue(Thread.currentThread() == caller);
+            batches.add(b);
+        });
+        batches.forEach(b -> assertTrue(b.size() <= 7));
+        Set<OWLAxiom> generated = new HashSet<>();
+        batches.forEach(generated::addAll);
+        assertEquals(expected, generated);
+    }
+
+    @Test
+    public void shouldNotChangeOntologyWhileGeneratingInParallel() {
+        Set<OWLAxiom> expected = expected();
+        int count = o.getAxiomCount();
+        AtomicBoolean changed = new AtomicBoolean();
+        OWLReasoner checking = synchronizedReasoner(() -> {
+            if (o.getAxiomCount() != count) {
+                changed.set(true);
+            }
+        });
+        new InferredOntologyGenerator(checking, generators, 4, 7).fillOntology(df, o);
+        assertFalse(changed.get());
+        expected.forEach(ax -> assertTrue(o.containsAxiom(ax, INCLUDED, IGNORE_AXIOM_ANNOTATIONS)));
+    }
+
+    @Test
+    public void shouldNotChangeOntologyWhileGeneratingSequentially() {
+        int count = o.getAxiomCount();
+        AtomicBoolean changed = new AtomicBoolean();
+        OWLReasoner checking = synchronizedReasoner(() -> {
+            if (o.getAxiomCount() != count) {
+                changed.set(true);
+            }
+        });
+        new InferredOntologyGenerator(checking, generators, 1, 7).fillOntology(df, o);
+        assertFalse(changed.get());
+        assertTrue(o.getAxiomCount() > count);
+    }
+
+    @Test
+    public void shouldFillOtherOntologyWhileGeneratingInParallel() {
+        OWLOntology target = getOWLOntology();
+        AtomicBoolean filledEarly = new AtomicBoolean();
+        OWLReasoner checking = synchronizedReasoner(() -> {
+            if (target.getAxiomCount() > 0) {
+                filledEarly.set(true);
+            }
+        });
+        new InferredOntologyGenerator(checking, generators, 4, 7).fillOntology(df, target);
+        // batches are added as they are generated, not once all generators have completed
+        assertTrue(filledEarly.get());
+        assertEquals(expected(), asUnorderedSet(target.axioms()));
+    }
+
+    @Test
+    public void shouldUseOverriddenGenerate() {
+        OWLAxiom marker = SubClassOf(Class(iri("X")), Class(iri("Y")));
+        InferredOntologyGenerator generator =
+            new InferredOntologyGenerator(synchronizedReasoner(), generators, 4, 7) {
+
+                @Override
+                @Deprecated
+                protected Stream<OWLAxiom> generate(OWLDataFactory factory,
+                    InferredAxiomGenerator<? extends OWLAxiom> g) {
+                    return Stream.of(marker);
+                }
+            };
+        OWLOntology target = getOWLOntology();
+        generator.fillOntology(df, target);
+        assertEquals(new HashSet<>(Arrays.asList(marker)), asUnorderedSet(target.axioms()));
+    }
+}
@@ -0,0 +1,194 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveImport;
+
+import uk.ac.manchester.cs.owlapi.modularity.IncrementalModuleExtractor;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+@SuppressWarnings("javadoc")
+public class IncrementalModuleExtractorTestCase extends TestBase {
+
+    @Test
+    public void shouldExtractSameModulesAsSyntacticLocalityModuleExtractor() throws Exception {
+        OWLOntology o = ontologyFromClasspathFile("pizza.owl");
+        List<OWLClass> classes = asList(o.classesInSignature());
+        for (ModuleType type : ModuleType.values()) {
+            SyntacticLocalityModuleExtractor expected =
+                new SyntacticLocalityModuleExtractor(m1, o, type);
+            IncrementalModuleExtractor actual = new IncrementalModuleExtractor(o, type);
+            for (int i = 0; i < classes.size(); i += 3) {
+                Set<OWLEntity> seed = new HashSet<>(classes.subList(i, Math.min(i + 2,
+                    classes.size())));
+                assertEquals(type + " " + seed, expected.extract(seed), actual.extract(seed));
+            }
+            actual.dispose();
+        }
+    }
+
+    @Test
+    public void shouldCacheModulesBySeedSignature() throws Exception {
+        OWLOntology o = ontologyFromClasspathFile("pizza.owl");
+        IncrementalModuleExtractor extractor = new IncrementalModuleExtractor(o, ModuleType.STAR);
+        Set<OWLEntity> seed = Collections.singleton(df.getOWLClass(
+            "http://www.co-ode.org/ontologies/pizza/pizza.owl#", "Margherita"));
+        Set<OWLAxiom> module = extractor.extract(seed);
+        assertFalse(module.isEmpty());
+        long checks = extractor.localityCheckCount();
+        // the returned module is a copy
+        module.clear();
+        assertEquals(extractor.extract(new HashSet<>(seed)), extractor.extract(seed));
+        assertEquals(1, extractor.missCount());
+        assertEquals(2, extractor.hitCount());
+        assertEquals(checks, extractor.localityCheckCount());
+        extractor.setModuleType(ModuleType.BOT);
+        extractor.extract(seed);
+        assertEquals(2, extractor.missCount());
+        extractor.dispose();
+    }
+
+    @Test
+    public void shouldFollowOntologyChanges() throws Exception {
+        OWLOntology o = getOWLOntology();
+        OWLClass a = df.getOWLClass(iri("A"));
+        OWLClass b = df.getOWLClass(iri("B"));
+        OWLClass c = df.getOWLClass(iri("C"));
+        OWLAxiom ab = df.getOWLSubClassOfAxiom(a, b);
+        OWLAxiom bc = df.getOWLSubClassOfAxiom(b, c);
+        o.add(ab);
+        IncrementalModuleExtractor extractor = new IncrementalModuleExtractor(o, ModuleType.BOT);
+        Set<OWLEntity> seed = Collections.singleton(a);
+        assertEquals(Collections.singleton(ab), extractor.extract(seed));
+        o.add(bc, df.getOWLDeclarationAxiom(c));
+        Set<OWLAxiom> module = extractor.extract(seed);
+        assertTrue(module.contains(bc));
+        assertTrue(module.contains(df.getOWLDeclarationAxiom(c)));
+        o.remove(ab);
+        assertEquals(Collections.emptySet(), extractor.extract(seed));
+        assertEquals(3, extractor.missCount());
+        extractor.dispose();
+        // no longer listening
+        o.add(ab);
+        assertEquals(3, extractor.missCount());
+    }
+
+    @Test
+    public void shouldExtractWhileOntologyChangesConcurrently() throws Exception {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        OWLOntology o = manager.createOntology();
+        List<OWLClass> classes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            OWLClass c = df.getOWLClass(iri("C" + i));
+            classes.add(c);
+            o.add(df.getOWLDeclarationAxiom(c));
+            if (i > 0) {
+                o.add(df.getOWLSubClassOfAxiom(c, classes.get(i - 1)));
+            }
+        }
+        IncrementalModuleExtractor extractor = new IncrementalModuleExtractor(o, ModuleType.BOT);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // the manager broadcasts changes while holding its write lock, and extraction reads
+            // the ontology; neither may wait for the other while holding its own lock
+            Future<?> reader = executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    // large modules, so that many declarations are read from the ontology
+                    extractor.extract(Collections.singleton(classes.get(49 - i % 10)));
+                }
+            });
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; !reader.isDone(); i++) {
+                    OWLAxiom ax = df.getOWLSubClassOfAxiom(classes.get(i % 50),
+                        classes.get((i + 25) % 50));
+                    o.add(ax);
+                    o.remove(ax);
+                }
+            });
+            reader.get(60, TimeUnit.SECONDS);
+            writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        // once changes stop, the modules match the ontology
+        SyntacticLocalityModuleExtractor expected =
+            new SyntacticLocalityModuleExtractor(m1, o, ModuleType.BOT);
+        for (OWLClass c : classes) {
+            Set<OWLEntity> seed = Collections.singleton(c);
+            assertEquals(expected.extract(seed), extractor.extract(seed));
+        }
+        extractor.dispose();
+    }
+
+    @Test
+    public void shouldNotLoseChangesMadeWhileReindexing() throws Exception {
+        OWLOntologyManager manager = OWLManager.createConcurrentOWLOntologyManager();
+        OWLOntology o = manager.createOntology();
+        OWLOntology imported = manager.createOntology(iri("imported"));
+        OWLImportsDeclaration importsDeclaration =
+            df.getOWLImportsDeclaration(imported.getOntologyID().getOntologyIRI().get());
+        List<OWLClass> classes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            classes.add(df.getOWLClass(iri("C" + i)));
+        }
+        IncrementalModuleExtractor extractor = new IncrementalModuleExtractor(o, ModuleType.BOT);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // every imports change makes the next extraction read the ontologies again, while
+            // axioms are changed between the read and the index update
+            Future<?> reader = executor.submit(() -> {
+                for (int i = 0; i < 300; i++) {
+                    manager.applyChange(i % 2 == 0 ? new AddImport(o, importsDeclaration)
+                        : new RemoveImport(o, importsDeclaration));
+                    extractor.extract(Collections.singleton(classes.get(i % 20)));
+                }
+            });
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; !reader.isDone(); i++) {
+                    OWLAxiom ax = df.getOWLSubClassOfAxiom(classes.get(i % 20),
+                        classes.get((i + 7) % 20));
+                    if (i % 3 == 0) {
+                        o.remove(ax);
+                    } else {
+                        o.add(ax);
+                    }
+                }
+            });
+            reader.get(60, TimeUnit.SECONDS);
+            writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        SyntacticLocalityModuleExtractor expected =
+            new SyntacticLocalityModuleExtractor(manager, o, ModuleType.BOT);
+        for (OWLClass c : classes) {
+            Set<OWLEntity> seed = Collections.singleton(c);
+            assertEquals(expected.extract(seed), extractor.extract(seed));
+        }
+        extractor.dispose();
+    }
+}
@@ -0,0 +1,72 @@
+package org.semanticweb.owlapitools.decomposition.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.TestBase;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapitools.decomposition.AtomList;
+import org.semanticweb.owlapitools.decomposition.AxiomSelector;
+import org.semanticweb.owlapitools.decomposition.AxiomWrapper;
+import org.semanticweb.owlapitools.decomposition.Decomposer;
+import org.semanticweb.owlapitools.decomposition.OntologyAtom;
+import org.semanticweb.owlapitools.decomposition.SyntacticLocalityChecker;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+@SuppressWarnings("javadoc")
+public class ParallelAtomicDecompositionTestCase extends TestBase {
+
+    private static List<String> describe(AtomList aos) {
+        List<String> atoms = new ArrayList<>();
+        for (int i = 0; i < aos.size(); i++) {
+            OntologyAtom atom = aos.get(i);
+            List<OWLAxiom> axioms = new ArrayList<>();
+            atom.getAtomAxioms().forEach(p -> axioms.add(p.getAxiom()));
+            List<OWLAxiom> module = new ArrayList<>();
+            atom.getModule().forEach(p -> module.add(p.getAxiom()));
+            Set<Integer> dependencies = new TreeSet<>();
+            atom.getDependencies().forEach(d -> dependencies.add(Integer.valueOf(d.getId())));
+            atoms.add(atom.getId() + " " + axioms + " " + module + " " + dependencies);
+        }
+        return atoms;
+    }
+
+    private static List<String> decompose(List<OWLAxiom> axioms, ModuleType type, int threads) {
+        List<AxiomWrapper> wrappers = AxiomSelector.wrap(axioms);
+        Decomposer decomposer =
+            new Decomposer(wrappers, SyntacticLocalityChecker::new, threads);
+        List<String> atoms = describe(decomposer.getAOS(type));
+        // tautologies are restored for later decompositions
+        assertTrue(wrappers.stream().allMatch(AxiomWrapper::isUsed));
+        return atoms;
+    }
+
+    @Test
+    public void shouldBuildSameAtomsInParallel() throws Exception {
+        OWLOntology o = ontologyFromClasspathFile("pizza.owl");
+        List<OWLAxiom> axioms = AxiomSelector.selectAxioms(o);
+        for (ModuleType type : ModuleType.values()) {
+            List<String> expected = decompose(axioms, type, 1);
+            assertEquals(type.toString(), expected, decompose(axioms, type, 4));
+            // modules are precomputed in several batches
+            assertEquals(type.toString(), expected, decompose(axioms, type, 2));
+            // same result on a second decomposition
+            assertEquals(type.toString(), expected, decompose(axioms, type, 1));
+        }
+        assertTrue(decompose(axioms, ModuleType.BOT, 1).size() > 100);
+        assertTrue(axioms.size() > 2 * 2 * 64);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveThreads() {
+        new Decomposer(new ArrayList<>(), SyntacticLocalityChecker::new, 0);
+    }
+}
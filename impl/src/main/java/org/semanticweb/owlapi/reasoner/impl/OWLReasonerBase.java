@@ -27,6 +27,7 @@ import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
 import org.semanticweb.owlapi.model.parameters.AxiomAnnotations;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
@@ -150,16 +151,41 @@ public abstract class OWLReasonerBase implements OWLReasoner {
         if (rawChanges.isEmpty()) {
             return;
         }
-        rootOntology.importsClosure().flatMap(o -> o.logicalAxioms())
-            .filter(ax -> !reasonerAxioms.contains(ax
-                .getAxiomWithoutAnnotations())).forEach(added::add);
-        rootOntology.importsClosure().flatMap(o -> o.axioms(AxiomType.DECLARATION))
-            .filter(ax -> !reasonerAxioms
-                .contains(ax.getAxiomWithoutAnnotations())).forEach(added::add);
-        for (OWLAxiom ax : reasonerAxioms) {
-            if (!rootOntology
-                .containsAxiom(ax, Imports.INCLUDED, AxiomAnnotations.CONSIDER_AXIOM_ANNOTATIONS)) {
-                removed.add(ax);
+        if (rawChanges.stream().anyMatch(c -> c.isImportChange() || c instanceof SetOntologyID)) {
+            // the imports closure might have changed; compare all axioms
+            rootOntology.importsClosure().flatMap(o -> o.logicalAxioms())
+                .map(ax -> OWLAxiom.getAxiomWithoutAnnotations(ax))
+                .filter(ax -> !reasonerAxioms.contains(ax)).forEach(added::add);
+            rootOntology.importsClosure().flatMap(o -> o.axioms(AxiomType.DECLARATION))
+                .map(ax -> OWLAxiom.getAxiomWithoutAnnotations(ax))
+                .filter(ax -> !reasonerAxioms.contains(ax)).forEach(added::add);
+            // reasoner axioms have no annotations, and are still present as long as any
+            // annotated version of them is; considering annotations here would report every
+            // annotated axiom as removed
+            for (OWLAxiom ax : reasonerAxioms) {
+                if (!rootOntology.containsAxiom(ax, Imports.INCLUDED,
+                    AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS)) {
+                    removed.add(ax);
+                }
+            }
+            return;
+        }
+        // Only the axioms in the pending changes can have been added or removed, so there is no
+        // need to look at the rest of the imports closure
+        for (OWLOntologyChange change : rawChanges) {
+            if (change.isAxiomChange()) {
+                OWLAxiom ax = change.getAxiom();
+                if (ax.isLogicalAxiom() || ax.isOfType(AxiomType.DECLARATION)) {
+                    OWLAxiom key = OWLAxiom.getAxiomWithoutAnnotations(ax);
+                    if (rootOntology.containsAxiom(key, Imports.INCLUDED,
+                        AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS)) {
+                        if (!reasonerAxioms.contains(key)) {
+                            added.add(key);
+                        }
+                    } else if (reasonerAxioms.contains(key)) {
+                        removed.add(key);
+                    }
+                }
             }
         }
     }
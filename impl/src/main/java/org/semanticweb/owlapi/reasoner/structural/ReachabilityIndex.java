@@ -0,0 +1,236 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.reasoner.structural;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.reasoner.Node;
+
+/**
+ * Reachability index over an acyclic graph of nodes, using interval labelling over a spanning
+ * forest (Agrawal, Borgida and Jagadish, "Efficient Management of Transitive Relationships in
+ * Large Data and Knowledge Bases"). Nodes are numbered in depth first post order, so that the
+ * nodes of a spanning subtree have consecutive numbers; each node is labelled with the merged
+ * intervals of the nodes it reaches. Checking reachability is a binary search over the intervals
+ * of a node, and enumerating the reachable nodes costs the number of nodes reached.<br>
+ * The index is immutable; it has to be rebuilt when the graph changes.
+ *
+ * @param <T> type of the node elements
+ * @since 5.1.8
+ */
+final class ReachabilityIndex<T extends OWLObject> {
+
+    private final Map<T, Integer> numbers;
+    private final List<Node<T>> nodes;
+    private final int[][] intervals;
+
+    private ReachabilityIndex(Map<T, Integer> numbers, List<Node<T>> nodes, int[][] intervals) {
+        this.numbers = numbers;
+        this.nodes = nodes;
+        this.intervals = intervals;
+    }
+
+    /**
+     * @param nodes nodes of the graph
+     * @param next function returning the nodes with an edge from the specified node
+     * @param <T> type of the node elements
+     * @return the index, or null if the graph has a cycle or an edge to a node not in the graph
+     */
+    @Nullable
+    static <T extends OWLObject> ReachabilityIndex<T> build(Collection<Node<T>> nodes,
+        Function<Node<T>, Collection<Node<T>>> next) {
+        List<Node<T>> list = new ArrayList<>(nodes);
+        Map<T, Integer> ids = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            Integer id = Integer.valueOf(i);
+            list.get(i).entities().forEach(e -> ids.put(e, id));
+        }
+        int size = list.size();
+        int[][] edges = new int[size][];
+        for (int i = 0; i < size; i++) {
+            Collection<Node<T>> successors = next.apply(list.get(i));
+            int[] targets = new int[successors.size()];
+            int j = 0;
+            for (Node<T> n : successors) {
+                Integer id = ids.get(n.getRepresentativeElement());
+                if (id == null) {
+                    return null;
+                }
+                targets[j++] = id.intValue();
+            }
+            edges[i] = targets;
+        }
+        // iterative depth first search, assigning post order numbers
+        int[] post = new int[size];
+        int[] low = new int[size];
+        byte[] state = new byte[size];
+        int[] stack = new int[size];
+        int[] cursor = new int[size];
+        int counter = 0;
+        for (int root = 0; root < size; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            cursor[0] = 0;
+            state[root] = 1;
+            low[root] = counter;
+            while (top >= 0) {
+                int v = stack[top];
+                int[] targets = edges[v];
+                if (cursor[top] < targets.length) {
+                    int w = targets[cursor[top]++];
+                    if (state[w] == 1) {
+                        // cycle
+                        return null;
+                    }
+                    if (state[w] == 0) {
+                        state[w] = 1;
+                        low[w] = counter;
+                        top++;
+                        stack[top] = w;
+                        cursor[top] = 0;
+                    }
+                } else {
+                    state[v] = 2;
+                    post[v] = counter++;
+                    top--;
+                }
+            }
+        }
+        // all the successors of a node have lower post order numbers
+        // the post order numbers are a permutation of the node ids
+        List<Node<T>> byNumber = new ArrayList<>(list);
+        int[] byPost = new int[size];
+        for (int i = 0; i < size; i++) {
+            byPost[post[i]] = i;
+            byNumber.set(post[i], list.get(i));
+        }
+        int[][] intervals = new int[size][];
+        for (int p = 0; p < size; p++) {
+            int v = byPost[p];
+            intervals[p] = merge(low[v], p, edges[v], post, intervals);
+        }
+        Map<T, Integer> numbers = new HashMap<>();
+        ids.forEach((e, id) -> numbers.put(e, Integer.valueOf(post[id.intValue()])));
+        return new ReachabilityIndex<>(numbers, byNumber, intervals);
+    }
+
+    private static int[] merge(int start, int end, int[] successors, int[] post,
+        int[][] intervals) {
+        int count = 1;
+        for (int w : successors) {
+            count += intervals[post[w]].length / 2;
+        }
+        long[] all = new long[count];
+        int i = 0;
+        all[i++] = (long) start << 32 | end;
+        for (int w : successors) {
+            int[] other = intervals[post[w]];
+            for (int j = 0; j < other.length; j += 2) {
+                all[i++] = (long) other[j] << 32 | other[j + 1];
+            }
+        }
+        Arrays.sort(all);
+        int[] merged = new int[count * 2];
+        int length = 0;
+        for (long interval : all) {
+            int s = (int) (interval >>> 32);
+            int e = (int) interval;
+            if (length > 0 && s <= merged[length - 1] + 1) {
+                merged[length - 1] = Math.max(merged[length - 1], e);
+            } else {
+                merged[length++] = s;
+                merged[length++] = e;
+            }
+        }
+        return length == merged.length ? merged : Arrays.copyOf(merged, length);
+    }
+
+    /**
+     * @param element element to check
+     * @return true if the element is in a node of the index
+     */
+    boolean contains(T element) {
+        return numbers.containsKey(element);
+    }
+
+    /**
+     * @param from element of the start node
+     * @param to element of the end node
+     * @return true if there is a non empty path from the node of {@code from} to the node of
+     *         {@code to}; false if either is not in the index
+     */
+    boolean reaches(T from, T to) {
+        Integer source = numbers.get(from);
+        Integer target = numbers.get(to);
+        if (source == null || target == null || source.equals(target)) {
+            return false;
+        }
+        int[] labels = intervals[source.intValue()];
+        int t = target.intValue();
+        int lo = 0;
+        int hi = labels.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (labels[mid * 2 + 1] < t) {
+                lo = mid + 1;
+            } else if (labels[mid * 2] > t) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param from element of the start node
+     * @param consumer consumer for the nodes reachable through a non empty path
+     * @return false if the element is not in the index
+     */
+    boolean reachable(T from, Consumer<Node<T>> consumer) {
+        Integer source = numbers.get(from);
+        if (source == null) {
+            return false;
+        }
+        int s = source.intValue();
+        int[] labels = intervals[s];
+        for (int i = 0; i < labels.length; i += 2) {
+            for (int p = labels[i]; p <= labels[i + 1]; p++) {
+                if (p != s) {
+                    consumer.accept(nodes.get(p));
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of nodes in the index
+     */
+    int size() {
+        return nodes.size();
+    }
+}
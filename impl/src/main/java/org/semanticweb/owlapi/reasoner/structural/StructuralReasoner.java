@@ -20,15 +20,23 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -41,17 +49,22 @@ import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
 import org.semanticweb.owlapi.model.OWLDifferentIndividualsAxiom;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
-import org.semanticweb.owlapi.model.OWLObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubDataPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.parameters.AxiomAnnotations;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
@@ -170,6 +183,9 @@ public class StructuralReasoner extends OWLReasonerBase {
         classHierarchyInfo.computeHierarchy();
         objectPropertyHierarchyInfo.computeHierarchy();
         dataPropertyHierarchyInfo.computeHierarchy();
+        classHierarchyInfo.buildIndex();
+        objectPropertyHierarchyInfo.buildIndex();
+        dataPropertyHierarchyInfo.buildIndex();
         prepared = true;
     }
 
@@ -217,14 +233,46 @@ public class StructuralReasoner extends OWLReasonerBase {
     @Override
     public boolean isEntailed(OWLAxiom axiom) {
         return getRootOntology()
-            .containsAxiom(axiom, INCLUDED, AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS);
+            .containsAxiom(axiom, INCLUDED, AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS)
+            || isEntailedByHierarchy(axiom);
+    }
+
+    /**
+     * Subsumptions between named classes and properties are also entailed if they follow from
+     * the computed hierarchies.
+     */
+    private boolean isEntailedByHierarchy(OWLAxiom axiom) {
+        if (axiom instanceof OWLSubClassOfAxiom) {
+            OWLSubClassOfAxiom ax = (OWLSubClassOfAxiom) axiom;
+            if (ax.getSubClass().isAnonymous() || ax.getSuperClass().isAnonymous()) {
+                return false;
+            }
+            ensurePrepared();
+            return classHierarchyInfo.isSubsumedBy(ax.getSubClass().asOWLClass(),
+                ax.getSuperClass().asOWLClass());
+        }
+        if (axiom instanceof OWLSubObjectPropertyOfAxiom) {
+            OWLSubObjectPropertyOfAxiom ax = (OWLSubObjectPropertyOfAxiom) axiom;
+            ensurePrepared();
+            return objectPropertyHierarchyInfo.isSubsumedBy(ax.getSubProperty(),
+                ax.getSuperProperty());
+        }
+        if (axiom instanceof OWLSubDataPropertyOfAxiom) {
+            OWLSubDataPropertyOfAxiom ax = (OWLSubDataPropertyOfAxiom) axiom;
+            if (ax.getSubProperty().isAnonymous() || ax.getSuperProperty().isAnonymous()) {
+                return false;
+            }
+            ensurePrepared();
+            return dataPropertyHierarchyInfo.isSubsumedBy(ax.getSubProperty().asOWLDataProperty(),
+                ax.getSuperProperty().asOWLDataProperty());
+        }
+        return false;
     }
 
     @Override
     public boolean isEntailed(Set<? extends OWLAxiom> axioms) {
         for (OWLAxiom ax : axioms) {
-            if (!getRootOntology()
-                .containsAxiom(ax, INCLUDED, AxiomAnnotations.IGNORE_AXIOM_ANNOTATIONS)) {
+            if (!isEntailed(ax)) {
                 return false;
             }
         }
@@ -233,7 +281,8 @@ public class StructuralReasoner extends OWLReasonerBase {
 
     @Override
     public boolean isEntailmentCheckingSupported(AxiomType<?> axiomType) {
-        return false;
+        return axiomType == AxiomType.SUBCLASS_OF || axiomType == AxiomType.SUB_OBJECT_PROPERTY
+            || axiomType == AxiomType.SUB_DATA_PROPERTY;
     }
 
     @Override
@@ -783,13 +832,38 @@ public class StructuralReasoner extends OWLReasonerBase {
     }
 
     // HierarchyInfo
+    /**
+     * Hierarchy over the raw parent/child relation. Besides the node cache, a topological order of
+     * the nodes is maintained, with children ordered before their parents and all the entities in
+     * a node sharing the same position; every entity in the signature has a position. Changes are
+     * applied incrementally: an added edge that agrees with the order costs nothing, otherwise only
+     * the nodes between the two ends of the edge are reordered, and a cycle is found if the edge
+     * closes one (Pearce and Kelly, "A Dynamic Topological Sort Algorithm for Directed Acyclic
+     * Graphs"). A removed edge can only split the node it is part of, so only that node is
+     * recomputed. Changes to the top or bottom node cause the hierarchy to be recomputed.
+     */
     private abstract class AbstractHierarchyInfo<T extends OWLObject> {
 
+        /**
+         * Distance between positions assigned when the order is computed, so that split nodes can
+         * be placed between their neighbours.
+         */
+        private static final long GAP = 1024;
         private final RawHierarchyProvider<T> rawParentChildProvider;
         private final Set<T> directChildrenOfTopNode = new HashSet<>();
         private final Set<T> directParentsOfBottomNode = new HashSet<>();
+        private final Map<T, Long> order = new HashMap<>();
+        private final NavigableMap<Long, T> ordered = new TreeMap<>();
         private final NodeCache<T> nodeCache;
         private final String name;
+        private boolean ordinary;
+        // null until built; queries may build it concurrently, so it is built under indexLock and
+        // published once complete
+        @Nullable
+        private volatile Indexes<T> indexes;
+        private final Object indexLock = new Object();
+        // nodes visited by queries answered without an index since the last change
+        private final LongAdder traversed = new LongAdder();
         /**
          * The entity that always appears in the top node in the hierarchy.
          */
@@ -843,16 +917,36 @@ public class StructuralReasoner extends OWLReasonerBase {
             return asUnorderedSet(axioms.stream().flatMap(this::getEntitiesInSignature));
         }
 
+        /**
+         * @param ax The axiom
+         * @return true if the axiom can add or remove raw parent/child edges
+         */
+        protected abstract boolean isHierarchyAxiom(OWLAxiom ax);
+
+        /**
+         * @param entity The entity
+         * @return true if the entity is in the signature of the imports closure
+         */
+        protected abstract boolean isInSignature(T entity);
+
         public void computeHierarchy() {
             pm.reasonerTaskStarted("Computing " + name + " hierarchy");
             pm.reasonerTaskBusy();
+            dropIndex();
             nodeCache.clear();
+            directChildrenOfTopNode.clear();
+            directParentsOfBottomNode.clear();
+            order.clear();
+            ordered.clear();
             Map<T, Collection<T>> cache = new HashMap<>();
             Set<T> entities = asUnorderedSet(
                 getRootOntology().importsClosure().flatMap(this::getEntities));
             classificationSize = entities.size();
             pm.reasonerTaskProgressChanged(0, classificationSize);
             updateForSignature(entities, cache);
+            order.putIfAbsent(topEntity, Long.valueOf(Long.MAX_VALUE));
+            order.putIfAbsent(bottomEntity, Long.valueOf(Long.MIN_VALUE));
+            ordinary = isOrdinary();
             pm.reasonerTaskStopped();
         }
 
@@ -865,12 +959,16 @@ public class StructuralReasoner extends OWLReasonerBase {
             directChildrenOfTopNode.removeAll(signature);
             Set<T> equivTopOrChildrenOfTop = new HashSet<>();
             Set<T> equivBottomOrParentsOfBottom = new HashSet<>();
+            // Entities visited from a previous root are not visited again
+            Deque<T> stack = new LinkedList<>();
+            Map<T, Integer> indexMap = new HashMap<>();
+            Map<T, Integer> lowlinkMap = new HashMap<>();
+            Set<T> stackEntities = new HashSet<>();
             for (T entity : signature) {
                 if (!processed.contains(entity)) {
                     pm.reasonerTaskProgressChanged(processed.size(), signature.size());
-                    tarjan(entity, 0, new LinkedList<T>(), new HashMap<T, Integer>(),
-                        new HashMap<T, Integer>(),
-                        cyclesResult, processed, new HashSet<T>(), cache, equivTopOrChildrenOfTop,
+                    tarjan(entity, stack, indexMap, lowlinkMap, cyclesResult, processed,
+                        stackEntities, cache, equivTopOrChildrenOfTop,
                         equivBottomOrParentsOfBottom);
                     throwExceptionIfInterrupted();
                 }
@@ -924,9 +1022,281 @@ public class StructuralReasoner extends OWLReasonerBase {
          * @param added added axioms
          * @param removed removed axioms
          */
-        @SuppressWarnings("unused")
         public void processChanges(Set<T> signature, Set<OWLAxiom> added, Set<OWLAxiom> removed) {
-            updateForSignature(signature, null);
+            dropIndex();
+            if (!ordinary || !rawParentChildProvider.getParents(topEntity).isEmpty()
+                || !rawParentChildProvider.getChildren(bottomEntity).isEmpty()) {
+                computeHierarchy();
+                return;
+            }
+            Set<T> addedEdges = getHierarchyEntities(added);
+            Set<T> affected = getHierarchyEntities(removed);
+            // A removed edge can only split the node it was in
+            Set<T> split = new HashSet<>();
+            for (T entity : affected) {
+                Node<T> node = nodeCache.getNode(entity);
+                if (node.getSize() > 1 && !split.contains(entity)) {
+                    node.entities().forEach(split::add);
+                    split(node);
+                }
+            }
+            affected.addAll(split);
+            affected.addAll(addedEdges);
+            for (T entity : signature) {
+                if (isInSignature(entity)) {
+                    if (!order.containsKey(entity)) {
+                        place(Collections.singleton(entity),
+                            rawParentChildProvider.getChildren(entity).isEmpty() ? lowest() - GAP
+                                : highest() + GAP);
+                        affected.add(entity);
+                    }
+                } else if (!entity.equals(topEntity) && !entity.equals(bottomEntity)) {
+                    Long position = order.remove(entity);
+                    if (position != null) {
+                        ordered.remove(position);
+                        affected.add(entity);
+                    }
+                }
+            }
+            for (T entity : addedEdges) {
+                for (T parent : rawParentChildProvider.getParents(entity)) {
+                    addEdge(entity, parent, affected);
+                }
+            }
+            Set<T> toUpdate = new HashSet<>();
+            for (T entity : affected) {
+                nodeCache.getNode(entity).entities().forEach(toUpdate::add);
+            }
+            for (T entity : toUpdate) {
+                update(directChildrenOfTopNode, entity, isDirectChildOfTop(entity, true));
+                update(directParentsOfBottomNode, entity, isDirectChildOfTop(entity, false));
+            }
+        }
+
+        private Set<T> getHierarchyEntities(Set<OWLAxiom> axioms) {
+            return asUnorderedSet(axioms.stream().filter(this::isHierarchyAxiom)
+                .flatMap(this::getEntitiesInSignature));
+        }
+
+        /**
+         * The incremental updates rely on the top node and the bottom node being singletons with
+         * no parents and no children respectively, so that edges to the top entity and from the
+         * bottom entity always agree with the order.
+         */
+        private boolean isOrdinary() {
+            return nodeCache.getTopNode().getSize() == 1 && nodeCache.getBottomNode().getSize() == 1
+                && rawParentChildProvider.getParents(topEntity).isEmpty()
+                && rawParentChildProvider.getChildren(bottomEntity).isEmpty();
+        }
+
+        private void update(Set<T> set, T entity, boolean member) {
+            if (member) {
+                set.add(entity);
+            } else {
+                set.remove(entity);
+            }
+        }
+
+        /**
+         * Same conditions as in {@link #updateForSignature(Set, Map)}, for a single entity.
+         *
+         * @param entity entity to check
+         * @param top true to check for a direct child of the top node, false for a direct parent
+         * of the bottom node
+         * @return true if the entity is a direct child of the top node (parent of the bottom node)
+         */
+        private boolean isDirectChildOfTop(T entity, boolean top) {
+            Node<T> end = top ? nodeCache.getTopNode() : nodeCache.getBottomNode();
+            if (end.contains(entity) || !isInSignature(entity)) {
+                return false;
+            }
+            Collection<T> next = next(entity, top);
+            if (next.isEmpty() || next.contains(top ? topEntity : bottomEntity)) {
+                return true;
+            }
+            Node<T> node = nodeCache.getNode(entity);
+            if (node.getSize() < 2 || node.contains(topEntity) || node.contains(bottomEntity)) {
+                return false;
+            }
+            for (T element : node) {
+                Collection<T> others = next(element, top);
+                node.entities().forEach(others::remove);
+                end.entities().forEach(others::remove);
+                if (!others.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Collection<T> next(T entity, boolean up) {
+            return new HashSet<>(up ? rawParentChildProvider.getParents(entity)
+                : rawParentChildProvider.getChildren(entity));
+        }
+
+        private long position(T entity) {
+            Long position = order.get(entity);
+            if (position == null) {
+                // only entities without edges can be missing
+                position = Long.valueOf(lowest() - GAP);
+                place(Collections.singleton(entity), position.longValue());
+            }
+            return position.longValue();
+        }
+
+        private long lowest() {
+            return ordered.isEmpty() ? 0 : ordered.firstKey().longValue();
+        }
+
+        private long highest() {
+            return ordered.isEmpty() ? 0 : ordered.lastKey().longValue();
+        }
+
+        private void place(Collection<T> entities, long position) {
+            Long p = Long.valueOf(position);
+            entities.forEach(e -> order.put(e, p));
+            if (position != Long.MAX_VALUE && position != Long.MIN_VALUE) {
+                ordered.put(p, entities.iterator().next());
+            }
+        }
+
+        private List<T> entitiesAt(Long position) {
+            return asList(nodeCache.getNode(verifyNotNull(ordered.get(position))).entities());
+        }
+
+        /**
+         * Adds an edge to the order; if the child is after the parent, the nodes between the two
+         * are reordered, and if the edge closes a cycle the nodes on the cycle are merged.
+         */
+        private void addEdge(T child, T parent, Set<T> affected) {
+            long childPosition = position(child);
+            long parentPosition = position(parent);
+            if (childPosition <= parentPosition) {
+                // already in order, or in the same node
+                return;
+            }
+            Set<Long> forward = search(parent, childPosition, true);
+            Set<Long> backward = search(child, parentPosition, false);
+            Set<Long> pool = new TreeSet<>(forward);
+            pool.addAll(backward);
+            List<Long> positions = new ArrayList<>(pool);
+            Set<Long> cycle = new HashSet<>(forward);
+            cycle.retainAll(backward);
+            forward.removeAll(cycle);
+            backward.removeAll(cycle);
+            List<Collection<T>> reordered = new ArrayList<>();
+            backward.stream().sorted().forEach(p -> reordered.add(entitiesAt(p)));
+            if (!cycle.isEmpty()) {
+                Set<T> merged = new HashSet<>();
+                cycle.forEach(p -> merged.addAll(entitiesAt(p)));
+                nodeCache.clearNodes(merged);
+                nodeCache.addNode(merged);
+                affected.addAll(merged);
+                reordered.add(merged);
+            }
+            forward.stream().sorted().forEach(p -> reordered.add(entitiesAt(p)));
+            positions.forEach(ordered::remove);
+            for (int i = 0; i < reordered.size(); i++) {
+                place(reordered.get(i), positions.get(i).longValue());
+            }
+        }
+
+        /**
+         * @param start start entity
+         * @param bound last position to visit
+         * @param up true to visit parents, false to visit children
+         * @return positions of the nodes reachable from the start node without crossing the bound,
+         * following only edges that agree with the order
+         */
+        private Set<Long> search(T start, long bound, boolean up) {
+            Set<Long> visited = new HashSet<>();
+            visited.add(Long.valueOf(position(start)));
+            Deque<T> toVisit = new ArrayDeque<>();
+            nodeCache.getNode(start).entities().forEach(toVisit::push);
+            while (!toVisit.isEmpty()) {
+                throwExceptionIfInterrupted();
+                T entity = toVisit.pop();
+                long from = position(entity);
+                for (T next : next(entity, up)) {
+                    // edges that are not in order yet are added later in the same batch
+                    long position = position(next);
+                    if ((up ? from < position && position <= bound
+                        : from > position && position >= bound)
+                        && visited.add(Long.valueOf(position))) {
+                        nodeCache.getNode(next).entities().forEach(toVisit::push);
+                    }
+                }
+            }
+            return visited;
+        }
+
+        /**
+         * Recomputes the cycles in a node after edges have been removed, and places the resulting
+         * nodes at the position of the original node, children first.
+         */
+        private void split(Node<T> node) {
+            Set<T> entities = asUnorderedSet(node.entities());
+            Map<T, Set<T>> reachable = new HashMap<>();
+            for (T entity : entities) {
+                Set<T> reached = new HashSet<>();
+                Deque<T> toVisit = new ArrayDeque<>();
+                toVisit.push(entity);
+                while (!toVisit.isEmpty()) {
+                    T next = toVisit.pop();
+                    if (reached.add(next)) {
+                        rawParentChildProvider.getParents(next).stream()
+                            .filter(entities::contains).forEach(toVisit::push);
+                    }
+                }
+                reachable.put(entity, reached);
+            }
+            List<Set<T>> parts = new ArrayList<>();
+            Set<T> done = new HashSet<>();
+            for (T entity : entities) {
+                if (!done.contains(entity)) {
+                    Set<T> part = new HashSet<>();
+                    for (T e : reachable.get(entity)) {
+                        if (reachable.get(e).contains(entity)) {
+                            part.add(e);
+                        }
+                    }
+                    done.addAll(part);
+                    parts.add(part);
+                }
+            }
+            if (parts.size() == 1) {
+                return;
+            }
+            // A part reaches all the parts above it, so it reaches more entities than they do
+            parts.sort(Comparator
+                .comparingInt((Set<T> part) -> -reachable.get(part.iterator().next()).size()));
+            long start = position(entities.iterator().next());
+            Long next = ordered.higherKey(Long.valueOf(start));
+            if (next != null && next.longValue() - start < parts.size()) {
+                renumber(Math.max(GAP, parts.size()));
+                start = position(entities.iterator().next());
+                next = ordered.higherKey(Long.valueOf(start));
+            }
+            long step = next == null ? GAP : (next.longValue() - start) / parts.size();
+            ordered.remove(Long.valueOf(start));
+            nodeCache.clearNodes(entities);
+            for (int i = 0; i < parts.size(); i++) {
+                Set<T> part = parts.get(i);
+                if (part.size() > 1) {
+                    nodeCache.addNode(part);
+                }
+                place(part, start + i * step);
+            }
+        }
+
+        private void renumber(long gap) {
+            List<T> representatives = new ArrayList<>(ordered.values());
+            ordered.clear();
+            long position = 0;
+            for (T representative : representatives) {
+                place(asList(nodeCache.getNode(representative).entities()), position);
+                position += gap;
+            }
         }
 
         /**
@@ -934,7 +1304,6 @@ public class StructuralReasoner extends OWLReasonerBase {
          * cycle that the entity is involved in (if any).
          *
          * @param entity The entity
-         * @param inputIndex index
          * @param stack stack
          * @param indexMap index map
          * @param lowlinkMap low link map
@@ -947,10 +1316,11 @@ public class StructuralReasoner extends OWLReasonerBase {
          * @param parentsOfBottom A set of entities that have a raw parent that is the bottom
          * entity
          */
-        public void tarjan(T entity, int inputIndex, Deque<T> stack, Map<T, Integer> indexMap,
+        public void tarjan(T entity, Deque<T> stack, Map<T, Integer> indexMap,
             Map<T, Integer> lowlinkMap, Set<Set<T>> result, Set<T> processed, Set<T> stackEntities,
             @Nullable Map<T, Collection<T>> cache, Set<T> childrenOfTop, Set<T> parentsOfBottom) {
-            int index = inputIndex;
+            // indices must be unique across the whole search, not just along a path
+            int index = indexMap.size();
             throwExceptionIfInterrupted();
             if (processed.add(entity)) {
                 Collection<T> rawChildren = rawParentChildProvider.getChildren(entity);
@@ -961,7 +1331,6 @@ public class StructuralReasoner extends OWLReasonerBase {
             pm.reasonerTaskProgressChanged(processed.size(), classificationSize);
             indexMap.put(entity, Integer.valueOf(index));
             lowlinkMap.put(entity, Integer.valueOf(index));
-            index += 1;
             stack.push(entity);
             stackEntities.add(entity);
             // Get the raw parents - cache if necessary
@@ -974,7 +1343,7 @@ public class StructuralReasoner extends OWLReasonerBase {
             }
             for (T superEntity : rawParents) {
                 if (!indexMap.containsKey(superEntity)) {
-                    tarjan(superEntity, index, stack, indexMap, lowlinkMap, result, processed,
+                    tarjan(superEntity, stack, indexMap, lowlinkMap, result, processed,
                         stackEntities, cache,
                         childrenOfTop, parentsOfBottom);
                     lowlinkMap.put(entity,
@@ -1000,6 +1369,11 @@ public class StructuralReasoner extends OWLReasonerBase {
                     // We ADD a cycle
                     result.add(scc);
                 }
+                // Parents are completed first, so positions decrease
+                if (!order.containsKey(entity)) {
+                    place(scc, scc.contains(topEntity) ? Long.MAX_VALUE
+                        : scc.contains(bottomEntity) ? Long.MIN_VALUE : lowest() - GAP);
+                }
             }
         }
 
@@ -1014,59 +1388,135 @@ public class StructuralReasoner extends OWLReasonerBase {
         }
 
         public NodeSet<T> getNodeHierarchyChildren(T parent, boolean direct, DefaultNodeSet<T> ns) {
-            Node<T> node = nodeCache.getNode(parent);
-            if (node.isBottomNode()) {
+            return getNodeHierarchy(parent, direct, false, ns);
+        }
+
+        public NodeSet<T> getNodeHierarchyParents(T child, boolean direct, DefaultNodeSet<T> ns) {
+            return getNodeHierarchy(child, direct, true, ns);
+        }
+
+        private NodeSet<T> getNodeHierarchy(T entity, boolean direct, boolean up,
+            DefaultNodeSet<T> ns) {
+            if (direct) {
+                getDirectNodes(nodeCache.getNode(entity), up, ns::addNode);
                 return ns;
             }
-            Set<T> directChildren = new HashSet<>();
-            for (T equiv : node) {
-                directChildren.addAll(rawParentChildProvider.getChildren(equiv));
-                if (directParentsOfBottomNode.contains(equiv)) {
-                    ns.addNode(nodeCache.getBottomNode());
-                }
+            ReachabilityIndex<T> index = getIndex(up);
+            if (index == null || !index.reachable(entity, ns::addNode)) {
+                Set<Node<T>> nodes = new HashSet<>();
+                traverse(entity, up, nodes, new HashSet<>());
+                nodes.forEach(ns::addNode);
+                traversed.add(nodes.size());
             }
-            node.entities().forEach(directChildren::remove);
-            if (node.isTopNode()) {
-                // Special treatment
-                directChildren.addAll(directChildrenOfTopNode);
+            return ns;
+        }
+
+        /**
+         * @param sub The entity to check
+         * @param sup The candidate ancestor
+         * @return true if {@code sup} is equivalent to {@code sub} or one of its ancestors
+         */
+        public boolean isSubsumedBy(T sub, T sup) {
+            if (nodeCache.getNode(sub).contains(sup)) {
+                return true;
             }
-            for (Node<T> childNode : nodeCache.getNodes(directChildren)) {
-                ns.addNode(childNode);
+            ReachabilityIndex<T> index = getIndex(true);
+            if (index != null && index.contains(sub) && index.contains(sup)) {
+                return index.reaches(sub, sup);
             }
-            if (!direct) {
-                for (T child : directChildren) {
-                    getNodeHierarchyChildren(child, direct, ns);
-                }
+            Set<Node<T>> nodes = new HashSet<>();
+            traverse(sub, true, nodes, new HashSet<>());
+            traversed.add(nodes.size());
+            return nodes.stream().anyMatch(n -> n.contains(sup));
+        }
+
+        private void traverse(T entity, boolean up, Set<Node<T>> nodes, Set<T> visited) {
+            Node<T> node = nodeCache.getNode(entity);
+            if (visited.contains(entity)) {
+                return;
+            }
+            node.entities().forEach(visited::add);
+            for (T next : getDirectNodes(node, up, nodes::add)) {
+                traverse(next, up, nodes, visited);
             }
-            return ns;
         }
 
-        public NodeSet<T> getNodeHierarchyParents(T child, boolean direct, DefaultNodeSet<T> ns) {
-            Node<T> node = nodeCache.getNode(child);
-            if (node.isTopNode()) {
-                return ns;
+        /**
+         * @param node The node
+         * @param up true for the direct parents, false for the direct children
+         * @param consumer consumer for the direct parent (child) nodes
+         * @return the entities to visit to find the parents (children) of the parent (child) nodes
+         */
+        private Set<T> getDirectNodes(Node<T> node, boolean up, Consumer<Node<T>> consumer) {
+            if (up ? node.isTopNode() : node.isBottomNode()) {
+                return Collections.emptySet();
             }
-            Set<T> directParents = new HashSet<>();
+            Set<T> endEntities = up ? directChildrenOfTopNode : directParentsOfBottomNode;
+            Set<T> next = new HashSet<>();
             for (T equiv : node) {
-                directParents.addAll(rawParentChildProvider.getParents(equiv));
-                if (directChildrenOfTopNode.contains(equiv)) {
-                    ns.addNode(nodeCache.getTopNode());
+                next.addAll(up ? rawParentChildProvider.getParents(equiv)
+                    : rawParentChildProvider.getChildren(equiv));
+                if (endEntities.contains(equiv)) {
+                    consumer.accept(up ? nodeCache.getTopNode() : nodeCache.getBottomNode());
                 }
             }
-            node.entities().forEach(directParents::remove);
-            if (node.isBottomNode()) {
+            node.entities().forEach(next::remove);
+            if (up ? node.isBottomNode() : node.isTopNode()) {
                 // Special treatment
-                directParents.addAll(directParentsOfBottomNode);
+                next.addAll(up ? directParentsOfBottomNode : directChildrenOfTopNode);
             }
-            for (Node<T> parentNode : nodeCache.getNodes(directParents)) {
-                ns.addNode(parentNode);
+            nodeCache.getNodes(next).forEach(consumer);
+            return next;
+        }
+
+        /**
+         * Builds the reachability indexes for the current hierarchy, unless they have been built
+         * already; they are dropped when the hierarchy changes.
+         *
+         * @return the indexes
+         */
+        public Indexes<T> buildIndex() {
+            synchronized (indexLock) {
+                Indexes<T> i = indexes;
+                if (i == null) {
+                    Set<Node<T>> nodes = new HashSet<>();
+                    order.keySet().forEach(e -> nodes.add(nodeCache.getNode(e)));
+                    i = new Indexes<>(ReachabilityIndex.build(nodes, n -> directNodes(n, false)),
+                        ReachabilityIndex.build(nodes, n -> directNodes(n, true)));
+                    indexes = i;
+                }
+                return i;
             }
-            if (!direct) {
-                for (T parent : directParents) {
-                    getNodeHierarchyParents(parent, direct, ns);
+        }
+
+        private Collection<Node<T>> directNodes(Node<T> node, boolean up) {
+            Set<Node<T>> result = new HashSet<>();
+            getDirectNodes(node, up, result::add);
+            return result;
+        }
+
+        private void dropIndex() {
+            synchronized (indexLock) {
+                indexes = null;
+                traversed.reset();
+            }
+        }
+
+        /**
+         * After a change, the index is rebuilt once the queries answered without it have visited
+         * as many nodes as there are in the hierarchy, so that a few queries between changes do
+         * not pay for a full rebuild.
+         */
+        @Nullable
+        private ReachabilityIndex<T> getIndex(boolean up) {
+            Indexes<T> i = indexes;
+            if (i == null) {
+                if (traversed.sum() <= order.size()) {
+                    return null;
                 }
+                i = buildIndex();
             }
-            return ns;
+            return up ? i.ancestors : i.descendants;
         }
 
         public Node<T> getEquivalents(T element) {
@@ -1074,6 +1524,23 @@ public class StructuralReasoner extends OWLReasonerBase {
         }
     }
 
+    /**
+     * Reachability indexes of a hierarchy; an index is null if the hierarchy cannot be indexed.
+     */
+    private static class Indexes<T extends OWLObject> {
+
+        @Nullable
+        final ReachabilityIndex<T> descendants;
+        @Nullable
+        final ReachabilityIndex<T> ancestors;
+
+        Indexes(@Nullable ReachabilityIndex<T> descendants,
+            @Nullable ReachabilityIndex<T> ancestors) {
+            this.descendants = descendants;
+            this.ancestors = ancestors;
+        }
+    }
+
     private class ClassHierarchyInfo extends AbstractHierarchyInfo<OWLClass> {
 
         ClassHierarchyInfo() {
@@ -1086,6 +1553,16 @@ public class StructuralReasoner extends OWLReasonerBase {
             return ax.classesInSignature();
         }
 
+        @Override
+        protected boolean isHierarchyAxiom(OWLAxiom ax) {
+            return ax.isOfType(AxiomType.SUBCLASS_OF, AxiomType.EQUIVALENT_CLASSES);
+        }
+
+        @Override
+        protected boolean isInSignature(OWLClass entity) {
+            return getRootOntology().containsEntityInSignature(entity, INCLUDED);
+        }
+
         @Override
         protected DefaultNode<OWLClass> createNode(Set<OWLClass> cycle) {
             return new OWLClassNode(cycle);
@@ -1141,26 +1618,26 @@ public class StructuralReasoner extends OWLReasonerBase {
             return new OWLObjectPropertyNode();
         }
 
+        @Override
+        protected boolean isHierarchyAxiom(OWLAxiom ax) {
+            return ax.isOfType(AxiomType.SUB_OBJECT_PROPERTY, AxiomType.EQUIVALENT_OBJECT_PROPERTIES,
+                AxiomType.INVERSE_OBJECT_PROPERTIES, AxiomType.SYMMETRIC_OBJECT_PROPERTY);
+        }
+
+        @Override
+        protected boolean isInSignature(OWLObjectPropertyExpression entity) {
+            return getRootOntology().containsEntityInSignature(entity.getNamedProperty(), INCLUDED);
+        }
+
         @Override
         public void processChanges(Set<OWLObjectPropertyExpression> signature, Set<OWLAxiom> added,
             Set<OWLAxiom> removed) {
-            boolean rebuild = false;
-            for (OWLAxiom ax : added) {
-                if (ax instanceof OWLObjectPropertyAxiom) {
-                    rebuild = true;
-                    break;
-                }
-            }
-            if (!rebuild) {
-                for (OWLAxiom ax : removed) {
-                    if (ax instanceof OWLObjectPropertyAxiom) {
-                        rebuild = true;
-                        break;
-                    }
-                }
-            }
-            if (rebuild) {
-                ((RawObjectPropertyHierarchyProvider) getRawParentChildProvider()).rebuild();
+            Set<OWLObjectProperty> properties = new HashSet<>();
+            Stream.concat(added.stream(), removed.stream()).filter(this::isHierarchyAxiom)
+                .forEach(ax -> ax.objectPropertiesInSignature().forEach(properties::add));
+            if (!properties.isEmpty()) {
+                ((RawObjectPropertyHierarchyProvider) getRawParentChildProvider())
+                    .update(properties);
             }
             super.processChanges(signature, added, removed);
         }
@@ -1178,6 +1655,16 @@ public class StructuralReasoner extends OWLReasonerBase {
             return ax.dataPropertiesInSignature();
         }
 
+        @Override
+        protected boolean isHierarchyAxiom(OWLAxiom ax) {
+            return ax.isOfType(AxiomType.SUB_DATA_PROPERTY);
+        }
+
+        @Override
+        protected boolean isInSignature(OWLDataProperty entity) {
+            return getRootOntology().containsEntityInSignature(entity, INCLUDED);
+        }
+
         @Override
         protected Stream<OWLDataProperty> getEntities(OWLOntology ont) {
             return ont.dataPropertiesInSignature();
@@ -1285,6 +1772,71 @@ public class StructuralReasoner extends OWLReasonerBase {
             }
         }
 
+        /**
+         * Recomputes the hierarchy entries of the specified properties and their inverses, with
+         * the same rules as {@link OWLObjectPropertyManager#getPropertyHierarchy()}; the entries
+         * only depend on the axioms that reference the properties.
+         *
+         * @param properties properties whose axioms have changed
+         */
+        public void update(Set<OWLObjectProperty> properties) {
+            Map<OWLObjectPropertyExpression, Set<OWLObjectPropertyExpression>> map =
+                new HashMap<>();
+            properties.stream().flatMap(p -> getRootOntology().referencingAxioms(p, INCLUDED))
+                .distinct().forEach(ax -> {
+                    if (ax instanceof OWLSubObjectPropertyOfAxiom) {
+                        OWLSubObjectPropertyOfAxiom sub = (OWLSubObjectPropertyOfAxiom) ax;
+                        add(map, sub.getSubProperty(), sub.getSuperProperty(), false);
+                    } else if (ax instanceof OWLEquivalentObjectPropertiesAxiom) {
+                        ((OWLEquivalentObjectPropertiesAxiom) ax).walkPairwise((p1, p2) -> {
+                            if (!p1.equals(p2)) {
+                                add(map, p1, p2, false);
+                                add(map, p2, p1, false);
+                            }
+                            return null;
+                        });
+                    } else if (ax instanceof OWLInverseObjectPropertiesAxiom) {
+                        OWLInverseObjectPropertiesAxiom inv = (OWLInverseObjectPropertiesAxiom) ax;
+                        add(map, inv.getFirstProperty(), inv.getSecondProperty(), true);
+                        add(map, inv.getSecondProperty(), inv.getFirstProperty(), true);
+                    } else if (ax instanceof OWLSymmetricObjectPropertyAxiom) {
+                        OWLObjectPropertyExpression p =
+                            ((OWLSymmetricObjectPropertyAxiom) ax).getProperty();
+                        add(map, p, p, true);
+                    }
+                });
+            for (OWLObjectProperty p : properties) {
+                for (OWLObjectPropertyExpression key : Arrays.asList(p,
+                    p.getInverseProperty())) {
+                    Set<OWLObjectPropertyExpression> old = sub2Super.remove(key);
+                    if (old != null) {
+                        old.forEach(sup -> {
+                            Set<OWLObjectPropertyExpression> subs = super2Sub.get(sup);
+                            subs.remove(key);
+                            if (subs.isEmpty()) {
+                                super2Sub.remove(sup);
+                            }
+                        });
+                    }
+                    Set<OWLObjectPropertyExpression> supers = map.get(key);
+                    if (supers != null) {
+                        sub2Super.put(key, supers);
+                        supers.forEach(
+                            sup -> super2Sub.computeIfAbsent(sup, x -> new HashSet<>()).add(key));
+                    }
+                }
+            }
+        }
+
+        private void add(Map<OWLObjectPropertyExpression, Set<OWLObjectPropertyExpression>> map,
+            OWLObjectPropertyExpression p1, OWLObjectPropertyExpression p2, boolean inverse) {
+            OWLObjectPropertyExpression p2Inverse = p2.getInverseProperty().getSimplified();
+            map.computeIfAbsent(p1.getSimplified(), x -> new HashSet<>())
+                .add(inverse ? p2Inverse : p2.getSimplified());
+            map.computeIfAbsent(p1.getInverseProperty().getSimplified(), x -> new HashSet<>())
+                .add(inverse ? p2.getSimplified() : p2Inverse);
+        }
+
         @Override
         public Collection<OWLObjectPropertyExpression> getParents(
             OWLObjectPropertyExpression child) {
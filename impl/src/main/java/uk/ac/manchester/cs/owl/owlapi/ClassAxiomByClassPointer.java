@@ -44,7 +44,11 @@ public class ClassAxiomByClassPointer extends MapPointer<OWLClass, OWLClassAxiom
         if (isInitialized()) {
             return this;
         }
+        boolean copy = isCopyPending();
         super.init();
+        if (copy) {
+            return this;
+        }
         // special case: this map needs other maps to be initialized first
         i.get(OWLClass.class, OWLEquivalentClassesAxiom.class).get().forEach(this::put);
         i.get(OWLClass.class, OWLSubClassOfAxiom.class).get().forEach(this::put);
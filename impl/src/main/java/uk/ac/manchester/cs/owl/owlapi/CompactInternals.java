@@ -0,0 +1,77 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
+
+/**
+ * Internals whose indexes store integer ids in primitive collections rather than object
+ * references. Entities and axioms are assigned ids by dictionaries shared by all the indexes, so
+ * that each object is referenced only once; lookups have to translate ids back to objects, trading
+ * some speed for a smaller memory footprint on large ontologies.
+ *
+ * @since 5.1.8
+ */
+public class CompactInternals extends Internals {
+
+    // dictionaries are created on first use: the pointers are built by the superclass field
+    // initializers, before the fields of this class are initialized, and after deserialization
+    @Nullable
+    private transient ObjectIdDictionary<Object> keys;
+    @Nullable
+    private transient ObjectIdDictionary<OWLAxiom> values;
+
+    private ObjectIdDictionary<Object> keys() {
+        ObjectIdDictionary<Object> k = keys;
+        if (k == null) {
+            k = new ObjectIdDictionary<>();
+            keys = k;
+        }
+        return k;
+    }
+
+    private ObjectIdDictionary<OWLAxiom> values() {
+        ObjectIdDictionary<OWLAxiom> v = values;
+        if (v == null) {
+            v = new ObjectIdDictionary<>();
+            values = v;
+        }
+        return v;
+    }
+
+    @Override
+    protected Internals newInstance() {
+        return new CompactInternals();
+    }
+
+    @Override
+    protected <K, V extends OWLAxiom> MapPointer<K, V> buildLazy(AxiomType<?> t,
+        OWLAxiomVisitorEx<?> v, Class<V> valueWithness) {
+        return new CompactMapPointer<>(t, v, false, this, valueWithness, keys(), values());
+    }
+
+    @Override
+    protected ClassAxiomByClassPointer buildClassAxiomByClass() {
+        return new CompactClassAxiomByClassPointer(this, keys(), values());
+    }
+
+    @Override
+    protected <K, V extends OWLAxiom> MapPointer<K, V> build(@Nullable AxiomType<?> t,
+        @Nullable OWLAxiomVisitorEx<?> v, Class<V> valueWithness) {
+        return new CompactMapPointer<>(t, v, true, this, valueWithness, keys(), values());
+    }
+}
@@ -0,0 +1,101 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
+
+/**
+ * Map pointer that stores dictionary ids rather than object references.
+ *
+ * @param <K> key
+ * @param <V> value
+ * @since 5.1.8
+ */
+class CompactMapPointer<K, V extends OWLAxiom> extends MapPointer<K, V> {
+
+    private final CompactMapStorage<K, V> storage;
+
+    /**
+     * @param t type of axioms contained
+     * @param v visitor
+     * @param initialized true if initialized
+     * @param i internals containing this pointer
+     * @param valueWithness witness for the value type
+     * @param keys dictionary for keys
+     * @param values dictionary for values
+     */
+    CompactMapPointer(@Nullable AxiomType<?> t, @Nullable OWLAxiomVisitorEx<?> v,
+        boolean initialized, Internals i, Class<V> valueWithness, ObjectIdDictionary<Object> keys,
+        ObjectIdDictionary<OWLAxiom> values) {
+        super(t, v, initialized, i, valueWithness);
+        storage = new CompactMapStorage<>(keys, values);
+    }
+
+    @Override
+    protected void discard() {
+        storage.discard();
+    }
+
+    @Override
+    protected String contentsToString() {
+        return storage.toString();
+    }
+
+    @Override
+    @Nullable
+    protected Collection<V> lookup(K k) {
+        return storage.lookup(k);
+    }
+
+    @Override
+    protected boolean hasKey(K k) {
+        return storage.hasKey(k);
+    }
+
+    @Override
+    protected void forEachKey(Consumer<K> consumer) {
+        storage.forEachKey(consumer);
+    }
+
+    @Override
+    protected void forEachValue(Consumer<V> consumer) {
+        storage.forEachValue(consumer);
+    }
+
+    @Override
+    protected boolean store(K k, V v) {
+        return storage.store(k, v);
+    }
+
+    @Override
+    protected boolean unstore(K k, V v) {
+        return storage.unstore(k, v);
+    }
+
+    @Override
+    protected boolean containsEntry(K k, V v) {
+        return storage.containsEntry(k, v);
+    }
+
+    @Override
+    protected int count(K k) {
+        return storage.count(k);
+    }
+}
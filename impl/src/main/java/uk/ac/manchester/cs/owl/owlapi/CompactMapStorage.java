@@ -0,0 +1,297 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+import com.carrotsearch.hppcrt.maps.IntIntHashMap;
+import com.carrotsearch.hppcrt.maps.IntObjectHashMap;
+import com.carrotsearch.hppcrt.procedures.IntIntProcedure;
+import com.carrotsearch.hppcrt.procedures.IntObjectProcedure;
+import com.carrotsearch.hppcrt.procedures.IntProcedure;
+import com.carrotsearch.hppcrt.sets.IntHashSet;
+
+/**
+ * Storage for a {@link MapPointer} that keeps ids from shared dictionaries instead of object
+ * references. Keys with a single value are kept in a primitive int to int map; keys with few values
+ * map to a sorted int array whose first element is the number of values; keys with many values map
+ * to a primitive int set. Not thread safe; the owning pointer is responsible for synchronization.
+ *
+ * @param <K> key
+ * @param <V> value
+ * @since 5.1.8
+ */
+class CompactMapStorage<K, V extends OWLAxiom> {
+
+    private static final int NONE = -1;
+    private static final int SET_THRESHOLD = 64;
+    private final ObjectIdDictionary<Object> keys;
+    private final ObjectIdDictionary<OWLAxiom> values;
+    private IntIntHashMap singles = new IntIntHashMap();
+    private IntObjectHashMap<Object> multiples = new IntObjectHashMap<>();
+
+    /**
+     * @param keys dictionary for keys
+     * @param values dictionary for values
+     */
+    CompactMapStorage(ObjectIdDictionary<Object> keys, ObjectIdDictionary<OWLAxiom> values) {
+        this.keys = keys;
+        this.values = values;
+        singles.setDefaultValue(NONE);
+    }
+
+    /**
+     * Drops all entries, releasing the ids acquired for them; the dictionaries are shared, so ids
+     * still used by other storages are kept.
+     */
+    void discard() {
+        IntIntProcedure s = (k, v) -> {
+            keys.release(k);
+            values.release(v);
+        };
+        singles.forEach(s);
+        IntProcedure release = values::release;
+        IntObjectProcedure<Object> m = (k, v) -> {
+            keys.release(k);
+            if (v instanceof int[]) {
+                int[] array = (int[]) v;
+                for (int i = 1; i <= array[0]; i++) {
+                    release.apply(array[i]);
+                }
+            } else {
+                ((IntHashSet) v).forEach(release);
+            }
+        };
+        multiples.forEach(m);
+        singles = new IntIntHashMap();
+        singles.setDefaultValue(NONE);
+        multiples = new IntObjectHashMap<>();
+    }
+
+    private boolean hasId(int key) {
+        return key != NONE && (singles.containsKey(key) || multiples.containsKey(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int id) {
+        return (V) values.get(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int id) {
+        return (K) keys.get(id);
+    }
+
+    boolean hasKey(K k) {
+        return hasId(keys.find(k));
+    }
+
+    @Nullable
+    Collection<V> lookup(K k) {
+        int key = keys.find(k);
+        if (!hasId(key)) {
+            return null;
+        }
+        int single = singles.get(key);
+        if (single != NONE) {
+            return Collections.singletonList(value(single));
+        }
+        Object m = multiples.get(key);
+        if (m instanceof int[]) {
+            int[] array = (int[]) m;
+            List<V> l = new ArrayList<>(array[0]);
+            for (int i = 1; i <= array[0]; i++) {
+                l.add(value(array[i]));
+            }
+            return l;
+        }
+        IntHashSet set = (IntHashSet) m;
+        List<V> l = new ArrayList<>(set.size());
+        IntProcedure p = id -> l.add(value(id));
+        set.forEach(p);
+        return l;
+    }
+
+    int count(K k) {
+        int key = keys.find(k);
+        if (!hasId(key)) {
+            return 0;
+        }
+        if (singles.containsKey(key)) {
+            return 1;
+        }
+        Object m = multiples.get(key);
+        if (m instanceof int[]) {
+            return ((int[]) m)[0];
+        }
+        return ((IntHashSet) m).size();
+    }
+
+    boolean containsEntry(K k, V v) {
+        int key = keys.find(k);
+        int value = values.find(v);
+        if (key == NONE || value == NONE) {
+            return false;
+        }
+        int single = singles.get(key);
+        if (single != NONE) {
+            return single == value;
+        }
+        Object m = multiples.get(key);
+        if (m instanceof int[]) {
+            int[] array = (int[]) m;
+            return Arrays.binarySearch(array, 1, array[0] + 1, value) > -1;
+        }
+        return m != null && ((IntHashSet) m).contains(value);
+    }
+
+    void forEachKey(Consumer<K> consumer) {
+        IntProcedure p = id -> consumer.accept(key(id));
+        singles.keys().forEach(p);
+        multiples.keys().forEach(p);
+    }
+
+    void forEachValue(Consumer<V> consumer) {
+        IntIntProcedure s = (k, v) -> consumer.accept(value(v));
+        singles.forEach(s);
+        IntProcedure p = id -> consumer.accept(value(id));
+        IntObjectProcedure<Object> m = (k, v) -> {
+            if (v instanceof int[]) {
+                int[] array = (int[]) v;
+                for (int i = 1; i <= array[0]; i++) {
+                    p.apply(array[i]);
+                }
+            } else {
+                ((IntHashSet) v).forEach(p);
+            }
+        };
+        multiples.forEach(m);
+    }
+
+    boolean store(K k, V v) {
+        int key = keys.find(k);
+        if (!hasId(key)) {
+            singles.put(keys.acquire(k), values.acquire(v));
+            return true;
+        }
+        int value = values.find(v);
+        int single = singles.get(key);
+        if (single != NONE) {
+            if (single == value) {
+                return false;
+            }
+            value = values.acquire(v);
+            singles.remove(key);
+            multiples.put(key, new int[] {2, Math.min(single, value), Math.max(single, value), 0});
+            return true;
+        }
+        Object m = multiples.get(key);
+        if (m instanceof IntHashSet) {
+            IntHashSet set = (IntHashSet) m;
+            if (value != NONE && set.contains(value)) {
+                return false;
+            }
+            set.add(values.acquire(v));
+            return true;
+        }
+        int[] array = (int[]) m;
+        int count = array[0];
+        int position = value == NONE ? -1 : Arrays.binarySearch(array, 1, count + 1, value);
+        if (position > -1) {
+            return false;
+        }
+        value = values.acquire(v);
+        if (count == SET_THRESHOLD) {
+            IntHashSet set = new IntHashSet(count * 2);
+            for (int i = 1; i <= count; i++) {
+                set.add(array[i]);
+            }
+            set.add(value);
+            multiples.put(key, set);
+            return true;
+        }
+        position = -Arrays.binarySearch(array, 1, count + 1, value) - 1;
+        int[] target = array;
+        if (count + 1 == array.length) {
+            target = Arrays.copyOf(array, array.length * 2);
+            multiples.put(key, target);
+        }
+        System.arraycopy(array, position, target, position + 1, count + 1 - position);
+        target[position] = value;
+        target[0] = count + 1;
+        return true;
+    }
+
+    boolean unstore(K k, V v) {
+        int key = keys.find(k);
+        int value = values.find(v);
+        if (!hasId(key) || value == NONE) {
+            return false;
+        }
+        int single = singles.get(key);
+        if (single != NONE) {
+            if (single != value) {
+                return false;
+            }
+            singles.remove(key);
+            values.release(value);
+            keys.release(key);
+            return true;
+        }
+        Object m = multiples.get(key);
+        int remaining;
+        if (m instanceof IntHashSet) {
+            IntHashSet set = (IntHashSet) m;
+            if (!set.remove(value)) {
+                return false;
+            }
+            remaining = set.size();
+            if (remaining == 1) {
+                singles.put(key, set.toArray()[0]);
+            }
+        } else {
+            int[] array = (int[]) m;
+            int count = array[0];
+            int position = Arrays.binarySearch(array, 1, count + 1, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(array, position + 1, array, position, count - position);
+            remaining = count - 1;
+            array[0] = remaining;
+            if (remaining == 1) {
+                singles.put(key, array[1]);
+            }
+        }
+        if (remaining == 1) {
+            multiples.remove(key);
+        }
+        values.release(value);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "compact storage: " + singles.size() + " single valued keys, " + multiples.size()
+            + " multi valued keys";
+    }
+}
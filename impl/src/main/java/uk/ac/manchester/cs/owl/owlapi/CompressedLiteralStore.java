@@ -0,0 +1,458 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+/**
+ * Storage for the lexical forms of long literals, shared by all the literals created by a data
+ * factory. Strings are encoded in UTF-8 and appended to a byte arena made of fixed size chunks;
+ * literals refer to their entry by a {@code long} handle. Once enough text has been stored, a
+ * preset dictionary is built from it and later entries are compressed with raw deflate against
+ * that dictionary, so that short texts compress well without paying for a stream header or for
+ * warming up a dictionary of their own. Decoded strings are kept in a least recently used cache
+ * bounded by their total length. Hit and miss counts are kept for monitoring.<br>
+ * Equal strings share one entry. An entry stored for an owner, such as the literal referring to it,
+ * is released once all its owners have been collected; released entries are noticed on the next
+ * call to {@link #store(String, Object)} or to the size methods. A chunk is dropped when all its
+ * entries have been released, so memory is reclaimed a chunk at a time: a chunk with a single live
+ * entry is kept whole. Entries stored without an owner are kept as long as the store. A store
+ * held by a data factory lives as long as the factory; for the factory shared by
+ * {@code OWLManager}, that is the lifetime of the application, so long literals in unloaded
+ * ontologies only release memory through their owners being collected.
+ *
+ * @since 5.1.8
+ */
+public class CompressedLiteralStore {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int DICTIONARY_SIZE = 16 * 1024;
+    private static final long DEFAULT_CACHE_SIZE = 1 << 20;
+    @Nullable
+    private static WeakReference<CompressedLiteralStore> shared;
+    private final long maximumCacheSize;
+    // guarded by this
+    // dropped chunks are null, so that handles of live entries stay valid
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int[] liveEntries = new int[16];
+    private byte[] current = new byte[CHUNK_SIZE];
+    private int position = 0;
+    private long storedBytes = 0;
+    private long textBytes = 0;
+    private long retainedBytes = CHUNK_SIZE;
+    // entries by hash code of the stored string, chained through Entry.next
+    private final Map<Integer, Entry> entriesByHash = new HashMap<>();
+    // weak references to the owners are kept reachable until they are enqueued
+    private final Set<Owner> owners = new HashSet<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    @Nullable
+    private ByteArrayOutputStream samples = new ByteArrayOutputStream();
+    @Nullable
+    private volatile byte[] dictionary;
+    // guarded by cache
+    private final LinkedHashMap<Long, String> cache = new LinkedHashMap<>(16, 0.75F, true);
+    private long cacheSize = 0;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ThreadLocal<Deflater> deflaters =
+        ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    /**
+     * Store with a cache of one million characters.
+     */
+    public CompressedLiteralStore() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param maximumCacheSize maximum number of characters kept in the cache of decoded strings
+     */
+    public CompressedLiteralStore(long maximumCacheSize) {
+        this.maximumCacheSize = maximumCacheSize;
+        chunks.add(current);
+    }
+
+    /**
+     * @return a store shared by the literals that are not created by a data factory; a new store
+     *         is created once all the literals using the previous one have been collected
+     */
+    public static synchronized CompressedLiteralStore shared() {
+        CompressedLiteralStore store = shared == null ? null : shared.get();
+        if (store == null) {
+            store = new CompressedLiteralStore();
+            shared = new WeakReference<>(store);
+        }
+        return store;
+    }
+
+    /**
+     * @param s string to store; the entry is kept as long as the store
+     * @return handle for the stored string
+     */
+    public long store(String s) {
+        return store(s, null);
+    }
+
+    /**
+     * @param s string to store
+     * @param owner object using the handle, typically the literal; the entry can be released once
+     *        all its owners have been collected. If null, the entry is kept as long as the store.
+     * @return handle for the stored string
+     */
+    public long store(String s, @Nullable Object owner) {
+        byte[] raw = s.getBytes(StandardCharsets.UTF_8);
+        byte[] dict = dictionary;
+        byte[] data = dict == null ? null : compress(raw, dict);
+        boolean compressed = data != null;
+        byte[] encoded = compressed ? data : raw;
+        int hash = s.hashCode();
+        synchronized (this) {
+            expunge();
+            textBytes += raw.length;
+            Entry e = find(hash, encoded, compressed);
+            if (e == null) {
+                if (!compressed) {
+                    sample(raw);
+                }
+                e = new Entry(append(encoded, raw.length, compressed), hash, raw.length,
+                    encoded.length + (compressed ? 8 : 4));
+                e.next = entriesByHash.put(Integer.valueOf(hash), e);
+                liveEntries[e.chunk()]++;
+                storedBytes += e.length;
+            }
+            e.references++;
+            if (owner != null) {
+                owners.add(new Owner(owner, collected, e));
+            }
+            return e.handle;
+        }
+    }
+
+    // called with the lock held
+    @Nullable
+    private Entry find(int hash, byte[] encoded, boolean compressed) {
+        for (Entry e = entriesByHash.get(Integer.valueOf(hash)); e != null; e = e.next) {
+            byte[] chunk = chunks.get(e.chunk());
+            int at = (int) e.handle;
+            int header = readInt(chunk, at);
+            if ((header & 1) == (compressed ? 1 : 0) && header >>> 1 == encoded.length) {
+                int start = at + (compressed ? 8 : 4);
+                if (equalRange(chunk, start, encoded)) {
+                    return e;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean equalRange(byte[] chunk, int start, byte[] b) {
+        for (int i = 0; i < b.length; i++) {
+            if (chunk[start + i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // called with the lock held; releases the entries of the owners that have been collected
+    private void expunge() {
+        Reference<?> r;
+        while ((r = collected.poll()) != null) {
+            if (owners.remove(r)) {
+                release(((Owner) r).entry);
+            }
+        }
+    }
+
+    // called with the lock held
+    private void release(Entry e) {
+        textBytes -= e.rawLength;
+        if (--e.references > 0) {
+            return;
+        }
+        Integer hash = Integer.valueOf(e.hash);
+        Entry first = entriesByHash.get(hash);
+        if (first == e) {
+            if (e.next == null) {
+                entriesByHash.remove(hash);
+            } else {
+                entriesByHash.put(hash, e.next);
+            }
+        } else {
+            Entry previous = first;
+            while (previous != null && previous.next != e) {
+                previous = previous.next;
+            }
+            if (previous != null) {
+                previous.next = e.next;
+            }
+        }
+        storedBytes -= e.length;
+        int chunk = e.chunk();
+        if (--liveEntries[chunk] == 0 && chunks.get(chunk) != current) {
+            retainedBytes -= chunks.get(chunk).length;
+            chunks.set(chunk, null);
+        }
+        synchronized (cache) {
+            String s = cache.remove(Long.valueOf(e.handle));
+            if (s != null) {
+                cacheSize -= s.length();
+            }
+        }
+    }
+
+    @Nullable
+    private byte[] compress(byte[] raw, byte[] dict) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setDictionary(dict);
+        deflater.setInput(raw);
+        deflater.finish();
+        // incompressible input is stored as is
+        byte[] out = new byte[raw.length];
+        int length = deflater.deflate(out);
+        if (!deflater.finished()) {
+            return null;
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    // called with the lock held
+    private void sample(byte[] raw) {
+        ByteArrayOutputStream s = samples;
+        if (s == null) {
+            return;
+        }
+        s.write(raw, 0, Math.min(raw.length, DICTIONARY_SIZE - s.size()));
+        if (s.size() >= DICTIONARY_SIZE) {
+            dictionary = s.toByteArray();
+            samples = null;
+        }
+    }
+
+    // called with the lock held
+    private long append(byte[] data, int rawLength, boolean compressed) {
+        int length = data.length + (compressed ? 8 : 4);
+        if (position + length > current.length) {
+            int last = chunks.size() - 1;
+            if (liveEntries[last] == 0) {
+                retainedBytes -= current.length;
+                chunks.set(last, null);
+            }
+            current = new byte[Math.max(CHUNK_SIZE, length)];
+            chunks.add(current);
+            retainedBytes += current.length;
+            if (chunks.size() > liveEntries.length) {
+                liveEntries = Arrays.copyOf(liveEntries, liveEntries.length * 2);
+            }
+            position = 0;
+        }
+        long handle = (long) (chunks.size() - 1) << 32 | position;
+        position = writeInt(data.length << 1 | (compressed ? 1 : 0), current, position);
+        if (compressed) {
+            position = writeInt(rawLength, current, position);
+        }
+        System.arraycopy(data, 0, current, position, data.length);
+        position += data.length;
+        return handle;
+    }
+
+    private static int writeInt(int value, byte[] b, int at) {
+        b[at] = (byte) (value >>> 24);
+        b[at + 1] = (byte) (value >>> 16);
+        b[at + 2] = (byte) (value >>> 8);
+        b[at + 3] = (byte) value;
+        return at + 4;
+    }
+
+    private static int readInt(byte[] b, int at) {
+        return (b[at] & 0xFF) << 24 | (b[at + 1] & 0xFF) << 16 | (b[at + 2] & 0xFF) << 8
+            | b[at + 3] & 0xFF;
+    }
+
+    /**
+     * @param handle handle returned by {@link #store(String)}
+     * @return the stored string
+     */
+    public String get(long handle) {
+        Long key = Long.valueOf(handle);
+        synchronized (cache) {
+            String s = cache.get(key);
+            if (s != null) {
+                hits.increment();
+                return s;
+            }
+        }
+        misses.increment();
+        String s = decode(handle);
+        if (s.length() <= maximumCacheSize) {
+            synchronized (cache) {
+                if (cache.put(key, s) == null) {
+                    cacheSize += s.length();
+                }
+                Iterator<String> values = cache.values().iterator();
+                while (cacheSize > maximumCacheSize) {
+                    cacheSize -= values.next().length();
+                    values.remove();
+                }
+            }
+        }
+        return s;
+    }
+
+    private String decode(long handle) {
+        byte[] chunk;
+        synchronized (this) {
+            chunk = chunks.get((int) (handle >>> 32));
+        }
+        int at = (int) handle;
+        int header = readInt(chunk, at);
+        int length = header >>> 1;
+        if ((header & 1) == 0) {
+            return new String(chunk, at + 4, length, StandardCharsets.UTF_8);
+        }
+        byte[] raw = new byte[readInt(chunk, at + 4)];
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setDictionary(verifyDictionary());
+        inflater.setInput(chunk, at + 8, length);
+        try {
+            int read = 0;
+            while (read < raw.length) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new DataFormatException("Truncated literal at " + handle);
+                }
+                read += n;
+            }
+        } catch (DataFormatException e) {
+            // some problem has happened - cannot recover from this
+            throw new OWLRuntimeException(e);
+        }
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private byte[] verifyDictionary() {
+        byte[] dict = dictionary;
+        if (dict == null) {
+            throw new IllegalStateException("Compressed entry found before the dictionary was set");
+        }
+        return dict;
+    }
+
+    /**
+     * @return number of reads served from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of reads that required an entry to be decoded
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of bytes used by the live entries
+     */
+    public synchronized long storedBytes() {
+        expunge();
+        return storedBytes;
+    }
+
+    /**
+     * @return number of bytes of the strings stored for live owners, and without an owner, encoded
+     *         in UTF-8; equal strings are counted once per store call
+     */
+    public synchronized long textBytes() {
+        expunge();
+        return textBytes;
+    }
+
+    /**
+     * @return number of bytes of the chunks kept by the store, including the space not yet used
+     *         and the space of released entries in chunks that also hold live entries
+     */
+    public synchronized long retainedBytes() {
+        expunge();
+        return retainedBytes;
+    }
+
+    /**
+     * @return true if the compression dictionary has been built
+     */
+    public boolean hasDictionary() {
+        return dictionary != null;
+    }
+
+    /**
+     * Stored string, with the number of store calls still using it.
+     */
+    private static class Entry {
+
+        final long handle;
+        final int hash;
+        final int rawLength;
+        // bytes used in the chunk, header included
+        final int length;
+        int references = 0;
+        // next entry with the same hash
+        @Nullable
+        Entry next;
+
+        Entry(long handle, int hash, int rawLength, int length) {
+            this.handle = handle;
+            this.hash = hash;
+            this.rawLength = rawLength;
+            this.length = length;
+        }
+
+        int chunk() {
+            return (int) (handle >>> 32);
+        }
+    }
+
+    private static class Owner extends WeakReference<Object> {
+
+        final Entry entry;
+
+        Owner(Object owner, ReferenceQueue<Object> queue, Entry entry) {
+            super(owner, queue);
+            this.entry = entry;
+        }
+    }
+}
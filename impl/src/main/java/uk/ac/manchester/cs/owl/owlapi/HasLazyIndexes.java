@@ -0,0 +1,18 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.List;
+
+/**
+ * Interface for ontologies whose axiom indexes are built on demand, to allow the indexes to be
+ * built ahead of use or unloaded.
+ *
+ * @since 5.1.8
+ */
+@FunctionalInterface
+public interface HasLazyIndexes {
+
+    /**
+     * @return the indexes of this ontology that are built on demand
+     */
+    List<MapPointer<?, ?>> getLazyIndexes();
+}
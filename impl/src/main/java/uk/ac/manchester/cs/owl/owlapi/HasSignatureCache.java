@@ -0,0 +1,15 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+/**
+ * Interface for ontologies that cache their signature, to give access to the cache statistics.
+ *
+ * @since 5.1.8
+ */
+@FunctionalInterface
+public interface HasSignatureCache {
+
+    /**
+     * @return the signature cache of this ontology
+     */
+    OntologySignatureCache getSignatureCache();
+}
@@ -0,0 +1,32 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Interface for ontologies that can provide frozen views of their contents.
+ *
+ * @since 5.1.8
+ */
+public interface HasSnapshot {
+
+    /**
+     * Creates an immutable view of the current contents of this ontology. Changes applied to this
+     * ontology after the call are not visible in the snapshot, so the snapshot can be read
+     * consistently while the ontology keeps being edited. The imports of the snapshot are
+     * snapshots of the imported ontologies taken at the same time, so reads with
+     * {@code Imports.INCLUDED} are frozen as well; imported ontologies that do not support
+     * snapshots are used as they are.
+     *
+     * @return snapshot of this ontology
+     */
+    OWLOntology snapshot();
+
+    /**
+     * Creates an immutable view of the current contents of this ontology alone; unlike
+     * {@link #snapshot()}, the imports of the view are resolved through the manager and are not
+     * frozen.
+     *
+     * @return snapshot of the contents of this ontology
+     */
+    OWLOntology contentSnapshot();
+}
@@ -0,0 +1,105 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.AxiomType;
+
+/**
+ * Policy deciding when the lazy indexes of an ontology are built. Each index is built from the
+ * axioms of one type, and the mode can be chosen per axiom type; indexes built from more than one
+ * axiom type, and axiom types without a specific mode, use the default mode. Policies are
+ * immutable.
+ *
+ * @since 5.1.8
+ */
+public final class IndexBuildPolicy {
+
+    /**
+     * When an index is built.
+     */
+    public enum Mode {
+        /** Built when the policy is applied, before the ontology is used. */
+        EAGER,
+        /** Built on first access, as if no policy was applied. */
+        LAZY,
+        /** Built by worker threads after the policy is applied; queries arriving before the
+         * index is complete wait for it. */
+        BACKGROUND
+    }
+
+    /** All indexes built on first access. */
+    public static final IndexBuildPolicy LAZY = new IndexBuildPolicy(Mode.LAZY,
+        Collections.emptyMap());
+    /** All indexes built when the policy is applied. */
+    public static final IndexBuildPolicy EAGER = new IndexBuildPolicy(Mode.EAGER,
+        Collections.emptyMap());
+    /** All indexes built in the background. */
+    public static final IndexBuildPolicy BACKGROUND = new IndexBuildPolicy(Mode.BACKGROUND,
+        Collections.emptyMap());
+    private final Mode defaultMode;
+    private final Map<AxiomType<?>, Mode> modes;
+
+    private IndexBuildPolicy(Mode defaultMode, Map<AxiomType<?>, Mode> modes) {
+        this.defaultMode = defaultMode;
+        this.modes = modes;
+    }
+
+    /**
+     * @param mode mode to use for the specified axiom types
+     * @param types axiom types
+     * @return a copy of this policy, with the modified modes
+     */
+    public IndexBuildPolicy with(Mode mode, AxiomType<?>... types) {
+        checkNotNull(mode, "mode cannot be null");
+        Map<AxiomType<?>, Mode> map = new HashMap<>(modes);
+        for (AxiomType<?> t : types) {
+            map.put(checkNotNull(t, "types cannot contain nulls"), mode);
+        }
+        return new IndexBuildPolicy(defaultMode, Collections.unmodifiableMap(map));
+    }
+
+    /**
+     * @param mode mode to use for axiom types without a specific mode
+     * @return a copy of this policy, with the modified default mode
+     */
+    public IndexBuildPolicy withDefault(Mode mode) {
+        return new IndexBuildPolicy(checkNotNull(mode, "mode cannot be null"), modes);
+    }
+
+    /**
+     * @return mode for axiom types without a specific mode
+     */
+    public Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    /**
+     * @param type axiom type, or null for indexes built from more than one axiom type
+     * @return mode for indexes built from the axiom type
+     */
+    public Mode getMode(@Nullable AxiomType<?> type) {
+        if (type == null) {
+            return defaultMode;
+        }
+        return modes.getOrDefault(type, defaultMode);
+    }
+
+    /**
+     * @param index index
+     * @return mode for the index
+     */
+    public Mode getMode(MapPointer<?, ?> index) {
+        return getMode(index.getAxiomType());
+    }
+
+    @Override
+    public String toString() {
+        return "IndexBuildPolicy(" + defaultMode + ' ' + modes + ')';
+    }
+}
@@ -0,0 +1,203 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.util.ParallelTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.manchester.cs.owl.owlapi.IndexBuildPolicy.Mode;
+
+/**
+ * Manages the lazy indexes of a set of ontologies. When an ontology is registered, the indexes
+ * selected by its {@link IndexBuildPolicy} are built straight away or by worker threads, in
+ * parallel across indexes, so that the first queries do not pay for building them. Indexes that
+ * are not built eagerly can be unloaded when they have not been used for a while and memory is
+ * short; they are built again on next access.<br>
+ * Idle indexes are detected with a second chance sweep: each sweep unloads the indexes not
+ * accessed since the previous sweep. Ontologies stay registered, and referenced by this manager,
+ * until they are released or the manager is closed.
+ *
+ * @since 5.1.8
+ */
+public class IndexLifecycleManager implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexLifecycleManager.class);
+    private final ForkJoinPool pool;
+    private final Map<OWLOntology, List<MapPointer<?, ?>>> unloadable =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    @Nullable
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param threads number of worker threads used to build indexes
+     */
+    public IndexLifecycleManager(int threads) {
+        pool = new ForkJoinPool(Math.max(1, threads));
+    }
+
+    private static List<MapPointer<?, ?>> indexes(OWLOntology o) {
+        checkNotNull(o, "o cannot be null");
+        if (!(o instanceof HasLazyIndexes)) {
+            throw new IllegalArgumentException(
+                "Ontology does not have lazy indexes: " + o.getClass());
+        }
+        return ((HasLazyIndexes) o).getLazyIndexes();
+    }
+
+    /**
+     * Registers an ontology and applies a build policy to its indexes: indexes to be built
+     * eagerly are built before this method returns, indexes to be built in the background are
+     * scheduled, and the indexes not built eagerly become candidates for unloading. Registering
+     * an ontology again replaces its policy.
+     *
+     * @param o ontology to manage
+     * @param policy policy for the ontology indexes
+     * @return a future completed when the background indexes have been built
+     */
+    public CompletableFuture<Void> register(OWLOntology o, IndexBuildPolicy policy) {
+        checkNotNull(policy, "policy cannot be null");
+        List<MapPointer<?, ?>> indexes = indexes(o);
+        unloadable.put(o, indexes.stream().filter(p -> policy.getMode(p) != Mode.EAGER)
+            .collect(Collectors.toList()));
+        build(indexes.stream().filter(p -> policy.getMode(p) == Mode.EAGER)
+            .collect(Collectors.toList()));
+        List<MapPointer<?, ?>> background =
+            indexes.stream().filter(p -> policy.getMode(p) == Mode.BACKGROUND)
+                .collect(Collectors.toList());
+        if (background.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture
+            .runAsync(() -> background.parallelStream().forEach(MapPointer::init), pool);
+    }
+
+    /**
+     * Stops managing an ontology. Its indexes are not unloaded.
+     *
+     * @param o ontology to release
+     */
+    public void release(OWLOntology o) {
+        unloadable.remove(o);
+    }
+
+    /**
+     * @return number of ontologies managed
+     */
+    public int size() {
+        return unloadable.size();
+    }
+
+    /**
+     * Builds all lazy indexes of an ontology, in parallel, before returning. The ontology does
+     * not need to be registered.
+     *
+     * @param o ontology whose indexes should be built
+     * @return number of indexes built by this call
+     */
+    public int warmUp(OWLOntology o) {
+        List<MapPointer<?, ?>> toBuild = indexes(o).stream().filter(p -> !p.isInitialized())
+            .collect(Collectors.toList());
+        build(toBuild);
+        return toBuild.size();
+    }
+
+    private void build(List<MapPointer<?, ?>> indexes) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        ParallelTasks.run(pool, () -> indexes.parallelStream().forEach(MapPointer::init));
+    }
+
+    /**
+     * Unloads the indexes of the managed ontologies that have not been accessed since the
+     * previous call. Indexes built eagerly are never unloaded.
+     *
+     * @return number of indexes unloaded
+     */
+    public int unloadIdle() {
+        List<MapPointer<?, ?>> candidates = new ArrayList<>();
+        synchronized (unloadable) {
+            unloadable.values().forEach(candidates::addAll);
+        }
+        int unloaded = 0;
+        for (MapPointer<?, ?> p : candidates) {
+            if (p.unloadIfIdle()) {
+                unloaded++;
+            }
+        }
+        return unloaded;
+    }
+
+    /**
+     * Unloads idle indexes, as in {@link #unloadIdle()}, if the heap in use exceeds a fraction of
+     * the maximum heap size.
+     *
+     * @param threshold fraction of the maximum heap size, between 0 and 1
+     * @return number of indexes unloaded
+     */
+    public int unloadIdleIfMemoryLow(double threshold) {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        if (used <= threshold * runtime.maxMemory()) {
+            return 0;
+        }
+        return unloadIdle();
+    }
+
+    /**
+     * Checks memory periodically, and unloads idle indexes when memory is low. Replaces any
+     * previous schedule.
+     *
+     * @param period time between checks; indexes not accessed for this long become idle
+     * @param unit unit for the period
+     * @param threshold fraction of the maximum heap size above which idle indexes are unloaded
+     */
+    public synchronized void scheduleUnloading(long period, TimeUnit unit, double threshold) {
+        ScheduledExecutorService s = scheduler;
+        if (s != null) {
+            s.shutdownNow();
+        }
+        s = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "OWLAPI index unloading");
+            t.setDaemon(true);
+            return t;
+        });
+        s.scheduleAtFixedRate(() -> {
+            int unloaded = unloadIdleIfMemoryLow(threshold);
+            if (unloaded > 0) {
+                LOGGER.info("Unloaded {} idle indexes", Integer.valueOf(unloaded));
+            }
+        }, period, period, unit);
+        scheduler = s;
+    }
+
+    /**
+     * Stops the worker threads and releases all ontologies.
+     */
+    @Override
+    public synchronized void close() {
+        ScheduledExecutorService s = scheduler;
+        if (s != null) {
+            s.shutdownNow();
+            scheduler = null;
+        }
+        pool.shutdownNow();
+        unloadable.clear();
+    }
+}
@@ -69,11 +69,13 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -120,6 +122,7 @@ import org.semanticweb.owlapi.model.OWLInverseFunctionalObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
 import org.semanticweb.owlapi.model.OWLIrreflexiveObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLMetrics;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLNegativeDataPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLNegativeObjectPropertyAssertionAxiom;
@@ -194,6 +197,8 @@ public class Internals implements Serializable {
     protected transient MapPointer<OWLIndividual, OWLSameIndividualAxiom>                               sameIndividualsAxiomsByIndividual                   = buildLazy(SAME_INDIVIDUAL, ICOLLECTIONS, OWLSameIndividualAxiom.class);
 
     protected SetPointer<OWLImportsDeclaration> importsDeclarations = new SetPointer<>();
+    @Nullable
+    private transient volatile Supplier<OWLMetrics> metrics;
     protected SetPointer<OWLAnnotation> ontologyAnnotations = new SetPointer<>();
     protected SetPointer<OWLClassAxiom> generalClassAxioms = new SetPointer<>();
     protected SetPointer<OWLSubPropertyChainOfAxiom> propertyChainSubPropertyAxioms = new SetPointer<>();
@@ -634,11 +639,77 @@ public class Internals implements Serializable {
         return new MapPointer<>(t, v, true, this, valueWithness);
     }
 
+    /**
+     * @return a new, empty instance of the same kind as this one
+     */
+    protected Internals newInstance() {
+        return new Internals();
+    }
+
+    /**
+     * @return a copy of these internals, with the same axioms, imports declarations and ontology
+     *         annotations. Each index is copied only when the copy first uses it, so the copy is
+     *         cheap to make and to change; these internals must not be modified afterwards, but
+     *         the copy can be
+     */
+    public Internals copy() {
+        Internals copy = newInstance();
+        copy.metrics = metrics;
+        copy.importsDeclarations = copy.new SetPointer<>(importsDeclarations);
+        copy.ontologyAnnotations = copy.new SetPointer<>(ontologyAnnotations);
+        copy.generalClassAxioms = copy.new SetPointer<>(generalClassAxioms);
+        copy.propertyChainSubPropertyAxioms = copy.new SetPointer<>(propertyChainSubPropertyAxioms);
+        List<MapPointer<?, ?>> from = getIndexes();
+        List<MapPointer<?, ?>> to = copy.getIndexes();
+        for (int k = 0; k < from.size(); k++) {
+            copyOnFirstUse(to.get(k), from.get(k));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V extends OWLAxiom> void copyOnFirstUse(MapPointer<K, V> target,
+        MapPointer<?, ?> source) {
+        target.copyOnFirstUse((MapPointer<K, V>) source);
+    }
+
+    private List<MapPointer<?, ?>> getIndexes() {
+        List<MapPointer<?, ?>> indexes = new ArrayList<>(getLazyIndexes());
+        indexes.addAll(Arrays.asList(axiomsByType, owlClassReferences, owlObjectPropertyReferences,
+            owlDataPropertyReferences, owlIndividualReferences, owlAnonymousIndividualReferences,
+            owlDatatypeReferences, owlAnnotationPropertyReferences, declarationsByEntity));
+        return indexes;
+    }
+
+    /**
+     * @param source supplier of the metrics to record index and change timings with, usually
+     *        those of the manager of the owning ontology
+     */
+    public void setMetrics(Supplier<OWLMetrics> source) {
+        metrics = checkNotNull(source, "source cannot be null");
+    }
+
+    /**
+     * @return the metrics to record index and change timings with
+     */
+    public OWLMetrics getMetrics() {
+        Supplier<OWLMetrics> source = metrics;
+        return source == null ? OWLMetrics.NONE : source.get();
+    }
+
     /**
      * @param axiom axiom to add
      * @return true if the axiom was not already included
      */
     public boolean addAxiom(final OWLAxiom axiom) {
+        OWLMetrics m = getMetrics();
+        long start = m.start();
+        boolean added = add(axiom);
+        m.stop(OWLMetrics.AXIOM_ADD, start);
+        return added;
+    }
+
+    private boolean add(final OWLAxiom axiom) {
         checkNotNull(axiom, "axiom cannot be null");
         if (axiomsByType.put(axiom.getAxiomType(), axiom)) {
             axiom.accept(addChangeVisitor);
@@ -690,6 +761,14 @@ public class Internals implements Serializable {
      * @return true if removed
      */
     public boolean removeAxiom(final OWLAxiom axiom) {
+        OWLMetrics m = getMetrics();
+        long start = m.start();
+        boolean removed = remove(axiom);
+        m.stop(OWLMetrics.AXIOM_REMOVE, start);
+        return removed;
+    }
+
+    private boolean remove(final OWLAxiom axiom) {
         checkNotNull(axiom, "axiom cannot be null");
         if (axiomsByType.remove(axiom.getAxiomType(), axiom)) {
             axiom.accept(removeChangeVisitor);
@@ -924,6 +1003,33 @@ public class Internals implements Serializable {
         return axiomsByType;
     }
 
+    /**
+     * @return the maps that are built on demand from the axioms by type; these can be built ahead
+     *         of use, or unloaded when not needed
+     * @since 5.1.8
+     */
+    public List<MapPointer<?, ?>> getLazyIndexes() {
+        return Arrays.asList(classAssertionAxiomsByClass, annotationAssertionAxiomsBySubject,
+            subClassAxiomsBySubPosition, subClassAxiomsBySuperPosition,
+            objectSubPropertyAxiomsBySubPosition, objectSubPropertyAxiomsBySuperPosition,
+            dataSubPropertyAxiomsBySubPosition, dataSubPropertyAxiomsBySuperPosition,
+            classAxiomsByClass, equivalentClassesAxiomsByClass, disjointClassesAxiomsByClass,
+            disjointUnionAxiomsByClass, hasKeyAxiomsByClass,
+            equivalentObjectPropertyAxiomsByProperty, disjointObjectPropertyAxiomsByProperty,
+            objectPropertyDomainAxiomsByProperty, objectPropertyRangeAxiomsByProperty,
+            functionalObjectPropertyAxiomsByProperty, inverseFunctionalPropertyAxiomsByProperty,
+            symmetricPropertyAxiomsByProperty, asymmetricPropertyAxiomsByProperty,
+            reflexivePropertyAxiomsByProperty, irreflexivePropertyAxiomsByProperty,
+            transitivePropertyAxiomsByProperty, inversePropertyAxiomsByProperty,
+            equivalentDataPropertyAxiomsByProperty, disjointDataPropertyAxiomsByProperty,
+            dataPropertyDomainAxiomsByProperty, dataPropertyRangeAxiomsByProperty,
+            functionalDataPropertyAxiomsByProperty, classAssertionAxiomsByIndividual,
+            objectPropertyAssertionsByIndividual, dataPropertyAssertionsByIndividual,
+            negativeObjectPropertyAssertionAxiomsByIndividual,
+            negativeDataPropertyAssertionAxiomsByIndividual,
+            differentIndividualsAxiomsByIndividual, sameIndividualsAxiomsByIndividual);
+    }
+
     @Override
     public String toString() {
         StringBuilder b = new StringBuilder("Internals{(first 20 axioms) ");
@@ -986,18 +1092,43 @@ public class Internals implements Serializable {
 
     protected class SetPointer<K extends Serializable> implements Serializable {
 
-        private final Set<K> set = createSyncSet();
+        private Set<K> set;
+        // true if the set is shared with the pointer this one was copied from
+        private boolean shared;
+
+        public SetPointer() {
+            set = createSyncSet();
+            shared = false;
+        }
+
+        /**
+         * @param source pointer to copy; the set is shared until this pointer is modified
+         */
+        public SetPointer(SetPointer<K> source) {
+            set = source.set;
+            shared = true;
+        }
+
+        private Set<K> writable() {
+            if (shared) {
+                Set<K> copy = createSyncSet();
+                copy.addAll(set);
+                set = copy;
+                shared = false;
+            }
+            return set;
+        }
 
         public boolean isEmpty() {
             return set.isEmpty();
         }
 
         public boolean add(K k) {
-            return set.add(k);
+            return writable().add(k);
         }
 
         public boolean remove(K k) {
-            return set.remove(k);
+            return writable().remove(k);
         }
 
         public Stream<K> stream() {
@@ -34,6 +34,7 @@ import org.semanticweb.owlapi.model.HasIRI;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
+import org.semanticweb.owlapi.model.OWLMetrics;
 import org.semanticweb.owlapi.util.CollectionFactory;
 import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
 import org.semanticweb.owlapi.util.SmallSet;
@@ -61,13 +62,19 @@ public class MapPointer<K, V extends OWLAxiom> {
     @Nullable
     private final OWLAxiomVisitorEx<?> visitor;
     private boolean initialized;
+    private final boolean lazy;
+    private volatile boolean accessed;
     protected final Internals i;
     @Nullable
     private SoftReference<Set<IRI>> iris;
     private int size = 0;
-    private final ObjectObjectHashMap<K, Collection<V>> map = new ObjectObjectHashMap<>(17, 0.75F);
+    private ObjectObjectHashMap<K, Collection<V>> map = new ObjectObjectHashMap<>(17, 0.75F);
     private boolean neverTrimmed = true;
     private final Class<V> valueWithness;
+    // pointer whose contents are copied into this one when first used; set only while this
+    // pointer is not initialized
+    @Nullable
+    private MapPointer<K, V> source;
 
     /**
      * @param t type of axioms contained
@@ -81,6 +88,7 @@ public class MapPointer<K, V extends OWLAxiom> {
         type = t;
         visitor = v;
         this.initialized = initialized;
+        lazy = !initialized;
         this.i = checkNotNull(i, "i cannot be null");
         this.valueWithness = valueWithness;
     }
@@ -99,7 +107,8 @@ public class MapPointer<K, V extends OWLAxiom> {
      * @return true if an entity with the same iri as the input exists in the collection
      */
     public synchronized boolean containsReference(K e) {
-        return map.containsKey(e);
+        init();
+        return hasKey(e);
     }
 
     /**
@@ -107,6 +116,7 @@ public class MapPointer<K, V extends OWLAxiom> {
      * @return true if an entity with the same iri as the input exists in the collection
      */
     public synchronized boolean containsReference(IRI e) {
+        init();
         Set<IRI> set = null;
         if (iris != null) {
             set = iris.get();
@@ -119,8 +129,7 @@ public class MapPointer<K, V extends OWLAxiom> {
 
     private Set<IRI> initSet() {
         Set<IRI> set = CollectionFactory.createSet();
-        ObjectProcedure<K> consumer = k -> consumer(set, k);
-        map.keys().forEach(consumer);
+        forEachKey(k -> consumer(set, k));
         iris = new SoftReference<>(set);
         return set;
     }
@@ -147,29 +156,130 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     @SuppressWarnings({"unchecked"})
     public synchronized MapPointer<K, V> init() {
+        accessed = true;
         if (initialized) {
             return this;
         }
+        OptimisticReads.beforeFill();
         initialized = true;
+        MapPointer<K, V> s = source;
+        if (s != null) {
+            source = null;
+            s.copyTo(this);
+            return this;
+        }
         if (visitor == null || type == null) {
             return this;
         }
+        OWLMetrics metrics = i.getMetrics();
+        long start = metrics.start();
         AxiomType<?> t = type;
         assert t != null;
+        // copy the axioms rather than iterating under the lock of the axioms by type, so that
+        // indexes for different types can be built at the same time. Changes made meanwhile are
+        // applied once this pointer is released
+        Collection<OWLAxiom> axioms = i.getAxiomsByType().getValuesAsCollection(t);
         if (visitor instanceof InitVisitor) {
             InitVisitor<K> v = (InitVisitor<K>) visitor;
-            i.getAxiomsByType().forEach(t, ax -> putInternal(ax.accept(v), (V) ax));
+            axioms.forEach(ax -> putInternal(ax.accept(v), (V) ax));
         } else if (visitor instanceof InitCollectionVisitor) {
             InitCollectionVisitor<K> v = (InitCollectionVisitor<K>) visitor;
-            i.getAxiomsByType().forEach(t,
-                ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
+            axioms.forEach(ax -> ax.accept(v).forEach(key -> putInternal(key, (V) ax)));
         }
+        metrics.stop(OWLMetrics.INDEX_BUILD, start);
         return this;
     }
 
+    /**
+     * Makes this empty pointer a copy of another one, made when this pointer is first read or
+     * modified. Until then, the source must not be modified. A lazy source that has not been built
+     * is not copied; this pointer is then built from the axioms when first used.
+     *
+     * @param s pointer to copy
+     * @since 5.1.8
+     */
+    public synchronized void copyOnFirstUse(MapPointer<K, V> s) {
+        if (!s.isInitialized()) {
+            return;
+        }
+        initialized = false;
+        source = s;
+    }
+
+    /**
+     * @return true if the contents of this pointer will be copied from another pointer when first
+     *         used
+     * @since 5.1.8
+     */
+    public synchronized boolean isCopyPending() {
+        return source != null;
+    }
+
+    private synchronized void copyTo(MapPointer<K, V> target) {
+        init();
+        forEachKey(k -> {
+            Collection<V> values = lookup(k);
+            if (values != null) {
+                values.forEach(v -> target.putInternal(k, v));
+            }
+        });
+    }
+
+    /**
+     * @return true if this map is built on demand from the axioms in the ontology, and can
+     *         therefore be unloaded and built again
+     * @since 5.1.8
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * @return the type of axioms this map is built from; null for maps that are not built from a
+     *         single axiom type
+     * @since 5.1.8
+     */
+    @Nullable
+    public AxiomType<?> getAxiomType() {
+        return type;
+    }
+
+    /**
+     * Drops the contents of a lazy map, so that the memory it uses can be reclaimed. The map is
+     * built again on next access. Maps that are not lazy are not affected.
+     *
+     * @return true if the map was unloaded
+     * @since 5.1.8
+     */
+    public synchronized boolean unload() {
+        if (!lazy || !initialized) {
+            return false;
+        }
+        initialized = false;
+        size = 0;
+        iris = null;
+        discard();
+        return true;
+    }
+
+    /**
+     * Unloads this map if it has not been accessed since the previous call; otherwise, marks it as
+     * not accessed, so that it will be unloaded by the next call unless it is accessed in between.
+     *
+     * @return true if the map was unloaded
+     * @since 5.1.8
+     */
+    public synchronized boolean unloadIfIdle() {
+        if (accessed) {
+            accessed = false;
+            return false;
+        }
+        return unload();
+    }
+
     @Override
     public synchronized String toString() {
-        return initialized + map.toString();
+        return initialized + contentsToString();
     }
 
     /**
@@ -178,8 +288,7 @@ public class MapPointer<K, V extends OWLAxiom> {
     public synchronized Stream<K> keySet() {
         init();
         List<K> l = new ArrayList<>();
-        Consumer<ObjectCursor<K>> p = c -> l.add(c.value);
-        map.keys().forEach(p);
+        forEachKey(l::add);
         return l.stream();
     }
 
@@ -189,17 +298,23 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized Stream<V> getValues(K key) {
         init();
-        Collection<V> t = map.get(key);
-        if (t == null) {
-            return Stream.empty();
-        }
-        if (t instanceof SmallSet) {
+        OWLMetrics metrics = i.getMetrics();
+        long start = metrics.start();
+        try {
+            Collection<V> t = lookup(key);
+            if (t == null) {
+                return Stream.empty();
+            }
+            if (t instanceof SmallSet) {
+                return t.stream();
+            }
+            if (t instanceof HPPCSet) {
+                return new ArrayList<>(t).stream();
+            }
             return t.stream();
+        } finally {
+            metrics.stop(OWLMetrics.INDEX_LOOKUP, start);
         }
-        if (t instanceof HPPCSet) {
-            return new ArrayList<>(t).stream();
-        }
-        return t.stream();
     }
 
     /**
@@ -227,17 +342,23 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized Collection<V> getValuesAsCollection(K key) {
         init();
-        Collection<V> t = map.get(key);
-        if (t == null) {
-            return Collections.emptyList();
-        }
-        if (t instanceof SmallSet) {
-            return new ArrayList<>(t);
-        }
-        if (t instanceof HPPCSet) {
-            return new ArrayList<>(t);
+        OWLMetrics metrics = i.getMetrics();
+        long start = metrics.start();
+        try {
+            Collection<V> t = lookup(key);
+            if (t == null) {
+                return Collections.emptyList();
+            }
+            if (t instanceof SmallSet) {
+                return new ArrayList<>(t);
+            }
+            if (t instanceof HPPCSet) {
+                return new ArrayList<>(t);
+            }
+            return t;
+        } finally {
+            metrics.stop(OWLMetrics.INDEX_LOOKUP, start);
         }
-        return t;
     }
 
     /**
@@ -249,8 +370,12 @@ public class MapPointer<K, V extends OWLAxiom> {
         return count(key);
     }
 
-    private int count(K k) {
-        Collection<V> t = map.get(k);
+    /**
+     * @param k key to look up
+     * @return number of values for the key
+     */
+    protected int count(K k) {
+        Collection<V> t = lookup(k);
         if (t == null) {
             return 0;
         }
@@ -267,17 +392,23 @@ public class MapPointer<K, V extends OWLAxiom> {
     public synchronized <O extends V> Stream<O> values(K key,
         @SuppressWarnings("unused") Class<O> classType) {
         init();
-        Collection<V> t = map.get(key);
-        if (t == null) {
-            return Stream.empty();
-        }
-        if (t instanceof SmallSet) {
+        OWLMetrics metrics = i.getMetrics();
+        long start = metrics.start();
+        try {
+            Collection<V> t = lookup(key);
+            if (t == null) {
+                return Stream.empty();
+            }
+            if (t instanceof SmallSet) {
+                return (Stream<O>) t.stream();
+            }
+            if (t instanceof HPPCSet) {
+                return (Stream<O>) new ArrayList<>(t).stream();
+            }
             return (Stream<O>) t.stream();
+        } finally {
+            metrics.stop(OWLMetrics.INDEX_LOOKUP, start);
         }
-        if (t instanceof HPPCSet) {
-            return (Stream<O>) new ArrayList<>(t).stream();
-        }
-        return (Stream<O>) t.stream();
     }
 
     /**
@@ -288,16 +419,22 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized <T> Collection<OWLAxiom> filterAxioms(OWLAxiomSearchFilter filter, T key) {
         init();
-        List<OWLAxiom> toReturn = new ArrayList<>();
-        for (AxiomType<?> at : filter.getAxiomTypes()) {
-            // This method is only used for MapPointer<AxiomType, OWLAxiom>
-            @SuppressWarnings("unchecked")
-            Collection<V> collection = map.get((K) at);
-            if (collection != null) {
-                collection.stream().filter(x -> filter.pass(x, key)).forEach(toReturn::add);
+        OWLMetrics metrics = i.getMetrics();
+        long start = metrics.start();
+        try {
+            List<OWLAxiom> toReturn = new ArrayList<>();
+            for (AxiomType<?> at : filter.getAxiomTypes()) {
+                // This method is only used for MapPointer<AxiomType, OWLAxiom>
+                @SuppressWarnings("unchecked")
+                Collection<V> collection = lookup((K) at);
+                if (collection != null) {
+                    collection.stream().filter(x -> filter.pass(x, key)).forEach(toReturn::add);
+                }
             }
+            return toReturn;
+        } finally {
+            metrics.stop(OWLMetrics.INDEX_LOOKUP, start);
         }
-        return toReturn;
     }
 
     /**
@@ -308,7 +445,10 @@ public class MapPointer<K, V extends OWLAxiom> {
     public synchronized boolean put(K key, V value) {
         // lazy init: no elements added until a recall is made
         if (!initialized) {
-            return false;
+            if (source == null) {
+                return false;
+            }
+            init();
         }
         iris = null;
         return putInternal(key, value);
@@ -321,7 +461,10 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized boolean remove(K key, V value) {
         if (!initialized) {
-            return false;
+            if (source == null) {
+                return false;
+            }
+            init();
         }
         iris = null;
         return removeInternal(key, value);
@@ -333,7 +476,7 @@ public class MapPointer<K, V extends OWLAxiom> {
      */
     public synchronized boolean containsKey(K key) {
         init();
-        return map.containsKey(key);
+        return hasKey(key);
     }
 
     /**
@@ -377,11 +520,83 @@ public class MapPointer<K, V extends OWLAxiom> {
         if (k == null) {
             return false;
         }
+        if (store(k, v)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean removeInternal(K k, V v) {
+        if (neverTrimmed) {
+            // trimToSize();
+        }
+        if (unstore(k, v)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Discards all stored entries and releases the memory they use.
+     */
+    protected void discard() {
+        map = new ObjectObjectHashMap<>(17, 0.75F);
+    }
+
+    /**
+     * @return string representation of the contents
+     */
+    protected String contentsToString() {
+        return map.toString();
+    }
+
+    /**
+     * @param k key to look up
+     * @return values for the key, or null if the key is not contained. The collection might be
+     *         the one used for storage and must not be modified.
+     */
+    @Nullable
+    protected Collection<V> lookup(K k) {
+        return map.get(k);
+    }
+
+    /**
+     * @param k key to look up
+     * @return true if there are values for the key
+     */
+    protected boolean hasKey(K k) {
+        return map.containsKey(k);
+    }
+
+    /**
+     * @param consumer consumer to apply to all keys
+     */
+    protected void forEachKey(Consumer<K> consumer) {
+        ObjectProcedure<K> p = consumer::accept;
+        map.keys().forEach(p);
+    }
+
+    /**
+     * @param consumer consumer to apply to all values; values are passed once for each key they
+     *        are associated with
+     */
+    protected void forEachValue(Consumer<V> consumer) {
+        Consumer<ObjectCursor<Collection<V>>> c = q -> q.value.forEach(consumer);
+        map.values().forEach(c);
+    }
+
+    /**
+     * @param k key
+     * @param v value
+     * @return true if the mapping was not already stored
+     */
+    protected boolean store(K k, V v) {
         Collection<V> set = map.get(k);
         if (set == null) {
             set = Collections.singleton(v);
             map.put(k, set);
-            size++;
             return true;
         }
         if (set.size() == 1) {
@@ -397,29 +612,18 @@ public class MapPointer<K, V extends OWLAxiom> {
             } else {
                 set = new HPPCSet<>(set, v, valueWithness);
                 map.put(k, set);
-                size++;
                 return true;
             }
         }
-        boolean added = set.add(v);
-        if (added) {
-            size++;
-        }
-        return added;
-    }
-
-    private boolean containsEntry(K k, V v) {
-        Collection<V> t = map.get(k);
-        if (t == null) {
-            return false;
-        }
-        return t.contains(v);
+        return set.add(v);
     }
 
-    private boolean removeInternal(K k, V v) {
-        if (neverTrimmed) {
-            // trimToSize();
-        }
+    /**
+     * @param k key
+     * @param v value
+     * @return true if the mapping was stored
+     */
+    protected boolean unstore(K k, V v) {
         Collection<V> t = map.get(k);
         if (t == null) {
             return false;
@@ -427,31 +631,39 @@ public class MapPointer<K, V extends OWLAxiom> {
         if (t.size() == 1) {
             if (t.contains(v)) {
                 map.remove(k);
-                size--;
                 return true;
             } else {
                 return false;
             }
         }
         boolean removed = t.remove(v);
-        if (removed) {
-            size--;
-        }
         if (t.isEmpty()) {
             map.remove(k);
         }
         return removed;
     }
 
+    /**
+     * @param k key to look up
+     * @param v value to look up
+     * @return true if the mapping is stored
+     */
+    protected boolean containsEntry(K k, V v) {
+        Collection<V> t = lookup(k);
+        if (t == null) {
+            return false;
+        }
+        return t.contains(v);
+    }
+
     private Stream<V> values() {
         List<V> l = new ArrayList<>();
-        Consumer<ObjectCursor<Collection<V>>> c = q -> l.addAll(q.value);
-        map.values().forEach(c);
+        forEachValue(l::add);
         return l.stream();
     }
 
     private Stream<V> get(K k) {
-        Collection<V> t = map.get(k);
+        Collection<V> t = lookup(k);
         if (t == null) {
             return Stream.empty();
         }
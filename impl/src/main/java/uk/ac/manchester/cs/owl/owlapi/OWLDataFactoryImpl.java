@@ -44,6 +44,7 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.semanticweb.owlapi.model.EntityType;
@@ -210,9 +211,25 @@ public class OWLDataFactoryImpl implements OWLDataFactory, Serializable, ClassPr
     private static final String IRI_CANNOT_BE_NULL = "iri cannot be null";
     private static final String ENTITY_TYPE_CANNOT_BE_NULL = "entityType cannot be null";
     private static final String ANNOTATIONS_CANNOT_BE_NULL = "annotations cannot be null";
-    private final boolean useCompression = false;
-    private transient OWLDataFactoryInternals dataFactoryInternals =
-        new OWLDataFactoryInternalsImpl(useCompression);
+    private final boolean useCompression;
+    private transient OWLDataFactoryInternals dataFactoryInternals;
+
+    /**
+     * Data factory that does not compress literals.
+     */
+    public OWLDataFactoryImpl() {
+        this(Boolean.FALSE);
+    }
+
+    /**
+     * @param useCompression true if the lexical forms of long literals should be compressed; see
+     *        {@link CompressedLiteralStore}
+     */
+    @Inject
+    public OWLDataFactoryImpl(@CompressionEnabled Boolean useCompression) {
+        this.useCompression = Boolean.TRUE.equals(useCompression);
+        dataFactoryInternals = new OWLDataFactoryInternalsImpl(this.useCompression);
+    }
 
     private static void checkAnnotations(Collection<OWLAnnotation> o) {
         checkIterableNotNull(o, ANNOTATIONS_CANNOT_BE_NULL, true);
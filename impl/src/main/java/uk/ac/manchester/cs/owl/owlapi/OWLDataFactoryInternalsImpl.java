@@ -12,6 +12,8 @@
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.semanticweb.owlapi.model.IRI;
@@ -27,6 +29,9 @@ import org.semanticweb.owlapi.model.OWLObjectProperty;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
 
 /**
  * @author ignazio
@@ -49,6 +54,9 @@ public class OWLDataFactoryInternalsImpl extends OWLDataFactoryInternalsImplNoCa
     private static final LoadingCache<IRI, OWLDatatype>             datatypes =            builder(OWLDatatypeImpl::new);
     private static final LoadingCache<IRI, OWLNamedIndividual>      individuals =          builder(OWLNamedIndividualImpl::new);
     //@formatter:on
+    // statistics are only recorded once some manager collects metrics
+    private static volatile boolean recordStats = false;
+
     /**
      * @param useCompression true if literals should be compressed
      */
@@ -61,7 +69,88 @@ public class OWLDataFactoryInternalsImpl extends OWLDataFactoryInternalsImplNoCa
     }
 
     private static <F, T> LoadingCache<F, T> builder(CacheLoader<F, T> f) {
-        return Caffeine.newBuilder().maximumSize(2048).build(f);
+        return Caffeine.newBuilder().maximumSize(2048).recordStats(GatedStatsCounter::new)
+            .build(f);
+    }
+
+    /**
+     * Starts recording statistics for the entity and annotation caches. The caches are shared by
+     * all data factories, so once started statistics are recorded for the whole JVM.
+     *
+     * @since 5.1.8
+     */
+    public static void recordCacheStats() {
+        recordStats = true;
+    }
+
+    /**
+     * The entity and annotation caches are shared by all data factories, so their statistics
+     * cover the whole JVM.
+     *
+     * @return statistics of the caches, by cache name
+     * @since 5.1.8
+     */
+    public static Map<String, CacheStats> cacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("classes", classes.stats());
+        stats.put("objectProperties", objectProperties.stats());
+        stats.put("dataProperties", dataProperties.stats());
+        stats.put("datatypes", datatypes.stats());
+        stats.put("individuals", individuals.stats());
+        stats.put("annotationProperties", annotationProperties.stats());
+        stats.put("annotations", annotations.stats());
+        return stats;
+    }
+
+    /**
+     * Statistics counter that discards everything until {@link #recordCacheStats()} is called, so
+     * that cache hits do not pay for statistics nobody reads.
+     */
+    private static class GatedStatsCounter implements StatsCounter {
+
+        private final StatsCounter delegate = new ConcurrentStatsCounter();
+
+        GatedStatsCounter() {}
+
+        @Override
+        public void recordHits(int count) {
+            if (recordStats) {
+                delegate.recordHits(count);
+            }
+        }
+
+        @Override
+        public void recordMisses(int count) {
+            if (recordStats) {
+                delegate.recordMisses(count);
+            }
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+            if (recordStats) {
+                delegate.recordLoadSuccess(loadTime);
+            }
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+            if (recordStats) {
+                delegate.recordLoadFailure(loadTime);
+            }
+        }
+
+        @Override
+        public void recordEviction() {
+            if (recordStats) {
+                delegate.recordEviction();
+            }
+        }
+
+        @Override
+        public CacheStats snapshot() {
+            return delegate.snapshot();
+        }
     }
 
     @Override
@@ -71,6 +160,7 @@ public class OWLDataFactoryInternalsImpl extends OWLDataFactoryInternalsImplNoCa
 
     @Override
     public void purge() {
+        super.purge();
         classes.invalidateAll();
         objectProperties.invalidateAll();
         dataProperties.invalidateAll();
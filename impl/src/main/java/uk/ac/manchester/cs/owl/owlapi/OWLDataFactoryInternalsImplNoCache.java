@@ -42,6 +42,9 @@ import org.semanticweb.owlapi.model.OWLObjectProperty;
 public class OWLDataFactoryInternalsImplNoCache implements OWLDataFactoryInternals {
 
     private final boolean useCompression;
+    // long lexical forms of the literals created by this factory
+    @Nullable
+    private volatile CompressedLiteralStore literalStore;
     private final OWLLiteral negativeFloatZero = getBasicLiteral("-0.0", XSDFLOAT);
 
     /**
@@ -49,11 +52,17 @@ public class OWLDataFactoryInternalsImplNoCache implements OWLDataFactoryInterna
      */
     public OWLDataFactoryInternalsImplNoCache(boolean useCompression) {
         this.useCompression = useCompression;
+        if (useCompression) {
+            literalStore = new CompressedLiteralStore();
+        }
     }
 
     @Override
     public void purge() {
-        // nothing to purge
+        if (useCompression) {
+            // the current store is released when the literals using it are collected
+            literalStore = new CompressedLiteralStore();
+        }
     }
 
     @Override
@@ -94,7 +103,7 @@ public class OWLDataFactoryInternalsImplNoCache implements OWLDataFactoryInterna
     @Override
     public OWLLiteral getOWLLiteral(String value) {
         if (useCompression) {
-            return new OWLLiteralImpl(value, "", XSDSTRING);
+            return new OWLLiteralImpl(value, "", XSDSTRING, literalStore);
         }
         return new OWLLiteralImplString(value);
     }
@@ -109,12 +118,12 @@ public class OWLDataFactoryInternalsImplNoCache implements OWLDataFactoryInterna
         }
         if (normalisedLang.isEmpty()) {
             if (useCompression) {
-                return new OWLLiteralImpl(literal, null, XSDSTRING);
+                return new OWLLiteralImpl(literal, null, XSDSTRING, literalStore);
             }
             return new OWLLiteralImplString(literal);
         } else {
             if (useCompression) {
-                return new OWLLiteralImpl(literal, normalisedLang, null);
+                return new OWLLiteralImpl(literal, normalisedLang, null, literalStore);
             }
             return new OWLLiteralImplPlain(literal, normalisedLang);
         }
@@ -217,7 +226,7 @@ public class OWLDataFactoryInternalsImplNoCache implements OWLDataFactoryInterna
             if (datatype == null || datatype.isRDFPlainLiteral() || datatype.equals(LANGSTRING)) {
                 return new OWLLiteralImplPlain(lexicalValue, lang);
             }
-            return new OWLLiteralImpl(lexicalValue, lang, datatype);
+            return new OWLLiteralImpl(lexicalValue, lang, datatype, literalStore);
         }
         return new OWLLiteralImplNoCompression(lexicalValue, lang, datatype);
     }
@@ -16,7 +16,6 @@ import static org.semanticweb.owlapi.model.parameters.Imports.EXCLUDED;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
-import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asSet;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.empty;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.streamFromSorted;
 
@@ -56,6 +55,7 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLMetrics;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
@@ -72,59 +72,84 @@ import org.semanticweb.owlapi.util.OWLAPIStreamUtils;
 import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
 
 /**
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.0.0
  */
 public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
-    implements OWLOntology, Serializable {
-    // @formatter:off
-    protected static LoadingCache<OWLImmutableOntologyImpl, Set<OWLEntity>>              ontsignatures =                      
-        build(OWLImmutableOntologyImpl::build);
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLAnonymousIndividual>> ontanonCaches =                    build(key -> asList(key.ints.get(OWLAnonymousIndividual.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLClass>>              ontclassesSignatures =              build(key -> asList(key.ints.get(OWLClass.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLDataProperty>>       ontdataPropertySignatures =         build(key -> asList(key.ints.get(OWLDataProperty.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLObjectProperty>>     ontobjectPropertySignatures =       build(key -> asList(key.ints.get(OWLObjectProperty.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLDatatype>>           ontdatatypeSignatures =             build(key -> asList(key.ints.get(OWLDatatype.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLNamedIndividual>>    ontindividualSignatures =           build(key -> asList(key.ints.get(OWLNamedIndividual.class, OWLAxiom.class).get().keySet().distinct().sorted()));
-    protected static LoadingCache<OWLImmutableOntologyImpl, List<OWLAnnotationProperty>> ontannotationPropertiesSignatures = build(key -> asList(Stream.concat(key.ints.get(OWLAnnotationProperty.class, OWLAxiom.class, Navigation.IN_SUB_POSITION).get().keySet(),key.ints.getOntologyAnnotations().flatMap(a->a.annotationPropertiesInSignature())).distinct().sorted()));
-    // @formatter:on
-    protected static void invalidateOntologyCaches(OWLImmutableOntologyImpl o) {
-        ontsignatures.invalidate(o);
-        ontanonCaches.invalidate(o);
-        ontclassesSignatures.invalidate(o);
-        ontdataPropertySignatures.invalidate(o);
-        ontobjectPropertySignatures.invalidate(o);
-        ontdatatypeSignatures.invalidate(o);
-        ontindividualSignatures.invalidate(o);
-        ontannotationPropertiesSignatures.invalidate(o);
-    }
-
-    private static Set<OWLEntity> build(OWLImmutableOntologyImpl key) {
-        Stream<OWLEntity> stream =
-            Stream
-                .of(key.classesInSignature(), key.objectPropertiesInSignature(),
-                    key.dataPropertiesInSignature(), key.individualsInSignature(),
-                    key.datatypesInSignature(), key.annotationPropertiesInSignature())
-                .flatMap(x -> x);
-        return asSet(stream.distinct().sorted());
-    }
-
+    implements OWLOntology, HasSignatureCache, HasLazyIndexes, Serializable {
     @Nullable
     protected OWLOntologyManager manager;
     protected OWLDataFactory df;
     protected OWLOntologyID ontologyID;
+    @Nullable
+    private transient volatile OntologySignatureCache signatureCache;
 
     /**
      * @param manager ontology manager
      * @param ontologyID ontology id
      */
     public OWLImmutableOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID) {
+        this(manager, ontologyID, internals(manager));
+    }
+
+    /**
+     * @param manager ontology manager
+     * @param ontologyID ontology id
+     * @param ints internals storing the contents of this ontology
+     */
+    protected OWLImmutableOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID,
+        Internals ints) {
+        super(ints);
         this.manager = checkNotNull(manager, "manager cannot be null");
         this.ontologyID = checkNotNull(ontologyID, "ontologyID cannot be null");
         df = manager.getOWLDataFactory();
+        ints.setMetrics(this::metrics);
+    }
+
+    private OWLMetrics metrics() {
+        OWLOntologyManager m = manager;
+        return m == null ? OWLMetrics.NONE : m.getMetrics();
+    }
+
+    private static Internals internals(OWLOntologyManager manager) {
+        if (checkNotNull(manager, "manager cannot be null").getOntologyConfigurator()
+            .shouldUseCompactIndexes()) {
+            return new CompactInternals();
+        }
+        return new Internals();
+    }
+
+    @Override
+    public OntologySignatureCache getSignatureCache() {
+        OntologySignatureCache cache = signatureCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = signatureCache;
+                if (cache == null) {
+                    cache = createSignatureCache();
+                    signatureCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public List<MapPointer<?, ?>> getLazyIndexes() {
+        return ints.getLazyIndexes();
+    }
+
+    /**
+     * @return a new signature cache for this ontology, sized according to the manager
+     *         configuration
+     */
+    protected OntologySignatureCache createSignatureCache() {
+        OWLOntologyManager m = manager;
+        int size = m == null ? Integer.MAX_VALUE
+            : m.getOntologyConfigurator().getSignatureCacheSize();
+        return new OntologySignatureCache(this, size);
     }
 
     private static void add(Set<IRI> punned, Set<IRI> test, OWLEntity e) {
@@ -371,42 +396,42 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
 
     @Override
     public boolean containsEntityInSignature(OWLEntity owlEntity) {
-        return ontsignatures.get(this).contains(owlEntity);
+        return getSignatureCache().contains(owlEntity);
     }
 
     @Override
     public Stream<OWLEntity> signature() {
-        return streamFromSorted(ontsignatures.get(this));
+        return streamFromSorted(getSignatureCache().signature());
     }
 
     @Override
     public Stream<OWLAnonymousIndividual> anonymousIndividuals() {
-        return streamFromSorted(ontanonCaches.get(this));
+        return streamFromSorted(getSignatureCache().anonymousIndividuals());
     }
 
     @Override
     public Stream<OWLClass> classesInSignature() {
-        return streamFromSorted(ontclassesSignatures.get(this));
+        return streamFromSorted(getSignatureCache().classes());
     }
 
     @Override
     public Stream<OWLDataProperty> dataPropertiesInSignature() {
-        return streamFromSorted(ontdataPropertySignatures.get(this));
+        return streamFromSorted(getSignatureCache().dataProperties());
     }
 
     @Override
     public Stream<OWLObjectProperty> objectPropertiesInSignature() {
-        return streamFromSorted(ontobjectPropertySignatures.get(this));
+        return streamFromSorted(getSignatureCache().objectProperties());
     }
 
     @Override
     public Stream<OWLNamedIndividual> individualsInSignature() {
-        return streamFromSorted(ontindividualSignatures.get(this));
+        return streamFromSorted(getSignatureCache().individuals());
     }
 
     @Override
     public Stream<OWLDatatype> datatypesInSignature() {
-        return streamFromSorted(ontdatatypeSignatures.get(this));
+        return streamFromSorted(getSignatureCache().datatypes());
     }
 
     @Override
@@ -416,7 +441,7 @@ public class OWLImmutableOntologyImpl extends OWLAxiomIndexImpl
 
     @Override
     public Stream<OWLAnnotationProperty> annotationPropertiesInSignature() {
-        return streamFromSorted(ontannotationPropertiesSignatures.get(this));
+        return streamFromSorted(getSignatureCache().annotationProperties());
     }
 
     @Override
@@ -13,19 +13,10 @@
 package uk.ac.manchester.cs.owl.owlapi;
 
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
-import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.Reader;
-import java.io.Serializable;
-import java.io.Writer;
-import java.util.Arrays;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 
 import javax.annotation.Nullable;
 
@@ -36,8 +27,9 @@ import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
 /**
- * Implementation of {@link OWLLiteral} that uses compression of strings. See also
- * {@link OWLLiteralImplNoCompression}
+ * Implementation of {@link OWLLiteral} that uses compression of strings. Long lexical forms are
+ * kept in a {@link CompressedLiteralStore}, shared with the other literals created by the same data
+ * factory. See also {@link OWLLiteralImplNoCompression}
  *
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.0.0
@@ -50,9 +42,15 @@ public class OWLLiteralImpl extends OWLObjectImpl implements OWLLiteral {
     private static final OWLDatatype RDF_LANG_STRING =
         new OWL2DatatypeImpl(OWL2Datatype.RDF_LANG_STRING);
     private static final OWLDatatype XSD_STRING = new OWL2DatatypeImpl(OWL2Datatype.XSD_STRING);
-    private final LiteralWrapper literal;
     private final OWLDatatype datatype;
     private final String language;
+    // short lexical forms are kept as they are, long ones in the store
+    @Nullable
+    private transient String literal;
+    @Nullable
+    private transient CompressedLiteralStore store;
+    private transient long handle;
+    private transient int literalHash;
 
     /**
      * @param literal the lexical form
@@ -62,7 +60,21 @@ public class OWLLiteralImpl extends OWLObjectImpl implements OWLLiteral {
      *        be RDFPlainLiteral
      */
     public OWLLiteralImpl(String literal, @Nullable String lang, @Nullable OWLDatatype datatype) {
-        this.literal = new LiteralWrapper(checkNotNull(literal, "literal cannot be null"));
+        this(literal, lang, datatype, null);
+    }
+
+    /**
+     * @param literal the lexical form
+     * @param lang the language; can be null or an empty string, in which case datatype can be any
+     *        datatype but not null
+     * @param datatype the datatype; if lang is null or the empty string, it can be null or it MUST
+     *        be RDFPlainLiteral
+     * @param store store for long lexical forms; if null, a store shared with other literals not
+     *        created by a data factory is used
+     */
+    public OWLLiteralImpl(String literal, @Nullable String lang, @Nullable OWLDatatype datatype,
+        @Nullable CompressedLiteralStore store) {
+        setLiteral(checkNotNull(literal, "literal cannot be null"), store);
         if (lang == null || lang.isEmpty()) {
             language = "";
             if (datatype == null || datatype.equals(RDF_PLAIN_LITERAL)
@@ -84,13 +96,29 @@ public class OWLLiteralImpl extends OWLObjectImpl implements OWLLiteral {
         }
     }
 
+    private void setLiteral(String s, @Nullable CompressedLiteralStore literalStore) {
+        literalHash = s.hashCode();
+        if (s.length() > COMPRESSION_LIMIT) {
+            CompressedLiteralStore st =
+                literalStore == null ? CompressedLiteralStore.shared() : literalStore;
+            handle = st.store(s, this);
+            store = st;
+        } else {
+            literal = s;
+        }
+    }
+
     static boolean asBoolean(String s) {
         return Boolean.parseBoolean(s) || "1".equals(s.trim());
     }
 
     @Override
     public String getLiteral() {
-        return literal.get();
+        String s = literal;
+        if (s != null) {
+            return s;
+        }
+        return checkNotNull(store).get(handle);
     }
 
     @Override
@@ -125,22 +153,22 @@ public class OWLLiteralImpl extends OWLObjectImpl implements OWLLiteral {
 
     @Override
     public int parseInteger() {
-        return Integer.parseInt(literal.get());
+        return Integer.parseInt(getLiteral());
     }
 
     @Override
     public boolean parseBoolean() {
-        return asBoolean(literal.get());
+        return asBoolean(getLiteral());
     }
 
     @Override
     public double parseDouble() {
-        return Double.parseDouble(literal.get());
+        return Double.parseDouble(getLiteral());
     }
 
     @Override
     public float parseFloat() {
-        return Float.parseFloat(literal.get());
+        return Float.parseFloat(getLiteral());
     }
 
     @Override
@@ -171,71 +199,33 @@ public class OWLLiteralImpl extends OWLObjectImpl implements OWLLiteral {
 
 
     private int specificHash() {
-        if (literal.l != null) {
-            return literal.l.hashCode();
-        }
-        return Arrays.hashCode(literal.bytes);
-    }
-
-    // Literal Wrapper
-    private static class LiteralWrapper implements Serializable {
-
-        private static final String COMPRESSED_ENCODING = "UTF-16";
-        @Nullable
-        String l;
-        @Nullable
-        byte[] bytes;
-
-        LiteralWrapper(String s) {
-            if (s.length() > COMPRESSION_LIMIT) {
-                try {
-                    bytes = compress(s);
-                    l = null;
-                } catch (@SuppressWarnings("unused") IOException e) {
-                    // some problem happened - defaulting to no compression
-                    l = s;
-                    bytes = null;
-                }
-            } else {
-                bytes = null;
-                l = s;
+        // same as OWLLiteralImplNoCompression, so that equal literals have equal hashes
+        try {
+            if (isInteger()) {
+                return parseInteger();
             }
-        }
-
-        static byte[] compress(String s) throws IOException {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            GZIPOutputStream zipout = new GZIPOutputStream(out);
-            Writer writer = new OutputStreamWriter(zipout, COMPRESSED_ENCODING);
-            writer.write(s);
-            writer.flush();
-            zipout.finish();
-            zipout.flush();
-            return out.toByteArray();
-        }
-
-        static String decompress(byte[] result) throws IOException {
-            ByteArrayInputStream in = new ByteArrayInputStream(result);
-            GZIPInputStream zipin = new GZIPInputStream(in);
-            Reader reader = new InputStreamReader(zipin, COMPRESSED_ENCODING);
-            StringBuilder b = new StringBuilder();
-            int c = reader.read();
-            while (c > -1) {
-                b.append((char) c);
-                c = reader.read();
+            if (isDouble()) {
+                return (int) parseDouble();
             }
-            return b.toString();
-        }
-
-        String get() {
-            if (l != null) {
-                return verifyNotNull(l);
+            if (isFloat()) {
+                return (int) parseFloat();
             }
-            try {
-                return decompress(verifyNotNull(bytes));
-            } catch (IOException e) {
-                // some problem has happened - cannot recover from this
-                throw new OWLRuntimeException(e);
+            if (isBoolean()) {
+                return parseBoolean() ? 1 : 0;
             }
+        } catch (@SuppressWarnings("unused") NumberFormatException e) {
+            // not a valid value for the datatype
         }
+        return literalHash;
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        stream.writeObject(getLiteral());
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        setLiteral((String) stream.readObject(), null);
     }
 }
@@ -33,6 +33,7 @@ import org.semanticweb.owlapi.io.OWLParserFactory;
 import org.semanticweb.owlapi.io.UnparsableOntologyException;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLMetrics;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyBuilder;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
@@ -184,6 +185,9 @@ public class OWLOntologyFactoryImpl implements OWLOntologyFactory {
         for (OWLParserFactory parserFactory : parsers) {
             if (!bannedParsers.contains(parserFactory.getClass().getName())) {
                 OWLParser parser = parserFactory.createParser();
+                OWLMetrics metrics = manager.getMetrics();
+                String formatKey = parserFactory.getSupportedFormat().getKey();
+                long start = metrics.start();
                 try {
                     if (existingOntology == null && !ont.isEmpty()) {
                         // Junk from a previous parse. We should clear the ont
@@ -192,6 +196,7 @@ public class OWLOntologyFactoryImpl implements OWLOntologyFactory {
                             documentSource.getDocumentIRI(), handler);
                     }
                     OWLDocumentFormat format = parser.parse(documentSource, ont, configuration);
+                    metrics.stop(OWLMetrics.PARSE + '.' + formatKey, start);
                     handler.setOntologyFormat(ont, format);
                     return ont;
                 } catch (UnloadableImportException e) {
@@ -215,6 +220,7 @@ public class OWLOntologyFactoryImpl implements OWLOntologyFactory {
                         throw new OWLOntologyCreationIOException(e.getCause());
                     }
                     // Record this attempts and continue trying to parse.
+                    metrics.count(OWLMetrics.PARSE_FAILURES + '.' + formatKey, 1);
                     exceptions.put(parser, e);
                 } catch (RuntimeException e) {
                     // Clean up and rethrow
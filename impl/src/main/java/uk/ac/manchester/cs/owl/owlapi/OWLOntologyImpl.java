@@ -19,6 +19,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.semanticweb.owlapi.model.AddAxiom;
@@ -26,6 +27,7 @@ import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.ChangeDetails;
 import org.semanticweb.owlapi.model.OWLMutableOntology;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyChangeVisitorEx;
 import org.semanticweb.owlapi.model.OWLOntologyID;
@@ -41,7 +43,13 @@ import org.semanticweb.owlapi.model.parameters.ChangeApplied;
  * @since 2.0.0
  */
 public class OWLOntologyImpl extends OWLImmutableOntologyImpl
-    implements OWLMutableOntology, Serializable {
+    implements OWLMutableOntology, HasSnapshot, Serializable {
+
+    // cached only while this ontology has no imports, as the imports can change independently
+    @Nullable
+    private transient OWLOntology snapshot;
+    // true if the current internals are shared with at least one snapshot
+    private transient boolean sharedInternals = false;
 
     /**
      * @param manager ontology manager
@@ -52,6 +60,44 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
         super(manager, ontologyID);
     }
 
+    /**
+     * {@inheritDoc} The snapshot shares the indexes of this ontology. Once this ontology is
+     * modified, each index is copied the first time this ontology uses it, so a change after a
+     * snapshot costs time and memory in proportion to the size of the indexes it touches, not to
+     * the size of the ontology; indexes that are never used again are never copied.
+     */
+    @Override
+    public OWLOntology snapshot() {
+        OWLOntology s = snapshot;
+        if (s == null) {
+            s = OntologySnapshot.withImports(contentSnapshot());
+            if (!importsDeclarations().findAny().isPresent()) {
+                snapshot = s;
+            }
+        }
+        return s;
+    }
+
+    @Override
+    public OWLOntology contentSnapshot() {
+        sharedInternals = true;
+        return new OntologySnapshot(getOWLOntologyManager(), ontologyID, ints);
+    }
+
+    /**
+     * @return internals that can be modified without affecting existing snapshots; if the current
+     *         internals are shared with a snapshot, this is a copy of them that copies each index
+     *         on first use
+     */
+    protected Internals writableInternals() {
+        if (sharedInternals) {
+            ints = ints.copy();
+            sharedInternals = false;
+        }
+        snapshot = null;
+        return ints;
+    }
+
     @Override
     public ChangeApplied applyDirectChange(OWLOntologyChange change) {
         OWLOntologyChangeFilter changeFilter = new OWLOntologyChangeFilter();
@@ -83,8 +129,8 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(RemoveAxiom change) {
-            if (ints.removeAxiom(change.getAxiom())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().removeAxiom(change.getAxiom())) {
+                getSignatureCache().axiomRemoved(change.getAxiom());
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -97,7 +143,8 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
                 // force hashcode recomputation
                 hashCode = 0;
                 ontologyID = id;
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+                // existing snapshots keep the old id
+                snapshot = null;
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -105,8 +152,8 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(AddAxiom change) {
-            if (ints.addAxiom(change.getAxiom())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().addAxiom(change.getAxiom())) {
+                getSignatureCache().axiomAdded(change.getAxiom());
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -114,8 +161,7 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(AddImport change) {
-            if (ints.addImportsDeclaration(change.getImportDeclaration())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().addImportsDeclaration(change.getImportDeclaration())) {
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -123,8 +169,7 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(RemoveImport change) {
-            if (ints.removeImportsDeclaration(change.getImportDeclaration())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().removeImportsDeclaration(change.getImportDeclaration())) {
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -132,8 +177,8 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(AddOntologyAnnotation change) {
-            if (ints.addOntologyAnnotation(change.getAnnotation())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().addOntologyAnnotation(change.getAnnotation())) {
+                getSignatureCache().ontologyAnnotationsChanged();
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -141,8 +186,8 @@ public class OWLOntologyImpl extends OWLImmutableOntologyImpl
 
         @Override
         public ChangeApplied visit(RemoveOntologyAnnotation change) {
-            if (ints.removeOntologyAnnotation(change.getAnnotation())) {
-                invalidateOntologyCaches(OWLOntologyImpl.this);
+            if (writableInternals().removeOntologyAnnotation(change.getAnnotation())) {
+                getSignatureCache().ontologyAnnotationsChanged();
                 return SUCCESSFULLY;
             }
             return NO_OPERATION;
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -38,9 +39,12 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -82,6 +86,7 @@ import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLMetrics;
 import org.semanticweb.owlapi.model.OWLMutableOntology;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyAlreadyExistsException;
@@ -144,8 +149,6 @@ public class OWLOntologyManagerImpl
         createSyncMap();
     protected final Map<OWLImportsDeclaration, OWLOntologyID> ontologyIDsByImportsDeclaration =
         createSyncMap();
-    protected final AtomicInteger loadCount = new AtomicInteger(0);
-    protected final AtomicInteger importsLoadCount = new AtomicInteger(0);
     protected final Map<IRI, Object> importedIRIs = createSyncMap();
     protected final OWLDataFactory dataFactory;
     protected final Map<OWLOntologyID, Set<OWLOntology>> importsClosureCache = createSyncMap();
@@ -157,7 +160,15 @@ public class OWLOntologyManagerImpl
     protected final PriorityCollection<OWLOntologyFactory> ontologyFactories;
     protected final PriorityCollection<OWLParserFactory> parserFactories;
     protected final PriorityCollection<OWLStorerFactory> ontologyStorers;
-    private final AtomicBoolean broadcastChanges = new AtomicBoolean(true);
+    // loads in progress on each thread; changes applied by a thread while it is loading an
+    // ontology or its imports are not broadcast
+    private transient ThreadLocal<LoadCounts> loadCounts = ThreadLocal.withInitial(LoadCounts::new);
+    // ontologies created by loads in progress; they are only visible to the load that creates them
+    // until its document has been parsed
+    private transient Map<OWLOntology, PendingLoad> loading =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    // ontology IRIs being loaded; other loads of the same IRI wait for the first one to complete
+    private transient Map<IRI, PendingLoad> pendingLoads = new ConcurrentHashMap<>();
     private final Lock readLock;
     private final Lock writeLock;
     private final ReadWriteLock lock;
@@ -171,6 +182,7 @@ public class OWLOntologyManagerImpl
         createSyncMap();
     private transient List<OWLOntologyChangesVetoedListener> vetoListeners = new ArrayList<>();
     private OntologyConfigurator configProvider = new OntologyConfigurator();
+    private transient volatile OWLMetrics metrics = OWLMetrics.NONE;
     private transient Optional<OWLOntologyLoaderConfiguration> loaderConfig = emptyOptional();
     private transient Optional<OWLOntologyWriterConfiguration> writerConfig = emptyOptional();
 
@@ -213,6 +225,7 @@ public class OWLOntologyManagerImpl
             missingImportsListeners.clear();
             ontologiesByID.values().forEach(o -> o.setOWLOntologyManager(null));
             ontologiesByID.clear();
+            loading.clear();
             ontologyConfigurationsByOntologyID.clear();
             ontologyFormatsByOntology.clear();
             ontologyIDsByImportsDeclaration.clear();
@@ -299,7 +312,10 @@ public class OWLOntologyManagerImpl
         readLock.lock();
         try {
             // XXX investigate lockable access to streams
-            return ontologiesByID.values().stream();
+            if (loading.isEmpty()) {
+                return ontologiesByID.values().stream();
+            }
+            return ontologiesByID.values().stream().filter(this::isVisible);
         } finally {
             readLock.unlock();
         }
@@ -320,7 +336,7 @@ public class OWLOntologyManagerImpl
     public boolean contains(OWLOntology ontology) {
         readLock.lock();
         try {
-            return ontologiesByID.containsValue(ontology);
+            return ontologiesByID.containsValue(ontology) && isVisible(ontology);
         } finally {
             readLock.unlock();
         }
@@ -347,7 +363,11 @@ public class OWLOntologyManagerImpl
     protected Stream<OWLOntologyID> ids() {
         readLock.lock();
         try {
-            return ontologiesByID.keySet().stream();
+            if (loading.isEmpty()) {
+                return ontologiesByID.keySet().stream();
+            }
+            return ontologiesByID.entrySet().stream().filter(e -> isVisible(e.getValue()))
+                .map(Entry::getKey);
         } finally {
             readLock.unlock();
         }
@@ -360,7 +380,8 @@ public class OWLOntologyManagerImpl
         }
         readLock.lock();
         try {
-            if (ontologiesByID.containsKey(id)) {
+            OWLOntology o = ontologiesByID.get(id);
+            if (o != null && isVisible(o)) {
                 return true;
             }
             return ids().anyMatch(id::match);
@@ -396,11 +417,12 @@ public class OWLOntologyManagerImpl
         readLock.lock();
         try {
             OWLOntology result = ontologiesByID.get(ontologyID);
-            if (result != null) {
+            if (result != null && isVisible(result)) {
                 return result;
             }
             java.util.Optional<Entry<OWLOntologyID, OWLOntology>> findAny =
-                ontologiesByID.entrySet().stream().filter(o -> o.getKey().match(iri)).findAny();
+                ontologiesByID.entrySet().stream()
+                    .filter(o -> o.getKey().match(iri) && isVisible(o.getValue())).findAny();
             return findAny.isPresent() ? findAny.get().getValue() : null;
         } finally {
             readLock.unlock();
@@ -413,6 +435,9 @@ public class OWLOntologyManagerImpl
         readLock.lock();
         try {
             OWLOntology result = ontologiesByID.get(id);
+            if (result != null && !isVisible(result)) {
+                result = null;
+            }
             if (result == null && !id.isAnonymous()) {
                 java.util.Optional<OWLOntologyID> findAny =
                     ids().filter(o -> o.matchOntology(id.getOntologyIRI().get())).findAny();
@@ -433,6 +458,16 @@ public class OWLOntologyManagerImpl
         }
     }
 
+    /**
+     * @param o ontology held by this manager
+     * @return false if the ontology is being loaded by a load other than the one in progress on
+     *         the current thread
+     */
+    private boolean isVisible(OWLOntology o) {
+        PendingLoad load = loading.get(o);
+        return load == null || load.group == loadCounts.get().group;
+    }
+
     protected void checkDocumentIRI(OWLOntologyID id) {
         IRI documentIRI = getDocumentIRIFromMappers(id);
         if (documentIRI != null && documentIRIsByID.values().contains(documentIRI)) {
@@ -524,6 +559,10 @@ public class OWLOntologyManagerImpl
     public Stream<OWLOntology> importsClosure(OWLOntology ontology) {
         readLock.lock();
         try {
+            if (!loading.isEmpty()) {
+                // the closure depends on which ontologies being loaded are visible to the caller
+                return getImportsClosure(ontology, new TreeSet<>()).stream();
+            }
             OWLOntologyID id = ontology.getOntologyID();
             return importsClosureCache
                 .computeIfAbsent(id, i -> getImportsClosure(ontology, new TreeSet<>())).stream();
@@ -598,8 +637,41 @@ public class OWLOntologyManagerImpl
         return appliedChange;
     }
 
+    @Override
+    public void setMetrics(OWLMetrics metrics) {
+        this.metrics = checkNotNull(metrics, "metrics cannot be null");
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        OWLDataFactoryInternalsImpl.recordCacheStats();
+        OWLDataFactoryInternalsImpl.cacheStats().keySet().forEach(name -> {
+            String prefix = OWLMetrics.DATA_FACTORY_CACHE + '.' + name;
+            metrics.gauge(prefix + ".hits",
+                () -> OWLDataFactoryInternalsImpl.cacheStats().get(name).hitCount());
+            metrics.gauge(prefix + ".misses",
+                () -> OWLDataFactoryInternalsImpl.cacheStats().get(name).missCount());
+        });
+    }
+
+    @Override
+    public OWLMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public ChangeDetails applyChangesAndGetDetails(List<? extends OWLOntologyChange> changes) {
+        OWLMetrics m = metrics;
+        long start = m.start();
+        try {
+            return applyChangesUnderLock(changes);
+        } finally {
+            m.stop(OWLMetrics.CHANGES_APPLY, start);
+            m.count(OWLMetrics.CHANGES, changes.size());
+        }
+    }
+
+    private ChangeDetails applyChangesUnderLock(
+        List<? extends OWLOntologyChange> changes) {
         writeLock.lock();
         try {
             broadcastImpendingChanges(changes);
@@ -745,6 +817,11 @@ public class OWLOntologyManagerImpl
         // This method is called when a factory that we have asked to create or
         // load an ontology has created the ontology. We add the ontology to the
         // set of loaded ontologies.
+        PendingLoad load = loadCounts.get().load;
+        if (load != null) {
+            // published once the document has been parsed
+            loading.put(ontology, load);
+        }
         addOntology(ontology);
     }
 
@@ -900,34 +977,97 @@ public class OWLOntologyManagerImpl
 
     protected OWLOntology loadOntology(IRI iri, boolean allowExists,
         OWLOntologyLoaderConfiguration configuration) throws OWLOntologyCreationException {
-        writeLock.lock();
-        try {
-            OWLOntology ontByID = null;
-            // Check for matches on the ontology IRI first
-            java.util.Optional<OWLOntologyID> findAny = ids().filter(o -> o.match(iri)).findAny();
-            if (findAny.isPresent()) {
-                ontByID = ontologiesByID.get(findAny.get());
+        LoadCounts counts = loadCounts.get();
+        LoadGroup previousGroup = counts.group;
+        if (previousGroup == null) {
+            counts.group = new LoadGroup();
+        }
+        try {
+            PendingLoad pending = new PendingLoad(counts.group);
+            PendingLoad other;
+            while ((other = pendingLoads.putIfAbsent(iri, pending)) != null) {
+                if (other.group == counts.group || !await(other, counts.group)) {
+                    // the IRI is being loaded by this load, or by a load waiting for this one: the
+                    // imports form a cycle, and the ontology is used while it is being loaded
+                    OWLOntology inProgress = findLoading(iri);
+                    if (inProgress != null) {
+                        return inProgress;
+                    }
+                    return loadOntologyByIRI(iri, allowExists, configuration);
+                }
+                // the other load has either published the ontology, which is found below, or failed
             }
-            if (ontByID != null) {
-                return ontByID;
+            try {
+                return loadOntologyByIRI(iri, allowExists, configuration);
+            } finally {
+                pendingLoads.remove(iri, pending);
+                pending.done.complete(null);
             }
-            OWLOntologyID id = new OWLOntologyID(optional(iri), emptyOptional());
-            IRI documentIRI = getDocumentIRIFromMappers(id);
-            if (documentIRI != null) {
-                if (documentIRIsByID.values().contains(documentIRI) && !allowExists) {
-                    throw new OWLOntologyDocumentAlreadyExistsException(documentIRI);
-                }
-                // The ontology might be being loaded, but its IRI might
-                // not have been set (as is probably the case with RDF/XML!)
-                OWLOntology ontByDocumentIRI = loadOntologyByDocumentIRI(documentIRI);
-                if (ontByDocumentIRI != null) {
-                    return ontByDocumentIRI;
-                }
-            } else {
-                // Nothing we can do here. We can't get a document IRI to load
-                // the ontology from.
-                throw new OntologyIRIMappingNotFoundException(iri);
+        } finally {
+            counts.group = previousGroup;
+        }
+    }
+
+    @Nullable
+    private OWLOntology findLoading(IRI iri) {
+        List<OWLOntology> inProgress;
+        synchronized (loading) {
+            inProgress = new ArrayList<>(loading.keySet());
+        }
+        // ids are read outside the monitor, as they may require the ontology locks
+        return inProgress.stream().filter(o -> o.getOntologyID().match(iri)).findAny()
+            .orElse(null);
+    }
+
+    /**
+     * Waits for a load started by another load to complete, unless the other load is waiting,
+     * directly or through other loads, for the one in progress on this thread; the two loads would
+     * otherwise wait for each other forever.
+     *
+     * @param other load to wait for
+     * @param group load in progress on this thread
+     * @return true if the other load has completed, false if it has not been waited for
+     * @throws OWLOntologyCreationException if the thread is interrupted while waiting
+     */
+    private static boolean await(PendingLoad other, LoadGroup group)
+        throws OWLOntologyCreationException {
+        synchronized (LoadGroup.class) {
+            if (other.group.waitsFor(group)) {
+                return false;
+            }
+            group.waitingFor.add(other.group);
+        }
+        try {
+            other.done.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLOntologyCreationException(e);
+        } catch (ExecutionException e) {
+            // never completed exceptionally
+            throw new OWLRuntimeException(e);
+        } finally {
+            synchronized (LoadGroup.class) {
+                group.waitingFor.remove(other.group);
             }
+        }
+    }
+
+    private OWLOntology loadOntologyByIRI(IRI iri, boolean allowExists,
+        OWLOntologyLoaderConfiguration configuration) throws OWLOntologyCreationException {
+        // no lock is held while parsing; the manager state is locked only when it is updated
+        OWLOntology ontByID = null;
+        // Check for matches on the ontology IRI first
+        java.util.Optional<OWLOntologyID> findAny = ids().filter(o -> o.match(iri)).findAny();
+        if (findAny.isPresent()) {
+            ontByID = ontologiesByID.get(findAny.get());
+        }
+        if (ontByID != null) {
+            return ontByID;
+        }
+        OWLOntologyID id = new OWLOntologyID(optional(iri), emptyOptional());
+        IRI documentIRI = getDocumentIRIFromMappers(id);
+        if (documentIRI != null) {
             if (documentIRIsByID.values().contains(documentIRI) && !allowExists) {
                 throw new OWLOntologyDocumentAlreadyExistsException(documentIRI);
             }
@@ -937,10 +1077,21 @@ public class OWLOntologyManagerImpl
             if (ontByDocumentIRI != null) {
                 return ontByDocumentIRI;
             }
-            return loadOntology(iri, new IRIDocumentSource(documentIRI, null, null), configuration);
-        } finally {
-            writeLock.unlock();
+        } else {
+            // Nothing we can do here. We can't get a document IRI to load
+            // the ontology from.
+            throw new OntologyIRIMappingNotFoundException(iri);
         }
+        if (documentIRIsByID.values().contains(documentIRI) && !allowExists) {
+            throw new OWLOntologyDocumentAlreadyExistsException(documentIRI);
+        }
+        // The ontology might be being loaded, but its IRI might
+        // not have been set (as is probably the case with RDF/XML!)
+        OWLOntology ontByDocumentIRI = loadOntologyByDocumentIRI(documentIRI);
+        if (ontByDocumentIRI != null) {
+            return ontByDocumentIRI;
+        }
+        return loadOntology(iri, new IRIDocumentSource(documentIRI, null, null), configuration);
     }
 
     @Nullable
@@ -1024,45 +1175,51 @@ public class OWLOntologyManagerImpl
     protected OWLOntology loadOntology(@Nullable IRI ontologyIRI,
         OWLOntologyDocumentSource documentSource, OWLOntologyLoaderConfiguration configuration)
         throws OWLOntologyCreationException {
-        writeLock.lock();
-        try {
-            if (loadCount.get() != importsLoadCount.get()) {
-                LOGGER.warn(
-                    "Runtime Warning: Parsers should load imported ontologies using the makeImportLoadRequest method.");
+        // The document is parsed without holding the manager lock, so that independent ontologies
+        // can be loaded concurrently; the ontologies take the lock to apply each change.
+        LoadCounts counts = loadCounts.get();
+        if (counts.loads != counts.imports) {
+            LOGGER.warn(
+                "Runtime Warning: Parsers should load imported ontologies using the makeImportLoadRequest method.");
+        }
+        fireStartedLoadingEvent(new OWLOntologyID(optional(ontologyIRI), emptyOptional()),
+            documentSource.getDocumentIRI(), counts.loads > 0);
+        counts.loads++;
+        LoadGroup previousGroup = counts.group;
+        if (previousGroup == null) {
+            counts.group = new LoadGroup();
+        }
+        PendingLoad previousLoad = counts.load;
+        PendingLoad load = new PendingLoad(counts.group);
+        counts.load = load;
+        Exception ex = null;
+        OWLOntologyID idOfLoadedOntology = new OWLOntologyID();
+        try {
+            OWLOntology o = load(documentSource, configuration);
+            if (o != null) {
+                idOfLoadedOntology = o.getOntologyID();
+                return o;
             }
-            fireStartedLoadingEvent(new OWLOntologyID(optional(ontologyIRI), emptyOptional()),
-                documentSource.getDocumentIRI(), loadCount.get() > 0);
-            loadCount.incrementAndGet();
-            broadcastChanges.set(false);
-            Exception ex = null;
-            OWLOntologyID idOfLoadedOntology = new OWLOntologyID();
-            try {
-                OWLOntology o = load(documentSource, configuration);
-                if (o != null) {
-                    idOfLoadedOntology = o.getOntologyID();
-                    return o;
-                }
-            } catch (UnloadableImportException | OWLOntologyCreationException e) {
-                ex = e;
-                throw e;
-            } catch (OWLRuntimeException e) {
-                if (e.getCause() instanceof OWLOntologyCreationException) {
-                    ex = (OWLOntologyCreationException) e.getCause();
-                    throw (OWLOntologyCreationException) e.getCause();
-                }
-                throw e;
-            } finally {
-                if (loadCount.decrementAndGet() == 0) {
-                    broadcastChanges.set(true);
-                    // Completed loading ontology and imports
-                }
-                fireFinishedLoadingEvent(idOfLoadedOntology, documentSource.getDocumentIRI(),
-                    loadCount.get() > 0, ex);
+        } catch (UnloadableImportException | OWLOntologyCreationException e) {
+            ex = e;
+            throw e;
+        } catch (OWLRuntimeException e) {
+            if (e.getCause() instanceof OWLOntologyCreationException) {
+                ex = (OWLOntologyCreationException) e.getCause();
+                throw (OWLOntologyCreationException) e.getCause();
             }
-            throw new OWLOntologyFactoryNotFoundException(documentSource.getDocumentIRI());
+            throw e;
         } finally {
-            writeLock.unlock();
+            counts.loads--;
+            counts.group = previousGroup;
+            counts.load = previousLoad;
+            // the ontologies created while parsing the document are now complete
+            loading.values().removeIf(l -> l == load);
+            load.done.complete(null);
+            fireFinishedLoadingEvent(idOfLoadedOntology, documentSource.getDocumentIRI(),
+                counts.loads > 0, ex);
         }
+        throw new OWLOntologyFactoryNotFoundException(documentSource.getDocumentIRI());
     }
 
     @Nullable
@@ -1161,6 +1318,9 @@ public class OWLOntologyManagerImpl
         writeLock.lock();
         try {
             OWLOntology o = ontologiesByID.remove(ontologyID);
+            if (o != null) {
+                loading.remove(o);
+            }
             ontologyFormatsByOntology.remove(ontologyID);
             documentIRIsByID.remove(ontologyID);
             removeValue(ontologyIDsByImportsDeclaration, ontologyID);
@@ -1474,6 +1634,10 @@ public class OWLOntologyManagerImpl
         listenerMap = new ConcurrentHashMap<>();
         impendingChangeListenerMap = new ConcurrentHashMap<>();
         vetoListeners = new ArrayList<>();
+        loadCounts = ThreadLocal.withInitial(LoadCounts::new);
+        loading = Collections.synchronizedMap(new IdentityHashMap<>());
+        pendingLoads = new ConcurrentHashMap<>();
+        metrics = OWLMetrics.NONE;
     }
 
     private void writeObject(ObjectOutputStream stream) throws IOException {
@@ -1497,10 +1661,14 @@ public class OWLOntologyManagerImpl
      *
      * @param changes The ontology changes to broadcast
      */
+    private boolean isLoading() {
+        return loadCounts.get().loads > 0;
+    }
+
     protected void broadcastChanges(List<? extends OWLOntologyChange> changes) {
         writeLock.lock();
         try {
-            if (!broadcastChanges.get()) {
+            if (isLoading()) {
                 return;
             }
             for (OWLOntologyChangeListener listener : new ArrayList<>(listenerMap.keySet())) {
@@ -1529,7 +1697,7 @@ public class OWLOntologyManagerImpl
     protected void broadcastImpendingChanges(List<? extends OWLOntologyChange> changes) {
         writeLock.lock();
         try {
-            if (!broadcastChanges.get()) {
+            if (isLoading()) {
                 return;
             }
             for (ImpendingOWLOntologyChangeListener listener : new ArrayList<>(
@@ -1630,63 +1798,180 @@ public class OWLOntologyManagerImpl
     @Nullable
     protected OWLOntology loadImports(OWLImportsDeclaration declaration,
         OWLOntologyLoaderConfiguration configuration) throws OWLOntologyCreationException {
-        writeLock.lock();
-        try {
-            importsLoadCount.incrementAndGet();
-            OWLOntology ont = null;
-            try {
-                ont = loadOntology(declaration.getIRI(), true, configuration);
-            } catch (OWLOntologyCreationException e) {
-                if (configuration
-                    .getMissingImportHandlingStrategy() == MissingImportHandlingStrategy.THROW_EXCEPTION) {
-                    throw e;
-                } else {
-                    // Silent
-                    MissingImportEvent evt = new MissingImportEvent(declaration.getIRI(), e);
-                    fireMissingImportEvent(evt);
-                }
-            } finally {
-                importsLoadCount.decrementAndGet();
+        LoadCounts counts = loadCounts.get();
+        counts.imports++;
+        OWLOntology ont = null;
+        try {
+            ont = loadOntology(declaration.getIRI(), true, configuration);
+        } catch (OWLOntologyCreationException e) {
+            if (configuration
+                .getMissingImportHandlingStrategy() == MissingImportHandlingStrategy.THROW_EXCEPTION) {
+                throw e;
+            } else {
+                // Silent
+                MissingImportEvent evt = new MissingImportEvent(declaration.getIRI(), e);
+                fireMissingImportEvent(evt);
             }
-            return ont;
         } finally {
-            writeLock.unlock();
+            counts.imports--;
         }
+        return ont;
     }
 
     @Override
     public void makeLoadImportRequest(OWLImportsDeclaration declaration) {
         // XXX check default
-        writeLock.lock();
-        try {
-            makeLoadImportRequest(declaration, getOntologyLoaderConfiguration());
-        } finally {
-            writeLock.unlock();
-        }
+        makeLoadImportRequest(declaration, getOntologyLoaderConfiguration());
     }
 
     @Override
     public void makeLoadImportRequest(OWLImportsDeclaration declaration,
         OWLOntologyLoaderConfiguration configuration) {
-        writeLock.lock();
+        PendingLoad claim = claimImport(declaration, configuration);
+        if (claim != null) {
+            loadImport(declaration, configuration, claim);
+        }
+    }
+
+    @Override
+    public void makeLoadImportRequests(Collection<OWLImportsDeclaration> declarations,
+        OWLOntologyLoaderConfiguration configuration) {
+        List<OWLImportsDeclaration> toLoad = new ArrayList<>();
+        List<PendingLoad> claims = new ArrayList<>();
+        for (OWLImportsDeclaration d : asList(declarations.stream().distinct())) {
+            PendingLoad claim = claimImport(d, configuration);
+            if (claim != null) {
+                toLoad.add(d);
+                claims.add(claim);
+            }
+        }
+        int threads = Math.min(configuration.getParallelImportThreads(), toLoad.size());
+        if (threads < 2) {
+            for (int i = 0; i < toLoad.size(); i++) {
+                loadImport(toLoad.get(i), configuration, claims.get(i));
+            }
+            return;
+        }
+        // the imports are loaded on worker threads, which count as loading imports for the
+        // current load; failures are reported in declaration order once all loads have completed
+        LoadCounts counts = loadCounts.get();
+        int loads = counts.loads;
+        int imports = counts.imports;
+        LoadGroup group = counts.group;
+        Throwable[] failures = new Throwable[toLoad.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(toLoad.size());
+        for (int i = 0; i < toLoad.size(); i++) {
+            int index = i;
+            OWLImportsDeclaration declaration = toLoad.get(i);
+            PendingLoad claim = claims.get(i);
+            tasks.add(ForkJoinTask.adapt(() -> failures[index] =
+                loadImport(declaration, configuration, claim, loads, imports, group)));
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            // nested imports share the pool of the enclosing request
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        for (Throwable t : failures) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        }
+    }
+
+    /**
+     * Claims an import for the current load. If another load has claimed it already, this waits
+     * for that load to complete, so that the import has been loaded when the request returns;
+     * loads whose imports form a cycle do not wait for each other.
+     *
+     * @param declaration import to load
+     * @param configuration load configuration
+     * @return the claim, if the import is to be loaded by the caller; null if it is ignored or has
+     *         been loaded already
+     */
+    @Nullable
+    private PendingLoad claimImport(OWLImportsDeclaration declaration,
+        OWLOntologyLoaderConfiguration configuration) {
+        IRI iri = declaration.getIRI();
+        if (configuration.isIgnoredImport(iri)) {
+            return null;
+        }
+        LoadGroup group = loadCounts.get().group;
+        // insert temporary value - we do not know the actual ID yet
+        PendingLoad claim = new PendingLoad(group == null ? new LoadGroup() : group);
+        Object existing;
+        while ((existing = importedIRIs.putIfAbsent(iri, claim)) != null) {
+            if (!(existing instanceof PendingLoad)) {
+                return null;
+            }
+            PendingLoad other = (PendingLoad) existing;
+            try {
+                if (other.group == claim.group || !await(other, claim.group)) {
+                    return null;
+                }
+            } catch (OWLOntologyCreationException e) {
+                throw new UnloadableImportException(e, declaration);
+            }
+            // the claim has been replaced by the ontology id, or released if the load failed
+        }
+        return claim;
+    }
+
+    private void loadImport(OWLImportsDeclaration declaration,
+        OWLOntologyLoaderConfiguration configuration, PendingLoad claim) {
+        IRI iri = declaration.getIRI();
+        boolean failed = true;
         try {
-            IRI iri = declaration.getIRI();
-            if (!configuration.isIgnoredImport(iri) && !importedIRIs.containsKey(iri)) {
-                // insert temporary value - we do not know the actual ID yet
+            OWLOntology ont = loadImports(declaration, configuration);
+            if (ont != null) {
+                ontologyIDsByImportsDeclaration.put(declaration, ont.getOntologyID());
+                importedIRIs.put(iri, ont.getOntologyID());
+            } else {
+                // missing import, already reported: not requested again
                 importedIRIs.put(iri, new Object());
-                try {
-                    OWLOntology ont = loadImports(declaration, configuration);
-                    if (ont != null) {
-                        ontologyIDsByImportsDeclaration.put(declaration, ont.getOntologyID());
-                        importedIRIs.put(iri, ont.getOntologyID());
-                    }
-                } catch (OWLOntologyCreationException e) {
-                    // Wrap as UnloadableImportException and throw
-                    throw new UnloadableImportException(e, declaration);
-                }
             }
+            failed = false;
+        } catch (OWLOntologyCreationException e) {
+            // Wrap as UnloadableImportException and throw
+            throw new UnloadableImportException(e, declaration);
+        } finally {
+            if (failed) {
+                // other loads requesting the import try to load it themselves
+                importedIRIs.remove(iri, claim);
+            }
+            claim.done.complete(null);
+        }
+    }
+
+    @Nullable
+    private Throwable loadImport(OWLImportsDeclaration declaration,
+        OWLOntologyLoaderConfiguration configuration, PendingLoad claim, int loads, int imports,
+        @Nullable LoadGroup group) {
+        LoadCounts counts = loadCounts.get();
+        int previousLoads = counts.loads;
+        int previousImports = counts.imports;
+        LoadGroup previousGroup = counts.group;
+        counts.loads = loads;
+        counts.imports = imports;
+        counts.group = group;
+        try {
+            loadImport(declaration, configuration, claim);
+            return null;
+        } catch (RuntimeException | Error e) {
+            return e;
         } finally {
-            writeLock.unlock();
+            counts.loads = previousLoads;
+            counts.imports = previousImports;
+            counts.group = previousGroup;
         }
     }
 
@@ -1789,7 +2074,7 @@ public class OWLOntologyManagerImpl
     protected void fireBeginChanges(int size) {
         writeLock.lock();
         try {
-            if (!broadcastChanges.get()) {
+            if (isLoading()) {
                 return;
             }
             for (OWLOntologyChangeProgressListener listener : progressListeners) {
@@ -1808,7 +2093,7 @@ public class OWLOntologyManagerImpl
     protected void fireEndChanges() {
         writeLock.lock();
         try {
-            if (!broadcastChanges.get()) {
+            if (isLoading()) {
                 return;
             }
             for (OWLOntologyChangeProgressListener listener : progressListeners) {
@@ -1827,7 +2112,7 @@ public class OWLOntologyManagerImpl
     protected void fireChangeApplied(OWLOntologyChange change) {
         writeLock.lock();
         try {
-            if (!broadcastChanges.get()) {
+            if (isLoading()) {
                 return;
             }
             if (progressListeners.isEmpty()) {
@@ -1845,4 +2130,62 @@ public class OWLOntologyManagerImpl
             writeLock.unlock();
         }
     }
+
+    /**
+     * Loads in progress on a thread, and how many of them are loads of imports.
+     */
+    private static class LoadCounts {
+
+        int loads = 0;
+        int imports = 0;
+        // load the thread is working for, and document being parsed
+        @Nullable
+        LoadGroup group;
+        @Nullable
+        PendingLoad load;
+    }
+
+    /**
+     * Load started by a call to one of the load methods, together with the loads of the imports it
+     * requests, on whichever threads they run.
+     */
+    private static class LoadGroup {
+
+        // loads that threads working for this load are waiting for; guarded by LoadGroup.class
+        final List<LoadGroup> waitingFor = new ArrayList<>();
+
+        /**
+         * @param group load
+         * @return true if this load is, or waits directly or indirectly for, the load
+         */
+        boolean waitsFor(LoadGroup group) {
+            Set<LoadGroup> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<LoadGroup> toVisit = new ArrayList<>();
+            toVisit.add(this);
+            while (!toVisit.isEmpty()) {
+                LoadGroup g = toVisit.remove(toVisit.size() - 1);
+                if (g == group) {
+                    return true;
+                }
+                if (visited.add(g)) {
+                    toVisit.addAll(g.waitingFor);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Load of an ontology IRI, an import or a document, by a load in progress.
+     */
+    private static class PendingLoad {
+
+        final LoadGroup group;
+        // completed when the load has either published its ontology or failed
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingLoad(LoadGroup group) {
+            this.group = group;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.Arrays;
+
+import com.carrotsearch.hppcrt.maps.ObjectIntHashMap;
+
+/**
+ * Dictionary assigning dense integer ids to objects. Ids are reference counted: an object keeps
+ * its id while it has been acquired more times than it has been released, and ids of released
+ * objects are reused.
+ *
+ * @param <T> type of the objects
+ * @since 5.1.8
+ */
+class ObjectIdDictionary<T> {
+
+    private static final int NO_ID = -1;
+    private final ObjectIntHashMap<T> ids = new ObjectIntHashMap<>();
+    private Object[] objects = new Object[64];
+    private int[] references = new int[64];
+    private int[] free = new int[16];
+    private int freeCount = 0;
+    private int next = 0;
+
+    ObjectIdDictionary() {
+        ids.setDefaultValue(NO_ID);
+    }
+
+    /**
+     * @param t object to look up
+     * @return id of the object, or -1 if the object has no id
+     */
+    synchronized int find(T t) {
+        return ids.get(t);
+    }
+
+    /**
+     * @param t object to acquire
+     * @return id of the object; the object reference count is incremented
+     */
+    synchronized int acquire(T t) {
+        int id = ids.get(t);
+        if (id == NO_ID) {
+            id = freeCount > 0 ? free[--freeCount] : next++;
+            if (id == objects.length) {
+                objects = Arrays.copyOf(objects, id * 2);
+                references = Arrays.copyOf(references, id * 2);
+            }
+            objects[id] = t;
+            ids.put(t, id);
+        }
+        references[id]++;
+        return id;
+    }
+
+    /**
+     * @param id id to look up
+     * @return object with the id
+     */
+    @SuppressWarnings("unchecked")
+    synchronized T get(int id) {
+        return (T) objects[id];
+    }
+
+    /**
+     * Decrements the reference count for the object with the specified id; the id is freed when no
+     * references are left.
+     *
+     * @param id id to release
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void release(int id) {
+        if (--references[id] > 0) {
+            return;
+        }
+        ids.remove((T) objects[id]);
+        objects[id] = null;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = id;
+    }
+
+    /**
+     * @return number of objects with an id
+     */
+    synchronized int size() {
+        return ids.size();
+    }
+}
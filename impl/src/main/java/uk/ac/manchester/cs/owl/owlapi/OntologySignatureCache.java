@@ -0,0 +1,438 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.comparator;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.sorted;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.util.OWLObjectSortKeys;
+
+/**
+ * Signature cache for a single ontology. The sorted lists of entities and anonymous individuals
+ * referenced by the ontology are computed on first use and then kept up to date as axioms are
+ * added and removed, rather than being recomputed after each change. The total number of cached
+ * elements is bounded; when a list does not fit, the least recently used lists are evicted, and a
+ * list larger than the bound is not cached but loaded on each access, without locking. Membership
+ * checks use the ontology indexes and do not need the lists. Hit, miss and eviction counts are
+ * kept for monitoring.<br>
+ * Reads do not lock unless a list has to be loaded or has pending changes; updates must be
+ * notified after the ontology internals have been changed. Lists are only loaded or merged by
+ * readers holding the ontology lock, never by {@link OptimisticReads optimistic readers}.
+ *
+ * @since 5.1.8
+ */
+public class OntologySignatureCache {
+
+    private final OWLImmutableOntologyImpl ontology;
+    private final long maximumSize;
+    private final Slot<OWLEntity> entities = new Slot<>(this::loadEntities);
+    private final Slot<OWLAnonymousIndividual> anonymousIndividuals =
+        new Slot<>(() -> keys(OWLAnonymousIndividual.class));
+    private final Slot<OWLClass> classes = new Slot<>(() -> keys(OWLClass.class));
+    private final Slot<OWLObjectProperty> objectProperties =
+        new Slot<>(() -> keys(OWLObjectProperty.class));
+    private final Slot<OWLDataProperty> dataProperties =
+        new Slot<>(() -> keys(OWLDataProperty.class));
+    private final Slot<OWLNamedIndividual> individuals =
+        new Slot<>(() -> keys(OWLNamedIndividual.class));
+    private final Slot<OWLDatatype> datatypes = new Slot<>(() -> keys(OWLDatatype.class));
+    private final Slot<OWLAnnotationProperty> annotationProperties =
+        new Slot<>(this::loadAnnotationProperties);
+    private final List<Slot<?>> slots = Collections.unmodifiableList(Arrays.asList(entities,
+        anonymousIndividuals, classes, objectProperties, dataProperties, individuals, datatypes,
+        annotationProperties));
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    // guarded by this
+    private long size = 0;
+    // approximate access clock for least recently used eviction; races only affect the order
+    private long clock = 0;
+
+    /**
+     * @param ontology ontology whose signature is cached
+     * @param maximumSize maximum number of elements to keep, across all cached lists
+     */
+    public OntologySignatureCache(OWLImmutableOntologyImpl ontology, long maximumSize) {
+        this.ontology = ontology;
+        this.maximumSize = maximumSize;
+    }
+
+    private Stream<OWLEntity> loadEntities() {
+        return Stream.of(keys(OWLClass.class), keys(OWLObjectProperty.class),
+            keys(OWLDataProperty.class), keys(OWLNamedIndividual.class), keys(OWLDatatype.class),
+            loadAnnotationProperties()).flatMap(x -> x);
+    }
+
+    private Stream<OWLAnnotationProperty> loadAnnotationProperties() {
+        return Stream.concat(keys(OWLAnnotationProperty.class), ontology.ints
+            .getOntologyAnnotations().flatMap(a -> a.annotationPropertiesInSignature()));
+    }
+
+    private <T extends OWLObject> Stream<T> keys(Class<T> type) {
+        return ontology.ints.get(type, OWLAxiom.class).get().keySet();
+    }
+
+    /**
+     * @return all entities in the signature, sorted
+     */
+    public List<OWLEntity> signature() {
+        return get(entities);
+    }
+
+    /**
+     * @return anonymous individuals referenced by axioms, sorted
+     */
+    public List<OWLAnonymousIndividual> anonymousIndividuals() {
+        return get(anonymousIndividuals);
+    }
+
+    /**
+     * @return classes in the signature, sorted
+     */
+    public List<OWLClass> classes() {
+        return get(classes);
+    }
+
+    /**
+     * @return object properties in the signature, sorted
+     */
+    public List<OWLObjectProperty> objectProperties() {
+        return get(objectProperties);
+    }
+
+    /**
+     * @return data properties in the signature, sorted
+     */
+    public List<OWLDataProperty> dataProperties() {
+        return get(dataProperties);
+    }
+
+    /**
+     * @return named individuals in the signature, sorted
+     */
+    public List<OWLNamedIndividual> individuals() {
+        return get(individuals);
+    }
+
+    /**
+     * @return datatypes in the signature, sorted
+     */
+    public List<OWLDatatype> datatypes() {
+        return get(datatypes);
+    }
+
+    /**
+     * @return annotation properties in the signature, including those used in ontology
+     *         annotations, sorted
+     */
+    public List<OWLAnnotationProperty> annotationProperties() {
+        return get(annotationProperties);
+    }
+
+    /**
+     * Looks up an entity in the indexes of the ontology rather than in the cached lists, so the
+     * lookup does not depend on the lists being cached.
+     *
+     * @param e entity to look up
+     * @return true if the entity is in the signature
+     */
+    public boolean contains(OWLEntity e) {
+        return ontology.ints.containsReference(e) || (e.isOWLAnnotationProperty()
+            && ontology.ints.getOntologyAnnotations()
+                .anyMatch(a -> a.containsEntityInSignature(e)));
+    }
+
+    private <T extends OWLObject> List<T> get(Slot<T> slot) {
+        slot.lastAccess = ++clock;
+        List<T> values = slot.values;
+        if (values != null && !slot.dirty) {
+            hits.increment();
+            return values;
+        }
+        // loading or merging must not overlap a write, or the list stored could miss a change
+        OptimisticReads.beforeFill();
+        if (slot.oversized) {
+            // too large to cache: load without locking, and without evicting other lists
+            misses.increment();
+            List<T> loaded = sorted(slot.loader.get().distinct());
+            if (loaded.size() <= maximumSize) {
+                synchronized (this) {
+                    if (slot.values == null) {
+                        store(slot, loaded);
+                    }
+                }
+            }
+            return loaded;
+        }
+        synchronized (this) {
+            values = slot.values;
+            if (values == null) {
+                misses.increment();
+                List<T> loaded = sorted(slot.loader.get().distinct());
+                store(slot, loaded);
+                return loaded;
+            }
+            hits.increment();
+            if (slot.dirty) {
+                List<T> merged = slot.merge();
+                size -= values.size();
+                store(slot, merged);
+                return merged;
+            }
+            return values;
+        }
+    }
+
+    private <T extends OWLObject> void store(Slot<T> slot, List<T> values) {
+        slot.reset();
+        slot.oversized = values.size() > maximumSize;
+        if (slot.oversized) {
+            // too large to cache, will be loaded again on next access
+            evictions.increment();
+            return;
+        }
+        while (size + values.size() > maximumSize) {
+            Slot<?> lru = null;
+            for (Slot<?> s : slots) {
+                if (s != slot && s.values != null
+                    && (lru == null || s.lastAccess < lru.lastAccess)) {
+                    lru = s;
+                }
+            }
+            if (lru == null) {
+                break;
+            }
+            evict(lru);
+        }
+        slot.values = values;
+        size += values.size();
+    }
+
+    private void evict(Slot<?> slot) {
+        drop(slot);
+        evictions.increment();
+    }
+
+    private void drop(Slot<?> slot) {
+        List<?> values = slot.values;
+        if (values != null) {
+            size -= values.size();
+        }
+        slot.reset();
+    }
+
+    /**
+     * Updates the cached lists after an axiom has been added to the ontology.
+     *
+     * @param axiom axiom added
+     */
+    public void axiomAdded(OWLAxiom axiom) {
+        update(axiom);
+    }
+
+    /**
+     * Updates the cached lists after an axiom has been removed from the ontology.
+     *
+     * @param axiom axiom removed
+     */
+    public void axiomRemoved(OWLAxiom axiom) {
+        update(axiom);
+    }
+
+    private synchronized void update(OWLAxiom axiom) {
+        if (slots.stream().allMatch(slot -> slot.values == null)) {
+            return;
+        }
+        updates.increment();
+        axiom.signature().forEach(this::update);
+        if (anonymousIndividuals.values != null) {
+            MapPointer<OWLAnonymousIndividual, OWLAxiom> references =
+                ontology.ints.get(OWLAnonymousIndividual.class, OWLAxiom.class).get();
+            axiom.anonymousIndividuals()
+                .forEach(i -> anonymousIndividuals.update(i, references.containsKey(i)));
+        }
+    }
+
+    private void update(OWLEntity e) {
+        Slot<? extends OWLEntity> slot = slotFor(e);
+        if (slot.values == null && entities.values == null) {
+            return;
+        }
+        boolean present = contains(e);
+        update(slot, e, present);
+        entities.update(e, present);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends OWLObject> void update(Slot<T> slot, OWLObject e,
+        boolean present) {
+        slot.update((T) e, present);
+    }
+
+    private Slot<? extends OWLEntity> slotFor(OWLEntity e) {
+        if (e.isOWLClass()) {
+            return classes;
+        }
+        if (e.isOWLObjectProperty()) {
+            return objectProperties;
+        }
+        if (e.isOWLDataProperty()) {
+            return dataProperties;
+        }
+        if (e.isOWLNamedIndividual()) {
+            return individuals;
+        }
+        if (e.isOWLDatatype()) {
+            return datatypes;
+        }
+        return annotationProperties;
+    }
+
+    /**
+     * Drops the cached annotation properties after the ontology annotations have changed.
+     */
+    public synchronized void ontologyAnnotationsChanged() {
+        drop(annotationProperties);
+        drop(entities);
+    }
+
+    /**
+     * Drops all cached lists.
+     */
+    public synchronized void clear() {
+        slots.forEach(Slot::reset);
+        size = 0;
+    }
+
+    /**
+     * @return number of reads served from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of reads that required a list to be loaded
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of lists dropped, or not stored, to stay within the maximum size
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of axiom changes applied incrementally to the cached lists
+     */
+    public long updateCount() {
+        return updates.sum();
+    }
+
+    /**
+     * @return number of elements currently cached, excluding pending changes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return maximum number of elements cached
+     */
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * A sorted list, with the changes not yet merged into it. The list itself is never modified
+     * once published, so streams over it are not affected by later changes.
+     */
+    private static class Slot<T extends OWLObject> {
+
+        final Supplier<Stream<T>> loader;
+        @Nullable
+        volatile List<T> values;
+        volatile boolean dirty = false;
+        volatile long lastAccess = 0;
+        // true if the list was too large to cache when last loaded
+        volatile boolean oversized = false;
+        // guarded by the cache
+        final Set<T> added = new TreeSet<>(comparator());
+        final Set<T> removed = new HashSet<>();
+
+        Slot(Supplier<Stream<T>> loader) {
+            this.loader = loader;
+        }
+
+        void update(T e, boolean present) {
+            List<T> list = values;
+            if (list == null) {
+                return;
+            }
+            if (present) {
+                if (!removed.remove(e) && Collections.binarySearch(list, e, comparator()) < 0) {
+                    added.add(e);
+                }
+            } else if (!added.remove(e) && Collections.binarySearch(list, e, comparator()) >= 0) {
+                removed.add(e);
+            }
+            dirty = !added.isEmpty() || !removed.isEmpty();
+        }
+
+        List<T> merge() {
+            List<T> list = values;
+            assert list != null;
+            List<T> merged = new ArrayList<>(list.size() + added.size() - removed.size());
+            Iterator<T> toAdd = added.iterator();
+            T next = toAdd.hasNext() ? toAdd.next() : null;
+            for (T t : list) {
+                while (next != null && OWLObjectSortKeys.compare(next, t) < 0) {
+                    merged.add(next);
+                    next = toAdd.hasNext() ? toAdd.next() : null;
+                }
+                if (!removed.contains(t)) {
+                    merged.add(t);
+                }
+            }
+            while (next != null) {
+                merged.add(next);
+                next = toAdd.hasNext() ? toAdd.next() : null;
+            }
+            return merged;
+        }
+
+        void reset() {
+            values = null;
+            added.clear();
+            removed.clear();
+            dirty = false;
+        }
+    }
+}
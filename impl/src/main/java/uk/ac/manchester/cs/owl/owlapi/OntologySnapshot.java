@@ -0,0 +1,118 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Immutable view of an ontology that shares the internals of the ontology it was taken from. The
+ * imports of a snapshot are snapshots of the imported ontologies, taken at the same time, rather
+ * than the ontologies the manager holds; the manager caches imports closures by ontology id, so
+ * resolving them through the manager would return the live ontologies.
+ *
+ * @since 5.1.8
+ */
+class OntologySnapshot extends OWLImmutableOntologyImpl {
+
+    private final List<OWLOntology> directImports = new ArrayList<>();
+    // false until the imports have been replaced with snapshots
+    private boolean importsResolved = false;
+
+    /**
+     * @param manager ontology manager
+     * @param ontologyID ontology id
+     * @param ints internals shared with the ontology the snapshot is taken from
+     */
+    OntologySnapshot(OWLOntologyManager manager, OWLOntologyID ontologyID, Internals ints) {
+        super(manager, ontologyID, ints);
+    }
+
+    /**
+     * Replaces the imports of a snapshot with snapshots of the imported ontologies. Ontologies that
+     * do not support snapshots are used as they are.
+     *
+     * @param snapshot snapshot of the contents of the root ontology
+     * @return the snapshot, with its imports resolved
+     */
+    static OWLOntology withImports(OWLOntology snapshot) {
+        return resolve(snapshot, new HashMap<>());
+    }
+
+    private static OWLOntology resolve(OWLOntology o, Map<OWLOntologyID, OWLOntology> taken) {
+        taken.put(o.getOntologyID(), o);
+        if (!(o instanceof OntologySnapshot)) {
+            return o;
+        }
+        OntologySnapshot snapshot = (OntologySnapshot) o;
+        snapshot.importsResolved = true;
+        OWLOntologyManager m = snapshot.getOWLOntologyManager();
+        for (OWLImportsDeclaration d : asList(snapshot.importsDeclarations())) {
+            OWLOntology live = m.getImportedOntology(d);
+            if (live != null) {
+                // ids are unique in a manager; matching on ids also closes import cycles
+                OWLOntology imported = taken.get(live.getOntologyID());
+                if (imported == null) {
+                    imported = resolve(live instanceof HasSnapshot
+                        ? ((HasSnapshot) live).contentSnapshot() : live, taken);
+                }
+                snapshot.directImports.add(imported);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Stream<OWLOntology> directImports() {
+        if (!importsResolved) {
+            return super.directImports();
+        }
+        return directImports.stream();
+    }
+
+    @Override
+    public Stream<OWLOntology> imports() {
+        if (!importsResolved) {
+            return super.imports();
+        }
+        return importsClosure().filter(o -> o != this);
+    }
+
+    @Override
+    public Stream<OWLOntology> importsClosure() {
+        if (!importsResolved) {
+            return super.importsClosure();
+        }
+        Set<OWLOntology> closure = new TreeSet<>();
+        add(this, closure);
+        return closure.stream();
+    }
+
+    private static void add(OWLOntology o, Set<OWLOntology> closure) {
+        if (closure.add(o)) {
+            o.directImports().forEach(i -> add(i, closure));
+        }
+    }
+}
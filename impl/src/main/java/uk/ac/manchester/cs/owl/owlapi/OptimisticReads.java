@@ -0,0 +1,62 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.function.Supplier;
+
+/**
+ * Tracks reads performed without holding the ontology lock. Such reads can overlap a write, so
+ * they must not fill the caches and lazy indexes of the ontology: what they would store could
+ * miss a change that the writer has already notified. A lock free read that finds a cache or index
+ * not yet built abandons the attempt with {@link Abandoned}, and the caller repeats the read under
+ * the read lock.
+ *
+ * @since 5.1.8
+ */
+public final class OptimisticReads {
+
+    private static final ThreadLocal<boolean[]> ACTIVE =
+        ThreadLocal.withInitial(() -> new boolean[1]);
+    private static final Abandoned ABANDONED = new Abandoned();
+
+    private OptimisticReads() {}
+
+    /**
+     * Runs a read without the ontology lock.
+     *
+     * @param read read to perform
+     * @param <T> result type
+     * @return the result of the read
+     * @throws Abandoned if the read needed to fill a cache or index
+     */
+    public static <T> T attempt(Supplier<T> read) {
+        boolean[] active = ACTIVE.get();
+        boolean previous = active[0];
+        active[0] = true;
+        try {
+            return read.get();
+        } finally {
+            active[0] = previous;
+        }
+    }
+
+    /**
+     * Called before a cache or index is filled.
+     *
+     * @throws Abandoned if the current thread is reading without the ontology lock
+     */
+    static void beforeFill() {
+        if (ACTIVE.get()[0]) {
+            throw ABANDONED;
+        }
+    }
+
+    /**
+     * Signals that a lock free read has been abandoned. Thrown without a stack trace, since it
+     * only directs the caller to the read lock.
+     */
+    public static final class Abandoned extends RuntimeException {
+
+        Abandoned() {
+            super("Read needs the ontology lock", null, false, false);
+        }
+    }
+}
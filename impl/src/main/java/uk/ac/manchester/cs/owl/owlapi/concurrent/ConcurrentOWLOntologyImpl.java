@@ -112,7 +112,13 @@ import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.model.parameters.Navigation;
 import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
 
+import uk.ac.manchester.cs.owl.owlapi.HasLazyIndexes;
+import uk.ac.manchester.cs.owl.owlapi.HasSignatureCache;
+import uk.ac.manchester.cs.owl.owlapi.HasSnapshot;
 import uk.ac.manchester.cs.owl.owlapi.HasTrimToSize;
+import uk.ac.manchester.cs.owl.owlapi.MapPointer;
+import uk.ac.manchester.cs.owl.owlapi.OntologySignatureCache;
+import uk.ac.manchester.cs.owl.owlapi.OptimisticReads;
 
 /**
  * Matthew Horridge
@@ -124,7 +130,8 @@ import uk.ac.manchester.cs.owl.owlapi.HasTrimToSize;
  * Matthew Horridge Stanford Center for Biomedical Informatics Research 03/04/15
  */
 @SuppressWarnings({"deprecation"})
-public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToSize {
+public class ConcurrentOWLOntologyImpl
+    implements OWLMutableOntology, HasTrimToSize, HasSnapshot, HasSignatureCache, HasLazyIndexes {
 
     private final OWLOntology delegate;
     private ReadWriteLock lock;
@@ -175,7 +182,28 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
     }
 
     private <T> T withReadLock(Supplier<T> t) {
-        Lock readLock = lock.readLock();
+        // with an optimistic lock, reads are attempted without locking and repeated under the read
+        // lock if a write happened concurrently, or if they need to fill a cache or index
+        ReadWriteLock l = lock;
+        if (l instanceof OptimisticReadWriteLock) {
+            OptimisticReadWriteLock optimistic = (OptimisticReadWriteLock) l;
+            long stamp = optimistic.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    T result = OptimisticReads.attempt(t);
+                    if (optimistic.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException | Error e) {
+                    // errors are genuine only if no write happened while reading; a torn read can
+                    // fail in any way, including with an error
+                    if (!(e instanceof OptimisticReads.Abandoned) && optimistic.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        Lock readLock = l.readLock();
         readLock.lock();
         try {
             return t.get();
@@ -185,6 +213,9 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
     }
 
     private boolean withBooleanReadLock(BooleanSupplier t) {
+        if (lock instanceof OptimisticReadWriteLock) {
+            return withReadLock(() -> Boolean.valueOf(t.getAsBoolean())).booleanValue();
+        }
         Lock readLock = lock.readLock();
         readLock.lock();
         try {
@@ -195,6 +226,9 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
     }
 
     private int withIntReadLock(IntSupplier t) {
+        if (lock instanceof OptimisticReadWriteLock) {
+            return withReadLock(() -> Integer.valueOf(t.getAsInt())).intValue();
+        }
         Lock readLock = lock.readLock();
         readLock.lock();
         try {
@@ -229,6 +263,59 @@ public class ConcurrentOWLOntologyImpl implements OWLMutableOntology, HasTrimToS
         }
     }
 
+    /**
+     * {@inheritDoc} The snapshot is created under the write lock, which is held only briefly;
+     * snapshots can be read without any locking.
+     *
+     * @throws UnsupportedOperationException if the delegate ontology does not support snapshots
+     */
+    @Override
+    public OWLOntology snapshot() {
+        if (!(delegate instanceof HasSnapshot)) {
+            throw new UnsupportedOperationException(
+                "Delegate ontology does not support snapshots: " + delegate.getClass());
+        }
+        return withWriteLock(((HasSnapshot) delegate)::snapshot);
+    }
+
+    /**
+     * {@inheritDoc} The snapshot is created under the write lock.
+     *
+     * @throws UnsupportedOperationException if the delegate ontology does not support snapshots
+     */
+    @Override
+    public OWLOntology contentSnapshot() {
+        if (!(delegate instanceof HasSnapshot)) {
+            throw new UnsupportedOperationException(
+                "Delegate ontology does not support snapshots: " + delegate.getClass());
+        }
+        return withWriteLock(((HasSnapshot) delegate)::contentSnapshot);
+    }
+
+    /**
+     * {@inheritDoc} The cache is thread safe, so no lock is taken.
+     */
+    @Override
+    public OntologySignatureCache getSignatureCache() {
+        if (!(delegate instanceof HasSignatureCache)) {
+            throw new UnsupportedOperationException(
+                "Delegate ontology does not have a signature cache: " + delegate.getClass());
+        }
+        return ((HasSignatureCache) delegate).getSignatureCache();
+    }
+
+    /**
+     * {@inheritDoc} The indexes synchronize their own access, so no lock is taken.
+     */
+    @Override
+    public List<MapPointer<?, ?>> getLazyIndexes() {
+        if (!(delegate instanceof HasLazyIndexes)) {
+            throw new UnsupportedOperationException(
+                "Delegate ontology does not have lazy indexes: " + delegate.getClass());
+        }
+        return ((HasLazyIndexes) delegate).getLazyIndexes();
+    }
+
     @Override
     public void accept(OWLNamedObjectVisitor owlNamedObjectVisitor) {
         delegate.accept(owlNamedObjectVisitor);
@@ -0,0 +1,111 @@
+package uk.ac.manchester.cs.owl.owlapi.concurrent;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A reentrant read write lock that also supports optimistic reads. Writers are serialised by a
+ * {@link ReentrantReadWriteLock}, and the outermost write lock acquisition of each writer also
+ * holds the write lock of a {@link StampedLock}; readers can obtain a stamp with
+ * {@link #tryOptimisticRead()}, perform their reads without acquiring any lock, and then check
+ * with {@link #validate(long)} that no writer was active in the meantime. Optimistic readers do
+ * not acquire anything, so they do not contend with each other on the lock; they must not fill
+ * caches or build indexes either, since what they store might miss a concurrent change. Readers
+ * that fail validation, or that need to fill a cache, should repeat the read under
+ * {@link #readLock()}, which keeps the usual reentrancy guarantees.
+ *
+ * @since 5.1.8
+ */
+public class OptimisticReadWriteLock implements ReadWriteLock, Serializable {
+
+    private final ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
+    private final StampedLock versions = new StampedLock();
+    private final Lock writeLock = new VersionedWriteLock();
+
+    @Override
+    public Lock readLock() {
+        return delegate.readLock();
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * @return a stamp to validate after reading, or zero if a writer is active
+     */
+    public long tryOptimisticRead() {
+        return versions.tryOptimisticRead();
+    }
+
+    /**
+     * @param stamp stamp returned by {@link #tryOptimisticRead()}
+     * @return true if no writer has been active since the stamp was issued
+     */
+    public boolean validate(long stamp) {
+        return stamp != 0L && versions.validate(stamp);
+    }
+
+    private class VersionedWriteLock implements Lock, Serializable {
+
+        // only accessed by the thread holding the delegate write lock
+        private long stamp;
+
+        private void acquired() {
+            if (delegate.getWriteHoldCount() == 1) {
+                stamp = versions.writeLock();
+            }
+        }
+
+        @Override
+        public void lock() {
+            delegate.writeLock().lock();
+            acquired();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            delegate.writeLock().lockInterruptibly();
+            acquired();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (delegate.writeLock().tryLock()) {
+                acquired();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (delegate.writeLock().tryLock(time, unit)) {
+                acquired();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            if (delegate.getWriteHoldCount() == 1) {
+                versions.unlockWrite(stamp);
+            }
+            delegate.writeLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            // waiting on a condition would release the delegate lock but not the stamped one, and
+            // the next writer would then block forever
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+    }
+}
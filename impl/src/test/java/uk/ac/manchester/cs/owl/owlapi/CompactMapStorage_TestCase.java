@@ -0,0 +1,62 @@
+package uk.ac.manchester.cs.owl.owlapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+@SuppressWarnings("javadoc")
+public class CompactMapStorage_TestCase {
+
+    private static final String NS = "urn:test:storage#";
+    private final OWLDataFactory df = new OWLDataFactoryImpl();
+    private final ObjectIdDictionary<Object> keys = new ObjectIdDictionary<>();
+    private final ObjectIdDictionary<OWLAxiom> values = new ObjectIdDictionary<>();
+
+    private OWLClass c(String name) {
+        return df.getOWLClass(NS, name);
+    }
+
+    private OWLAxiom sub(OWLClass sub, OWLClass sup) {
+        return df.getOWLSubClassOfAxiom(sub, sup);
+    }
+
+    @Test
+    public void shouldReleaseIdsOnDiscard() {
+        // entries kept by another storage sharing the dictionaries
+        CompactMapStorage<OWLClass, OWLAxiom> other = new CompactMapStorage<>(keys, values);
+        OWLAxiom shared = sub(c("A"), c("Many"));
+        other.store(c("A"), shared);
+        other.store(c("Many"), shared);
+        int keysBaseline = keys.size();
+        int valuesBaseline = values.size();
+        CompactMapStorage<OWLClass, OWLAxiom> storage = new CompactMapStorage<>(keys, values);
+        // a single valued key, a key with a few values and a key with more values than the
+        // storage keeps in arrays
+        storage.store(c("A"), shared);
+        storage.store(c("Few"), sub(c("Few"), c("B")));
+        storage.store(c("Few"), sub(c("Few"), c("C")));
+        for (int i = 0; i < 100; i++) {
+            OWLAxiom ax = sub(c("X" + i), c("Many"));
+            storage.store(c("Many"), ax);
+            storage.store(c("X" + i), ax);
+        }
+        storage.store(c("Many"), shared);
+        assertTrue(keys.size() > keysBaseline);
+        assertTrue(values.size() > valuesBaseline);
+        storage.discard();
+        assertEquals(keysBaseline, keys.size());
+        assertEquals(valuesBaseline, values.size());
+        assertTrue(other.containsEntry(c("A"), shared));
+        assertTrue(other.containsEntry(c("Many"), shared));
+        // the storage can be filled again after being discarded
+        storage.store(c("Few"), sub(c("Few"), c("B")));
+        assertEquals(1, storage.count(c("Few")));
+        storage.unstore(c("Few"), sub(c("Few"), c("B")));
+        assertEquals(keysBaseline, keys.size());
+        assertEquals(valuesBaseline, values.size());
+    }
+}
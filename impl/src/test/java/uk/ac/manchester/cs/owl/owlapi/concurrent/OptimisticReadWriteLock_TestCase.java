@@ -0,0 +1,160 @@
+package uk.ac.manchester.cs.owl.owlapi.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLMutableOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyFactoryImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyManagerImpl;
+
+@SuppressWarnings({"javadoc", "null"})
+public class OptimisticReadWriteLock_TestCase {
+
+    private final OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+
+    @Test
+    public void shouldValidateWithoutWriters() {
+        long stamp = lock.tryOptimisticRead();
+        assertTrue(lock.validate(stamp));
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        assertTrue(lock.validate(stamp));
+    }
+
+    @Test
+    public void shouldInvalidateAfterWrite() {
+        long stamp = lock.tryOptimisticRead();
+        lock.writeLock().lock();
+        lock.writeLock().unlock();
+        assertFalse(lock.validate(stamp));
+    }
+
+    @Test
+    public void shouldNotIssueStampsWhileWriting() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            // reentrant acquisition, as done by the manager and then by its ontologies
+            writeLock.lock();
+            writeLock.unlock();
+            assertEquals(0L, lock.tryOptimisticRead());
+            assertFalse(lock.validate(lock.tryOptimisticRead()));
+            // the writing thread can still read
+            lock.readLock().lock();
+            lock.readLock().unlock();
+        } finally {
+            writeLock.unlock();
+        }
+        assertTrue(lock.validate(lock.tryOptimisticRead()));
+    }
+
+    @Test
+    public void shouldExcludeOtherWriters() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            lock.writeLock().lock();
+            Future<Boolean> other =
+                executor.submit(() -> Boolean.valueOf(lock.writeLock().tryLock()));
+            assertFalse(other.get(10, TimeUnit.SECONDS).booleanValue());
+            lock.writeLock().unlock();
+            other = executor.submit(() -> {
+                boolean acquired = lock.writeLock().tryLock();
+                if (acquired) {
+                    lock.writeLock().unlock();
+                }
+                return Boolean.valueOf(acquired);
+            });
+            assertTrue(other.get(10, TimeUnit.SECONDS).booleanValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReadWithoutLockingInConcurrentOntology() {
+        OWLMutableOntology delegate = mock(OWLMutableOntology.class);
+        when(Integer.valueOf(delegate.getAxiomCount())).thenReturn(Integer.valueOf(3));
+        OptimisticReadWriteLock optimistic = mock(OptimisticReadWriteLock.class);
+        when(Long.valueOf(optimistic.tryOptimisticRead())).thenReturn(Long.valueOf(1L));
+        when(Boolean.valueOf(optimistic.validate(1L))).thenReturn(Boolean.TRUE);
+        ConcurrentOWLOntologyImpl ontology = new ConcurrentOWLOntologyImpl(delegate, optimistic);
+        assertEquals(3, ontology.getAxiomCount());
+        verify(optimistic, never()).readLock();
+    }
+
+    @Test
+    public void shouldFallBackToReadLockIfValidationFails() {
+        OWLMutableOntology delegate = mock(OWLMutableOntology.class);
+        when(Integer.valueOf(delegate.getAxiomCount())).thenReturn(Integer.valueOf(3));
+        OptimisticReadWriteLock optimistic = mock(OptimisticReadWriteLock.class);
+        Lock readLock = mock(Lock.class);
+        when(optimistic.readLock()).thenReturn(readLock);
+        when(Long.valueOf(optimistic.tryOptimisticRead())).thenReturn(Long.valueOf(1L));
+        when(Boolean.valueOf(optimistic.validate(1L))).thenReturn(Boolean.FALSE);
+        ConcurrentOWLOntologyImpl ontology = new ConcurrentOWLOntologyImpl(delegate, optimistic);
+        assertEquals(3, ontology.getAxiomCount());
+        verify(readLock).lock();
+        verify(readLock).unlock();
+    }
+
+    @Test
+    public void shouldFallBackToReadLockIfTornReadFailsWithError() {
+        OWLMutableOntology delegate = mock(OWLMutableOntology.class);
+        when(Integer.valueOf(delegate.getAxiomCount())).thenThrow(new StackOverflowError())
+            .thenReturn(Integer.valueOf(3));
+        OptimisticReadWriteLock optimistic = mock(OptimisticReadWriteLock.class);
+        Lock readLock = mock(Lock.class);
+        when(optimistic.readLock()).thenReturn(readLock);
+        when(Long.valueOf(optimistic.tryOptimisticRead())).thenReturn(Long.valueOf(1L));
+        when(Boolean.valueOf(optimistic.validate(1L))).thenReturn(Boolean.FALSE);
+        ConcurrentOWLOntologyImpl ontology = new ConcurrentOWLOntologyImpl(delegate, optimistic);
+        assertEquals(3, ontology.getAxiomCount());
+        verify(readLock).lock();
+    }
+
+    @Test
+    public void shouldFillSignatureCacheOnlyUnderReadLock() throws Exception {
+        OWLOntologyManager manager =
+            new OWLOntologyManagerImpl(new OWLDataFactoryImpl(), new ReentrantReadWriteLock());
+        manager.getOntologyFactories()
+            .set(new OWLOntologyFactoryImpl((o, id) -> new OWLOntologyImpl(o, id)));
+        OWLMutableOntology delegate = (OWLMutableOntology) manager.createOntology();
+        OWLClass c = manager.getOWLDataFactory().getOWLClass(IRI.create("urn:test:", "C"));
+        delegate.add(manager.getOWLDataFactory().getOWLDeclarationAxiom(c));
+        OptimisticReadWriteLock optimistic = mock(OptimisticReadWriteLock.class);
+        Lock readLock = mock(Lock.class);
+        when(optimistic.readLock()).thenReturn(readLock);
+        when(Long.valueOf(optimistic.tryOptimisticRead())).thenReturn(Long.valueOf(1L));
+        when(Boolean.valueOf(optimistic.validate(1L))).thenReturn(Boolean.TRUE);
+        ConcurrentOWLOntologyImpl ontology = new ConcurrentOWLOntologyImpl(delegate, optimistic);
+        // the cache is cold: the optimistic read must not load it, and is repeated under the lock
+        assertEquals(Collections.singletonList(c), asList(ontology.classesInSignature()));
+        verify(readLock).lock();
+        verify(readLock).unlock();
+        // the cache is now warm, and optimistic reads can use it
+        assertEquals(Collections.singletonList(c), asList(ontology.classesInSignature()));
+        verify(readLock).lock();
+        assertEquals(1L, ontology.getSignatureCache().hitCount());
+    }
+}
@@ -9,10 +9,17 @@ import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.collect.Sets;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,7 +31,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
 
@@ -40,6 +49,7 @@ import org.obolibrary.oboformat.parser.OBOFormatException;
 import org.obolibrary.oboformat.parser.OBOFormatParser;
 import org.obolibrary.oboformat.parser.OBOFormatParserException;
 import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
@@ -53,8 +63,10 @@ import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
 import org.semanticweb.owlapi.model.OWLDocumentFormat;
 import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLImportsDeclaration;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLNamedObject;
@@ -72,6 +84,7 @@ import org.semanticweb.owlapi.model.OWLProperty;
 import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.model.SetOntologyID;
 import org.semanticweb.owlapi.util.CollectionFactory;
+import org.semanticweb.owlapi.util.ParallelTasks;
 import org.semanticweb.owlapi.vocab.Namespaces;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
@@ -96,6 +109,8 @@ public class OWLAPIObo2Owl {
      * The log.
      */
     private static final Logger LOG = LoggerFactory.getLogger(OWLAPIObo2Owl.class);
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_FRAMES_PER_CHUNK = 64;
     private static final Set<String> SKIPPED_QUALIFIERS = Sets
         .newHashSet("gci_relation", "gci_filler", "cardinality",
             "minCardinality", "maxCardinality", "all_some", "all_only");
@@ -135,6 +150,18 @@ public class OWLAPIObo2Owl {
      * The obodoc.
      */
     protected OBODoc obodoc;
+    private int threads = 1;
+    /**
+     * Receiver for translated axioms, when they are not added to the ontology: the buffer of a
+     * worker, or the consumer of a streaming conversion.
+     */
+    @Nullable
+    private Consumer<OWLAxiom> sink;
+    /**
+     * Header and typedef axioms of a streaming conversion, until the term frames are translated.
+     */
+    @Nullable
+    private List<OWLAxiom> headerAxioms;
     /**
      * Cache for the id to IRI conversion. This cannot be replaced with a
      * Caffeine cache - the loading of keys is recursive, and a bug in
@@ -165,6 +192,27 @@ public class OWLAPIObo2Owl {
         init(manager);
     }
 
+    /**
+     * Worker translating a subset of the term frames. The maps filled by the header and typedef
+     * translation are only read from here on, and are shared; the annotation properties declared
+     * so far are copied, so a declaration might be translated by more than one worker.
+     *
+     * @param parent translator for the whole document
+     * @param buffer list to add the translated axioms to
+     */
+    private OWLAPIObo2Owl(OWLAPIObo2Owl parent, List<OWLAxiom> buffer) {
+        idSpaceMap = parent.idSpaceMap;
+        apToDeclare = new HashSet<>(parent.apToDeclare);
+        clsToDeclare = parent.clsToDeclare;
+        typedefToAnnotationProperty = parent.typedefToAnnotationProperty;
+        defaultIDSpace = parent.defaultIDSpace;
+        manager = parent.manager;
+        fac = parent.fac;
+        obodoc = parent.obodoc;
+        owlOntology = parent.owlOntology;
+        sink = buffer::add;
+    }
+
     /**
      * Static convenience method which: (1) creates an Obo2Owl bridge object (2)
      * parses an obo file from a URL (3) converts that to an OWL ontology (4)
@@ -219,6 +267,44 @@ public class OWLAPIObo2Owl {
         manager.saveOntology(ontology, format, outputStream);
     }
 
+    /**
+     * Converts an obo file from a URL to functional syntax without building either an OBODoc or
+     * an ontology with all of its axioms: the header is translated first and written out, then
+     * each term frame is translated and written as soon as it is parsed. Axioms are written in
+     * document order rather than sorted as {@link #convertURL(String, String, OWLOntologyManager)}
+     * would, and class declarations can be written more than once.<br>
+     * Frames with the same id are not merged, so the result can differ from that of
+     * {@link #convertURL(String, String, OWLOntologyManager)} for documents with duplicate frames:
+     * for example, {@code intersection_of} tags split across two frames for the same term are
+     * translated as two equivalent classes axioms, one for each frame, rather than one for all the
+     * tags.
+     *
+     * @param iri the iri
+     * @param outFile path of the file to write
+     * @param manager manager to use
+     * @throws IOException Signals that an I/O exception has occurred.
+     * @throws OWLOntologyCreationException the oWL ontology creation exception
+     * @throws OBOFormatParserException the oBO format parser exception
+     * @since 5.1.8
+     */
+    public static void convertURLStreaming(String iri, String outFile,
+        OWLOntologyManager manager) throws IOException, OWLOntologyCreationException {
+        OWLAPIObo2Owl bridge = new OWLAPIObo2Owl(manager);
+        URL source = new URL(iri);
+        OWLOntology ontology = manager.createOntology();
+        try (Writer w = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(outFile), StandardCharsets.UTF_8))) {
+            bridge.convertHeader(source, ontology);
+            FunctionalSyntaxObjectRenderer renderer =
+                new FunctionalSyntaxObjectRenderer(ontology, w);
+            renderer.writeOntologyHeader(ontology);
+            bridge.convertTermFrames(source, renderer::writeAxiom);
+            renderer.writeOntologyEnd();
+        } finally {
+            manager.removeOntology(ontology);
+        }
+    }
+
     /**
      * Table 5.8 Translation of Annotation Vocabulary.
      *
@@ -376,6 +462,28 @@ public class OWLAPIObo2Owl {
         typedefToAnnotationProperty.clear();
     }
 
+    /**
+     * @return number of threads used to translate term frames
+     * @since 5.1.8
+     */
+    public int getParallelThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of worker threads used to translate term frames. With more than one thread,
+     * the header and the typedef frames are translated first, then the term frames are translated
+     * concurrently and their axioms are added to the ontology in a single call. Subclasses always
+     * translate sequentially: each worker is a plain instance of this class, so overridden
+     * methods would be skipped.
+     *
+     * @param threads number of threads; values lower than 2 disable parallel translation
+     * @since 5.1.8
+     */
+    public void setParallelThreads(int threads) {
+        this.threads = threads;
+    }
+
     /**
      * Gets the manager.
      *
@@ -477,6 +585,103 @@ public class OWLAPIObo2Owl {
         return tr(in);
     }
 
+    /**
+     * Converts a document without building an OBODoc for all of it, by reading it twice: see
+     * {@link #convertHeader(URL, OWLOntology)} and {@link #convertTermFrames(URL, Consumer)}.
+     *
+     * @param source location of the document
+     * @param in ontology receiving the ontology id, annotations and imports
+     * @param consumer consumer for the axioms
+     * @throws IOException if the document cannot be read
+     * @throws OBOFormatParserException parser exception
+     * @since 5.1.8
+     */
+    public void convertStreaming(URL source, OWLOntology in, Consumer<? super OWLAxiom> consumer)
+        throws IOException {
+        convertHeader(source, in);
+        convertTermFrames(source, consumer);
+    }
+
+    /**
+     * First step of a streaming conversion: reads the header and the typedef frames of a
+     * document, skipping the term frames, and translates them. The ontology id, the ontology
+     * annotations and the imports are set on the ontology; the axioms are passed to the consumer
+     * of {@link #convertTermFrames(URL, Consumer)}. Between the two steps, the ontology header is
+     * complete and can be written out.
+     *
+     * @param source location of the document
+     * @param in ontology receiving the ontology id, annotations and imports
+     * @throws IOException if the document cannot be read
+     * @throws OBOFormatParserException parser exception
+     * @since 5.1.8
+     */
+    public void convertHeader(URL source, OWLOntology in) throws IOException {
+        try (BufferedReader r = open(source)) {
+            obodoc = new OBOFormatParser().parseHeaderAndTypedefFrames(r);
+        }
+        init(in.getOWLOntologyManager());
+        List<OWLAxiom> axioms = new ArrayList<>();
+        sink = axioms::add;
+        try {
+            trImports(trHeaderAndTypedefFrames(in), in);
+        } finally {
+            sink = null;
+        }
+        headerAxioms = axioms;
+    }
+
+    /**
+     * Second step of a streaming conversion: reads the term frames of a document one at a time,
+     * translates each frame as soon as it is parsed and passes its axioms to the consumer; frames
+     * and axioms are not kept. Declarations of properties and individuals are passed once only;
+     * class declarations are not tracked, so that memory use does not grow with the number of
+     * terms, and are passed again for each frame declaring or referring to the class. Frames with
+     * the same id are translated separately rather than merged. The header and typedef axioms
+     * translated by {@link #convertHeader(URL, OWLOntology)} are passed first.
+     *
+     * @param source location of the document
+     * @param consumer consumer for the axioms
+     * @throws IOException if the document cannot be read
+     * @throws OBOFormatParserException parser exception
+     * @since 5.1.8
+     */
+    public void convertTermFrames(URL source, Consumer<? super OWLAxiom> consumer)
+        throws IOException {
+        List<OWLAxiom> axioms = verifyNotNull(headerAxioms,
+            "convertHeader() must be called before convertTermFrames()");
+        OWLObjectProperty vp = getViewProperty(getOwlOntology());
+        // declarations of properties and individuals, which are few; annotation property
+        // declarations are only added once already, see trTagToAnnotationProp()
+        Set<OWLAxiom> declarations = new HashSet<>();
+        sink = ax -> {
+            if (ax instanceof OWLDeclarationAxiom && isTracked((OWLDeclarationAxiom) ax)
+                && !declarations.add(ax)) {
+                return;
+            }
+            if (vp != null && ax instanceof OWLEquivalentClassesAxiom) {
+                consumer.accept(trView((OWLEquivalentClassesAxiom) ax, vp));
+            } else {
+                consumer.accept(ax);
+            }
+        };
+        try (BufferedReader r = open(source)) {
+            headerAxioms = null;
+            axioms.forEach(sink);
+            new OBOFormatParser().parseTermFrames(r, this::trTermFrame);
+        } finally {
+            sink = null;
+        }
+    }
+
+    private static boolean isTracked(OWLDeclarationAxiom ax) {
+        return !ax.getEntity().isOWLClass() && !ax.getEntity().isOWLAnnotationProperty();
+    }
+
+    private static BufferedReader open(URL source) throws IOException {
+        return new BufferedReader(
+            new InputStreamReader(source.openStream(), StandardCharsets.UTF_8));
+    }
+
     /**
      * Tr.
      *
@@ -484,6 +689,25 @@ public class OWLAPIObo2Owl {
      * @return the oWL ontology
      */
     protected OWLOntology tr(OWLOntology in) {
+        Frame hf = trHeaderAndTypedefFrames(in);
+        if (threads > 1 && getClass() == OWLAPIObo2Owl.class) {
+            trTermFramesInParallel(new ArrayList<>(obodoc.getTermFrames()));
+        } else {
+            obodoc.getTermFrames().forEach(this::trTermFrame);
+        }
+        // TODO - individuals
+        trImports(hf, in);
+        postProcess(in);
+        return in;
+    }
+
+    /**
+     * Sets the ontology id, then translates the header frame and the typedef frames.
+     *
+     * @param in ontology to translate to
+     * @return header frame
+     */
+    private Frame trHeaderAndTypedefFrames(OWLOntology in) {
         setOwlOntology(in);
         Frame hf = verifyNotNull(obodoc.getHeaderFrame());
         Clause ontClause = hf.getClause(OboFormatTag.TAG_ONTOLOGY);
@@ -529,19 +753,44 @@ public class OWLAPIObo2Owl {
         trHeaderFrame(hf);
         obodoc.getTypedefFrames().forEach(this::trTypedefToAnnotationProperty);
         obodoc.getTypedefFrames().forEach(this::trTypedefFrame);
-        obodoc.getTermFrames().forEach(this::trTermFrame);
-        // TODO - individuals
+        return hf;
+    }
+
+    private void trImports(Frame hf, OWLOntology in) {
+        List<OWLImportsDeclaration> imports = new ArrayList<>();
         for (Clause cl : hf.getClauses(OboFormatTag.TAG_IMPORT)) {
             String path = getURI(cl.getValue().toString());
             IRI importIRI = IRI.create(path);
-            OWLImportsDeclaration owlImportsDeclaration = fac.getOWLImportsDeclaration(importIRI);
-            manager.makeLoadImportRequest(owlImportsDeclaration,
-                new OWLOntologyLoaderConfiguration());
-            AddImport ai = new AddImport(in, owlImportsDeclaration);
-            manager.applyChange(ai);
+            imports.add(fac.getOWLImportsDeclaration(importIRI));
         }
-        postProcess(in);
-        return in;
+        OWLOntologyLoaderConfiguration config = new OWLOntologyLoaderConfiguration()
+            .setParallelImportThreads(
+                manager.getOntologyLoaderConfiguration().getParallelImportThreads());
+        manager.makeLoadImportRequests(imports, config);
+        imports.forEach(i -> manager.applyChange(new AddImport(in, i)));
+    }
+
+    private void trTermFramesInParallel(List<Frame> frames) {
+        int chunkCount = Math.min(threads * CHUNKS_PER_THREAD,
+            frames.size() / MIN_FRAMES_PER_CHUNK);
+        if (chunkCount < 2) {
+            frames.forEach(this::trTermFrame);
+            return;
+        }
+        List<Callable<List<OWLAxiom>>> chunks = new ArrayList<>(chunkCount);
+        int start = 0;
+        for (int i = 1; i <= chunkCount; i++) {
+            List<Frame> chunk = frames.subList(start, (int) ((long) frames.size() * i / chunkCount));
+            chunks.add(() -> {
+                List<OWLAxiom> axioms = new ArrayList<>();
+                chunk.forEach(new OWLAPIObo2Owl(this, axioms)::trTermFrame);
+                return axioms;
+            });
+            start += chunk.size();
+        }
+        List<OWLAxiom> axioms = new ArrayList<>();
+        ParallelTasks.invokeAll(threads, chunks, OWLRuntimeException::new).forEach(axioms::addAll);
+        addAll(axioms);
     }
 
     /**
@@ -551,40 +800,62 @@ public class OWLAPIObo2Owl {
      * @param ontology the ontology
      */
     protected void postProcess(OWLOntology ontology) {
-        OWLAnnotationProperty p = fac
-            .getOWLAnnotationProperty(Obo2OWLVocabulary.IRI_OIO_LogicalDefinitionViewRelation);
-        Optional<String> findAny = ontology.annotations().filter(a -> a.getProperty().equals(p))
-            .map(a -> a.getValue()
-                .asLiteral()).filter(Optional::isPresent).map(x -> x.get().getLiteral()).findAny();
-        if (!findAny.isPresent()) {
+        OWLObjectProperty vp = getViewProperty(ontology);
+        if (vp == null) {
             return;
         }
-        IRI pIRI = oboIdToIRI(findAny.get());
-        OWLObjectProperty vp = fac.getOWLObjectProperty(pIRI);
         Set<OWLAxiom> rmAxioms = new HashSet<>();
         Set<OWLAxiom> newAxioms = new HashSet<>();
         ontology.axioms(AxiomType.EQUIVALENT_CLASSES).forEach(eca -> {
-            AtomicInteger numNamed = new AtomicInteger();
-            Set<OWLClassExpression> xs = new HashSet<>();
-            eca.classExpressions().forEach(x -> {
-                if (x instanceof OWLClass) {
-                    xs.add(x);
-                    numNamed.incrementAndGet();
-                } else {
-                    // anonymous class expressions are 'prefixed' with view
-                    // property
-                    xs.add(fac.getOWLObjectSomeValuesFrom(vp, x));
-                }
-            });
-            if (numNamed.get() == 1) {
+            OWLAxiom ax = trView(eca, vp);
+            if (ax != eca) {
                 rmAxioms.add(eca);
-                newAxioms.add(fac.getOWLEquivalentClassesAxiom(xs));
+                newAxioms.add(ax);
             }
         });
         ontology.remove(rmAxioms);
         ontology.add(newAxioms);
     }
 
+    @Nullable
+    private OWLObjectProperty getViewProperty(OWLOntology ontology) {
+        OWLAnnotationProperty p = fac
+            .getOWLAnnotationProperty(Obo2OWLVocabulary.IRI_OIO_LogicalDefinitionViewRelation);
+        Optional<String> findAny = ontology.annotations().filter(a -> a.getProperty().equals(p))
+            .map(a -> a.getValue()
+                .asLiteral()).filter(Optional::isPresent).map(x -> x.get().getLiteral()).findAny();
+        if (!findAny.isPresent()) {
+            return null;
+        }
+        IRI pIRI = oboIdToIRI(findAny.get());
+        return fac.getOWLObjectProperty(pIRI);
+    }
+
+    /**
+     * @param eca equivalent classes axiom
+     * @param vp view property
+     * @return the axiom with its anonymous class expressions 'prefixed' with the view property, if
+     *         it contains exactly one named class; the axiom itself otherwise
+     */
+    private OWLAxiom trView(OWLEquivalentClassesAxiom eca, OWLObjectProperty vp) {
+        AtomicInteger numNamed = new AtomicInteger();
+        Set<OWLClassExpression> xs = new HashSet<>();
+        eca.classExpressions().forEach(x -> {
+            if (x instanceof OWLClass) {
+                xs.add(x);
+                numNamed.incrementAndGet();
+            } else {
+                // anonymous class expressions are 'prefixed' with view
+                // property
+                xs.add(fac.getOWLObjectSomeValuesFrom(vp, x));
+            }
+        });
+        if (numNamed.get() == 1) {
+            return fac.getOWLEquivalentClassesAxiom(xs);
+        }
+        return eca;
+    }
+
     /**
      * Tr header frame.
      *
@@ -646,8 +917,7 @@ public class OWLAPIObo2Owl {
                 // in theory, there should only be one tag
                 // but we can silently collapse multiple tags
                 headerFrame.getTagValues(tag, String.class)
-                    .forEach(s -> getOwlOntology().add(OwlStringTools.translate(
-                        s, manager)));
+                    .forEach(s -> addAll(OwlStringTools.translate(s, manager)));
             } else {
                 headerFrame.getClauses(t)
                     .forEach(c -> addOntologyAnnotation(trTagToAnnotationProp(t), trLiteral(c
@@ -982,6 +1252,15 @@ public class OWLAPIObo2Owl {
             LOG.error("no axiom");
             return;
         }
+        addAll(axioms);
+    }
+
+    private void addAll(Collection<OWLAxiom> axioms) {
+        Consumer<OWLAxiom> c = sink;
+        if (c != null) {
+            axioms.forEach(c);
+            return;
+        }
         getOwlOntology().add(axioms);
     }
 
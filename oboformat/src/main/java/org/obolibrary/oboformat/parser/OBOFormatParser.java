@@ -21,6 +21,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
 
@@ -44,6 +45,7 @@ public class OBOFormatParser {
     protected final MyStream stream;
     private final LoadingCache<String, String> stringCache;
     private boolean followImport;
+    private int threads = 1;
     private Object location;
     private ConcurrentHashMap<String, OBODoc> importCache = new ConcurrentHashMap<>();
 
@@ -78,6 +80,20 @@ public class OBOFormatParser {
         stringCache = builder.build(key -> key);
     }
 
+    /**
+     * Parser for a section of a document, sharing the string cache of the parser for the whole
+     * document.
+     *
+     * @param parent parser for the whole document
+     * @param r reader for the section
+     * @param firstLine number of lines in the document before the section
+     */
+    OBOFormatParser(OBOFormatParser parent, BufferedReader r, int firstLine) {
+        stream = new MyStream(r);
+        stream.lineNo = firstLine;
+        stringCache = parent.stringCache;
+    }
+
     private static void addOboNamespace(@Nullable Collection<Frame> frames,
         String defaultOboNamespace) {
         if (frames != null && !frames.isEmpty()) {
@@ -141,6 +157,27 @@ public class OBOFormatParser {
         followImport = followImports;
     }
 
+    /**
+     * @return number of threads used to parse frames
+     * @since 5.1.8
+     */
+    public int getParallelThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of worker threads used to parse the frames of a document. With more than one
+     * thread, the header is parsed first and the frames are then split in chunks, at frame
+     * boundaries, and parsed concurrently; the resulting document is the same as with sequential
+     * parsing. The whole document is kept in memory while parsing.
+     *
+     * @param threads number of threads; values lower than 2 disable parallel parsing
+     * @since 5.1.8
+     */
+    public void setParallelThreads(int threads) {
+        this.threads = threads;
+    }
+
     /**
      * Parses a local file or URL to an OBODoc.
      *
@@ -246,6 +283,7 @@ public class OBOFormatParser {
                     OBODoc doc = importCache.get(path);
                     if (doc == null) {
                         OBOFormatParser parser = new OBOFormatParser(importCache);
+                        parser.setParallelThreads(threads);
                         doc = parser.parseURL(path);
                     }
                     imports.add(doc);
@@ -263,12 +301,12 @@ public class OBOFormatParser {
     public void parseOBODoc(OBODoc obodoc) {
         Frame h = new Frame(FrameType.HEADER);
         obodoc.setHeaderFrame(h);
-        parseHeaderFrame(h);
-        h.freeze();
-        parseZeroOrMoreWsOptCmtNl();
-        while (!stream.eof()) {
-            parseEntityFrame(obodoc);
-            parseZeroOrMoreWsOptCmtNl();
+        if (threads > 1 && stream.lineNo == 0) {
+            new ParallelOBOFormatParser(this, threads).parse(obodoc, h);
+        } else {
+            parseHeaderFrame(h);
+            h.freeze();
+            parseEntityFrames(obodoc);
         }
         // set OBO namespace in frames
         String defaultOboNamespace = h
@@ -280,6 +318,54 @@ public class OBOFormatParser {
         }
     }
 
+    /**
+     * Parses the header and the typedef frames of a document; term frames are skipped without
+     * being built. Line numbers in errors are those of the whole document. Imports are not
+     * followed.
+     *
+     * @param reader reader for the document
+     * @return document with the header and the typedef frames
+     * @throws OBOFormatParserException parser exception
+     * @since 5.1.8
+     */
+    public OBODoc parseHeaderAndTypedefFrames(Reader reader) {
+        setReader(new StanzaFilterReader(reader, false));
+        OBODoc obodoc = new OBODoc();
+        parseOBODoc(obodoc);
+        return obodoc;
+    }
+
+    /**
+     * Parses the term frames of a document one at a time; the header is parsed for its default
+     * namespace, and typedef frames are skipped. Each frame is passed to the handler as soon as it
+     * is parsed and is not retained, so memory use does not depend on the size of the document.
+     * Unlike {@link #parse(Reader)}, frames with the same id are passed separately rather than
+     * merged.
+     *
+     * @param reader reader for the document
+     * @param handler handler for the term frames, in document order
+     * @throws OBOFormatParserException parser exception
+     * @since 5.1.8
+     */
+    public void parseTermFrames(Reader reader, Consumer<Frame> handler) {
+        setReader(new StanzaFilterReader(reader, true));
+        Frame h = new Frame(FrameType.HEADER);
+        parseHeaderFrame(h);
+        String defaultOboNamespace = h
+            .getTagValue(OboFormatTag.TAG_DEFAULT_NAMESPACE, String.class);
+        parseZeroOrMoreWsOptCmtNl();
+        while (!stream.eof()) {
+            OBODoc obodoc = new OBODoc();
+            parseTermFrame(obodoc);
+            Collection<Frame> frames = obodoc.getTermFrames();
+            if (defaultOboNamespace != null) {
+                addOboNamespace(frames, defaultOboNamespace);
+            }
+            frames.forEach(handler);
+            parseZeroOrMoreWsOptCmtNl();
+        }
+    }
+
     /**
      * @param doc doc
      * @return list of references
@@ -438,6 +524,20 @@ public class OBOFormatParser {
     // [Term] Frames
     // ----------------------------------------
 
+    /**
+     * Parses entity frames until the end of the input.
+     *
+     * @param obodoc document to add the frames to
+     * @throws OBOFormatParserException parser exception
+     */
+    void parseEntityFrames(OBODoc obodoc) {
+        parseZeroOrMoreWsOptCmtNl();
+        while (!stream.eof()) {
+            parseEntityFrame(obodoc);
+            parseZeroOrMoreWsOptCmtNl();
+        }
+    }
+
     /**
      * @param obodoc obodoc
      * @throws OBOFormatParserException parser exception
@@ -1463,4 +1563,41 @@ public class OBOFormatParser {
             return lineNo;
         }
     }
+
+    /**
+     * Reader showing either the term stanzas or all the other stanzas of a document, and the
+     * header in both cases. Lines of hidden stanzas are read as empty lines, so that line numbers
+     * are unchanged. Only {@link #readLine()}, the method used by {@link MyStream}, is filtered.
+     */
+    private static class StanzaFilterReader extends BufferedReader {
+
+        private final boolean terms;
+        private boolean hidden = false;
+        private boolean instances = false;
+
+        StanzaFilterReader(Reader in, boolean terms) {
+            super(in);
+            this.terms = terms;
+        }
+
+        @Override
+        @Nullable
+        public String readLine() throws IOException {
+            if (instances) {
+                return null;
+            }
+            String line = super.readLine();
+            if (line == null || !ParallelOBOFormatParser.isStanza(line)) {
+                return line == null || !hidden ? line : "";
+            }
+            String stanza = line.trim();
+            if (stanza.startsWith("[Instance]")) {
+                // parsing stops at the first instance frame; report it once only
+                instances = true;
+                return terms ? null : line;
+            }
+            hidden = stanza.startsWith("[Term]") != terms;
+            return hidden ? "" : line;
+        }
+    }
 }
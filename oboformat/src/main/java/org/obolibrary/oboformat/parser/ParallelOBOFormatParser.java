@@ -0,0 +1,172 @@
+package org.obolibrary.oboformat.parser;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.obolibrary.oboformat.model.Frame;
+import org.obolibrary.oboformat.model.FrameMergeException;
+import org.obolibrary.oboformat.model.OBODoc;
+import org.semanticweb.owlapi.util.ParallelTasks;
+
+/**
+ * Parses the frames of an OBO document on a pool of worker threads. The document is read in memory
+ * and the lines starting a stanza are located; the header is parsed on the calling thread, then
+ * the frames are split in contiguous chunks, at stanza boundaries, and each chunk is parsed in a
+ * separate document. The chunk documents are merged, in document order, into the document being
+ * parsed, so that frames with the same id are merged as in sequential parsing.
+ *
+ * @since 5.1.8
+ */
+class ParallelOBOFormatParser {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_FRAMES_PER_CHUNK = 64;
+    private final OBOFormatParser parser;
+    private final int threads;
+    private final List<String> lines = new ArrayList<>();
+    private final List<Integer> frameStarts = new ArrayList<>();
+
+    /**
+     * @param parser parser for the whole document; its reader must not have been read yet
+     * @param threads number of worker threads
+     */
+    ParallelOBOFormatParser(OBOFormatParser parser, int threads) {
+        this.parser = parser;
+        this.threads = threads;
+    }
+
+    /**
+     * @param obodoc document to fill
+     * @param header header frame of the document
+     * @throws OBOFormatParserException parser exception
+     */
+    void parse(OBODoc obodoc, Frame header) {
+        read(verifyNotNull(parser.stream.reader, "reader must be set before parsing"));
+        int headerEnd = frameStarts.isEmpty() ? lines.size() : frameStarts.get(0).intValue();
+        parser.setReader(new BufferedReader(new LinesReader(lines, 0, headerEnd)));
+        parser.parseHeaderFrame(header);
+        header.freeze();
+        int chunkCount = Math.min(threads * CHUNKS_PER_THREAD,
+            frameStarts.size() / MIN_FRAMES_PER_CHUNK);
+        if (chunkCount < 2) {
+            // not worth splitting
+            parser.setReader(new BufferedReader(new LinesReader(lines, headerEnd, lines.size())));
+            parser.stream.lineNo = headerEnd;
+            parser.stream.line = null;
+            parser.parseEntityFrames(obodoc);
+            return;
+        }
+        List<Callable<OBODoc>> chunks = new ArrayList<>(chunkCount);
+        int start = headerEnd;
+        for (int i = 1; i <= chunkCount; i++) {
+            int next = (int) ((long) frameStarts.size() * i / chunkCount);
+            int end = next < frameStarts.size() ? frameStarts.get(next).intValue() : lines.size();
+            chunks.add(chunk(start, end));
+            start = end;
+        }
+        for (OBODoc doc : parseChunks(chunks)) {
+            try {
+                obodoc.mergeContents(doc);
+            } catch (FrameMergeException e) {
+                throw new OBOFormatParserException(
+                    "Could not merge frames, duplicate frame definition?", e, -1, null);
+            }
+        }
+    }
+
+    private Callable<OBODoc> chunk(int start, int end) {
+        return () -> {
+            OBOFormatParser p = new OBOFormatParser(parser,
+                new BufferedReader(new LinesReader(lines, start, end)), start);
+            OBODoc doc = new OBODoc();
+            p.parseEntityFrames(doc);
+            return doc;
+        };
+    }
+
+    private List<OBODoc> parseChunks(List<Callable<OBODoc>> chunks) {
+        return ParallelTasks.invokeAll(threads, chunks,
+            e -> new OBOFormatParserException(e, -1, null));
+    }
+
+    /**
+     * Reads all lines and records the lines starting a stanza, i.e., whose first character other
+     * than a space is an open bracket. The sequential parser stops at the first instance frame,
+     * hence no stanza after it can start a chunk.
+     */
+    private void read(BufferedReader r) {
+        try {
+            for (String line = r.readLine(); line != null; line = r.readLine()) {
+                if (isStanza(line) && (frameStarts.isEmpty()
+                    || !isInstance(lines.get(frameStarts.get(frameStarts.size() - 1).intValue())))) {
+                    frameStarts.add(Integer.valueOf(lines.size()));
+                }
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new OBOFormatParserException(e, lines.size(), "Error reading from input.");
+        }
+    }
+
+    static boolean isStanza(String line) {
+        int i = 0;
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+        return i < line.length() && line.charAt(i) == '[';
+    }
+
+    private static boolean isInstance(String line) {
+        return line.trim().startsWith("[Instance]");
+    }
+
+    /**
+     * Reader over a range of lines, with a line terminator after each line.
+     */
+    private static class LinesReader extends Reader {
+
+        private final List<String> lines;
+        private final int end;
+        private int line;
+        private int pos = 0;
+
+        LinesReader(List<String> lines, int start, int end) {
+            this.lines = lines;
+            line = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (line >= end) {
+                return -1;
+            }
+            int read = 0;
+            while (read < len && line < end) {
+                String s = lines.get(line);
+                if (pos < s.length()) {
+                    int n = Math.min(len - read, s.length() - pos);
+                    s.getChars(pos, pos + n, cbuf, off + read);
+                    pos += n;
+                    read += n;
+                } else {
+                    cbuf[off + read++] = '\n';
+                    line++;
+                    pos = 0;
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
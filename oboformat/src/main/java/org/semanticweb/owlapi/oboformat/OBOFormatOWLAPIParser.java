@@ -32,7 +32,8 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
 
 /**
- * OBOformat parser.
+ * OBOformat parser. If {@link OWLOntologyLoaderConfiguration#getParallelParsingThreads()} is
+ * greater than one, frames are parsed and translated on that many worker threads.
  */
 public class OBOFormatOWLAPIParser implements OWLParser, Serializable {
 
@@ -41,9 +42,11 @@ public class OBOFormatOWLAPIParser implements OWLParser, Serializable {
         OWLOntologyLoaderConfiguration config) {
         try {
             OBOFormatParser p = new OBOFormatParser();
+            p.setParallelThreads(config.getParallelParsingThreads());
             OBODoc obodoc = p.parse(wrapInputAsReader(source, config));
             // create a translator object and feed it the OBO Document
             OWLAPIObo2Owl bridge = new OWLAPIObo2Owl(in.getOWLOntologyManager());
+            bridge.setParallelThreads(config.getParallelParsingThreads());
             bridge.convert(obodoc, in);
             return new OBODocumentFormat();
         } catch (OBOFormatParserException | IOException | OWLOntologyInputSourceException e) {
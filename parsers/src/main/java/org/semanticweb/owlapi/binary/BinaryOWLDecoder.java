@@ -0,0 +1,458 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.binary;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.providers.AnonymousIndividualByIdProvider;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+/**
+ * Reads the binary format described in {@link BinaryOWLTags} from a buffer, which can be memory
+ * mapped. Strings and entities are materialized on first use, so the parts of the dictionary that
+ * are only referenced by skipped axiom tables are never decoded.
+ */
+class BinaryOWLDecoder {
+
+    private final ByteBuffer buffer;
+    private final OWLDataFactory df;
+    private final AnonymousIndividualByIdProvider anonProvider;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final IRI[] iris;
+    private final int[] entityTypes;
+    private final int[] entityIRIs;
+    private final OWLEntity[] entities;
+    private final List<Function<Object[], OWLAxiom>> axiomBuilders = new ArrayList<>();
+
+    /**
+     * @param buffer buffer positioned at the start of the document
+     * @return true if the buffer starts with the binary format magic number
+     */
+    static boolean isBinaryDocument(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) == BinaryOWLTags.MAGIC;
+    }
+
+    /**
+     * Reads the dictionary and the entity table.
+     *
+     * @param buffer buffer positioned at the start of the document
+     * @param df data factory
+     * @param anonProvider provider for anonymous individuals
+     */
+    BinaryOWLDecoder(ByteBuffer buffer, OWLDataFactory df,
+        AnonymousIndividualByIdProvider anonProvider) {
+        this.buffer = buffer;
+        this.df = df;
+        this.anonProvider = anonProvider;
+        if (!isBinaryDocument(buffer)) {
+            throw new OWLParserException("Not a binary OWL document");
+        }
+        buffer.getInt();
+        int version = count();
+        if (version != BinaryOWLTags.VERSION) {
+            throw new OWLParserException("Unsupported binary OWL version: " + version);
+        }
+        int stringCount = count();
+        stringOffsets = new int[stringCount];
+        stringLengths = new int[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            stringLengths[i] = count();
+            stringOffsets[i] = buffer.position();
+            skip(stringLengths[i]);
+        }
+        strings = new String[stringCount];
+        iris = new IRI[stringCount];
+        int entityCount = count();
+        entityTypes = new int[entityCount];
+        entityIRIs = new int[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            entityTypes[i] = count();
+            entityIRIs[i] = count();
+        }
+        entities = new OWLEntity[entityCount];
+        registerAxiomBuilders();
+    }
+
+    /**
+     * @return next unsigned integer
+     */
+    int count() {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            result |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return result;
+    }
+
+    /**
+     * @param length number of bytes to skip
+     */
+    void skip(int length) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * @return next string
+     */
+    String string() {
+        return string(count());
+    }
+
+    /**
+     * @return next IRI
+     */
+    IRI iri() {
+        return iri(count());
+    }
+
+    /**
+     * @return next IRI, stored as its string id plus one, or zero if absent
+     */
+    Optional<IRI> optionalIRI() {
+        int id = count();
+        if (id == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(iri(id - 1));
+    }
+
+    /**
+     * @return next list of annotations
+     */
+    List<OWLAnnotation> annotations() {
+        return list(new Object[] {value()}, 0);
+    }
+
+    /**
+     * @return next axiom
+     */
+    OWLAxiom axiom() {
+        Object value = value();
+        if (value instanceof OWLAxiom) {
+            return (OWLAxiom) value;
+        }
+        throw new OWLParserException("Axiom expected but found " + value);
+    }
+
+    private String string(int id) {
+        String s = strings[id];
+        if (s == null) {
+            byte[] bytes = new byte[stringLengths[id]];
+            ByteBuffer b = buffer.duplicate();
+            b.position(stringOffsets[id]);
+            b.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    private IRI iri(int id) {
+        IRI iri = iris[id];
+        if (iri == null) {
+            iri = IRI.create(string(id));
+            iris[id] = iri;
+        }
+        return iri;
+    }
+
+    private OWLEntity entity(int id) {
+        OWLEntity e = entities[id];
+        if (e == null) {
+            e = df.getOWLEntity(entityType(entityTypes[id]), iri(entityIRIs[id]));
+            entities[id] = e;
+        }
+        return e;
+    }
+
+    private static EntityType<?> entityType(int typeIndex) {
+        switch (typeIndex) {
+            case 1001:
+                return EntityType.CLASS;
+            case 1002:
+                return EntityType.OBJECT_PROPERTY;
+            case 1004:
+                return EntityType.DATA_PROPERTY;
+            case 1005:
+                return EntityType.NAMED_INDIVIDUAL;
+            case 1006:
+                return EntityType.ANNOTATION_PROPERTY;
+            case 4001:
+                return EntityType.DATATYPE;
+            default:
+                throw new OWLParserException("Unknown entity type: " + typeIndex);
+        }
+    }
+
+    private Object value() {
+        int tag = buffer.get();
+        switch (tag) {
+            case BinaryOWLTags.ENTITY:
+                return entity(count());
+            case BinaryOWLTags.OBJECT:
+                int typeIndex = count();
+                Object[] components = new Object[count()];
+                for (int i = 0; i < components.length; i++) {
+                    components[i] = value();
+                }
+                return object(typeIndex, components);
+            case BinaryOWLTags.LIST:
+                int size = count();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(value());
+                }
+                return list;
+            case BinaryOWLTags.IRI:
+                return iri(count());
+            case BinaryOWLTags.LITERAL:
+                String literal = string(count());
+                OWLDatatype datatype = (OWLDatatype) entity(count());
+                String lang = string(count());
+                if (lang.isEmpty()) {
+                    return df.getOWLLiteral(literal, datatype);
+                }
+                return df.getOWLLiteral(literal, lang);
+            case BinaryOWLTags.ANONYMOUS_INDIVIDUAL:
+                return anonProvider.getOWLAnonymousIndividual(string(count()));
+            case BinaryOWLTags.STRING:
+                return string(count());
+            case BinaryOWLTags.INTEGER:
+                return Integer.valueOf(count());
+            case BinaryOWLTags.FACET:
+                return OWLFacet.getFacet(iri(count()));
+            default:
+                throw new OWLParserException("Unknown tag: " + tag);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T arg(Object[] c, int i) {
+        return (T) c[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(Object[] c, int i) {
+        return (List<T>) c[i];
+    }
+
+    private static OWLDataRange range(Object[] c, int i) {
+        return (OWLDataRange) c[i];
+    }
+
+    private static int cardinality(Object[] c) {
+        return ((Integer) c[1]).intValue();
+    }
+
+    private Object object(int typeIndex, Object[] c) {
+        if (typeIndex >= 2000 && typeIndex - 2000 < axiomBuilders.size()) {
+            Function<Object[], OWLAxiom> builder = axiomBuilders.get(typeIndex - 2000);
+            if (builder != null) {
+                return builder.apply(c);
+            }
+        }
+        switch (typeIndex) {
+            case 1003:
+                return df.getOWLObjectInverseOf(arg(c, 0));
+            case 3001:
+                return df.getOWLObjectIntersectionOf(list(c, 0));
+            case 3002:
+                return df.getOWLObjectUnionOf(list(c, 0));
+            case 3003:
+                return df.getOWLObjectComplementOf(arg(c, 0));
+            case 3004:
+                return df.getOWLObjectOneOf(list(c, 0));
+            case 3005:
+                return df.getOWLObjectSomeValuesFrom(arg(c, 0), arg(c, 1));
+            case 3006:
+                return df.getOWLObjectAllValuesFrom(arg(c, 0), arg(c, 1));
+            case 3007:
+                return df.getOWLObjectHasValue(arg(c, 0), arg(c, 1));
+            case 3008:
+                return df.getOWLObjectMinCardinality(cardinality(c), arg(c, 0), arg(c, 2));
+            case 3009:
+                return df.getOWLObjectExactCardinality(cardinality(c), arg(c, 0), arg(c, 2));
+            case 3010:
+                return df.getOWLObjectMaxCardinality(cardinality(c), arg(c, 0), arg(c, 2));
+            case 3011:
+                return df.getOWLObjectHasSelf(arg(c, 0));
+            case 3012:
+                return df.getOWLDataSomeValuesFrom(arg(c, 0), range(c, 1));
+            case 3013:
+                return df.getOWLDataAllValuesFrom(arg(c, 0), range(c, 1));
+            case 3014:
+                return df.getOWLDataHasValue(arg(c, 0), arg(c, 1));
+            case 3015:
+                return df.getOWLDataMinCardinality(cardinality(c), arg(c, 0), range(c, 2));
+            case 3016:
+                return df.getOWLDataExactCardinality(cardinality(c), arg(c, 0), range(c, 2));
+            case 3017:
+                return df.getOWLDataMaxCardinality(cardinality(c), arg(c, 0), range(c, 2));
+            case 4002:
+                return df.getOWLDataComplementOf(range(c, 0));
+            case 4003:
+                return df.getOWLDataOneOf(list(c, 0));
+            case 4004:
+                return df.getOWLDataIntersectionOf(list(c, 0));
+            case 4005:
+                return df.getOWLDataUnionOf(list(c, 0));
+            case 4006:
+                return df.getOWLDatatypeRestriction(arg(c, 0), list(c, 1));
+            case 4007:
+                return df.getOWLFacetRestriction(arg(c, 0), arg(c, 1));
+            case 5001:
+                return df.getOWLAnnotation(arg(c, 0), arg(c, 1), list(c, 2));
+            case 6001:
+                return df.getSWRLClassAtom(arg(c, 1), arg(c, 0));
+            case 6002:
+                return df.getSWRLDataRangeAtom(range(c, 1), arg(c, 0));
+            case 6003:
+                return df.getSWRLObjectPropertyAtom(arg(c, 2), arg(c, 0), arg(c, 1));
+            case 6004:
+                return df.getSWRLDataPropertyAtom(arg(c, 2), arg(c, 0), arg(c, 1));
+            case 6005:
+                return df.getSWRLBuiltInAtom(arg(c, 1), list(c, 0));
+            case 6006:
+                return df.getSWRLVariable((IRI) c[0]);
+            case 6007:
+                return df.getSWRLIndividualArgument(arg(c, 0));
+            case 6008:
+                return df.getSWRLLiteralArgument(arg(c, 0));
+            case 6009:
+                return df.getSWRLSameIndividualAtom(arg(c, 0), arg(c, 1));
+            case 6010:
+                return df.getSWRLDifferentIndividualsAtom(arg(c, 0), arg(c, 1));
+            default:
+                throw new OWLParserException("Unknown object type: " + typeIndex);
+        }
+    }
+
+    private void register(AxiomType<?> type, Function<Object[], OWLAxiom> builder) {
+        int index = type.getIndex();
+        while (axiomBuilders.size() <= index) {
+            axiomBuilders.add(null);
+        }
+        axiomBuilders.set(index, builder);
+    }
+
+    private void registerAxiomBuilders() {
+        // components are listed in the order returned by components(); annotations are last
+        register(AxiomType.DECLARATION, c -> df.getOWLDeclarationAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.SUBCLASS_OF,
+            c -> df.getOWLSubClassOfAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.EQUIVALENT_CLASSES,
+            c -> df.getOWLEquivalentClassesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.DISJOINT_CLASSES,
+            c -> df.getOWLDisjointClassesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.DISJOINT_UNION,
+            c -> df.getOWLDisjointUnionAxiom(arg(c, 0), list(c, 1), list(c, 2)));
+        register(AxiomType.CLASS_ASSERTION,
+            c -> df.getOWLClassAssertionAxiom(arg(c, 1), arg(c, 0), list(c, 2)));
+        register(AxiomType.SAME_INDIVIDUAL,
+            c -> df.getOWLSameIndividualAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.DIFFERENT_INDIVIDUALS,
+            c -> df.getOWLDifferentIndividualsAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.OBJECT_PROPERTY_ASSERTION, c -> df
+            .getOWLObjectPropertyAssertionAxiom(arg(c, 1), arg(c, 0), arg(c, 2), list(c, 3)));
+        register(AxiomType.NEGATIVE_OBJECT_PROPERTY_ASSERTION, c -> df
+            .getOWLNegativeObjectPropertyAssertionAxiom(arg(c, 1), arg(c, 0), arg(c, 2),
+                list(c, 3)));
+        register(AxiomType.DATA_PROPERTY_ASSERTION, c -> df
+            .getOWLDataPropertyAssertionAxiom(arg(c, 1), arg(c, 0), arg(c, 2), list(c, 3)));
+        register(AxiomType.NEGATIVE_DATA_PROPERTY_ASSERTION, c -> df
+            .getOWLNegativeDataPropertyAssertionAxiom(arg(c, 1), arg(c, 0), arg(c, 2),
+                list(c, 3)));
+        register(AxiomType.OBJECT_PROPERTY_DOMAIN,
+            c -> df.getOWLObjectPropertyDomainAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.OBJECT_PROPERTY_RANGE,
+            c -> df.getOWLObjectPropertyRangeAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.DATA_PROPERTY_DOMAIN,
+            c -> df.getOWLDataPropertyDomainAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.DATA_PROPERTY_RANGE,
+            c -> df.getOWLDataPropertyRangeAxiom(arg(c, 0), range(c, 1), list(c, 2)));
+        register(AxiomType.ANNOTATION_PROPERTY_DOMAIN,
+            c -> df.getOWLAnnotationPropertyDomainAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.ANNOTATION_PROPERTY_RANGE,
+            c -> df.getOWLAnnotationPropertyRangeAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.DISJOINT_OBJECT_PROPERTIES,
+            c -> df.getOWLDisjointObjectPropertiesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.EQUIVALENT_OBJECT_PROPERTIES,
+            c -> df.getOWLEquivalentObjectPropertiesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.DISJOINT_DATA_PROPERTIES,
+            c -> df.getOWLDisjointDataPropertiesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.EQUIVALENT_DATA_PROPERTIES,
+            c -> df.getOWLEquivalentDataPropertiesAxiom(list(c, 0), list(c, 1)));
+        register(AxiomType.INVERSE_OBJECT_PROPERTIES, c -> {
+            List<Object> operands = list(c, 0);
+            // a property declared inverse of itself has a single operand
+            return df.getOWLInverseObjectPropertiesAxiom(arg(operands.toArray(), 0),
+                arg(operands.toArray(), operands.size() - 1), list(c, 1));
+        });
+        register(AxiomType.SUB_OBJECT_PROPERTY,
+            c -> df.getOWLSubObjectPropertyOfAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.SUB_DATA_PROPERTY,
+            c -> df.getOWLSubDataPropertyOfAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.SUB_ANNOTATION_PROPERTY_OF,
+            c -> df.getOWLSubAnnotationPropertyOfAxiom(arg(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.SUB_PROPERTY_CHAIN_OF,
+            c -> df.getOWLSubPropertyChainOfAxiom(list(c, 0), arg(c, 1), list(c, 2)));
+        register(AxiomType.FUNCTIONAL_OBJECT_PROPERTY,
+            c -> df.getOWLFunctionalObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.INVERSE_FUNCTIONAL_OBJECT_PROPERTY,
+            c -> df.getOWLInverseFunctionalObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.SYMMETRIC_OBJECT_PROPERTY,
+            c -> df.getOWLSymmetricObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.ASYMMETRIC_OBJECT_PROPERTY,
+            c -> df.getOWLAsymmetricObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.TRANSITIVE_OBJECT_PROPERTY,
+            c -> df.getOWLTransitiveObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.REFLEXIVE_OBJECT_PROPERTY,
+            c -> df.getOWLReflexiveObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.IRREFLEXIVE_OBJECT_PROPERTY,
+            c -> df.getOWLIrreflexiveObjectPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.FUNCTIONAL_DATA_PROPERTY,
+            c -> df.getOWLFunctionalDataPropertyAxiom(arg(c, 0), list(c, 1)));
+        register(AxiomType.DATATYPE_DEFINITION,
+            c -> df.getOWLDatatypeDefinitionAxiom(arg(c, 0), range(c, 1), list(c, 2)));
+        register(AxiomType.HAS_KEY,
+            c -> df.getOWLHasKeyAxiom(arg(c, 0), list(c, 1), list(c, 2)));
+        register(AxiomType.SWRL_RULE, c -> df.getSWRLRule(list(c, 0), list(c, 1), list(c, 2)));
+        register(AxiomType.ANNOTATION_ASSERTION, c -> df
+            .getOWLAnnotationAssertionAxiom(arg(c, 1), arg(c, 0), arg(c, 2), list(c, 3)));
+    }
+}
@@ -0,0 +1,199 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.binary;
+
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+/**
+ * Writes an ontology in the binary format described in {@link BinaryOWLTags}. Axiom tables are
+ * encoded first, so that the dictionary and entity table, which precede them in the output, are
+ * complete when written.
+ */
+class BinaryOWLEncoder {
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<OWLEntity, Integer> entityIds = new HashMap<>();
+    private final List<OWLEntity> entities = new ArrayList<>();
+
+    /**
+     * @param ontology ontology to encode
+     * @param out stream to write to; not closed
+     * @throws IOException if writing fails
+     */
+    void write(OWLOntology ontology, OutputStream out) throws IOException {
+        Sink header = new Sink();
+        OWLOntologyID id = ontology.getOntologyID();
+        header.varint(id.getOntologyIRI().map(i -> Integer.valueOf(string(i.toString()) + 1))
+            .orElse(Integer.valueOf(0)).intValue());
+        header.varint(id.getVersionIRI().map(i -> Integer.valueOf(string(i.toString()) + 1))
+            .orElse(Integer.valueOf(0)).intValue());
+        List<OWLImportsDeclaration> imports = asList(ontology.importsDeclarations());
+        header.varint(imports.size());
+        imports.forEach(i -> header.varint(string(i.getIRI().toString())));
+        write(asList(ontology.annotations()), header);
+        List<Sink> tables = new ArrayList<>();
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            int count = ontology.getAxiomCount(type);
+            if (count > 0) {
+                Sink table = new Sink();
+                table.varint(string(type.getName()));
+                table.varint(count);
+                Sink body = new Sink();
+                ontology.axioms(type).forEach(ax -> write(ax, body));
+                table.varint(body.size());
+                body.writeTo(table);
+                tables.add(table);
+            }
+        }
+        Sink start = new Sink();
+        start.int32(BinaryOWLTags.MAGIC);
+        start.varint(BinaryOWLTags.VERSION);
+        start.varint(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            start.varint(bytes.length);
+            start.write(bytes);
+        }
+        start.varint(entities.size());
+        for (OWLEntity e : entities) {
+            start.varint(e.typeIndex());
+            start.varint(string(e.getIRI().toString()));
+        }
+        start.writeTo(out);
+        header.writeTo(out);
+        Sink count = new Sink();
+        count.varint(tables.size());
+        count.writeTo(out);
+        for (Sink table : tables) {
+            table.writeTo(out);
+        }
+    }
+
+    private int string(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = Integer.valueOf(strings.size());
+            stringIds.put(s, id);
+            strings.add(s);
+        }
+        return id.intValue();
+    }
+
+    private int entity(OWLEntity e) {
+        Integer id = entityIds.get(e);
+        if (id == null) {
+            id = Integer.valueOf(entities.size());
+            entityIds.put(e, id);
+            entities.add(e);
+            // interned now, so that the dictionary is complete before the entity table is written
+            string(e.getIRI().toString());
+        }
+        return id.intValue();
+    }
+
+    private void write(Object value, Sink out) {
+        if (value instanceof OWLEntity) {
+            out.write(BinaryOWLTags.ENTITY);
+            out.varint(entity((OWLEntity) value));
+        } else if (value instanceof IRI) {
+            out.write(BinaryOWLTags.IRI);
+            out.varint(string(value.toString()));
+        } else if (value instanceof OWLLiteral) {
+            OWLLiteral literal = (OWLLiteral) value;
+            out.write(BinaryOWLTags.LITERAL);
+            out.varint(string(literal.getLiteral()));
+            out.varint(entity(literal.getDatatype()));
+            out.varint(string(literal.getLang()));
+        } else if (value instanceof OWLAnonymousIndividual) {
+            out.write(BinaryOWLTags.ANONYMOUS_INDIVIDUAL);
+            out.varint(string(((OWLAnonymousIndividual) value).getID().getID()));
+        } else if (value instanceof OWLObject) {
+            OWLObject object = (OWLObject) value;
+            List<?> components = asList(object.components());
+            out.write(BinaryOWLTags.OBJECT);
+            out.varint(object.typeIndex());
+            out.varint(components.size());
+            components.forEach(c -> write(c, out));
+        } else if (value instanceof Collection) {
+            Collection<?> c = (Collection<?>) value;
+            out.write(BinaryOWLTags.LIST);
+            out.varint(c.size());
+            c.forEach(o -> write(o, out));
+        } else if (value instanceof Stream) {
+            write(asList((Stream<?>) value), out);
+        } else if (value instanceof String) {
+            out.write(BinaryOWLTags.STRING);
+            out.varint(string((String) value));
+        } else if (value instanceof Integer) {
+            out.write(BinaryOWLTags.INTEGER);
+            out.varint(((Integer) value).intValue());
+        } else if (value instanceof OWLFacet) {
+            out.write(BinaryOWLTags.FACET);
+            out.varint(string(((OWLFacet) value).getIRI().toString()));
+        } else {
+            throw new OWLRuntimeException("Cannot encode " + value.getClass().getName());
+        }
+    }
+
+    private static class Sink extends ByteArrayOutputStream {
+
+        Sink() {
+            super(256);
+        }
+
+        void varint(int value) {
+            int v = value;
+            while ((v & ~0x7f) != 0) {
+                write((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            write(v);
+        }
+
+        void int32(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.formats.BinaryOWLDocumentFormat;
+import org.semanticweb.owlapi.formats.BinaryOWLDocumentFormatFactory;
+import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSources;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.OWLOntologyInputSourceException;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
+import org.semanticweb.owlapi.model.OWLDocumentFormatFactory;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.util.RemappingIndividualProvider;
+
+/**
+ * Parser for the binary format. Documents backed by a local file are memory mapped rather than
+ * read through a stream; other sources are read into memory first. Axiom tables for annotation
+ * axioms are skipped without decoding when
+ * {@link OWLOntologyLoaderConfiguration#isLoadAnnotationAxioms()} is false.
+ *
+ * @since 5.1.8
+ */
+public class BinaryOWLParser extends AbstractOWLParser {
+
+    @Override
+    public OWLDocumentFormatFactory getSupportedFormat() {
+        return new BinaryOWLDocumentFormatFactory();
+    }
+
+    @Override
+    public OWLDocumentFormat parse(OWLOntologyDocumentSource source, OWLOntology ontology,
+        OWLOntologyLoaderConfiguration config) {
+        try {
+            ByteBuffer buffer = map(source);
+            if (buffer == null) {
+                buffer = read(source, config);
+            }
+            parse(buffer, ontology, config);
+            return new BinaryOWLDocumentFormat();
+        } catch (OWLOntologyInputSourceException | IOException e) {
+            throw new OWLParserException(e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new OWLParserException("Truncated or corrupted binary OWL document", e);
+        }
+    }
+
+    /**
+     * @param source document source
+     * @return a read only mapping of the document, or null if the source is not a local file
+     * @throws IOException if the file cannot be mapped
+     */
+    @Nullable
+    private static ByteBuffer map(OWLOntologyDocumentSource source) throws IOException {
+        if (source.getInputStream().isPresent() || source.getReader().isPresent()) {
+            return null;
+        }
+        IRI documentIRI = source.getDocumentIRI();
+        if (!"file".equals(documentIRI.getScheme())) {
+            return null;
+        }
+        File file = new File(documentIRI.toURI());
+        if (!file.isFile() || file.length() > Integer.MAX_VALUE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static ByteBuffer read(OWLOntologyDocumentSource source,
+        OWLOntologyLoaderConfiguration config) throws OWLOntologyInputSourceException, IOException {
+        try (InputStream in = DocumentSources.wrapInput(source, config)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read = in.read(chunk);
+            while (read >= 0) {
+                out.write(chunk, 0, read);
+                read = in.read(chunk);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    private static void parse(ByteBuffer buffer, OWLOntology ontology,
+        OWLOntologyLoaderConfiguration config) {
+        OWLOntologyManager manager = ontology.getOWLOntologyManager();
+        BinaryOWLDecoder decoder = new BinaryOWLDecoder(buffer, manager.getOWLDataFactory(),
+            new RemappingIndividualProvider(manager.getOntologyConfigurator(),
+                manager.getOWLDataFactory()));
+        Optional<IRI> ontologyIRI = decoder.optionalIRI();
+        Optional<IRI> versionIRI = decoder.optionalIRI();
+        manager.applyChange(
+            new SetOntologyID(ontology, new OWLOntologyID(ontologyIRI, versionIRI)));
+        int importCount = decoder.count();
+        List<OWLImportsDeclaration> imports = new ArrayList<>(importCount);
+        for (int i = 0; i < importCount; i++) {
+            OWLImportsDeclaration decl =
+                manager.getOWLDataFactory().getOWLImportsDeclaration(decoder.iri());
+            manager.applyChange(new AddImport(ontology, decl));
+            imports.add(decl);
+        }
+        manager.makeLoadImportRequests(imports, config);
+        for (OWLAnnotation a : decoder.annotations()) {
+            manager.applyChange(new AddOntologyAnnotation(ontology, a));
+        }
+        List<OWLAxiom> axioms = new ArrayList<>();
+        int tables = decoder.count();
+        for (int i = 0; i < tables; i++) {
+            AxiomType<?> type = AxiomType.getAxiomType(decoder.string());
+            if (type == null) {
+                throw new OWLParserException("Unknown axiom type in binary OWL document");
+            }
+            int count = decoder.count();
+            int length = decoder.count();
+            if (!config.isLoadAnnotationAxioms()
+                && OWLAnnotationAxiom.class.isAssignableFrom(type.getActualClass())) {
+                decoder.skip(length);
+            } else {
+                for (int j = 0; j < count; j++) {
+                    axioms.add(decoder.axiom());
+                }
+            }
+        }
+        ontology.addAxioms(axioms);
+    }
+}
@@ -0,0 +1,45 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.binary;
+
+/**
+ * Constants shared by the binary encoder and decoder.<br>
+ * A document starts with {@link #MAGIC} and {@link #VERSION}, followed by these sections:
+ * <ol>
+ * <li>string dictionary: count, then length and UTF-8 bytes for each string;</li>
+ * <li>entity table: count, then type index and IRI string id for each entity;</li>
+ * <li>ontology header: ontology IRI and version IRI string ids plus one (zero if absent), import
+ * IRI string ids, ontology annotations;</li>
+ * <li>axiom tables: count, then axiom type name string id, axiom count, length in bytes and
+ * encoded axioms for each axiom type.</li>
+ * </ol>
+ * Integers are written as unsigned variable length quantities. Values are written as a tag
+ * followed by the value; objects are written as their type index, the number of components and
+ * the components, in the order returned by {@code components()}.
+ */
+final class BinaryOWLTags {
+
+    static final int MAGIC = 0x4f574c42;
+    static final int VERSION = 1;
+    static final int ENTITY = 1;
+    static final int OBJECT = 2;
+    static final int LIST = 3;
+    static final int IRI = 4;
+    static final int LITERAL = 5;
+    static final int ANONYMOUS_INDIVIDUAL = 6;
+    static final int STRING = 7;
+    static final int INTEGER = 8;
+    static final int FACET = 9;
+
+    private BinaryOWLTags() {}
+}
@@ -27,6 +27,10 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
 
 /**
+ * Parser for functional syntax documents. If
+ * {@link OWLOntologyLoaderConfiguration#getParallelParsingThreads()} is greater than one, the axioms
+ * in the document are parsed on that many worker threads and added to the ontology in one batch.
+ *
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.0.0
  */
@@ -41,6 +45,10 @@ public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser {
     public OWLDocumentFormat parse(OWLOntologyDocumentSource source, OWLOntology ontology,
         OWLOntologyLoaderConfiguration config) {
         try (Reader r = DocumentSources.wrapInputAsReader(source, config)) {
+            int threads = config.getParallelParsingThreads();
+            if (threads > 1) {
+                return new ParallelFunctionalSyntaxParser(threads).parse(r, ontology, config);
+            }
             OWLFunctionalSyntaxParser parser =
                 new OWLFunctionalSyntaxParser(new CustomTokenizer(r));
             parser.setUp(ontology, config);
@@ -110,6 +110,7 @@ FunctionalSyntaxDocumentFormat format = new FunctionalSyntaxDocumentFormat();
   final public void Ontology() throws ParseException, OWLParserException, UnloadableImportException {OWLAnnotation anno;
     OWLAxiom ax;
     OWLImportsDeclaration decl;
+    List<OWLImportsDeclaration> imports = new ArrayList<OWLImportsDeclaration>();
     int count = 0;
     IRI versionIRI = null;
     jj_consume_token(ONTOLOGY);
@@ -152,7 +153,7 @@ OWLOntologyID id = new OWLOntologyID(ontologyIRI, versionIRI);
       case IMPORT:{
         decl = ImportsDeclaration();
 applyChange(new AddImport(ontology, decl));
-        man.makeLoadImportRequest(decl, configuration);
+        imports.add(decl);
         break;
         }
       case ANNOTATION:{
@@ -167,6 +168,8 @@ applyChange(new AddOntologyAnnotation(ontology, anno));
         throw new ParseException();
       }
     }
+// imports are not needed to parse axioms, so they can be loaded together
+        man.makeLoadImportRequests(imports, configuration);
     label_3:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
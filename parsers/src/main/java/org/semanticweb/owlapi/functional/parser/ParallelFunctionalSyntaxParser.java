@@ -0,0 +1,303 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.functional.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.OWLAnnotationAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.util.ParallelTasks;
+import org.semanticweb.owlapi.util.RemappingIndividualProvider;
+
+/**
+ * Parses a functional syntax document on a pool of worker threads. The document is scanned once to
+ * find the boundaries of the top level axioms in the ontology body; prefixes, ontology IRI, imports
+ * and ontology annotations are parsed on the calling thread, while the axioms are split in
+ * contiguous chunks and parsed concurrently. All axioms are then added to the ontology in a single
+ * batch, in document order. The whole document is kept in memory while parsing.
+ *
+ * @since 5.1.8
+ */
+class ParallelFunctionalSyntaxParser {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_AXIOMS_PER_CHUNK = 64;
+    private final int threads;
+    private int firstAxiomStart = -1;
+    private int ontologyEnd = -1;
+    private int[] axiomEnds = new int[1024];
+    private int axiomCount = 0;
+
+    /**
+     * @param threads number of worker threads
+     */
+    ParallelFunctionalSyntaxParser(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @param r reader for the document
+     * @param ontology ontology to fill
+     * @param config loader configuration
+     * @return document format, with the prefixes declared in the document
+     * @throws IOException if the document cannot be read
+     * @throws ParseException if the document contains syntax errors
+     */
+    FunctionalSyntaxDocumentFormat parse(Reader r, OWLOntology ontology,
+        OWLOntologyLoaderConfiguration config) throws IOException, ParseException {
+        String document = read(r);
+        if (!scan(document) || axiomCount < 2 * MIN_AXIOMS_PER_CHUNK) {
+            // not worth splitting, or not well formed: the sequential parser will report errors
+            return parseSequentially(document, ontology, config);
+        }
+        String header =
+            document.substring(0, firstAxiomStart) + document.substring(ontologyEnd);
+        OWLFunctionalSyntaxParser headerParser =
+            new OWLFunctionalSyntaxParser(new CustomTokenizer(new StringReader(header)));
+        headerParser.setUp(ontology, config);
+        FunctionalSyntaxDocumentFormat format = headerParser.parse();
+        RemappingIndividualProvider anonProvider = headerParser.anonProvider;
+        List<AxiomCollector> chunks = split(document, ontology, config, format, anonProvider);
+        ontology.addAxioms(parseChunks(chunks));
+        return format;
+    }
+
+    private static FunctionalSyntaxDocumentFormat parseSequentially(String document,
+        OWLOntology ontology, OWLOntologyLoaderConfiguration config) throws ParseException {
+        OWLFunctionalSyntaxParser parser =
+            new OWLFunctionalSyntaxParser(new CustomTokenizer(new StringReader(document)));
+        parser.setUp(ontology, config);
+        return parser.parse();
+    }
+
+    private List<AxiomCollector> split(String document, OWLOntology ontology,
+        OWLOntologyLoaderConfiguration config, FunctionalSyntaxDocumentFormat format,
+        RemappingIndividualProvider anonProvider) {
+        int chunkCount =
+            Math.min(threads * CHUNKS_PER_THREAD, axiomCount / MIN_AXIOMS_PER_CHUNK);
+        List<AxiomCollector> chunks = new ArrayList<>(chunkCount);
+        int start = firstAxiomStart;
+        for (int i = 1; i <= chunkCount; i++) {
+            int end = axiomEnds[(int) ((long) axiomCount * i / chunkCount) - 1];
+            AxiomCollector chunk = new AxiomCollector(
+                "Ontology(" + document.substring(start, end) + ")", config);
+            chunk.setUp(ontology, config);
+            chunk.setPrefixes(format);
+            // blank node ids must map to the same individuals across chunks
+            chunk.anonProvider = anonProvider;
+            chunks.add(chunk);
+            start = end;
+        }
+        return chunks;
+    }
+
+    private List<OWLAxiom> parseChunks(List<AxiomCollector> chunks) throws ParseException {
+        List<OWLAxiom> axioms = new ArrayList<>(axiomCount);
+        try {
+            ParallelTasks.invokeAll(threads, chunks, ChunkFailure::new).forEach(axioms::addAll);
+        } catch (ChunkFailure e) {
+            if (e.getCause() instanceof ParseException) {
+                throw (ParseException) e.getCause();
+            }
+            throw new OWLParserException(e.getCause());
+        }
+        return axioms;
+    }
+
+    /**
+     * Carries a checked exception thrown by a chunk, or the interruption of the calling thread, out
+     * of the pool.
+     */
+    private static class ChunkFailure extends RuntimeException {
+
+        ChunkFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private static String read(Reader r) throws IOException {
+        StringBuilder b = new StringBuilder();
+        char[] buffer = new char[16384];
+        for (int read = r.read(buffer); read > -1; read = r.read(buffer)) {
+            b.append(buffer, 0, read);
+        }
+        return b.toString();
+    }
+
+    /**
+     * Finds the start of the first axiom in the ontology body, the end offset of each top level
+     * axiom and the position of the parenthesis closing the ontology. Tokens are recognized as in
+     * {@link CustomTokenizer}.
+     *
+     * @param s document
+     * @return false if the document structure could not be recognized
+     */
+    private boolean scan(String s) {
+        int length = s.length();
+        int depth = 0;
+        boolean inOntology = false;
+        boolean inAxiom = false;
+        int lastTokenStart = -1;
+        String lastToken = "";
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i);
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case '=':
+                case '@':
+                case '^':
+                    i++;
+                    break;
+                case '#':
+                    while (i < length && s.charAt(i) != '\n') {
+                        i++;
+                    }
+                    break;
+                case '"':
+                    i = skipStringLiteral(s, i + 1);
+                    break;
+                case '<':
+                    i = s.indexOf('>', i + 1) + 1;
+                    if (i == 0) {
+                        return false;
+                    }
+                    break;
+                case '(':
+                    if (depth == 0 && "Ontology".equals(lastToken)) {
+                        inOntology = true;
+                    } else if (depth == 1 && inOntology && !inAxiom
+                        && !"Import".equals(lastToken) && !"Annotation".equals(lastToken)) {
+                        inAxiom = true;
+                        if (firstAxiomStart < 0) {
+                            firstAxiomStart = lastTokenStart;
+                        }
+                    }
+                    depth++;
+                    i++;
+                    break;
+                case ')':
+                    depth--;
+                    if (depth < 0) {
+                        return false;
+                    }
+                    if (depth == 1 && inAxiom) {
+                        inAxiom = false;
+                        addAxiomEnd(i + 1);
+                    } else if (depth == 0 && inOntology) {
+                        ontologyEnd = i;
+                        return firstAxiomStart > -1;
+                    }
+                    i++;
+                    break;
+                default:
+                    lastTokenStart = i;
+                    i = skipTextualToken(s, i);
+                    lastToken = s.substring(lastTokenStart, i);
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static int skipStringLiteral(String s, int start) {
+        int i = start;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            i += c == '\\' ? 2 : 1;
+        }
+        return i;
+    }
+
+    private static int skipTextualToken(String s, int start) {
+        int i = start + 1;
+        while (i < s.length()) {
+            switch (s.charAt(i)) {
+                case '=':
+                case '"':
+                case '(':
+                case ')':
+                case '<':
+                case '>':
+                case '@':
+                case '^':
+                case '\r':
+                case '\n':
+                case ' ':
+                case '\t':
+                    return i;
+                default:
+                    i++;
+            }
+        }
+        return i;
+    }
+
+    private void addAxiomEnd(int end) {
+        if (axiomCount == axiomEnds.length) {
+            axiomEnds = Arrays.copyOf(axiomEnds, axiomCount * 2);
+        }
+        axiomEnds[axiomCount++] = end;
+    }
+
+    /**
+     * Parser for a section of the ontology body; axioms are collected rather than added to the
+     * ontology, and ontology level changes are ignored.
+     */
+    private static class AxiomCollector extends OWLFunctionalSyntaxParser
+        implements Callable<List<OWLAxiom>> {
+
+        private final List<OWLAxiom> axioms = new ArrayList<>();
+        private final boolean loadAnnotations;
+
+        AxiomCollector(String chunk, OWLOntologyLoaderConfiguration config) {
+            super(new CustomTokenizer(new StringReader(chunk)));
+            loadAnnotations = config.isLoadAnnotationAxioms();
+        }
+
+        @Override
+        protected void applyChange(OWLOntologyChange chg) {
+            // the ontology id, imports and annotations are set by the header parser
+        }
+
+        @Override
+        protected void addAxiom(OWLAxiom ax) {
+            if (!(ax instanceof OWLAnnotationAxiom) || loadAnnotations) {
+                axioms.add(ax);
+            }
+        }
+
+        @Override
+        public List<OWLAxiom> call() throws ParseException {
+            parse();
+            return axioms;
+        }
+    }
+}
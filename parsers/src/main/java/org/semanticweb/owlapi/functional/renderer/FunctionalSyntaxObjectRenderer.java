@@ -16,6 +16,9 @@ import static org.semanticweb.owlapi.model.parameters.Imports.EXCLUDED;
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.comparator;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.sort;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.sorted;
 import static org.semanticweb.owlapi.vocab.OWLRDFVocabulary.RDFS_LABEL;
 import static org.semanticweb.owlapi.vocab.OWLXMLVocabulary.ANNOTATION;
 import static org.semanticweb.owlapi.vocab.OWLXMLVocabulary.ANNOTATION_ASSERTION;
@@ -100,6 +103,7 @@ import static org.semanticweb.owlapi.vocab.OWLXMLVocabulary.TRANSITIVE_OBJECT_PR
 import static org.semanticweb.owlapi.vocab.OWLXMLVocabulary.VARIABLE;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -110,6 +114,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -223,11 +232,16 @@ import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.util.AnnotationValueShortFormProvider;
 import org.semanticweb.owlapi.util.DefaultPrefixManager;
 import org.semanticweb.owlapi.util.EscapeUtils;
+import org.semanticweb.owlapi.util.ParallelTasks;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 import org.semanticweb.owlapi.vocab.OWLXMLVocabulary;
 
 /**
- * The Class OWLObjectRenderer.
+ * The Class OWLObjectRenderer.<br>
+ * When more than one rendering thread is configured, the declarations and entity blocks of an
+ * ontology are rendered by worker threads into separate buffers and written in the same order as
+ * on a single thread, so the output does not depend on the number of threads. A subclass always
+ * renders on the calling thread: the workers are plain renderers and would bypass its overrides.
  *
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics Group
  * @since 2.0.0
@@ -242,6 +256,12 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
     private PrefixManager prefixManager;
     private boolean writeEntitiesAsURIs = true;
     private boolean addMissingDeclarations = true;
+    // entities prepared together, and axioms rendered by each worker task, in parallel mode
+    private static final int WINDOW = 8192;
+    private static final int CHUNK = 64;
+    private int threads = 1;
+    @Nullable
+    private ForkJoinPool pool;
 
     /**
      * @param ontology the ontology
@@ -277,6 +297,32 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         OWLAnnotationProperty labelProp = df.getOWLAnnotationProperty(RDFS_LABEL.getIRI());
         labelMaker = new AnnotationValueShortFormProvider(Collections.singletonList(labelProp),
             prefLangMap, manager, defaultPrefixManager);
+        threads = manager.getOntologyWriterConfiguration().getParallelRenderingThreads();
+    }
+
+    /**
+     * Renderer for a section of the output of another renderer, sharing its settings.
+     *
+     * @param parent renderer whose settings are used
+     * @param writer writer for the section
+     */
+    private FunctionalSyntaxObjectRenderer(FunctionalSyntaxObjectRenderer parent, Writer writer) {
+        ont = parent.ont;
+        this.writer = writer;
+        labelMaker = parent.labelMaker;
+        defaultPrefixManager = parent.defaultPrefixManager;
+        prefixManager = parent.prefixManager;
+        addMissingDeclarations = parent.addMissingDeclarations;
+    }
+
+    /**
+     * @param threads number of threads used to render an ontology; values lower than 2 mean the
+     *        ontology is rendered on the calling thread only. The output is the same in both
+     *        cases.
+     * @since 5.1.8
+     */
+    public void setParallelRenderingThreads(int threads) {
+        this.threads = threads;
     }
 
     /**
@@ -352,8 +398,16 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         write(">");
     }
 
-    @Override
-    public void visit(OWLOntology ontology) {
+    /**
+     * Writes the prefixes and the ontology header: ontology IRI, version IRI, imports and
+     * annotations. Together with {@link #writeAxiom(OWLAxiom)} and {@link #writeOntologyEnd()},
+     * this allows axioms to be written as they are produced, without adding them to an ontology;
+     * such axioms are written in the order received, without sorting or banners.
+     *
+     * @param ontology ontology whose header should be written
+     * @since 5.1.8
+     */
+    public void writeOntologyHeader(OWLOntology ontology) {
         writePrefixes();
         writeReturn();
         writeReturn();
@@ -377,9 +431,47 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         });
         ontology.annotations().forEach(this::acceptAndReturn);
         writeReturn();
+    }
+
+    /**
+     * Writes an axiom after the header written by {@link #writeOntologyHeader(OWLOntology)}.
+     *
+     * @param axiom axiom to write
+     * @since 5.1.8
+     */
+    public void writeAxiom(OWLAxiom axiom) {
+        acceptAndReturn(axiom);
+    }
+
+    /**
+     * Closes the ontology opened by {@link #writeOntologyHeader(OWLOntology)} and flushes the
+     * writer.
+     *
+     * @since 5.1.8
+     */
+    public void writeOntologyEnd() {
+        writeCloseBracket();
+        flush();
+    }
+
+    @Override
+    public void visit(OWLOntology ontology) {
+        writeOntologyHeader(ontology);
         Set<OWLAxiom> writtenAxioms = new HashSet<>();
         Collection<IRI> illegals = OWLDocumentFormat.determineIllegalPunnings(
             addMissingDeclarations, ontology.unsortedSignature(), ont.getPunnedIRIs(INCLUDED));
+        if (threads > 1 && getClass() == FunctionalSyntaxObjectRenderer.class) {
+            pool = new ForkJoinPool(threads);
+            try {
+                writeInParallel(ontology, writtenAxioms, illegals);
+            } finally {
+                verifyNotNull(pool).shutdownNow();
+                pool = null;
+            }
+            writeCloseBracket();
+            flush();
+            return;
+        }
         ontology.signature().forEach(e -> writeDeclarations(e, writtenAxioms, illegals));
         writeSortedEntities("Annotation Properties", "Annotation Property",
             ontology.annotationPropertiesInSignature(EXCLUDED), writtenAxioms);
@@ -394,7 +486,7 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         writeSortedEntities("Named Individuals", "Individual",
             ontology.individualsInSignature(EXCLUDED), writtenAxioms);
         ontology.signature().forEach(e -> writeAxioms(e, writtenAxioms));
-        ontology.axioms().filter(ax -> !writtenAxioms.contains(ax)).sorted()
+        sorted(ontology.axioms().filter(ax -> !writtenAxioms.contains(ax)))
             .forEach(this::acceptAndReturn);
         writeCloseBracket();
         flush();
@@ -402,7 +494,7 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
 
     private void writeSortedEntities(String bannerComment, String entityTypeName,
         Stream<? extends OWLEntity> entities, Set<OWLAxiom> writtenAxioms) {
-        List<? extends OWLEntity> sortOptionally = asList(entities.sorted());
+        List<? extends OWLEntity> sortOptionally = sorted(entities);
         if (!sortOptionally.isEmpty()) {
             writeEntities(bannerComment, entityTypeName, sortOptionally, writtenAxioms);
             writeReturn();
@@ -427,18 +519,22 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
                 continue;
             }
             if (!haveWrittenBanner) {
-                writeln("############################");
-                writeln("#   " + comment);
-                writeln("############################");
-                writeReturn();
+                writeBanner(comment);
                 haveWrittenBanner = true;
             }
-            axiomsForEntity.sort(null);
-            list.sort(null);
+            sort(axiomsForEntity);
+            sort(list);
             writeEntity2(owlEntity, entityTypeName, axiomsForEntity, list, writtenAxioms);
         }
     }
 
+    private void writeBanner(String comment) {
+        writeln("############################");
+        writeln("#   " + comment);
+        writeln("############################");
+        writeReturn();
+    }
+
     /**
      * Writes out the axioms that define the specified entity.
      *
@@ -464,8 +560,8 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
     }
 
     protected void writeEntity(OWLEntity entity, Set<OWLAxiom> alreadyWrittenAxioms) {
-        writeEntity2(entity, "", asList(getUnsortedAxiomsForEntity(entity).sorted()),
-            asList(ont.annotationAssertionAxioms(entity.getIRI()).sorted()), alreadyWrittenAxioms);
+        writeEntity2(entity, "", sorted(getUnsortedAxiomsForEntity(entity)),
+            sorted(ont.annotationAssertionAxioms(entity.getIRI())), alreadyWrittenAxioms);
     }
 
     protected void writeEntity2(OWLEntity entity, String entityTypeName,
@@ -477,12 +573,12 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         writeReturn();
         annotationAssertionAxioms.stream().filter(alreadyWrittenAxioms::add)
             .forEach(this::acceptAndReturn);
-        axiomsForEntity.stream().filter(this::shouldWrite).filter(alreadyWrittenAxioms::add)
-            .forEach(this::acceptAndReturn);
+        axiomsForEntity.stream().filter(FunctionalSyntaxObjectRenderer::shouldWrite)
+            .filter(alreadyWrittenAxioms::add).forEach(this::acceptAndReturn);
         writeReturn();
     }
 
-    private boolean shouldWrite(OWLAxiom ax) {
+    private static boolean shouldWrite(OWLAxiom ax) {
         if (ax.getAxiomType().equals(AxiomType.DIFFERENT_INDIVIDUALS)) {
             return false;
         }
@@ -513,7 +609,7 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
                 .filter(ax -> ax.getAxiomType().equals(AxiomType.DIFFERENT_INDIVIDUALS))
                 .filter(ax -> ax.getAxiomType().equals(AxiomType.DISJOINT_CLASSES)
                     && ((OWLDisjointClassesAxiom) ax).classExpressions().count() > 2)
-                .sorted();
+                .sorted(comparator());
         stream.forEach(ax -> {
             ax.accept(this);
             writtenAxioms.add(ax);
@@ -530,7 +626,7 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
      */
     protected Set<OWLAxiom> writeDeclarations(OWLEntity entity) {
         Set<OWLAxiom> axioms = new HashSet<>();
-        ont.declarationAxioms(entity).sorted().forEach(ax -> {
+        sorted(ont.declarationAxioms(entity)).forEach(ax -> {
             ax.accept(this);
             axioms.add(ax);
             writeReturn();
@@ -540,20 +636,141 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
 
     private void writeDeclarations(OWLEntity entity, Set<OWLAxiom> alreadyWrittenAxioms,
         Collection<IRI> illegals) {
-        Collection<OWLDeclarationAxiom> axioms = asList(ont.declarationAxioms(entity).sorted());
+        Collection<OWLDeclarationAxiom> axioms = sorted(ont.declarationAxioms(entity));
         axioms.stream().filter(alreadyWrittenAxioms::add).forEach(this::acceptAndReturn);
+        if (axioms.isEmpty()) {
+            writeMissingDeclaration(entity, illegals);
+        }
+    }
+
+    private void writeMissingDeclaration(OWLEntity entity, Collection<IRI> illegals) {
         // if multiple illegal declarations already exist, they have already
         // been outputted the renderer cannot take responsibility for removing
         // them. It should not add declarations for illegally punned entities
         // here, though
-        if (addMissingDeclarations && axioms.isEmpty() && !entity.isBuiltIn()
-            && !illegals.contains(entity.getIRI()) && !ont.isDeclared(entity, Imports.INCLUDED)) {
+        if (addMissingDeclarations && !entity.isBuiltIn() && !illegals.contains(entity.getIRI())
+            && !ont.isDeclared(entity, Imports.INCLUDED)) {
             OWLDeclarationAxiom declaration =
                 ont.getOWLOntologyManager().getOWLDataFactory().getOWLDeclarationAxiom(entity);
             acceptAndReturn(declaration);
         }
     }
 
+    /**
+     * Writes the same declarations, entity blocks and remaining axioms as the sequential path in
+     * {@link #visit(OWLOntology)}. Axioms are written once, in the first block that includes
+     * them; which block that is depends on the blocks before it, so for each window of entities
+     * the axioms are retrieved and sorted in parallel, assigned to blocks in order on this
+     * thread, and the blocks are rendered in parallel and written in order.
+     */
+    private void writeInParallel(OWLOntology ontology, Set<OWLAxiom> writtenAxioms,
+        Collection<IRI> illegals) {
+        List<OWLEntity> signature = asList(ontology.signature());
+        writeInParallel(signature,
+            e -> new EntityBlock(e, Collections.emptyList(),
+                sorted(ont.declarationAxioms(e))),
+            b -> {
+                writtenAxioms.addAll(b.axioms);
+                return b;
+            }, (r, b) -> {
+                b.axioms.forEach(r::acceptAndReturn);
+                if (b.axioms.isEmpty()) {
+                    r.writeMissingDeclaration(b.entity, illegals);
+                }
+            });
+        writeSectionInParallel("Annotation Properties", "Annotation Property",
+            ontology.annotationPropertiesInSignature(EXCLUDED), writtenAxioms);
+        writeSectionInParallel("Object Properties", "Object Property",
+            ontology.objectPropertiesInSignature(EXCLUDED), writtenAxioms);
+        writeSectionInParallel("Data Properties", "Data Property",
+            ontology.dataPropertiesInSignature(EXCLUDED), writtenAxioms);
+        writeSectionInParallel("Datatypes", "Datatype", ontology.datatypesInSignature(EXCLUDED),
+            writtenAxioms);
+        writeSectionInParallel("Classes", "Class", ontology.classesInSignature(EXCLUDED),
+            writtenAxioms);
+        writeSectionInParallel("Named Individuals", "Individual",
+            ontology.individualsInSignature(EXCLUDED), writtenAxioms);
+        writeInParallel(signature,
+            e -> new EntityBlock(e, sorted(ont.annotationAssertionAxioms(e.getIRI())),
+                Collections.emptyList()),
+            b -> b.select(writtenAxioms) ? b : null,
+            (r, b) -> b.annotations.forEach(r::acceptAndReturn));
+        List<OWLAxiom> axioms = asList(ontology.axioms());
+        List<OWLAxiom> remaining = inPool(() -> axioms.parallelStream()
+            .filter(ax -> !writtenAxioms.contains(ax)).sorted(comparator())
+            .collect(Collectors.toList()));
+        writeInParallel(remaining, ax -> ax, ax -> ax,
+            FunctionalSyntaxObjectRenderer::acceptAndReturn);
+    }
+
+    private void writeSectionInParallel(String comment, String entityTypeName,
+        Stream<? extends OWLEntity> entities, Set<OWLAxiom> writtenAxioms) {
+        List<? extends OWLEntity> sorted = sorted(entities);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        String[] banner = {comment};
+        writeInParallel(sorted,
+            e -> new EntityBlock(e, sorted(ont.annotationAssertionAxioms(e.getIRI())),
+                sorted(getUnsortedAxiomsForEntity(e))),
+            b -> {
+                if (!b.select(writtenAxioms)) {
+                    return null;
+                }
+                b.banner = banner[0];
+                banner[0] = null;
+                return b;
+            }, (r, b) -> {
+                if (b.banner != null) {
+                    r.writeBanner(b.banner);
+                }
+                r.writeEntity2(b.entity, entityTypeName, b.axioms, b.annotations,
+                    new HashSet<>());
+            });
+        writeReturn();
+    }
+
+    /**
+     * Writes items in order, one window at a time: for each window, {@code prepare} runs in
+     * parallel; {@code select} runs on this thread, in order, and returns null for items that
+     * produce no output; {@code render} runs in parallel on renderers writing to buffers, which
+     * are then written in order.
+     */
+    private <T, B> void writeInParallel(List<? extends T> items, Function<T, B> prepare,
+        Function<B, B> select, BiConsumer<FunctionalSyntaxObjectRenderer, B> render) {
+        for (int start = 0; start < items.size(); start += WINDOW) {
+            List<? extends T> window = items.subList(start, Math.min(items.size(), start + WINDOW));
+            List<B> prepared =
+                inPool(() -> window.parallelStream().map(prepare).collect(Collectors.toList()));
+            List<List<B>> chunks = new ArrayList<>();
+            List<B> chunk = new ArrayList<>();
+            for (B b : prepared) {
+                B selected = select.apply(b);
+                if (selected != null) {
+                    chunk.add(selected);
+                    if (chunk.size() == CHUNK) {
+                        chunks.add(chunk);
+                        chunk = new ArrayList<>();
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+            List<String> rendered = inPool(() -> chunks.parallelStream().map(c -> {
+                StringWriter buffer = new StringWriter();
+                FunctionalSyntaxObjectRenderer r = new FunctionalSyntaxObjectRenderer(this, buffer);
+                c.forEach(b -> render.accept(r, b));
+                return buffer.toString();
+            }).collect(Collectors.toList()));
+            rendered.forEach(this::write);
+        }
+    }
+
+    private <R> R inPool(Callable<R> task) {
+        return ParallelTasks.call(verifyNotNull(pool), task);
+    }
+
     protected void acceptAndReturn(OWLObject ax) {
         ax.accept(this);
         writeReturn();
@@ -577,8 +794,8 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
      *        axioms
      */
     protected void writeAnnotations(OWLEntity entity, Set<OWLAxiom> alreadyWrittenAxioms) {
-        ont.annotationAssertionAxioms(entity.getIRI()).sorted().filter(alreadyWrittenAxioms::add)
-            .forEach(this::acceptAndReturn);
+        sorted(ont.annotationAssertionAxioms(entity.getIRI())).stream()
+            .filter(alreadyWrittenAxioms::add).forEach(this::acceptAndReturn);
     }
 
     /**
@@ -1366,6 +1583,47 @@ public class FunctionalSyntaxObjectRenderer implements OWLObjectVisitor {
         writeCloseBracket();
     }
 
+    /**
+     * Axioms to write for an entity in parallel mode: first the candidates, sorted, then the
+     * axioms actually written.
+     */
+    private static class EntityBlock {
+
+        final OWLEntity entity;
+        List<OWLAnnotationAssertionAxiom> annotations;
+        List<? extends OWLAxiom> axioms;
+        @Nullable
+        String banner;
+
+        EntityBlock(OWLEntity entity, List<OWLAnnotationAssertionAxiom> annotations,
+            List<? extends OWLAxiom> axioms) {
+            this.entity = entity;
+            this.annotations = annotations;
+            this.axioms = axioms;
+        }
+
+        /**
+         * Keeps the axioms not yet written, as the sequential path does for an entity block.
+         *
+         * @param writtenAxioms axioms already written, updated with the axioms kept
+         * @return false if the entity has no axioms left to write
+         */
+        boolean select(Set<OWLAxiom> writtenAxioms) {
+            if (annotations.stream().allMatch(writtenAxioms::contains)
+                && axioms.stream().allMatch(writtenAxioms::contains)) {
+                return false;
+            }
+            // axioms not written yet when the block starts are candidates; annotations are
+            // written first
+            List<? extends OWLAxiom> candidates = asList(
+                axioms.stream().filter(ax -> !writtenAxioms.contains(ax)));
+            annotations = asList(annotations.stream().filter(writtenAxioms::add));
+            axioms = asList(candidates.stream().filter(FunctionalSyntaxObjectRenderer::shouldWrite)
+                .filter(writtenAxioms::add));
+            return true;
+        }
+    }
+
     class AxiomRetriever implements OWLEntityVisitorEx<Stream<? extends OWLAxiom>> {
 
         @Override
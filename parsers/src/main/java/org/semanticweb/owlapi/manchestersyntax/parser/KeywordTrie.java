@@ -0,0 +1,137 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.manchestersyntax.parser;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable trie of the Manchester syntax keywords and delimiters, built once. Keywords are
+ * matched without regard to case, as {@link ManchesterOWLSyntax#matches(String)} does, and
+ * without creating a string for the text being matched; the tokenizer uses it to reuse the
+ * keyword strings for its tokens.
+ *
+ * @since 5.1.8
+ */
+final class KeywordTrie {
+
+    /** Trie of all keywords and delimiters. */
+    static final KeywordTrie KEYWORDS = new KeywordTrie("()[]{},^@<>=?");
+    private final Node root = new Node();
+
+    private KeywordTrie(String delimiters) {
+        // first keyword wins, as in ManchesterOWLSyntax.parse()
+        for (ManchesterOWLSyntax m : ManchesterOWLSyntax.values()) {
+            Node n = insert(m.keyword());
+            if (n.keyword == null) {
+                n.keyword = m;
+            }
+        }
+        for (int i = 0; i < delimiters.length(); i++) {
+            insert(delimiters.substring(i, i + 1));
+        }
+    }
+
+    /**
+     * Characters are equal ignoring case if their folded forms are equal; this is the comparison
+     * made by {@link String#equalsIgnoreCase(String)}.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private Node insert(String s) {
+        Node n = root;
+        for (int i = 0; i < s.length(); i++) {
+            n = n.add(fold(s.charAt(i)));
+        }
+        if (n.text == null) {
+            n.text = s;
+        }
+        return n;
+    }
+
+    @Nullable
+    private Node find(CharSequence s) {
+        Node n = root;
+        for (int i = 0; i < s.length() && n != null; i++) {
+            n = n.get(fold(s.charAt(i)));
+        }
+        return n;
+    }
+
+    /**
+     * @param s text to match
+     * @return the first keyword matching the text, ignoring case, or null if there is none
+     */
+    @Nullable
+    ManchesterOWLSyntax keyword(CharSequence s) {
+        Node n = find(s);
+        return n == null ? null : n.keyword;
+    }
+
+    /**
+     * @param s text to match
+     * @return the keyword or delimiter string equal to the text, or null if there is none
+     */
+    @Nullable
+    String intern(CharSequence s) {
+        Node n = find(s);
+        if (n == null || n.text == null) {
+            return null;
+        }
+        String text = n.text;
+        return text.contentEquals(s) ? text : null;
+    }
+
+    /**
+     * Trie node; children are kept in two parallel arrays sorted by character. Nodes are only
+     * modified while the trie is built.
+     */
+    private static class Node {
+
+        private char[] chars = new char[0];
+        private Node[] children = new Node[0];
+        @Nullable
+        String text;
+        @Nullable
+        ManchesterOWLSyntax keyword;
+
+        @Nullable
+        Node get(char c) {
+            int i = Arrays.binarySearch(chars, c);
+            return i < 0 ? null : children[i];
+        }
+
+        Node add(char c) {
+            int i = Arrays.binarySearch(chars, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newChars = new char[chars.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(chars, at, newChars, at + 1, chars.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node n = new Node();
+            newChars[at] = c;
+            newChildren[at] = n;
+            chars = newChars;
+            children = newChildren;
+            return n;
+        }
+    }
+}
@@ -142,12 +142,7 @@ public enum ManchesterOWLSyntax {
      */
     @Nullable
     public static ManchesterOWLSyntax parse(String rendering) {
-        for (ManchesterOWLSyntax m : values()) {
-            if (m.matches(rendering)) {
-                return m;
-            }
-        }
-        return null;
+        return KeywordTrie.KEYWORDS.keyword(rendering);
     }
 
     /**
@@ -0,0 +1,210 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.manchestersyntax.parser;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.expression.OWLEntityChecker;
+import org.semanticweb.owlapi.expression.OWLExpressionParser;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OntologyConfigurator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A class expression parser for high volumes of expressions, which can be shared by several
+ * threads. Each thread reuses its own Manchester syntax parser, with its token list, rather than
+ * creating one for each expression, and results are cached by expression string. The parsers do
+ * not keep the entity checker between parses, so that threads that outlive this parser, such as
+ * those of a pool, do not keep the checker and the ontologies it refers to reachable.<br>
+ * Names can resolve to different entities once the ontologies change, so the cache is cleared
+ * when the entity checker is replaced and, when created with a manager, whenever an ontology of
+ * the manager changes; call {@link #dispose()} to stop listening to the manager. Expressions with
+ * anonymous individuals are not cached, so that results and errors are the same as with
+ * {@link ManchesterOWLSyntaxClassExpressionParser}.
+ *
+ * @since 5.1.8
+ */
+public class ManchesterOWLSyntaxCachingClassExpressionParser
+    implements OWLExpressionParser<OWLClassExpression>, OWLOntologyChangeListener {
+
+    /** Set on parsers between parses, in place of the entity checker. */
+    private static final OWLEntityChecker NO_ENTITIES = new NoEntities();
+    private final OWLDataFactory dataFactory;
+    private final int cacheSize;
+    @Nullable
+    private final OWLOntologyManager manager;
+    private final ThreadLocal<ManchesterOWLSyntaxParserImpl> parsers =
+        ThreadLocal.withInitial(this::createParser);
+    private volatile OWLEntityChecker checker;
+    // replaced rather than cleared, so that parses running meanwhile cannot refill it
+    private volatile Cache<String, OWLClassExpression> cache;
+
+    /**
+     * @param dataFactory data factory
+     * @param checker entity checker
+     * @param cacheSize maximum number of expressions cached
+     */
+    public ManchesterOWLSyntaxCachingClassExpressionParser(OWLDataFactory dataFactory,
+        OWLEntityChecker checker, int cacheSize) {
+        this(dataFactory, checker, cacheSize, null);
+    }
+
+    /**
+     * @param manager manager whose ontology changes clear the cache
+     * @param checker entity checker
+     * @param cacheSize maximum number of expressions cached
+     */
+    public ManchesterOWLSyntaxCachingClassExpressionParser(OWLOntologyManager manager,
+        OWLEntityChecker checker, int cacheSize) {
+        this(manager.getOWLDataFactory(), checker, cacheSize, manager);
+        manager.addOntologyChangeListener(this);
+    }
+
+    private ManchesterOWLSyntaxCachingClassExpressionParser(OWLDataFactory dataFactory,
+        OWLEntityChecker checker, int cacheSize, @Nullable OWLOntologyManager manager) {
+        this.dataFactory = checkNotNull(dataFactory, "dataFactory cannot be null");
+        this.checker = checkNotNull(checker, "checker cannot be null");
+        this.cacheSize = cacheSize;
+        this.manager = manager;
+        cache = createCache();
+    }
+
+    private ManchesterOWLSyntaxParserImpl createParser() {
+        return new ManchesterOWLSyntaxParserImpl(new OntologyConfigurator(), dataFactory);
+    }
+
+    private Cache<String, OWLClassExpression> createCache() {
+        return Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    @Override
+    public OWLClassExpression parse(String expression) {
+        Cache<String, OWLClassExpression> c = cache;
+        OWLClassExpression ce = c.getIfPresent(expression);
+        if (ce != null) {
+            return ce;
+        }
+        ManchesterOWLSyntaxParserImpl parser = parsers.get();
+        // the keywords expected by the previous parse would show in error messages
+        parser.potentialKeywords.clear();
+        parser.setOWLEntityChecker(checker);
+        try {
+            parser.setStringToParse(expression);
+            ce = parser.parseClassExpression();
+        } finally {
+            parser.setOWLEntityChecker(NO_ENTITIES);
+        }
+        if (ce.anonymousIndividuals().findAny().isPresent()) {
+            // anonymous individual ids are remapped per parser; start afresh next time
+            parsers.remove();
+            return ce;
+        }
+        c.put(expression, ce);
+        return ce;
+    }
+
+    @Override
+    public void setOWLEntityChecker(OWLEntityChecker entityChecker) {
+        checker = checkNotNull(entityChecker, "entityChecker cannot be null");
+        clearCache();
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clearCache() {
+        cache = createCache();
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public long cachedCount() {
+        Cache<String, OWLClassExpression> c = cache;
+        c.cleanUp();
+        return c.estimatedSize();
+    }
+
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        clearCache();
+    }
+
+    /**
+     * Stops listening to the ontology changes of the manager, if any, and clears the cache.
+     */
+    public void dispose() {
+        OWLOntologyManager m = manager;
+        if (m != null) {
+            m.removeOntologyChangeListener(this);
+        }
+        clearCache();
+    }
+
+    private static class NoEntities implements OWLEntityChecker {
+
+        NoEntities() {}
+
+        @Override
+        @Nullable
+        public OWLClass getOWLClass(String name) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public OWLObjectProperty getOWLObjectProperty(String name) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public OWLDataProperty getOWLDataProperty(String name) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public OWLNamedIndividual getOWLIndividual(String name) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public OWLDatatype getOWLDatatype(String name) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public OWLAnnotationProperty getOWLAnnotationProperty(String name) {
+            return null;
+        }
+    }
+}
@@ -352,8 +352,7 @@ public class ManchesterOWLSyntaxParserImpl implements ManchesterOWLSyntaxParser
 
     @Override
     public void setStringToParse(String s) {
-        tokens.clear();
-        tokens.addAll(getTokenizer(s).tokenize());
+        getTokenizer(s).tokenize(tokens);
         tokenIndex = 0;
     }
 
@@ -39,7 +39,7 @@ public class ManchesterOWLSyntaxTokenizer {
     private int pos;
     private int col;
     private int row;
-    private StringBuilder sb = new StringBuilder();
+    private final StringBuilder sb = new StringBuilder();
 
     /**
      * @param buffer buffer
@@ -76,7 +76,7 @@ public class ManchesterOWLSyntaxTokenizer {
     }
 
     private void reset() {
-        sb = new StringBuilder();
+        sb.setLength(0);
         tokens.clear();
         startRow = 1;
         startCol = 1;
@@ -90,6 +90,20 @@ public class ManchesterOWLSyntaxTokenizer {
      * @return tokens
      */
     public List<Token> tokenize() {
+        List<Token> list = new ArrayList<>();
+        tokenize(list);
+        return list;
+    }
+
+    /**
+     * Tokenizes the buffer into a list, replacing its contents; a parser can reuse the same list
+     * for every string it parses.
+     *
+     * @param list list to fill with the tokens
+     * @since 5.1.8
+     */
+    public void tokenize(List<Token> list) {
+        tokens = list;
         reset();
         int bufferLen = buffer.length();
         char lastChar = ' ';
@@ -98,7 +112,6 @@ public class ManchesterOWLSyntaxTokenizer {
         }
         consumeToken();
         tokens.add(new Token(EOFTOKEN, pos, col, row));
-        return new ArrayList<>(tokens);
     }
 
     protected char handleChar(char last) {
@@ -134,9 +147,13 @@ public class ManchesterOWLSyntaxTokenizer {
 
     private void consumeToken() {
         if (sb.length() > 0) {
-            String string = sb.toString();
+            // keywords and delimiters are by far the most common tokens
+            String string = KeywordTrie.KEYWORDS.intern(sb);
+            if (string == null) {
+                string = sb.toString();
+            }
             tokens.add(new Token(string, startPos, startCol, startRow));
-            sb = new StringBuilder();
+            sb.setLength(0);
         }
         startPos = pos;
         startCol = col;
@@ -187,14 +204,16 @@ public class ManchesterOWLSyntaxTokenizer {
     }
 
     private void readIRI() {
-        sb = new StringBuilder("<");
+        sb.setLength(0);
+        sb.append('<');
         int startPos1 = pos;
         while (pos < buffer.length()) {
             char ch = readChar();
             if (Character.isWhitespace(ch)) {
                 // Not an IRI -- go back to where we started
                 pos = startPos1;
-                sb = new StringBuilder("<");
+                sb.setLength(0);
+                sb.append('<');
                 consumeToken();
                 return;
             } else if (ch == '>') {
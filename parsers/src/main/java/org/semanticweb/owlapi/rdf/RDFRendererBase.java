@@ -24,8 +24,9 @@ import static org.semanticweb.owlapi.model.parameters.Imports.EXCLUDED;
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.add;
-import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.sort;
+import static org.semanticweb.owlapi.util.OWLObjectSortKeys.sorted;
 import static org.semanticweb.owlapi.vocab.OWLRDFVocabulary.OWL_ANNOTATION;
 import static org.semanticweb.owlapi.vocab.OWLRDFVocabulary.OWL_ANNOTATION_PROPERTY;
 import static org.semanticweb.owlapi.vocab.OWLRDFVocabulary.OWL_AXIOM;
@@ -281,7 +282,7 @@ public abstract class RDFRendererBase {
     private void renderEntities(Stream<? extends OWLEntity> entities, String bannerText,
         Collection<IRI> illegalPuns) {
         AtomicBoolean firstRendering = new AtomicBoolean(true);
-        entities.sorted().filter(e -> createGraph(e, illegalPuns))
+        sorted(entities).stream().filter(e -> createGraph(e, illegalPuns))
             .forEach(e -> render(e, firstRendering, bannerText));
     }
 
@@ -334,7 +335,7 @@ public abstract class RDFRendererBase {
             .forEach(ax -> addIfUntyped(ax.getSubject(), annotatedIRIs));
         if (!annotatedIRIs.isEmpty()) {
             writeBanner(ANNOTATED_IRIS_BANNER_TEXT);
-            annotatedIRIs.stream().sorted().forEach(this::renderIRI);
+            sorted(annotatedIRIs.stream()).forEach(this::renderIRI);
         }
     }
 
@@ -370,7 +371,7 @@ public abstract class RDFRendererBase {
     }
 
     private void renderSWRLRules() {
-        List<SWRLRule> ruleAxioms = asList(ontology.axioms(SWRL_RULE).sorted());
+        List<SWRLRule> ruleAxioms = sorted(ontology.axioms(SWRL_RULE));
         createGraph(ruleAxioms.stream());
         if (!ruleAxioms.isEmpty()) {
             writeBanner(RULES_BANNER_TEXT);
@@ -425,7 +426,7 @@ public abstract class RDFRendererBase {
             ontology.axioms(DISJOINT_DATA_PROPERTIES).filter(ax -> ax.properties().count() > 2));
         add(generalAxioms,
             ontology.axioms(HAS_KEY).filter(ax -> ax.getClassExpression().isAnonymous()));
-        generalAxioms.sort(null);
+        sort(generalAxioms);
         return generalAxioms;
     }
 
@@ -473,7 +474,7 @@ public abstract class RDFRendererBase {
         RDFTranslator translator = new RDFTranslator(ontology.getOWLOntologyManager(), ontology,
             shouldInsertDeclarations(), occurrences, axiomOccurrences, nextBlankNodeId,
             blankNodeMap);
-        objects.sorted().forEach(obj -> deshare(obj).accept(translator));
+        sorted(objects).forEach(obj -> deshare(obj).accept(translator));
         graph = translator.getGraph();
         triplesWithRemappedNodes = getRDFGraph().computeRemappingForSharedNodes();
     }
@@ -342,7 +342,7 @@ public class OWLRDFConsumer
     /**
      * Subject, predicate, object
      */
-    private final Map<IRI, Map<IRI, Collection<IRI>>> resTriplesBySubject = createMap();
+    private final TriplesBySubject<IRI> resTriplesBySubject = new TriplesBySubject<>();
     /**
      * Predicate, subject, object
      */
@@ -350,7 +350,7 @@ public class OWLRDFConsumer
     /**
      * Literal triples
      */
-    private final Map<IRI, Map<IRI, Collection<OWLLiteral>>> litTriplesBySubject = createMap();
+    private final TriplesBySubject<OWLLiteral> litTriplesBySubject = new TriplesBySubject<>();
     // Resource triples
     /**
      * Predicate, subject, object
@@ -1166,17 +1166,6 @@ public class OWLRDFConsumer
         isTriplePresent(subject, predicate, con, true);
     }
 
-    protected <T> boolean contains(Map<IRI, Map<IRI, Collection<T>>> map, IRI subject,
-        IRI predicate, T value) {
-        Map<IRI, Collection<T>> resPredObjMap = map.get(subject);
-        if (resPredObjMap != null) {
-            Collection<T> collection = resPredObjMap.get(predicate);
-            if (collection != null) {
-                return collection.contains(value);
-            }
-        }
-        return false;
-    }
 
     /**
      * Adds the swrl rule.
@@ -1357,15 +1346,13 @@ public class OWLRDFConsumer
         // output anything
         if (LOGGER.isInfoEnabled()
             && singleValuedResTriplesByPredicate.size() + singleValuedLitTriplesByPredicate.size()
-                + resTriplesBySubject.size() + litTriplesBySubject.size() > 0) {
+                + resTriplesBySubject.subjectCount() + litTriplesBySubject.subjectCount() > 0) {
             singleValuedResTriplesByPredicate
                 .forEach((p, map) -> map.forEach((s, o) -> printTriple(s, p, o)));
             singleValuedLitTriplesByPredicate
                 .forEach((p, map) -> map.forEach((s, o) -> printTriple(s, p, o)));
-            resTriplesBySubject
-                .forEach((p, map) -> map.forEach((s, o) -> o.forEach(x -> printTriple(s, p, x))));
-            litTriplesBySubject
-                .forEach((p, map) -> map.forEach((s, o) -> o.forEach(x -> printTriple(s, p, x))));
+            resTriplesBySubject.forEach(OWLRDFConsumer::printTriple);
+            litTriplesBySubject.forEach(OWLRDFConsumer::printTriple);
         }
     }
 
@@ -1862,14 +1849,8 @@ public class OWLRDFConsumer
      */
     protected Set<IRI> getPredicatesBySubject(IRI subject) {
         Set<IRI> iris = createLinkedSet();
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            iris.addAll(predObjMap.keySet());
-        }
-        Map<IRI, Collection<OWLLiteral>> predObjMapLit = litTriplesBySubject.get(subject);
-        if (predObjMapLit != null) {
-            iris.addAll(predObjMapLit.keySet());
-        }
+        resTriplesBySubject.predicates(subject, iris);
+        litTriplesBySubject.predicates(subject, iris);
         return iris;
     }
 
@@ -1904,24 +1885,7 @@ public class OWLRDFConsumer
             }
             return obj;
         }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null && !objects.isEmpty()) {
-                IRI object = objects.iterator().next();
-                if (consume) {
-                    objects.remove(object);
-                }
-                if (objects.isEmpty()) {
-                    predObjMap.remove(predicate);
-                    if (predObjMap.isEmpty()) {
-                        resTriplesBySubject.remove(subject);
-                    }
-                }
-                return object;
-            }
-        }
-        return null;
+        return resTriplesBySubject.first(subject, predicate, consume);
     }
 
     /**
@@ -1940,13 +1904,7 @@ public class OWLRDFConsumer
                 result.add(obj);
             }
         }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null) {
-                result.addAll(objects);
-            }
-        }
+        resTriplesBySubject.objects(subject, predicate, result);
         return result;
     }
 
@@ -1982,21 +1940,7 @@ public class OWLRDFConsumer
             }
             return obj;
         }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null && !objects.isEmpty()) {
-                OWLLiteral object = objects.iterator().next();
-                if (consume) {
-                    objects.remove(object);
-                }
-                if (objects.isEmpty()) {
-                    predObjMap.remove(predicate);
-                }
-                return object;
-            }
-        }
-        return null;
+        return litTriplesBySubject.first(subject, predicate, consume);
     }
 
     /**
@@ -2015,13 +1959,7 @@ public class OWLRDFConsumer
                 result.add(obj);
             }
         }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null) {
-                result.addAll(objects);
-            }
-        }
+        litTriplesBySubject.objects(subject, predicate, result);
         return result;
     }
 
@@ -2043,23 +1981,10 @@ public class OWLRDFConsumer
             }
             return obj != null;
         }
-        Map<IRI, Collection<IRI>> predObjMap = resTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<IRI> objects = predObjMap.get(predicate);
-            if (objects != null && objects.contains(object)) {
-                if (consume) {
-                    objects.remove(object);
-                    if (objects.isEmpty()) {
-                        predObjMap.remove(predicate);
-                        if (predObjMap.isEmpty()) {
-                            resTriplesBySubject.remove(subject);
-                        }
-                    }
-                }
-                return true;
-            }
+        if (consume) {
+            return resTriplesBySubject.remove(subject, predicate, object);
         }
-        return false;
+        return resTriplesBySubject.contains(subject, predicate, object);
     }
 
     /**
@@ -2081,23 +2006,10 @@ public class OWLRDFConsumer
             }
             return obj != null;
         }
-        Map<IRI, Collection<OWLLiteral>> predObjMap = litTriplesBySubject.get(subject);
-        if (predObjMap != null) {
-            Collection<OWLLiteral> objects = predObjMap.get(predicate);
-            if (objects != null && objects.contains(object)) {
-                if (consume) {
-                    objects.remove(object);
-                    if (objects.isEmpty()) {
-                        predObjMap.remove(predicate);
-                        if (predObjMap.isEmpty()) {
-                            litTriplesBySubject.remove(subject);
-                        }
-                    }
-                }
-                return true;
-            }
+        if (consume) {
+            return litTriplesBySubject.remove(subject, predicate, object);
         }
-        return false;
+        return litTriplesBySubject.contains(subject, predicate, object);
     }
 
     /**
@@ -2116,15 +2028,8 @@ public class OWLRDFConsumer
         if (litPredMap != null) {
             return litPredMap.containsKey(subject);
         }
-        Map<IRI, Collection<IRI>> resPredObjMap = resTriplesBySubject.get(subject);
-        if (resPredObjMap != null && resPredObjMap.containsKey(predicate)) {
-            return true;
-        }
-        Map<IRI, Collection<OWLLiteral>> litPredObjMap = litTriplesBySubject.get(subject);
-        if (litPredObjMap != null) {
-            return litPredObjMap.containsKey(predicate);
-        }
-        return false;
+        return resTriplesBySubject.hasPredicate(subject, predicate)
+            || litTriplesBySubject.hasPredicate(subject, predicate);
     }
 
     /**
@@ -2250,7 +2155,7 @@ public class OWLRDFConsumer
     }
 
     protected boolean isAxiomIRI(IRI s) {
-        return contains(resTriplesBySubject, s, OWLRDFVocabulary.RDF_TYPE.getIRI(),
+        return resTriplesBySubject.contains(s, OWLRDFVocabulary.RDF_TYPE.getIRI(),
             OWLRDFVocabulary.OWL_AXIOM.getIRI());
     }
 
@@ -2277,9 +2182,7 @@ public class OWLRDFConsumer
      * @param iterator the iterator
      */
     protected void iterateResources(ResourceTripleIterator iterator) {
-        new ArrayList<>(resTriplesBySubject.entrySet()).forEach(
-            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
-                .forEach(object -> iterator.handleResourceTriple(e.getKey(), p.getKey(), object))));
+        resTriplesBySubject.forEach(iterator::handleResourceTriple);
     }
 
     /**
@@ -2288,9 +2191,7 @@ public class OWLRDFConsumer
      * @param iterator the iterator
      */
     protected void iterateLiterals(LiteralTripleIterator iterator) {
-        new ArrayList<>(litTriplesBySubject.entrySet()).forEach(
-            e -> new ArrayList<>(e.getValue().entrySet()).forEach(p -> new ArrayList<>(p.getValue())
-                .forEach(object -> iterator.handleLiteralTriple(e.getKey(), p.getKey(), object))));
+        litTriplesBySubject.forEach(iterator::handleLiteralTriple);
     }
 
     @Override
@@ -2321,8 +2222,7 @@ public class OWLRDFConsumer
         if (subjObjMap != null) {
             subjObjMap.put(subject, object);
         } else {
-            resTriplesBySubject.computeIfAbsent(subject, x -> createMap())
-                .computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
+            resTriplesBySubject.add(subject, predicate, object);
         }
     }
 
@@ -2331,8 +2231,7 @@ public class OWLRDFConsumer
         if (subjObjMap != null) {
             subjObjMap.put(subject, con);
         } else {
-            litTriplesBySubject.computeIfAbsent(subject, x -> createMap())
-                .computeIfAbsent(predicate, x -> createLinkedSet()).add(con);
+            litTriplesBySubject.add(subject, predicate, con);
         }
     }
 }
@@ -0,0 +1,327 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package org.semanticweb.owlapi.rdf.rdfxml.parser;
+
+import static org.semanticweb.owlapi.util.CollectionFactory.createLinkedSet;
+import static org.semanticweb.owlapi.util.CollectionFactory.createMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+
+/**
+ * Triples that could not be translated while streaming, indexed by subject. Most subjects have a
+ * handful of pending triples, so the predicates and objects of a subject are kept as pairs in a
+ * flat array, in insertion order; this takes a fraction of the memory of a map of sets per
+ * subject. Subjects with many pending triples are switched to a map from predicate to objects, to
+ * keep lookups cheap. Duplicate triples are stored once.
+ *
+ * @param <T> type of the objects, either IRI or literal
+ * @since 5.1.8
+ */
+class TriplesBySubject<T> {
+
+    /**
+     * Number of triples above which a subject is indexed by predicate.
+     */
+    static final int INDEX_THRESHOLD = 32;
+    private final Map<IRI, Row<T>> rows = createMap();
+
+    /**
+     * Callback for triple iteration.
+     *
+     * @param <T> type of the objects
+     */
+    @FunctionalInterface
+    interface TripleConsumer<T> {
+
+        /**
+         * @param subject subject
+         * @param predicate predicate
+         * @param object object
+         */
+        void accept(IRI subject, IRI predicate, T object);
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     */
+    void add(IRI subject, IRI predicate, T object) {
+        rows.computeIfAbsent(subject, x -> new Row<>()).add(predicate, object);
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     * @return true if the triple is present
+     */
+    boolean contains(IRI subject, IRI predicate, T object) {
+        Row<T> row = rows.get(subject);
+        return row != null && row.indexOf(predicate, object) >= 0;
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param object object
+     * @return true if the triple was present and has been removed
+     */
+    boolean remove(IRI subject, IRI predicate, T object) {
+        Row<T> row = rows.get(subject);
+        if (row == null || !row.remove(predicate, object)) {
+            return false;
+        }
+        if (row.isEmpty()) {
+            rows.remove(subject);
+        }
+        return true;
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param consume true if the triple should be removed
+     * @return the object of the first triple with the subject and predicate, or null if there is
+     *         no such triple
+     */
+    @Nullable
+    T first(IRI subject, IRI predicate, boolean consume) {
+        Row<T> row = rows.get(subject);
+        if (row == null) {
+            return null;
+        }
+        T object = row.first(predicate);
+        if (object != null && consume) {
+            remove(subject, predicate, object);
+        }
+        return object;
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @param objects collection to add the objects of all matching triples to
+     */
+    void objects(IRI subject, IRI predicate, Collection<? super T> objects) {
+        Row<T> row = rows.get(subject);
+        if (row != null) {
+            row.forEach((p, o) -> {
+                if (p.equals(predicate)) {
+                    objects.add(o);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param subject subject
+     * @param predicates collection to add the predicates of all triples with the subject to
+     */
+    void predicates(IRI subject, Collection<IRI> predicates) {
+        Row<T> row = rows.get(subject);
+        if (row != null) {
+            row.forEach((p, o) -> predicates.add(p));
+        }
+    }
+
+    /**
+     * @param subject subject
+     * @param predicate predicate
+     * @return true if there is a triple with the subject and predicate
+     */
+    boolean hasPredicate(IRI subject, IRI predicate) {
+        Row<T> row = rows.get(subject);
+        return row != null && row.first(predicate) != null;
+    }
+
+    /**
+     * Visits all triples. Triples can be added and removed while iterating; triples removed
+     * before being reached are not visited.
+     *
+     * @param consumer callback
+     */
+    void forEach(TripleConsumer<T> consumer) {
+        for (IRI subject : new ArrayList<>(rows.keySet())) {
+            Row<T> row = rows.get(subject);
+            if (row != null) {
+                List<Object> pairs = new ArrayList<>();
+                row.forEach((p, o) -> {
+                    pairs.add(p);
+                    pairs.add(o);
+                });
+                for (int i = 0; i < pairs.size(); i += 2) {
+                    IRI p = (IRI) pairs.get(i);
+                    @SuppressWarnings("unchecked")
+                    T o = (T) pairs.get(i + 1);
+                    if (contains(subject, p, o)) {
+                        consumer.accept(subject, p, o);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of subjects with pending triples
+     */
+    int subjectCount() {
+        return rows.size();
+    }
+
+    /**
+     * Removes all triples.
+     */
+    void clear() {
+        rows.clear();
+    }
+
+    /**
+     * The triples of one subject: predicate and object pairs in a flat array, or, above
+     * {@link TriplesBySubject#INDEX_THRESHOLD}, a map from predicate to objects.
+     */
+    private static class Row<T> {
+
+        private static final Object[] EMPTY = new Object[0];
+        // even positions hold predicates, odd positions hold objects
+        private Object[] pairs = EMPTY;
+        private int size = 0;
+        @Nullable
+        private Map<IRI, Set<T>> index;
+
+        interface PairConsumer<T> {
+
+            void accept(IRI predicate, T object);
+        }
+
+        void add(IRI predicate, T object) {
+            Map<IRI, Set<T>> map = index;
+            if (map != null) {
+                map.computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
+                return;
+            }
+            if (indexOf(predicate, object) >= 0) {
+                return;
+            }
+            if (size == INDEX_THRESHOLD) {
+                map = createMap();
+                for (int i = 0; i < size * 2; i += 2) {
+                    map.computeIfAbsent((IRI) pairs[i], x -> createLinkedSet()).add(object(i));
+                }
+                map.computeIfAbsent(predicate, x -> createLinkedSet()).add(object);
+                index = map;
+                pairs = EMPTY;
+                size = 0;
+                return;
+            }
+            if (pairs.length == size * 2) {
+                Object[] grown = new Object[Math.max(2, pairs.length * 2)];
+                System.arraycopy(pairs, 0, grown, 0, pairs.length);
+                pairs = grown;
+            }
+            pairs[size * 2] = predicate;
+            pairs[size * 2 + 1] = object;
+            size++;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T object(int i) {
+            return (T) pairs[i + 1];
+        }
+
+        /**
+         * @return position of the pair in the array, 0 if present in the index, -1 if absent
+         */
+        int indexOf(IRI predicate, T object) {
+            Map<IRI, Set<T>> map = index;
+            if (map != null) {
+                Set<T> objects = map.get(predicate);
+                return objects != null && objects.contains(object) ? 0 : -1;
+            }
+            for (int i = 0; i < size * 2; i += 2) {
+                if (pairs[i].equals(predicate) && Objects.equals(pairs[i + 1], object)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Nullable
+        T first(IRI predicate) {
+            Map<IRI, Set<T>> map = index;
+            if (map != null) {
+                Set<T> objects = map.get(predicate);
+                if (objects == null) {
+                    return null;
+                }
+                Iterator<T> it = objects.iterator();
+                return it.hasNext() ? it.next() : null;
+            }
+            for (int i = 0; i < size * 2; i += 2) {
+                if (pairs[i].equals(predicate)) {
+                    return object(i);
+                }
+            }
+            return null;
+        }
+
+        boolean remove(IRI predicate, T object) {
+            Map<IRI, Set<T>> map = index;
+            if (map != null) {
+                Set<T> objects = map.get(predicate);
+                if (objects == null || !objects.remove(object)) {
+                    return false;
+                }
+                if (objects.isEmpty()) {
+                    map.remove(predicate);
+                }
+                return true;
+            }
+            int i = indexOf(predicate, object);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(pairs, i + 2, pairs, i, size * 2 - i - 2);
+            size--;
+            pairs[size * 2] = null;
+            pairs[size * 2 + 1] = null;
+            return true;
+        }
+
+        boolean isEmpty() {
+            Map<IRI, Set<T>> map = index;
+            return map == null ? size == 0 : map.isEmpty();
+        }
+
+        void forEach(PairConsumer<T> consumer) {
+            Map<IRI, Set<T>> map = index;
+            if (map != null) {
+                map.forEach((p, objects) -> objects.forEach(o -> consumer.accept(p, o)));
+                return;
+            }
+            for (int i = 0; i < size * 2; i += 2) {
+                consumer.accept((IRI) pairs[i], object(i));
+            }
+        }
+    }
+}
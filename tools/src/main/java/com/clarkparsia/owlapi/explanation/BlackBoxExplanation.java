@@ -13,6 +13,7 @@
 package com.clarkparsia.owlapi.explanation;
 
 import static org.semanticweb.owlapi.model.parameters.Imports.INCLUDED;
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.add;
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
@@ -44,6 +45,7 @@ import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.clarkparsia.owlapi.explanation.util.DefinitionTracker;
 import com.clarkparsia.owlapi.explanation.util.OntologyUtils;
 
 /**
@@ -83,9 +85,13 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
      */
     private final int initialExpansionLimit = DEFAULT_INITIAL_EXPANSION_LIMIT;
     /**
-     * The owl ontology manager.
+     * The owl ontology manager, used for the debugging ontologies.
      */
     private final OWLOntologyManager man;
+    /**
+     * Axioms of the ontology that are not to be used in explanations.
+     */
+    private Set<OWLAxiom> excluded = Collections.emptySet();
     /**
      * The debugging axioms.
      */
@@ -119,6 +125,25 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
         man = ontology.getOWLOntologyManager();
     }
 
+    /**
+     * Instantiates a new black box explanation that creates its debugging ontologies in its own
+     * manager, so that several instances can explain in parallel over the same ontology. The
+     * ontology must not change while explanations are computed.
+     *
+     * @param ontology the ontology
+     * @param reasonerFactory the reasoner factory
+     * @param reasoner the reasoner
+     * @param definitionTracker definition tracker for the ontology
+     * @param debuggingManager manager for the debugging ontologies
+     * @since 5.1.8
+     */
+    public BlackBoxExplanation(OWLOntology ontology, OWLReasonerFactory reasonerFactory,
+        OWLReasoner reasoner, DefinitionTracker definitionTracker,
+        OWLOntologyManager debuggingManager) {
+        super(ontology, reasonerFactory, reasoner, definitionTracker);
+        man = checkNotNull(debuggingManager, "debuggingManager cannot be null");
+    }
+
     /**
      * A utility method. Adds axioms from one set to another set upto a specified limit. Annotation
      * axioms are stripped out
@@ -181,6 +206,26 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
         }
     }
 
+    /**
+     * Computes an explanation as if some axioms had been removed from the ontology, without
+     * changing the ontology.
+     *
+     * @param unsatClass the class expression to explain
+     * @param excludedAxioms axioms that must not be part of the explanation
+     * @return an explanation not including the excluded axioms, or an empty set if the class
+     *         expression is satisfiable without them
+     * @since 5.1.8
+     */
+    public Set<OWLAxiom> getExplanation(OWLClassExpression unsatClass,
+        Set<OWLAxiom> excludedAxioms) {
+        excluded = checkNotNull(excludedAxioms, "excludedAxioms cannot be null");
+        try {
+            return getExplanation(unsatClass);
+        } finally {
+            excluded = Collections.emptySet();
+        }
+    }
+
     // Expansion
     private int expandAxioms() {
         /*
@@ -264,6 +309,7 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
             }
         });
         expansionAxioms.removeAll(debuggingAxioms);
+        expansionAxioms.removeAll(excluded);
         return addMax(expansionAxioms, debuggingAxioms, limit);
     }
 
@@ -280,6 +326,7 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
         Set<OWLAxiom> expansionAxioms =
             asUnorderedSet(getOntology().referencingAxioms(obj, INCLUDED));
         expansionAxioms.removeAll(debuggingAxioms);
+        expansionAxioms.removeAll(excluded);
         return addMax(expansionAxioms, debuggingAxioms, limit);
     }
 
@@ -0,0 +1,367 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2011, Clark & Parsia, LLC
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package com.clarkparsia.owlapi.explanation;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.util.OWLAPIPreconditions;
+import org.semanticweb.owlapi.util.ParallelTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.clarkparsia.owlapi.explanation.util.DefinitionTracker;
+import com.clarkparsia.owlapi.explanation.util.ExplanationProgressMonitor;
+import com.clarkparsia.owlapi.explanation.util.SilentExplanationProgressMonitor;
+
+/**
+ * Hitting set tree explanation generator that expands independent branches of the tree in
+ * parallel. Unlike {@link HSTExplanationGenerator}, the ontology is not modified: each node of the
+ * tree asks a {@link BlackBoxExplanation} for a justification that does not use the axioms on its
+ * path. Each black box explanation is used by one thread at a time, and has its own manager and
+ * reasoners for the debugging ontologies; the ontology is only read, and must not change while
+ * explanations are computed. The black box explanations and the threads are reused by later calls,
+ * and released by {@link #dispose()}.<br>
+ * Justifications found are shared between branches: a node whose path does not hit a known
+ * justification reuses it rather than computing a new one. Nodes whose path has been seen before,
+ * or contains the path of a node already found satisfiable, are pruned. Justifications are passed
+ * to the progress monitor, and to the consumer if one is given, as soon as they are found.
+ *
+ * @since 5.1.8
+ */
+public class ParallelHSTExplanationGenerator implements MultipleExplanationGenerator {
+
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(ParallelHSTExplanationGenerator.class);
+    private final OWLOntology ontology;
+    private final OWLReasonerFactory reasonerFactory;
+    private final OWLReasoner reasoner;
+    private final Supplier<OWLOntologyManager> debuggingManagers;
+    private final int threads;
+    private final DefinitionTracker definitionTracker;
+    // generators not in use; each is only used by one thread at a time
+    private final Queue<Generator> idle = new ConcurrentLinkedQueue<>();
+    @Nullable
+    private ForkJoinPool pool;
+    private ExplanationProgressMonitor progressMonitor = new SilentExplanationProgressMonitor();
+
+    /**
+     * @param ontology the ontology
+     * @param reasonerFactory factory for the reasoners used on the debugging ontologies
+     * @param reasoner reasoner for the ontology
+     * @param debuggingManagers supplier of the managers for the debugging ontologies; called once
+     *        for each black box explanation, i.e., at most once for each thread
+     * @param threads number of threads to expand the hitting set tree with
+     */
+    public ParallelHSTExplanationGenerator(OWLOntology ontology,
+        OWLReasonerFactory reasonerFactory, OWLReasoner reasoner,
+        Supplier<OWLOntologyManager> debuggingManagers, int threads) {
+        this.ontology = checkNotNull(ontology, "ontology cannot be null");
+        this.reasonerFactory = checkNotNull(reasonerFactory, "reasonerFactory cannot be null");
+        this.reasoner = checkNotNull(reasoner, "reasoner cannot be null");
+        this.debuggingManagers =
+            checkNotNull(debuggingManagers, "debuggingManagers cannot be null");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        definitionTracker = new DefinitionTracker(ontology);
+    }
+
+    private Generator createGenerator() {
+        OWLOntologyManager manager = debuggingManagers.get();
+        BlackBoxExplanation explanation = new BlackBoxExplanation(ontology, reasonerFactory,
+            reasoner, definitionTracker, manager);
+        // satisfiability of the class is checked once, before the tree is expanded
+        explanation.beginTransaction();
+        return new Generator(manager, explanation);
+    }
+
+    private Set<OWLAxiom> explain(OWLClassExpression unsatClass, Set<OWLAxiom> excluded) {
+        Generator generator = idle.poll();
+        if (generator == null) {
+            generator = createGenerator();
+        }
+        try {
+            return generator.explanation.getExplanation(unsatClass, excluded);
+        } finally {
+            idle.add(generator);
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        ForkJoinPool p = pool;
+        if (p == null) {
+            p = new ForkJoinPool(threads);
+            pool = p;
+        }
+        return p;
+    }
+
+    @Override
+    public void setProgressMonitor(ExplanationProgressMonitor progressMonitor) {
+        this.progressMonitor = checkNotNull(progressMonitor, "progressMonitor cannot be null");
+    }
+
+    @Override
+    public OWLOntologyManager getOntologyManager() {
+        return ontology.getOWLOntologyManager();
+    }
+
+    @Override
+    public OWLOntology getOntology() {
+        return ontology;
+    }
+
+    @Override
+    public OWLReasoner getReasoner() {
+        return reasoner;
+    }
+
+    @Override
+    public OWLReasonerFactory getReasonerFactory() {
+        return reasonerFactory;
+    }
+
+    @Override
+    public void dispose() {
+        ontology.getOWLOntologyManager().removeOntologyChangeListener(definitionTracker);
+        synchronized (this) {
+            if (pool != null) {
+                pool.shutdownNow();
+                pool = null;
+            }
+        }
+        // the black box explanations share the reasoner, so only their debugging ontologies are
+        // released
+        for (Generator g = idle.poll(); g != null; g = idle.poll()) {
+            g.manager.clearOntologies();
+        }
+        reasoner.dispose();
+    }
+
+    private boolean isSatisfiable(OWLClassExpression unsatClass) {
+        return !definitionTracker.isDefined(unsatClass) || reasoner.isSatisfiable(unsatClass);
+    }
+
+    @Override
+    public Set<OWLAxiom> getExplanation(OWLClassExpression unsatClass) {
+        if (isSatisfiable(unsatClass)) {
+            return Collections.emptySet();
+        }
+        return explain(unsatClass, Collections.emptySet());
+    }
+
+    @Override
+    public Set<Set<OWLAxiom>> getExplanations(OWLClassExpression unsatClass) {
+        return getExplanations(unsatClass, 0);
+    }
+
+    @Override
+    public Set<Set<OWLAxiom>> getExplanations(OWLClassExpression unsatClass,
+        @Nonnegative int maxExplanations) {
+        return getExplanations(unsatClass, maxExplanations, x -> {
+            // only the result set is needed
+        });
+    }
+
+    /**
+     * Computes the justifications for an unsatisfiable class expression, passing each one to a
+     * consumer as soon as it is found. The consumer is not called concurrently.
+     *
+     * @param unsatClass the class expression to explain
+     * @param maxExplanations maximum number of justifications to compute; 0 for all
+     * @param consumer consumer for the justifications
+     * @return the justifications, in the order they were found
+     */
+    public Set<Set<OWLAxiom>> getExplanations(OWLClassExpression unsatClass,
+        @Nonnegative int maxExplanations, Consumer<Set<OWLAxiom>> consumer) {
+        OWLAPIPreconditions.checkNotNegative(maxExplanations,
+            "max explanations cannot be negative");
+        checkNotNull(consumer, "consumer cannot be null");
+        Object max = maxExplanations == 0 ? "all" : Integer.valueOf(maxExplanations);
+        LOGGER.info("Get {} explanation(s) for: {}", max, unsatClass);
+        Search search = new Search(unsatClass, maxExplanations, consumer);
+        Set<OWLAxiom> first = getExplanation(unsatClass);
+        if (first.isEmpty()) {
+            return Collections.emptySet();
+        }
+        search.found(first);
+        ParallelTasks.get(pool().submit(search.new Node(Collections.emptySet(), first)));
+        progressMonitor.foundAllExplanations();
+        return search.result();
+    }
+
+    /**
+     * State of the expansion of one hitting set tree, shared by all its nodes.
+     */
+    private class Search {
+
+        private final OWLClassExpression unsatClass;
+        private final int maxExplanations;
+        private final Consumer<Set<OWLAxiom>> consumer;
+        // guarded by this
+        private final Set<Set<OWLAxiom>> justifications = new LinkedHashSet<>();
+        private final Set<Set<OWLAxiom>> visitedPaths = ConcurrentHashMap.newKeySet();
+        private final Queue<Set<OWLAxiom>> satisfiablePaths = new ConcurrentLinkedQueue<>();
+        private volatile boolean stopped = false;
+
+        Search(OWLClassExpression unsatClass, int maxExplanations,
+            Consumer<Set<OWLAxiom>> consumer) {
+            this.unsatClass = unsatClass;
+            this.maxExplanations = maxExplanations;
+            this.consumer = consumer;
+        }
+
+        synchronized void found(Set<OWLAxiom> justification) {
+            if (stopped || !justifications.add(justification)) {
+                return;
+            }
+            LOGGER.info("MUPS {}: {}", Integer.valueOf(justifications.size()), justification);
+            progressMonitor.foundExplanation(justification);
+            consumer.accept(justification);
+            if (justifications.size() == maxExplanations) {
+                LOGGER.info("Computed {} explanations", Integer.valueOf(maxExplanations));
+                stopped = true;
+            }
+        }
+
+        synchronized Set<Set<OWLAxiom>> result() {
+            return new LinkedHashSet<>(justifications);
+        }
+
+        boolean isStopped() {
+            return stopped || progressMonitor.isCancelled();
+        }
+
+        /**
+         * @param path axioms removed along the path
+         * @return a known justification that does not use any of the axioms, or null
+         */
+        @Nullable
+        synchronized Set<OWLAxiom> reuse(Set<OWLAxiom> path) {
+            for (Set<OWLAxiom> j : justifications) {
+                if (Collections.disjoint(j, path)) {
+                    return j;
+                }
+            }
+            return null;
+        }
+
+        boolean isClosed(Set<OWLAxiom> path) {
+            for (Set<OWLAxiom> satisfiable : satisfiablePaths) {
+                if (path.containsAll(satisfiable)) {
+                    LOGGER.info("Stop - satisfiable (early termination)");
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * A node of the hitting set tree: the axioms removed along its path, and a justification
+         * that does not use them. Its children remove one more axiom each.
+         */
+        private class Node extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+            private final Set<OWLAxiom> path;
+            private final Set<OWLAxiom> justification;
+
+            Node(Set<OWLAxiom> path, Set<OWLAxiom> justification) {
+                this.path = path;
+                this.justification = justification;
+            }
+
+            @Override
+            protected void compute() {
+                List<Node> children = new ArrayList<>();
+                for (OWLAxiom axiom : justification) {
+                    if (isStopped()) {
+                        return;
+                    }
+                    Set<OWLAxiom> child = new HashSet<>(path);
+                    child.add(axiom);
+                    // the same set of axioms can be reached by removing them in another order
+                    if (!visitedPaths.add(child) || isClosed(child)) {
+                        continue;
+                    }
+                    Node node = expand(child);
+                    if (node != null) {
+                        children.add(node);
+                        node.fork();
+                    }
+                }
+                children.forEach(Node::join);
+            }
+
+            @Nullable
+            private Node expand(Set<OWLAxiom> child) {
+                Set<OWLAxiom> next = reuse(child);
+                if (next == null) {
+                    next = explain(unsatClass, child);
+                    for (OWLAxiom axiom : next) {
+                        if (child.contains(axiom)) {
+                            throw new OWLRuntimeException(
+                                "Explanation contains removed axiom: " + axiom);
+                        }
+                    }
+                }
+                if (next.isEmpty()) {
+                    LOGGER.info("Stop - satisfiable");
+                    satisfiablePaths.add(child);
+                    return null;
+                }
+                found(next);
+                return new Node(child, next);
+            }
+        }
+    }
+
+    /**
+     * A black box explanation and the manager of its debugging ontologies.
+     */
+    private static class Generator {
+
+        final OWLOntologyManager manager;
+        final BlackBoxExplanation explanation;
+
+        Generator(OWLOntologyManager manager, BlackBoxExplanation explanation) {
+            this.manager = manager;
+            this.explanation = explanation;
+        }
+    }
+}
@@ -49,6 +49,27 @@ public abstract class SingleExplanationGeneratorImpl implements TransactionAware
         definitionTracker = new DefinitionTracker(ontology);
     }
 
+    /**
+     * Instantiates a new single explanation generator impl sharing a definition tracker with other
+     * generators for the same ontology.
+     *
+     * @param ontology the ontology
+     * @param reasonerFactory the reasoner factory
+     * @param reasoner the reasoner
+     * @param definitionTracker definition tracker for the ontology
+     * @since 5.1.8
+     */
+    protected SingleExplanationGeneratorImpl(OWLOntology ontology,
+        OWLReasonerFactory reasonerFactory, OWLReasoner reasoner,
+        DefinitionTracker definitionTracker) {
+        this.ontology = checkNotNull(ontology, "ontology cannot be null");
+        this.reasonerFactory = checkNotNull(reasonerFactory, "reasonerFactory cannot be null");
+        this.reasoner = checkNotNull(reasoner, "reasoner cannot be null");
+        owlOntologyManager = ontology.getOWLOntologyManager();
+        this.definitionTracker =
+            checkNotNull(definitionTracker, "definitionTracker cannot be null");
+    }
+
     @Override
     public OWLOntologyManager getOntologyManager() {
         return owlOntologyManager;
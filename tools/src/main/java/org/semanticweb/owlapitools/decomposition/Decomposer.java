@@ -1,13 +1,18 @@
 package org.semanticweb.owlapitools.decomposition;
 
 import static org.semanticweb.owlapi.util.OWLAPIPreconditions.verifyNotNull;
+import static org.semanticweb.owlapi.util.ParallelTasks.run;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.semanticweb.owlapi.model.OWLAxiom;
@@ -15,10 +20,21 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
 
 /**
- * atomical decomposer of the ontology
+ * atomical decomposer of the ontology. With more than one thread, tautology checks and the
+ * module of each axiom are computed on a fork/join pool, each worker with its own copy of the
+ * axiom wrappers, modularizer, signature index and locality checker; the atom graph is then
+ * built from the precomputed modules as in the sequential case. Modules are precomputed in
+ * batches of consecutive axioms, so that only the modules of one batch are held at a time;
+ * modules of axioms outside the current batch are extracted sequentially when needed. Atom
+ * modules are kept in ontology order, so the result does not depend on the number of threads.
  */
 public class Decomposer {
 
+    /**
+     * number of axioms per thread whose modules are precomputed in one batch
+     */
+    private static final int BATCH_SIZE_PER_THREAD = 64;
+
     /**
      * atomic structure to build
      */
@@ -42,6 +58,30 @@ public class Decomposer {
      */
     private ModuleType type;
     private List<AxiomWrapper> axioms;
+    /**
+     * supplier of locality checkers for worker threads
+     */
+    @Nullable
+    private Supplier<? extends LocalityChecker> checkers = null;
+    /**
+     * number of threads to extract modules with
+     */
+    private int threads = 1;
+    /**
+     * precomputed modules of the current batch, as axiom positions, indexed by axiom position
+     * minus {@link #batchStart}; null if modules are extracted while building atoms
+     */
+    @Nullable
+    private int[][] modules = null;
+    /**
+     * position of the first axiom of the current batch
+     */
+    private int batchStart = 0;
+    /**
+     * used flags of the axioms once tautologies have been removed, shared by the workers
+     */
+    @Nullable
+    private boolean[] usedAxioms = null;
 
     /**
      * @param axioms axiom wrappers to decompose
@@ -52,6 +92,23 @@ public class Decomposer {
         modularizer = buildModulariser(axioms, c);
     }
 
+    /**
+     * @param axioms axiom wrappers to decompose
+     * @param checkers supplier of locality checkers; the decomposer and each worker thread use
+     *        their own checker
+     * @param threads number of threads to use for atomic decomposition; 1 for sequential
+     *        decomposition
+     */
+    public Decomposer(List<AxiomWrapper> axioms, Supplier<? extends LocalityChecker> checkers,
+        int threads) {
+        this(axioms, checkers.get());
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.checkers = checkers;
+        this.threads = threads;
+    }
+
     /**
      * @param axioms axioms
      * @param c locality checker
@@ -113,7 +170,16 @@ public class Decomposer {
     private Optional<OntologyAtom> buildModule(Signature sig, OntologyAtom parent) {
         // build a module for a given signature
         modularizer.extract(parent.getModule(), sig, type);
-        Collection<AxiomWrapper> module = modularizer.getModule();
+        return buildAtom(modularizer.getModule(), parent);
+    }
+
+    /**
+     * @param module module of the axiom
+     * @param parent parent atom
+     * @return atom for a module; the parent atom if the modules are the same
+     */
+    private Optional<OntologyAtom> buildAtom(Collection<AxiomWrapper> module,
+        OntologyAtom parent) {
         // if module is empty (empty bottom atom) -- do nothing
         if (module.isEmpty()) {
             return Optional.empty();
@@ -123,10 +189,13 @@ public class Decomposer {
         if (parent != rootAtom && module.size() == parent.getModule().size()) {
             return Optional.of(parent);
         }
-        // create new atom with that module
+        // create new atom with that module; keep the module in ontology order, so that the atom
+        // ids do not depend on the order in which the module was extracted
         assert atomList != null;
         OntologyAtom atom = atomList.newAtom();
-        atom.setModule(module);
+        List<AxiomWrapper> sorted = new ArrayList<>(module);
+        sorted.sort(Comparator.comparingInt(AxiomWrapper::getId));
+        atom.setModule(sorted);
         return Optional.of(atom);
     }
 
@@ -143,7 +212,19 @@ public class Decomposer {
             return atom.get();
         }
         // build an atom: use a module to find atomic dependencies
-        atom = buildModule(new Signature(ax.getAxiom().signature()), parent);
+        int[][] precomputed = modules;
+        int k = ax.getId() - batchStart;
+        if (precomputed == null || k < 0 || k >= precomputed.length || precomputed[k] == null) {
+            atom = buildModule(new Signature(ax.getAxiom().signature()), parent);
+        } else {
+            // the module within the parent's module is the module within the whole ontology
+            int[] module = precomputed[k];
+            List<AxiomWrapper> list = new ArrayList<>(module.length);
+            for (int i : module) {
+                list.add(axioms.get(i));
+            }
+            atom = buildAtom(list, parent);
+        }
         // no empty modules should be here
         assert atom.isPresent();
         // register axiom as a part of an atom
@@ -182,8 +263,31 @@ public class Decomposer {
         atomList = new AtomList();
         // init semantic locality checker
         modularizer.preprocessOntology(axioms);
+        for (int i = 0; i < axioms.size(); i++) {
+            axioms.get(i).setId(i);
+        }
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            return buildAOS(pool);
+        } finally {
+            modules = null;
+            usedAxioms = null;
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private AtomList buildAOS(@Nullable ForkJoinPool pool) {
+        ThreadLocal<Worker> workers = null;
         // we don't need tautologies here
-        removeTautologies();
+        if (pool == null) {
+            removeTautologies();
+        } else {
+            Supplier<? extends LocalityChecker> c = verifyNotNull(checkers);
+            workers = ThreadLocal.withInitial(() -> new Worker(axioms, c.get()));
+            removeTautologies(pool, workers);
+        }
         // init the root atom
         rootAtom = new OntologyAtom();
         rootAtom.setModule(new HashSet<>(axioms));
@@ -194,11 +298,20 @@ public class Decomposer {
             bottomAtom.get().addAxioms(bottomAtom.get().getModule());
         }
         // create atoms for all the axioms in the ontology
-        for (AxiomWrapper p : axioms) {
-            if (p.isUsed() && !p.getAtom().isPresent()) {
-                assert rootAtom != null;
-                createAtom(p, rootAtom);
+        int batch = pool == null ? axioms.size() : threads * BATCH_SIZE_PER_THREAD;
+        for (int start = 0; start < axioms.size(); start += batch) {
+            int end = Math.min(axioms.size(), start + batch);
+            if (pool != null && workers != null) {
+                batchStart = start;
+                modules = extractModules(pool, workers, start, end);
+            }
+            for (AxiomWrapper p : axioms.subList(start, end)) {
+                if (p.isUsed() && !p.getAtom().isPresent()) {
+                    assert rootAtom != null;
+                    createAtom(p, rootAtom);
+                }
             }
+            modules = null;
         }
         // restore tautologies in the ontology
         restoreTautologies();
@@ -209,6 +322,55 @@ public class Decomposer {
         return verifyNotNull(atomList);
     }
 
+    /**
+     * remove tautologies from the ontology temporarily, checking axioms in parallel; the result
+     * is the same as {@link #removeTautologies()}
+     *
+     * @param pool pool to run the checks on
+     * @param workers per thread workers
+     */
+    private void removeTautologies(ForkJoinPool pool, ThreadLocal<Worker> workers) {
+        tautologies.clear();
+        boolean[] tautology = new boolean[axioms.size()];
+        ModuleType t = type;
+        run(pool, () -> IntStream.range(0, axioms.size()).parallel()
+            .filter(i -> axioms.get(i).isUsed())
+            .forEach(i -> tautology[i] = workers.get().isTautology(i, t)));
+        for (int i = 0; i < tautology.length; i++) {
+            if (tautology[i]) {
+                tautologies.add(axioms.get(i));
+                axioms.get(i).setUsed(false);
+            }
+        }
+    }
+
+    /**
+     * @param pool pool to run the extraction on
+     * @param workers per thread workers
+     * @param start position of the first axiom of the batch
+     * @param end position after the last axiom of the batch
+     * @return modules of the used axioms in the batch that are not in an atom yet, as axiom
+     *         positions, indexed by axiom position minus start
+     */
+    private int[][] extractModules(ForkJoinPool pool, ThreadLocal<Worker> workers, int start,
+        int end) {
+        int[][] result = new int[end - start][];
+        boolean[] used = usedAxioms;
+        if (used == null) {
+            used = new boolean[axioms.size()];
+            for (int i = 0; i < used.length; i++) {
+                used[i] = axioms.get(i).isUsed();
+            }
+            usedAxioms = used;
+        }
+        boolean[] flags = used;
+        ModuleType t = type;
+        run(pool, () -> IntStream.range(start, end).parallel()
+            .filter(i -> flags[i] && !axioms.get(i).getAtom().isPresent())
+            .forEach(i -> result[i - start] = workers.get().module(i, flags, t)));
+        return result;
+    }
+
     /**
      * @param signature the signature to use
      * @param moduletype the module type
@@ -243,4 +405,46 @@ public class Decomposer {
         modularizer.extract(axioms, sig, moduletype);
         return modularizer.getModule();
     }
+
+    /**
+     * module extraction state of a worker thread: the module and search space flags live in the
+     * axiom wrappers, so each worker needs its own copies
+     */
+    private static class Worker {
+
+        private final List<AxiomWrapper> copies;
+        private final Modularizer modularizer;
+        @Nullable
+        private boolean[] used = null;
+
+        Worker(List<AxiomWrapper> axioms, LocalityChecker checker) {
+            copies = new ArrayList<>(axioms.size());
+            for (AxiomWrapper p : axioms) {
+                AxiomWrapper copy = new AxiomWrapper(p.getAxiom());
+                copy.setId(p.getId());
+                copy.setUsed(p.isUsed());
+                copies.add(copy);
+            }
+            modularizer = buildModulariser(copies, checker);
+        }
+
+        boolean isTautology(int i, ModuleType type) {
+            AxiomWrapper p = copies.get(i);
+            // as in the sequential case, the locality check uses the signature of the module
+            modularizer.extract(p, new Signature(p.getAxiom().signature()), type);
+            return modularizer.isTautology(p.getAxiom(), type);
+        }
+
+        int[] module(int i, boolean[] usedAxioms, ModuleType type) {
+            if (used != usedAxioms) {
+                // tautologies have been removed since this worker was created
+                for (int j = 0; j < usedAxioms.length; j++) {
+                    copies.get(j).setUsed(usedAxioms[j]);
+                }
+                used = usedAxioms;
+            }
+            modularizer.extractFromOntology(new Signature(copies.get(i).signature()), type);
+            return modularizer.getModule().stream().mapToInt(AxiomWrapper::getId).toArray();
+        }
+    }
 }
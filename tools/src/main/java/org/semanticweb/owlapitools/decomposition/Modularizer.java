@@ -37,6 +37,14 @@ public class Modularizer {
      * queue of unprocessed entities
      */
     private Deque<OWLEntity> workQueue;
+    /**
+     * axioms given to the last preprocessing
+     */
+    private Collection<AxiomWrapper> ontology = Collections.emptyList();
+    /**
+     * true if the search space flags of all used axioms in the ontology are set
+     */
+    private boolean searchSpaceIsOntology = false;
     /**
      * number of locality check calls
      */
@@ -143,6 +151,7 @@ public class Modularizer {
      * @param list axioms
      */
     private void extractModule(Collection<AxiomWrapper> list) {
+        searchSpaceIsOntology = false;
         module.clear();
         // clear the module flag in the input
         list.forEach(p -> p.setInModule(false));
@@ -158,6 +167,8 @@ public class Modularizer {
      */
     public void preprocessOntology(Collection<AxiomWrapper> axioms) {
         checker.preprocessOntology(axioms);
+        ontology = axioms;
+        searchSpaceIsOntology = false;
         sigIndex.clear();
         sigIndex.preprocessOntology(axioms);
         workQueue = new ArrayDeque<>(axioms.size());
@@ -193,6 +204,35 @@ public class Modularizer {
         } while (size != module.size());
     }
 
+    /**
+     * extract module wrt SIGNATURE and TYPE from all the used axioms of the preprocessed
+     * ontology. For bottom and top modules the search space is set up once and only the axioms
+     * of the previous module are reset, so the cost does not depend on the ontology size; this
+     * requires the axiom wrappers not to be shared with other modularizers.
+     *
+     * @param signature signature
+     * @param type type
+     */
+    public void extractFromOntology(Signature signature, ModuleType type) {
+        if (type == ModuleType.STAR) {
+            extract(new ArrayList<>(ontology), signature, type);
+            return;
+        }
+        if (!searchSpaceIsOntology) {
+            ontology.forEach(p -> {
+                p.setInModule(false);
+                p.setInSearchSpace(p.isUsed());
+            });
+            searchSpaceIsOntology = true;
+        }
+        module.forEach(p -> p.setInModule(false));
+        module.clear();
+        sig = new Signature(signature.getSignature().stream());
+        checker.setSignatureValue(sig);
+        sig.setLocality(type == ModuleType.TOP);
+        extractModuleQueue();
+    }
+
     /**
      * @param ax axiom
      * @param type type
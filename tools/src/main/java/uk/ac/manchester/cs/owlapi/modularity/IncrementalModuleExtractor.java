@@ -0,0 +1,594 @@
+/* This file is part of the OWL API.
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ * Copyright 2014, The University of Manchester
+ * 
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0 in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License. */
+package uk.ac.manchester.cs.owlapi.modularity;
+
+import static org.semanticweb.owlapi.util.OWLAPIPreconditions.checkNotNull;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.add;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asList;
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asUnorderedSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.modularity.OntologySegmenter;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+/**
+ * Module extraction based on syntactic locality, for applications that extract many modules from
+ * an ontology that changes rarely. The modules are the same as those built by
+ * {@link SyntacticLocalityModuleExtractor} for the imports closure of the ontology, but:
+ * <ul>
+ * <li>the logical axioms are indexed by the entities in their signature, so that extraction only
+ * checks the locality of axioms that share entities with the module signature;</li>
+ * <li>for each locality class, whether an axiom is local wrt the empty signature and wrt its own
+ * signature is computed once and remembered; these two results decide most locality checks;</li>
+ * <li>modules are cached by seed signature and module type.</li>
+ * </ul>
+ * The extractor listens to the changes of the ontology manager: changes are queued as they are
+ * broadcast and applied to the index at the start of the next extraction, and cached modules are
+ * discarded after any change to the imports closure. Call {@link #dispose()} to stop listening.
+ * The index is read and updated one extraction at a time, but the lock guarding it is never held
+ * while the ontologies are read, and listening to changes does not take it; so extractions do not
+ * block ontology changes, and changes do not block extractions, in a concurrent manager.
+ *
+ * @since 5.1.8
+ */
+public class IncrementalModuleExtractor implements OntologySegmenter, OWLOntologyChangeListener {
+
+    private static final LocalityClass[] LOCALITY_CLASSES =
+        {LocalityClass.BOTTOM_BOTTOM, LocalityClass.TOP_TOP};
+    private final OWLOntology ontology;
+    private final OWLOntologyManager manager;
+    private final int maximumCachedModules;
+    private ModuleType moduleType;
+    private volatile Set<OWLOntology> importsClosure = Collections.emptySet();
+    // changes to the imports closure not yet applied to the index
+    private final Queue<OWLOntologyChange> pending = new ConcurrentLinkedQueue<>();
+    // number of changes broadcast; increased after a change is queued
+    private final AtomicLong version = new AtomicLong();
+    // version reflected by the index; guarded by this
+    private long indexedVersion = 0;
+    // true if an imports change has been seen and the index must be rebuilt; guarded by this
+    private boolean reindexNeeded = false;
+    private final Map<OWLAxiom, IndexedAxiom> axioms = new HashMap<>();
+    private final Map<OWLEntity, List<IndexedAxiom>> axiomsByEntity = new HashMap<>();
+    private final Map<LocalityClass, SyntacticLocalityEvaluator> evaluators =
+        new EnumMap<>(LocalityClass.class);
+    private final Map<CacheKey, Set<OWLAxiom>> modules;
+    // axioms that are not local wrt the empty signature, per locality class; computed on first use
+    @SuppressWarnings("unchecked")
+    private final Set<IndexedAxiom>[] nonLocalAxioms = new Set[LOCALITY_CLASSES.length];
+    private long hits = 0;
+    private long misses = 0;
+    private long localityChecks = 0;
+
+    /**
+     * @param ontology the ontology whose imports closure is modularised
+     * @param moduleType the type of module to extract
+     */
+    public IncrementalModuleExtractor(OWLOntology ontology, ModuleType moduleType) {
+        this(ontology, moduleType, 1000);
+    }
+
+    /**
+     * @param ontology the ontology whose imports closure is modularised
+     * @param moduleType the type of module to extract
+     * @param maximumCachedModules maximum number of modules to cache; least recently used modules
+     *        are discarded first
+     */
+    public IncrementalModuleExtractor(OWLOntology ontology, ModuleType moduleType,
+        int maximumCachedModules) {
+        this.ontology = checkNotNull(ontology, "ontology cannot be null");
+        this.moduleType = checkNotNull(moduleType, "moduleType cannot be null");
+        this.maximumCachedModules = maximumCachedModules;
+        manager = ontology.getOWLOntologyManager();
+        modules = new LinkedHashMap<CacheKey, Set<OWLAxiom>>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Set<OWLAxiom>> eldest) {
+                return size() > IncrementalModuleExtractor.this.maximumCachedModules;
+            }
+        };
+        for (LocalityClass c : LOCALITY_CLASSES) {
+            evaluators.put(c, new SyntacticLocalityEvaluator(c));
+        }
+        manager.addOntologyChangeListener(this);
+        reindexNeeded = true;
+        update();
+    }
+
+    /**
+     * Applies the queued changes to the index. If the index has to be rebuilt, the ontologies are
+     * read without holding the lock, and read again if they change in the meantime.
+     */
+    private void update() {
+        while (true) {
+            long readFrom;
+            synchronized (this) {
+                if (!applyPending()) {
+                    return;
+                }
+                pending.clear();
+                readFrom = version.get();
+            }
+            Set<OWLOntology> closure =
+                asUnorderedSet(ontology.importsClosure().map(this::managed));
+            Map<OWLOntologyID, List<OWLAxiom>> logicalAxioms = new HashMap<>();
+            closure.forEach(o -> logicalAxioms.put(o.getOntologyID(),
+                asList(o.axioms().filter(OWLAxiom::isLogicalAxiom))));
+            synchronized (this) {
+                if (version.get() == readFrom) {
+                    index(closure, logicalAxioms);
+                    indexedVersion = readFrom;
+                    reindexNeeded = false;
+                    // changes queued while reading may or may not be included in what has been
+                    // read, and a change can be queued before the version is increased; replaying
+                    // them is harmless, since applying a change twice has no further effect
+                    if (!applyPending()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param o ontology in the imports closure
+     * @return the ontology as held by the manager; in a concurrent manager, the imports closure
+     *         can contain the ontologies without their locking wrappers
+     */
+    private OWLOntology managed(OWLOntology o) {
+        if (o.getOntologyID().equals(ontology.getOntologyID())) {
+            return ontology;
+        }
+        OWLOntology managed = manager.getOntology(o.getOntologyID());
+        return managed == null ? o : managed;
+    }
+
+    /**
+     * @return true if the index must be rebuilt from the ontologies
+     */
+    private boolean applyPending() {
+        if (reindexNeeded) {
+            return true;
+        }
+        // changes are queued before the version is increased, so all changes up to v are queued
+        long v = version.get();
+        for (OWLOntologyChange change = pending.poll(); change != null; change = pending.poll()) {
+            // declarations and annotations are added to modules, so any change can alter them
+            modules.clear();
+            if (change.isImportChange() || change instanceof SetOntologyID) {
+                reindexNeeded = true;
+                return true;
+            }
+            if (change.isAxiomChange() && change.getAxiom().isLogicalAxiom()) {
+                if (change.isAddAxiom()) {
+                    axiomAdded(change.getOntology().getOntologyID(), change.getAxiom());
+                } else {
+                    axiomRemoved(change.getOntology().getOntologyID(), change.getAxiom());
+                }
+            }
+        }
+        indexedVersion = v;
+        return false;
+    }
+
+    private void index(Set<OWLOntology> closure,
+        Map<OWLOntologyID, List<OWLAxiom>> logicalAxioms) {
+        axioms.clear();
+        axiomsByEntity.clear();
+        modules.clear();
+        Arrays.fill(nonLocalAxioms, null);
+        importsClosure = closure;
+        logicalAxioms.forEach((id, list) -> list.forEach(ax -> axiomAdded(id, ax)));
+    }
+
+    private void axiomAdded(OWLOntologyID id, OWLAxiom axiom) {
+        IndexedAxiom indexed = axioms.get(axiom);
+        if (indexed == null) {
+            indexed = new IndexedAxiom(axiom);
+            axioms.put(axiom, indexed);
+            for (OWLEntity e : indexed.signature) {
+                axiomsByEntity.computeIfAbsent(e, x -> new ArrayList<>(2)).add(indexed);
+            }
+            for (int c = 0; c < nonLocalAxioms.length; c++) {
+                if (nonLocalAxioms[c] != null && !indexed.localWrtEmptySignature(c)) {
+                    nonLocalAxioms[c].add(indexed);
+                }
+            }
+        }
+        // the same axiom can appear in more than one ontology of the imports closure
+        if (!indexed.ontologies.contains(id)) {
+            indexed.ontologies.add(id);
+        }
+    }
+
+    private void axiomRemoved(OWLOntologyID id, OWLAxiom axiom) {
+        IndexedAxiom indexed = axioms.get(axiom);
+        if (indexed == null || !indexed.ontologies.remove(id) || !indexed.ontologies.isEmpty()) {
+            return;
+        }
+        axioms.remove(axiom);
+        for (Set<IndexedAxiom> set : nonLocalAxioms) {
+            if (set != null) {
+                set.remove(indexed);
+            }
+        }
+        for (OWLEntity e : indexed.signature) {
+            List<IndexedAxiom> list = axiomsByEntity.get(e);
+            if (list != null) {
+                list.remove(indexed);
+                if (list.isEmpty()) {
+                    axiomsByEntity.remove(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the changes to the imports closure; they are applied to the index by the next
+     * extraction. No lock is taken, so the manager is not blocked while broadcasting.
+     */
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        Set<OWLOntology> closure = importsClosure;
+        for (OWLOntologyChange change : changes) {
+            if (closure.contains(change.getOntology())) {
+                pending.add(change);
+            }
+            // counted even if not queued, as the imports closure may be being read again
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops listening to ontology changes; the extractor must not be used afterwards.
+     */
+    public void dispose() {
+        manager.removeOntologyChangeListener(this);
+        pending.clear();
+        synchronized (this) {
+            Arrays.fill(nonLocalAxioms, null);
+            axioms.clear();
+            axiomsByEntity.clear();
+            modules.clear();
+        }
+    }
+
+    /**
+     * @return the module type for this extractor
+     */
+    public synchronized ModuleType getModuleType() {
+        return moduleType;
+    }
+
+    /**
+     * Changes the module type for this extractor; cached modules and locality results are kept.
+     *
+     * @param moduleType the new type of module
+     */
+    public synchronized void setModuleType(ModuleType moduleType) {
+        this.moduleType = checkNotNull(moduleType, "moduleType cannot be null");
+    }
+
+    /**
+     * @return number of extractions answered from the module cache
+     */
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    /**
+     * @return number of extractions that required a module to be computed
+     */
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    /**
+     * @return number of locality checks that could not be answered by the remembered results
+     */
+    public synchronized long localityCheckCount() {
+        return localityChecks;
+    }
+
+    @Override
+    public Set<OWLAxiom> extract(Set<OWLEntity> signature) {
+        return extract(signature, 0, 0, null);
+    }
+
+    @Override
+    public Set<OWLAxiom> extract(Set<OWLEntity> signature, int superClassLevel,
+        int subClassLevel, @Nullable OWLReasoner reasoner) {
+        Set<OWLEntity> seed = new HashSet<>(signature);
+        if (superClassLevel != 0 || subClassLevel != 0) {
+            Set<OWLClass> classesInSig = new HashSet<>();
+            seed.stream().filter(OWLEntity::isOWLClass)
+                .forEach(c -> classesInSig.add(c.asOWLClass()));
+            if (superClassLevel != 0) {
+                seed.addAll(SyntacticLocalityModuleExtractor.superOrSubClasses(superClassLevel,
+                    true, reasoner, classesInSig));
+            }
+            if (subClassLevel != 0) {
+                seed.addAll(SyntacticLocalityModuleExtractor.superOrSubClasses(subClassLevel,
+                    false, reasoner, classesInSig));
+            }
+        }
+        update();
+        CacheKey key;
+        Set<OWLAxiom> module;
+        Set<OWLEntity> moduleSignature;
+        Set<OWLOntology> closure;
+        long v;
+        synchronized (this) {
+            key = new CacheKey(moduleType, seed);
+            Set<OWLAxiom> cached = modules.get(key);
+            if (cached != null) {
+                hits++;
+                return new HashSet<>(cached);
+            }
+            misses++;
+            moduleSignature = new HashSet<>(seed);
+            module = computeModule(moduleSignature, key.type);
+            closure = importsClosure;
+            v = indexedVersion;
+        }
+        enrich(module, moduleSignature, closure);
+        Set<OWLAxiom> result = Collections.unmodifiableSet(module);
+        synchronized (this) {
+            // a module computed before the latest changes were applied is not cached
+            if (version.get() == v) {
+                modules.put(key, result);
+            }
+        }
+        return new HashSet<>(result);
+    }
+
+    @Override
+    public OWLOntology extractAsOntology(Set<OWLEntity> signature, IRI iri)
+        throws OWLOntologyCreationException {
+        return extractAsOntology(signature, iri, 0, 0, null);
+    }
+
+    @Override
+    public OWLOntology extractAsOntology(Set<OWLEntity> signature, IRI iri, int superClassLevel,
+        int subClassLevel, @Nullable OWLReasoner reasoner) throws OWLOntologyCreationException {
+        return manager.createOntology(extract(signature, superClassLevel, subClassLevel, reasoner),
+            iri);
+    }
+
+    /**
+     * @param signature the seed signature; on return, the signature of the module
+     * @param type the type of module
+     * @return the logical axioms of the module
+     */
+    private Set<OWLAxiom> computeModule(Set<OWLEntity> signature, ModuleType type) {
+        Set<OWLEntity> seed = new HashSet<>(signature);
+        Set<IndexedAxiom> module;
+        switch (type) {
+            case TOP:
+                module = extractLogicalAxioms(null, signature, LocalityClass.TOP_TOP);
+                break;
+            case BOT:
+                module = extractLogicalAxioms(null, signature, LocalityClass.BOTTOM_BOTTOM);
+                break;
+            case STAR:
+                // alternate bottom and top modules until the module does not change, as in
+                // SyntacticLocalityModuleExtractor.extractStar()
+                LocalityClass localityClass = LocalityClass.BOTTOM_BOTTOM;
+                module = extractLogicalAxioms(null, signature, localityClass);
+                int previousSize;
+                do {
+                    previousSize = module.size();
+                    localityClass = localityClass == LocalityClass.BOTTOM_BOTTOM
+                        ? LocalityClass.TOP_TOP : LocalityClass.BOTTOM_BOTTOM;
+                    signature.clear();
+                    signature.addAll(seed);
+                    module = extractLogicalAxioms(module, signature, localityClass);
+                } while (module.size() != previousSize);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported module type: " + type);
+        }
+        Set<OWLAxiom> result = new HashSet<>(module.size());
+        module.forEach(a -> result.add(a.axiom));
+        return result;
+    }
+
+    /**
+     * @param subset axioms to extract the module from; null for all the indexed axioms
+     * @param signature the seed signature; on return, the signature of the module
+     * @param localityClass the type of locality
+     * @return the module
+     */
+    private Set<IndexedAxiom> extractLogicalAxioms(@Nullable Set<IndexedAxiom> subset,
+        Set<OWLEntity> signature, LocalityClass localityClass) {
+        int c = localityClass == LocalityClass.BOTTOM_BOTTOM ? 0 : 1;
+        Set<IndexedAxiom> module = new HashSet<>();
+        Deque<OWLEntity> queue = new ArrayDeque<>(signature);
+        // axioms that are not local wrt the empty signature are not local wrt any signature
+        for (IndexedAxiom a : nonLocalAxioms(c)) {
+            if (subset == null || subset.contains(a)) {
+                addToModule(a, module, signature, queue);
+            }
+        }
+        while (!queue.isEmpty()) {
+            List<IndexedAxiom> candidates = axiomsByEntity.get(queue.poll());
+            if (candidates == null) {
+                continue;
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                IndexedAxiom a = candidates.get(i);
+                if (!module.contains(a) && (subset == null || subset.contains(a))
+                    && !isLocal(a, c, signature)) {
+                    addToModule(a, module, signature, queue);
+                }
+            }
+        }
+        return module;
+    }
+
+    private Set<IndexedAxiom> nonLocalAxioms(int c) {
+        Set<IndexedAxiom> set = nonLocalAxioms[c];
+        if (set == null) {
+            set = new HashSet<>();
+            for (IndexedAxiom a : axioms.values()) {
+                if (!a.localWrtEmptySignature(c)) {
+                    set.add(a);
+                }
+            }
+            nonLocalAxioms[c] = set;
+        }
+        return set;
+    }
+
+    private static void addToModule(IndexedAxiom a, Set<IndexedAxiom> module,
+        Set<OWLEntity> signature, Deque<OWLEntity> queue) {
+        module.add(a);
+        for (OWLEntity e : a.signature) {
+            if (signature.add(e)) {
+                queue.add(e);
+            }
+        }
+    }
+
+    private boolean isLocal(IndexedAxiom a, int c, Set<OWLEntity> signature) {
+        if (signature.containsAll(a.signature)) {
+            return a.localWrtOwnSignature(c);
+        }
+        localityChecks++;
+        return evaluators.get(LOCALITY_CLASSES[c]).isLocal(a.axiom, signature);
+    }
+
+    /**
+     * Adds declarations, entity annotations and same and different individual axioms for the
+     * module signature, as {@link SyntacticLocalityModuleExtractor} does. Called without holding
+     * the lock, as it reads the ontologies.
+     */
+    private static void enrich(Set<OWLAxiom> module, Set<OWLEntity> signature,
+        Set<OWLOntology> closure) {
+        for (OWLOntology o : closure) {
+            for (OWLEntity e : signature) {
+                add(module, o.declarationAxioms(e));
+                add(module, o.annotationAssertionAxioms(e.getIRI()));
+                if (e.isOWLNamedIndividual()) {
+                    OWLNamedIndividual i = e.asOWLNamedIndividual();
+                    add(module, o.sameIndividualAxioms(i));
+                    add(module, o.differentIndividualAxioms(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * A logical axiom with its signature and remembered locality results.
+     */
+    private class IndexedAxiom {
+
+        // bits per locality class: computed and local, for the empty signature and for the
+        // axiom signature
+        private static final int EMPTY_COMPUTED = 1;
+        private static final int EMPTY_LOCAL = 2;
+        private static final int OWN_COMPUTED = 4;
+        private static final int OWN_LOCAL = 8;
+        final OWLAxiom axiom;
+        final Set<OWLEntity> signature;
+        // ontologies containing the axiom
+        final List<OWLOntologyID> ontologies = new ArrayList<>(1);
+        private final byte[] locality = new byte[LOCALITY_CLASSES.length];
+
+        IndexedAxiom(OWLAxiom axiom) {
+            this.axiom = axiom;
+            signature = asUnorderedSet(axiom.signature());
+        }
+
+        boolean localWrtEmptySignature(int c) {
+            if ((locality[c] & EMPTY_COMPUTED) == 0) {
+                localityChecks++;
+                boolean local =
+                    evaluators.get(LOCALITY_CLASSES[c]).isLocal(axiom, Collections.emptySet());
+                locality[c] |= EMPTY_COMPUTED | (local ? EMPTY_LOCAL : 0);
+            }
+            return (locality[c] & EMPTY_LOCAL) != 0;
+        }
+
+        boolean localWrtOwnSignature(int c) {
+            if ((locality[c] & OWN_COMPUTED) == 0) {
+                localityChecks++;
+                boolean local = evaluators.get(LOCALITY_CLASSES[c]).isLocal(axiom, signature);
+                locality[c] |= OWN_COMPUTED | (local ? OWN_LOCAL : 0);
+            }
+            return (locality[c] & OWN_LOCAL) != 0;
+        }
+    }
+
+    private static class CacheKey {
+
+        private final ModuleType type;
+        private final Set<OWLEntity> seed;
+        private final int hashCode;
+
+        CacheKey(ModuleType type, Set<OWLEntity> seed) {
+            this.type = type;
+            this.seed = seed;
+            hashCode = type.hashCode() * 31 + seed.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return type == other.type && seed.equals(other.seed);
+        }
+    }
+}